@@ -21,6 +21,14 @@ dependencies {
     testImplementation("org.testfx:testfx-junit5:4.0.16-alpha")
     testImplementation("org.testfx:openjfx-monocle:8u76-b04")}
 
+tasks.register<JavaExec>("runHeadless") {
+    group = "application"
+    description = "Runs the simulation without JavaFX, e.g. -PappArgs=\"run cotton\""
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("clothdryer.HeadlessMain")
+    args = (project.findProperty("appArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
 tasks.test {
     useJUnitPlatform()
 }
@@ -0,0 +1,256 @@
+package clothdryer;
+
+/**
+ * AdaptiveIntegrator solves a {@link DryingModel} with the Dormand–Prince 5(4)
+ * Runge–Kutta method (RK45) and automatic step-size control.
+ * <p>
+ * Every step computes a fifth-order solution and a fourth-order error estimate.
+ * A step is accepted only if the estimated local error of every component stays
+ * below {@code absoluteTolerance + relativeTolerance * |y|}; otherwise it is repeated
+ * with a smaller step. The step size that worked last is kept for the next call, so
+ * a simulation can be advanced by one second or by an hour with the same accuracy.
+ * <p>
+ * All work arrays are allocated once in the constructor. An instance is not thread-safe.
+ */
+public class AdaptiveIntegrator {
+
+    static final double DEFAULT_ABSOLUTE_TOLERANCE = 1e-4;
+    static final double DEFAULT_RELATIVE_TOLERANCE = 1e-6;
+    private static final double SAFETY = 0.9;
+    private static final double MIN_SCALE = 0.2;
+    private static final double MAX_SCALE = 5.0;
+    private static final int MAX_EVENT_ITERATIONS = 30;
+
+    // Dormand–Prince coefficients. The stage times are not needed, models do not depend on time.
+    private static final double A21 = 1.0 / 5;
+    private static final double A31 = 3.0 / 40, A32 = 9.0 / 40;
+    private static final double A41 = 44.0 / 45, A42 = -56.0 / 15, A43 = 32.0 / 9;
+    private static final double A51 = 19372.0 / 6561, A52 = -25360.0 / 2187, A53 = 64448.0 / 6561, A54 = -212.0 / 729;
+    private static final double A61 = 9017.0 / 3168, A62 = -355.0 / 33, A63 = 46732.0 / 5247, A64 = 49.0 / 176,
+            A65 = -5103.0 / 18656;
+    private static final double B1 = 35.0 / 384, B3 = 500.0 / 1113, B4 = 125.0 / 192, B5 = -2187.0 / 6784, B6 = 11.0 / 84;
+    private static final double E1 = 71.0 / 57600, E3 = -71.0 / 16695, E4 = 71.0 / 1920, E5 = -17253.0 / 339200,
+            E6 = 22.0 / 525, E7 = -1.0 / 40;
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final double maxStep;
+
+    private final double[] k1, k2, k3, k4, k5, k6, k7;
+    private final double[] stage;
+    private final double[] next;
+
+    private double stepSize;
+    private long acceptedSteps;
+    private long rejectedSteps;
+
+    /**
+     * Creates an integrator for {@link DryingModel#STATE_SIZE} state variables with the default tolerances.
+     */
+    public AdaptiveIntegrator() {
+        this(DEFAULT_ABSOLUTE_TOLERANCE, DEFAULT_RELATIVE_TOLERANCE, 600.0);
+    }
+
+    /**
+     * Creates an integrator for {@link DryingModel#STATE_SIZE} state variables.
+     *
+     * @param absoluteTolerance allowed local error per step in state units (°C, %)
+     * @param relativeTolerance allowed local error per step relative to the state
+     * @param maxStep           largest step in seconds the integrator may take
+     */
+    public AdaptiveIntegrator(double absoluteTolerance, double relativeTolerance, double maxStep) {
+        if (absoluteTolerance <= 0 || relativeTolerance < 0 || maxStep <= 0) {
+            throw new IllegalArgumentException("Tolerances and maximum step must be positive");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.maxStep = maxStep;
+        int n = DryingModel.STATE_SIZE;
+        k1 = new double[n];
+        k2 = new double[n];
+        k3 = new double[n];
+        k4 = new double[n];
+        k5 = new double[n];
+        k6 = new double[n];
+        k7 = new double[n];
+        stage = new double[n];
+        next = new double[n];
+        stepSize = Math.min(1.0, maxStep);
+    }
+
+    /**
+     * Advances the state by the given duration.
+     *
+     * @param model      the model to integrate
+     * @param conditions the operating conditions, constant during the call
+     * @param state      the state, updated in place
+     * @param duration   the time to advance in seconds
+     */
+    public void integrate(DryingModel model, DryingConditions conditions, double[] state, double duration) {
+        integrateUntilBelow(model, conditions, state, duration, -1, 0.0);
+    }
+
+    /**
+     * Advances the state by the given duration, but stops early when the given state
+     * component falls to the threshold. The crossing is located to within the
+     * absolute tolerance by shortening the last step.
+     *
+     * @param model      the model to integrate
+     * @param conditions the operating conditions, constant during the call
+     * @param state      the state, updated in place
+     * @param duration   the time to advance in seconds
+     * @param index      the state component to watch, or -1 for none
+     * @param threshold  the value at which to stop
+     * @return the time actually advanced in seconds; less than duration if the threshold was reached
+     */
+    public double integrateUntilBelow(DryingModel model, DryingConditions conditions, double[] state,
+                                      double duration, int index, double threshold) {
+        if (duration <= 0) {
+            return 0.0;
+        }
+        if (index >= 0 && state[index] <= threshold) {
+            return 0.0;
+        }
+        double time = 0.0;
+        model.derivatives(state, conditions, k1);
+        while (time < duration) {
+            double h = Math.min(stepSize, duration - time);
+            double error = step(model, conditions, state, h);
+            if (error > 1.0) {
+                rejectedSteps++;
+                stepSize = h * Math.max(MIN_SCALE, SAFETY * Math.pow(error, -0.2));
+                continue;
+            }
+
+            if (index >= 0 && next[index] < threshold - absoluteTolerance) {
+                h = locateCrossing(model, conditions, state, h, index, threshold);
+                acceptStep(state);
+                acceptedSteps++;
+                return time + h;
+            }
+
+            acceptStep(state);
+            acceptedSteps++;
+            time += h;
+            // A step shortened only by the end of the interval says nothing about the next one
+            if (h == stepSize) {
+                double scale = error == 0 ? MAX_SCALE : Math.min(MAX_SCALE, Math.max(MIN_SCALE, SAFETY * Math.pow(error, -0.2)));
+                stepSize = Math.min(maxStep, h * scale);
+            }
+            if (index >= 0 && state[index] <= threshold) {
+                return time;
+            }
+        }
+        return duration;
+    }
+
+    /**
+     * Shrinks a step that overshot the threshold until its end lies just below the
+     * threshold (regula falsi on the step size). Leaves the result in {@code next}.
+     */
+    private double locateCrossing(DryingModel model, DryingConditions conditions, double[] state,
+                                  double h, int index, double threshold) {
+        double shortH = 0.0;
+        double shortValue = state[index];
+        double longH = h;
+        double longValue = next[index];
+        double tryH = h;
+        for (int i = 0; i < MAX_EVENT_ITERATIONS; i++) {
+            tryH = shortH + (longH - shortH) * (shortValue - threshold) / (shortValue - longValue);
+            step(model, conditions, state, tryH);
+            double value = next[index];
+            if (value <= threshold && threshold - value <= absoluteTolerance) {
+                break;
+            }
+            if (value > threshold) {
+                shortH = tryH;
+                shortValue = value;
+            } else {
+                longH = tryH;
+                longValue = value;
+            }
+        }
+        return tryH;
+    }
+
+    /**
+     * Computes one Dormand–Prince step of size h from the state into {@code next},
+     * using k1 as the derivative at the start.
+     *
+     * @return the error estimate relative to the tolerance; at most 1 means acceptable
+     */
+    private double step(DryingModel model, DryingConditions conditions, double[] y, double h) {
+        int n = y.length;
+        for (int i = 0; i < n; i++) {
+            stage[i] = y[i] + h * A21 * k1[i];
+        }
+        model.derivatives(stage, conditions, k2);
+        for (int i = 0; i < n; i++) {
+            stage[i] = y[i] + h * (A31 * k1[i] + A32 * k2[i]);
+        }
+        model.derivatives(stage, conditions, k3);
+        for (int i = 0; i < n; i++) {
+            stage[i] = y[i] + h * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+        }
+        model.derivatives(stage, conditions, k4);
+        for (int i = 0; i < n; i++) {
+            stage[i] = y[i] + h * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+        }
+        model.derivatives(stage, conditions, k5);
+        for (int i = 0; i < n; i++) {
+            stage[i] = y[i] + h * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+        }
+        model.derivatives(stage, conditions, k6);
+        for (int i = 0; i < n; i++) {
+            next[i] = y[i] + h * (B1 * k1[i] + B3 * k3[i] + B4 * k4[i] + B5 * k5[i] + B6 * k6[i]);
+        }
+        model.derivatives(next, conditions, k7);
+
+        double error = 0.0;
+        for (int i = 0; i < n; i++) {
+            double estimate = h * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+            double scale = absoluteTolerance + relativeTolerance * Math.max(Math.abs(y[i]), Math.abs(next[i]));
+            error = Math.max(error, Math.abs(estimate) / scale);
+        }
+        return error;
+    }
+
+    /**
+     * Copies the accepted step into the state. The derivative at the end of a
+     * Dormand–Prince step is the start derivative of the next one (FSAL).
+     */
+    private void acceptStep(double[] state) {
+        System.arraycopy(next, 0, state, 0, state.length);
+        System.arraycopy(k7, 0, k1, 0, k1.length);
+    }
+
+    /**
+     * Sets the step size the next call starts with, e.g. after a discontinuity.
+     *
+     * @param stepSize the initial step size in seconds
+     */
+    public void resetStepSize(double stepSize) {
+        this.stepSize = Math.min(maxStep, stepSize);
+    }
+
+    /**
+     * @return the step size the next call will start with, in seconds
+     */
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    /**
+     * @return the number of accepted steps since creation
+     */
+    public long getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    /**
+     * @return the number of rejected (repeated) steps since creation
+     */
+    public long getRejectedSteps() {
+        return rejectedSteps;
+    }
+}
@@ -0,0 +1,551 @@
+package clothdryer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CycleHistoryStore keeps a summary of every finished drying cycle on disk: program,
+ * start and duration, peak temperature, final humidity, energy and outcome.
+ * <p>
+ * Cycles are appended as fixed-size records of {@link #RECORD_SIZE} bytes to
+ * segment files of {@link #SEGMENT_RECORDS} records each, which are memory-mapped,
+ * so an append writes to memory and a full segment is never touched again. Program
+ * names are kept once in a small dictionary file next to the segments.
+ * <p>
+ * Queries use two in-memory indexes that are rebuilt from the segments on open:
+ * <ul>
+ *     <li>a sparse time index with the start time range and a {@link Summary} of
+ *     every block of {@link #BLOCK_RECORDS} records, and</li>
+ *     <li>per program, the blocks containing its cycles with a summary of just those.</li>
+ * </ul>
+ * Cycles end in no particular order of their start time, so a block's time range
+ * may overlap its neighbours'. A range query adds up the summaries of the blocks
+ * that lie completely within the range and only reads the records of the few blocks
+ * at its edges, so aggregates over millions of cycles take milliseconds.
+ * <p>
+ * All methods are synchronized; a store may be shared by many dryers.
+ */
+public class CycleHistoryStore implements Closeable {
+
+    /**
+     * Directory the application keeps its cycle history in.
+     */
+    public static final Path DEFAULT_DIRECTORY = DryerState.LOG_DIRECTORY.resolve("history");
+
+    static final int RECORD_SIZE = 32;
+    static final int BLOCK_RECORDS = 1024;
+    static final int SEGMENT_RECORDS = 64 * BLOCK_RECORDS;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x44525948; // "DRYH"
+    private static final short VERSION = 1;
+    private static final int COUNT_OFFSET = 8;
+    private static final String PROGRAMS_FILE = "programs.txt";
+    private static final String SEGMENT_PREFIX = "cycles-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_PROGRAMS = 0xFFFF;
+
+    // Record layout
+    private static final int START = 0;
+    private static final int DURATION = 8;
+    private static final int PROGRAM = 12;
+    private static final int OUTCOME = 14;
+    private static final int PEAK_TEMPERATURE = 16;
+    private static final int FINAL_HUMIDITY = 20;
+    private static final int ENERGY = 24; // bytes 28..31 are reserved
+
+    /**
+     * How a cycle ended.
+     */
+    public enum Outcome {
+        /** The program finished and the drum cooled down. */
+        COMPLETED,
+        /** The program was stopped or replaced before it finished. */
+        CANCELLED,
+        /** The dryer went into the error state. */
+        FAILED
+    }
+
+    /**
+     * Summary of one finished cycle.
+     */
+    public static final class Cycle {
+        private final String program;
+        private final long startMs;
+        private final int durationMs;
+        private final float peakTemperature;
+        private final float finalHumidity;
+        private final float energyKwh;
+        private final Outcome outcome;
+
+        /**
+         * @param program         the program name
+         * @param startMs         the start time in milliseconds since the epoch
+         * @param durationMs      the cycle duration in milliseconds
+         * @param peakTemperature the highest drum temperature in °C
+         * @param finalHumidity   the residual humidity at the end in %
+         * @param energyKwh       the energy used in kWh
+         * @param outcome         how the cycle ended
+         */
+        public Cycle(String program, long startMs, long durationMs, double peakTemperature, double finalHumidity,
+                     double energyKwh, Outcome outcome) {
+            if (durationMs < 0 || durationMs > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid cycle duration: " + durationMs);
+            }
+            this.program = program;
+            this.startMs = startMs;
+            this.durationMs = (int) durationMs;
+            this.peakTemperature = (float) peakTemperature;
+            this.finalHumidity = (float) finalHumidity;
+            this.energyKwh = (float) energyKwh;
+            this.outcome = outcome;
+        }
+
+        public String getProgram() {
+            return program;
+        }
+
+        public long getStartMs() {
+            return startMs;
+        }
+
+        public long getEndMs() {
+            return startMs + durationMs;
+        }
+
+        public int getDurationMs() {
+            return durationMs;
+        }
+
+        public double getPeakTemperature() {
+            return peakTemperature;
+        }
+
+        public double getFinalHumidity() {
+            return finalHumidity;
+        }
+
+        public double getEnergyKwh() {
+            return energyKwh;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    /**
+     * Aggregate over a set of cycles.
+     */
+    public static final class Summary {
+        private long count;
+        private final long[] outcomes = new long[Outcome.values().length];
+        private double energyKwh;
+        private long durationMs;
+        private double peakTemperature = Double.NaN;
+
+        void add(int durationMs, float peakTemperature, float energyKwh, int outcome) {
+            count++;
+            outcomes[outcome]++;
+            this.energyKwh += energyKwh;
+            this.durationMs += durationMs;
+            if (!(this.peakTemperature >= peakTemperature)) {
+                this.peakTemperature = peakTemperature;
+            }
+        }
+
+        void add(Summary other) {
+            if (other.count == 0) {
+                return;
+            }
+            count += other.count;
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] += other.outcomes[i];
+            }
+            energyKwh += other.energyKwh;
+            durationMs += other.durationMs;
+            if (!(peakTemperature >= other.peakTemperature)) {
+                peakTemperature = other.peakTemperature;
+            }
+        }
+
+        /**
+         * @return the number of cycles
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @param outcome the outcome
+         * @return the number of cycles that ended this way
+         */
+        public long getCount(Outcome outcome) {
+            return outcomes[outcome.ordinal()];
+        }
+
+        /**
+         * @return the energy of all cycles in kWh
+         */
+        public double getTotalKwh() {
+            return energyKwh;
+        }
+
+        /**
+         * @return the mean energy per cycle in kWh, or 0 if there are no cycles
+         */
+        public double getMeanKwh() {
+            return count == 0 ? 0.0 : energyKwh / count;
+        }
+
+        /**
+         * @return the mean cycle duration in milliseconds, or 0 if there are no cycles
+         */
+        public long getMeanDurationMs() {
+            return count == 0 ? 0 : durationMs / count;
+        }
+
+        /**
+         * @return the highest drum temperature of all cycles in °C, or NaN if there are no cycles
+         */
+        public double getPeakTemperature() {
+            return peakTemperature;
+        }
+    }
+
+    /**
+     * The blocks containing cycles of one program, with a summary of those cycles per block.
+     */
+    private static final class ProgramIndex {
+        private int size = 0;
+        private int[] blocks = new int[16];
+        private Summary[] summaries = new Summary[16];
+
+        Summary forBlock(int block) {
+            if (size > 0 && blocks[size - 1] == block) {
+                return summaries[size - 1];
+            }
+            if (size == blocks.length) {
+                blocks = Arrays.copyOf(blocks, size * 2);
+                summaries = Arrays.copyOf(summaries, size * 2);
+            }
+            blocks[size] = block;
+            summaries[size] = new Summary();
+            return summaries[size++];
+        }
+    }
+
+    private final Path directory;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final List<String> programs = new ArrayList<>();
+    private final Map<String, Integer> programIds = new HashMap<>();
+    private final List<ProgramIndex> programIndexes = new ArrayList<>();
+    private long size = 0;
+    private boolean closed = false;
+
+    // Sparse time index in parallel arrays, one entry per block
+    private int blockCount = 0;
+    private long[] blockMinStart = new long[64];
+    private long[] blockMaxStart = new long[64];
+    private Summary[] blockSummaries = new Summary[64];
+
+    private CycleHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the store in the given directory, creating it if necessary, and indexes
+     * the cycles already stored there.
+     *
+     * @param directory the directory
+     * @return the store
+     * @throws IOException if the directory cannot be created or its files are damaged
+     */
+    public static CycleHistoryStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        CycleHistoryStore store = new CycleHistoryStore(directory);
+        store.loadPrograms();
+        store.loadSegments();
+        return store;
+    }
+
+    private void loadPrograms() throws IOException {
+        Path file = directory.resolve(PROGRAMS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String name : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            programIds.put(name, programs.size());
+            programs.add(name);
+            programIndexes.add(new ProgramIndex());
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        for (int segment = 0; segment < files.size(); segment++) {
+            if (!files.get(segment).equals(segmentFile(segment))) {
+                throw new IOException("Missing cycle history segment " + segmentFile(segment));
+            }
+            MappedByteBuffer buffer = map(files.get(segment));
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+                throw new IOException("Not a cycle history segment: " + files.get(segment));
+            }
+            int count = buffer.getInt(COUNT_OFFSET);
+            if (count < 0 || count > SEGMENT_RECORDS || (count < SEGMENT_RECORDS && segment < files.size() - 1)) {
+                throw new IOException("Damaged cycle history segment: " + files.get(segment));
+            }
+            segments.add(buffer);
+            for (int i = 0; i < count; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                int program = Short.toUnsignedInt(buffer.getShort(offset + PROGRAM));
+                if (program >= programs.size()) {
+                    throw new IOException("Unknown program in cycle history segment: " + files.get(segment));
+                }
+                index(program, buffer.getLong(offset + START), buffer.getInt(offset + DURATION),
+                        buffer.getFloat(offset + PEAK_TEMPERATURE), buffer.getFloat(offset + ENERGY),
+                        buffer.get(offset + OUTCOME));
+            }
+        }
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) SEGMENT_RECORDS * RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Appends a finished cycle.
+     *
+     * @param cycle the cycle
+     * @throws IOException if a new segment or program name cannot be written
+     * @throws IllegalStateException if the store is closed
+     */
+    public synchronized void append(Cycle cycle) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Cycle history is closed");
+        }
+        int program = programId(cycle.program);
+        int segment = (int) (size / SEGMENT_RECORDS);
+        int record = (int) (size % SEGMENT_RECORDS);
+        if (segment == segments.size()) {
+            if (segment > 0) {
+                segments.get(segment - 1).force();
+            }
+            MappedByteBuffer buffer = map(segmentFile(segment));
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, VERSION);
+            segments.add(buffer);
+        }
+        ByteBuffer buffer = segments.get(segment);
+        int offset = HEADER_SIZE + record * RECORD_SIZE;
+        buffer.putLong(offset + START, cycle.startMs);
+        buffer.putInt(offset + DURATION, cycle.durationMs);
+        buffer.putShort(offset + PROGRAM, (short) program);
+        buffer.put(offset + OUTCOME, (byte) cycle.outcome.ordinal());
+        buffer.putFloat(offset + PEAK_TEMPERATURE, cycle.peakTemperature);
+        buffer.putFloat(offset + FINAL_HUMIDITY, cycle.finalHumidity);
+        buffer.putFloat(offset + ENERGY, cycle.energyKwh);
+        // The record only counts once it is complete
+        buffer.putInt(COUNT_OFFSET, record + 1);
+
+        index(program, cycle.startMs, cycle.durationMs, cycle.peakTemperature, cycle.energyKwh,
+                cycle.outcome.ordinal());
+    }
+
+    private int programId(String name) throws IOException {
+        Integer id = programIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (programs.size() == MAX_PROGRAMS || name.contains("\n")) {
+            throw new IllegalArgumentException("Cannot store program name: " + name);
+        }
+        Files.writeString(directory.resolve(PROGRAMS_FILE), name + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        programIds.put(name, programs.size());
+        programs.add(name);
+        programIndexes.add(new ProgramIndex());
+        return programs.size() - 1;
+    }
+
+    private void index(int program, long startMs, int durationMs, float peakTemperature, float energyKwh, int outcome) {
+        int block = (int) (size / BLOCK_RECORDS);
+        if (block == blockCount) {
+            if (blockCount == blockSummaries.length) {
+                int capacity = blockCount * 2;
+                blockMinStart = Arrays.copyOf(blockMinStart, capacity);
+                blockMaxStart = Arrays.copyOf(blockMaxStart, capacity);
+                blockSummaries = Arrays.copyOf(blockSummaries, capacity);
+            }
+            blockMinStart[block] = startMs;
+            blockMaxStart[block] = startMs;
+            blockSummaries[block] = new Summary();
+            blockCount++;
+        }
+        blockMinStart[block] = Math.min(blockMinStart[block], startMs);
+        blockMaxStart[block] = Math.max(blockMaxStart[block], startMs);
+        blockSummaries[block].add(durationMs, peakTemperature, energyKwh, outcome);
+        programIndexes.get(program).forBlock(block).add(durationMs, peakTemperature, energyKwh, outcome);
+        size++;
+    }
+
+    /**
+     * Aggregates the cycles that started within a time range.
+     *
+     * @param fromMs  the start of the range in milliseconds since the epoch, inclusive
+     * @param toMs    the end of the range, exclusive
+     * @param program the program name, or null for all programs
+     * @return the aggregate, empty if no cycle matches
+     */
+    public synchronized Summary summarize(long fromMs, long toMs, String program) {
+        Summary result = new Summary();
+        if (program == null) {
+            for (int block = 0; block < blockCount; block++) {
+                summarizeBlock(block, blockSummaries[block], -1, fromMs, toMs, result);
+            }
+            return result;
+        }
+        Integer id = programIds.get(program);
+        if (id != null) {
+            ProgramIndex index = programIndexes.get(id);
+            for (int i = 0; i < index.size; i++) {
+                summarizeBlock(index.blocks[i], index.summaries[i], id, fromMs, toMs, result);
+            }
+        }
+        return result;
+    }
+
+    private void summarizeBlock(int block, Summary summary, int program, long fromMs, long toMs, Summary result) {
+        if (blockMaxStart[block] < fromMs || blockMinStart[block] >= toMs) {
+            return;
+        }
+        if (blockMinStart[block] >= fromMs && blockMaxStart[block] < toMs) {
+            result.add(summary);
+            return;
+        }
+        ByteBuffer buffer = segments.get(block / (SEGMENT_RECORDS / BLOCK_RECORDS));
+        int first = (block * BLOCK_RECORDS) % SEGMENT_RECORDS;
+        int end = first + (int) Math.min(BLOCK_RECORDS, size - (long) block * BLOCK_RECORDS);
+        for (int i = first; i < end; i++) {
+            int offset = HEADER_SIZE + i * RECORD_SIZE;
+            long startMs = buffer.getLong(offset + START);
+            if (startMs >= fromMs && startMs < toMs
+                    && (program < 0 || Short.toUnsignedInt(buffer.getShort(offset + PROGRAM)) == program)) {
+                result.add(buffer.getInt(offset + DURATION), buffer.getFloat(offset + PEAK_TEMPERATURE),
+                        buffer.getFloat(offset + ENERGY), buffer.get(offset + OUTCOME));
+            }
+        }
+    }
+
+    /**
+     * Aggregates the cycles that started within a time range, per program.
+     *
+     * @param fromMs the start of the range in milliseconds since the epoch, inclusive
+     * @param toMs   the end of the range, exclusive
+     * @return the aggregate of every program with at least one matching cycle, in order of first use
+     */
+    public synchronized Map<String, Summary> summarizeByProgram(long fromMs, long toMs) {
+        Map<String, Summary> result = new LinkedHashMap<>();
+        for (String program : programs) {
+            Summary summary = summarize(fromMs, toMs, program);
+            if (summary.getCount() > 0) {
+                result.put(program, summary);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cycles that started within a time range, in the order they ended.
+     *
+     * @param fromMs  the start of the range in milliseconds since the epoch, inclusive
+     * @param toMs    the end of the range, exclusive
+     * @param program the program name, or null for all programs
+     * @param limit   the maximum number of cycles to return
+     * @return the matching cycles, at most {@code limit}
+     */
+    public synchronized List<Cycle> find(long fromMs, long toMs, String program, int limit) {
+        List<Cycle> result = new ArrayList<>();
+        int id = -1;
+        if (program != null) {
+            Integer known = programIds.get(program);
+            if (known == null) {
+                return result;
+            }
+            id = known;
+        }
+        for (int block = 0; block < blockCount && result.size() < limit; block++) {
+            if (blockMaxStart[block] < fromMs || blockMinStart[block] >= toMs) {
+                continue;
+            }
+            ByteBuffer buffer = segments.get(block / (SEGMENT_RECORDS / BLOCK_RECORDS));
+            int first = (block * BLOCK_RECORDS) % SEGMENT_RECORDS;
+            int end = first + (int) Math.min(BLOCK_RECORDS, size - (long) block * BLOCK_RECORDS);
+            for (int i = first; i < end && result.size() < limit; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                long startMs = buffer.getLong(offset + START);
+                int recordProgram = Short.toUnsignedInt(buffer.getShort(offset + PROGRAM));
+                if (startMs >= fromMs && startMs < toMs && (id < 0 || recordProgram == id)) {
+                    result.add(new Cycle(programs.get(recordProgram), startMs, buffer.getInt(offset + DURATION),
+                            buffer.getFloat(offset + PEAK_TEMPERATURE), buffer.getFloat(offset + FINAL_HUMIDITY),
+                            buffer.getFloat(offset + ENERGY), Outcome.values()[buffer.get(offset + OUTCOME)]));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of stored cycles
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @return the directory the store keeps its files in
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes all appended cycles to disk. Further appends are rejected.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).force();
+        }
+    }
+}
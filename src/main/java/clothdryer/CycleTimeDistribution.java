@@ -0,0 +1,96 @@
+package clothdryer;
+
+import java.util.Arrays;
+
+/**
+ * CycleTimeDistribution holds the outcome of a Monte Carlo estimate for one
+ * program: the sorted drying and cycle times of all simulated runs. Percentiles
+ * are read directly from the sorted samples. Instances are immutable.
+ */
+public final class CycleTimeDistribution {
+
+    /**
+     * Percentiles shown in tables.
+     */
+    public static final int[] TABLE_PERCENTILES = {10, 25, 50, 75, 90, 95};
+
+    private final String programName;
+    private final int[] dryingSeconds;
+    private final int[] cycleSeconds;
+
+    /**
+     * @param programName   the program the samples belong to
+     * @param dryingSeconds drying times of all runs, sorted by this constructor
+     * @param cycleSeconds  cycle times including cool-down of all runs, sorted by this constructor
+     */
+    CycleTimeDistribution(String programName, int[] dryingSeconds, int[] cycleSeconds) {
+        if (dryingSeconds.length == 0 || dryingSeconds.length != cycleSeconds.length) {
+            throw new IllegalArgumentException("Need the same, non-zero number of drying and cycle times");
+        }
+        this.programName = programName;
+        this.dryingSeconds = dryingSeconds;
+        this.cycleSeconds = cycleSeconds;
+        Arrays.sort(this.dryingSeconds);
+        Arrays.sort(this.cycleSeconds);
+    }
+
+    public String getProgramName() {
+        return programName;
+    }
+
+    /**
+     * @return the number of simulated runs
+     */
+    public int getRuns() {
+        return dryingSeconds.length;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the drying time in seconds that the given percentage of runs did not exceed
+     */
+    public int getDryingSeconds(double percentile) {
+        return valueAt(dryingSeconds, percentile);
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the cycle time including cool-down in seconds that the given percentage of runs did not exceed
+     */
+    public int getCycleSeconds(double percentile) {
+        return valueAt(cycleSeconds, percentile);
+    }
+
+    private static int valueAt(int[] sorted, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        // Nearest-rank method
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Formats the percentile table, one line per percentile in {@link #TABLE_PERCENTILES}.
+     *
+     * @return the table as text
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%s (%d runs)%n", programName, getRuns()));
+        table.append(String.format("  %4s  %10s  %10s%n", "P", "drying", "cycle"));
+        for (int percentile : TABLE_PERCENTILES) {
+            table.append(String.format("  %4d  %10s  %10s%n", percentile,
+                    formatSeconds(getDryingSeconds(percentile)), formatSeconds(getCycleSeconds(percentile))));
+        }
+        return table.toString();
+    }
+
+    /**
+     * @param seconds a duration in seconds
+     * @return the duration as HH:MM:SS
+     */
+    static String formatSeconds(int seconds) {
+        return String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,184 @@
+package clothdryer;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * CycleTimeEstimator answers "how long will this take?" with a distribution instead
+ * of a single number.
+ * <p>
+ * For a program it simulates many cycles, each with randomized conditions: the
+ * initial humidity of the laundry, the size and fabric mix of the load, the ambient
+ * temperature the drum starts at, and a calibration offset plus noise of the
+ * humidity sensor, whose readings are smoothed like in a real controller. The
+ * runs are split into fixed batches that are simulated in parallel; every batch
+ * gets its own generator split off a seeded root generator, so the result does not
+ * depend on the number of threads.
+ * <p>
+ * Distributions are cached per program name and catalog version; the first request
+ * starts the estimate in the background and later requests share it.
+ */
+public class CycleTimeEstimator {
+
+    static final int DEFAULT_RUNS = 2000;
+    static final long DEFAULT_SEED = 0x5EED_D2E5L;
+    private static final int BATCH_SIZE = 64;
+    private static final int STEP_MS = 1000;
+    private static final int MAX_CYCLE_SECONDS = 6 * 3600;
+
+    // Ranges of the randomized conditions
+    static final double MIN_INITIAL_HUMIDITY = 60.0;
+    static final int MIN_GARMENTS = 10;
+    static final int MAX_GARMENTS = 50;
+    static final double MAIN_FABRIC_SHARE = 0.7; // share of garments made of the program's fabric
+    static final double MIN_AMBIENT_TEMPERATURE = 10.0;
+    static final double MAX_AMBIENT_TEMPERATURE = 30.0;
+    static final double MAX_SENSOR_OFFSET = 1.5;
+    static final double SENSOR_NOISE = 0.5;
+    static final double SENSOR_RESOLUTION = 0.5;
+
+    private final ProgramCatalog catalog;
+    private final int runs;
+    private final long seed;
+    private final ConcurrentHashMap<String, CompletableFuture<CycleTimeDistribution>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an estimator for the built-in programs with default settings.
+     */
+    public CycleTimeEstimator() {
+        this(ProgramCatalog.DEFAULT, DEFAULT_RUNS, DEFAULT_SEED);
+    }
+
+    /**
+     * Creates an estimator.
+     *
+     * @param catalog the catalog to take the programs from
+     * @param runs    the number of simulated cycles per program
+     * @param seed    the seed of the root random generator
+     */
+    public CycleTimeEstimator(ProgramCatalog catalog, int runs, long seed) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Number of runs must be positive: " + runs);
+        }
+        this.catalog = catalog;
+        this.runs = runs;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the cached distribution of a program, starting the estimate in the
+     * background on first use. A failed estimate is dropped from the cache, so the
+     * next call tries again.
+     *
+     * @param programName the program name
+     * @return the distribution, completed exceptionally if the program is unknown
+     */
+    public CompletableFuture<CycleTimeDistribution> estimateAsync(String programName) {
+        String key = programName + '@' + catalog.getVersion();
+        CompletableFuture<CycleTimeDistribution> future =
+                cache.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> estimate(programName)));
+        // callers see a failure only after it was dropped
+        return future.whenComplete((distribution, error) -> {
+            if (error != null) {
+                cache.remove(key, future);
+            }
+        });
+    }
+
+    /**
+     * @param programName the program name
+     * @return the cached distribution, or null if it is not available yet
+     */
+    public CycleTimeDistribution getIfReady(String programName) {
+        CompletableFuture<CycleTimeDistribution> future = cache.get(programName + '@' + catalog.getVersion());
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Runs the Monte Carlo estimate for a program on the calling thread and the common pool.
+     *
+     * @param programName the program name
+     * @return the distribution of drying and cycle times
+     * @throws IllegalArgumentException if the catalog has no such program
+     */
+    public CycleTimeDistribution estimate(String programName) {
+        ProgramProfile profile = catalog.get(programName);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown program: " + programName);
+        }
+        LaundryLoad.Fabric mainFabric = fabricOf(programName);
+
+        int batches = (runs + BATCH_SIZE - 1) / BATCH_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] batchRandoms = new SplittableRandom[batches];
+        for (int batch = 0; batch < batches; batch++) {
+            batchRandoms[batch] = root.split();
+        }
+
+        int[] dryingSeconds = new int[runs];
+        int[] cycleSeconds = new int[runs];
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            SplittableRandom random = batchRandoms[batch];
+            int end = Math.min(runs, (batch + 1) * BATCH_SIZE);
+            for (int run = batch * BATCH_SIZE; run < end; run++) {
+                simulateRun(profile, mainFabric, random, dryingSeconds, cycleSeconds, run);
+            }
+        });
+        return new CycleTimeDistribution(programName, dryingSeconds, cycleSeconds);
+    }
+
+    private static LaundryLoad.Fabric fabricOf(String programName) {
+        for (LaundryLoad.Fabric fabric : LaundryLoad.Fabric.values()) {
+            if (fabric.name().equalsIgnoreCase(programName)) {
+                return fabric;
+            }
+        }
+        return null; // custom program: fully random mix
+    }
+
+    /**
+     * Simulates one randomized cycle and stores its times at the given index.
+     */
+    private static void simulateRun(ProgramProfile profile, LaundryLoad.Fabric mainFabric, SplittableRandom random,
+                                    int[] dryingSeconds, int[] cycleSeconds, int index) {
+        LaundryLoad.Fabric[] fabrics = LaundryLoad.Fabric.values();
+        int garments = random.nextInt(MIN_GARMENTS, MAX_GARMENTS + 1);
+        double initialHumidity = MIN_INITIAL_HUMIDITY + random.nextDouble() * (100.0 - MIN_INITIAL_HUMIDITY);
+        LaundryLoad load = new LaundryLoad(garments);
+        for (int i = 0; i < garments; i++) {
+            LaundryLoad.Fabric fabric = mainFabric != null && random.nextDouble() < MAIN_FABRIC_SHARE
+                    ? mainFabric : fabrics[random.nextInt(fabrics.length)];
+            double moisture = Math.min(100.0, initialHumidity * (0.9 + 0.2 * random.nextDouble()));
+            load.addGarment(fabric, 0.1 + random.nextDouble() * 0.9, moisture);
+        }
+
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        state.setTemperature(MIN_AMBIENT_TEMPERATURE
+                + random.nextDouble() * (MAX_AMBIENT_TEMPERATURE - MIN_AMBIENT_TEMPERATURE));
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state), new EnergyMeter(new EnergyLedger()));
+        double offset = (random.nextDouble() * 2 - 1) * MAX_SENSOR_OFFSET;
+        simulation.setHumiditySensor(new NoisyHumiditySensor(offset, SENSOR_NOISE, SENSOR_RESOLUTION, random.split()));
+        simulation.setHumidityFilter(HumidityFilterChain.standard());
+        state.setDoorClosed(false);
+        simulation.loadNewLaundry(load);
+        state.setDoorClosed(true);
+        simulation.startProgram(profile);
+
+        long elapsedMs = 0;
+        long dryingMs = -1;
+        while (state.getStatus() != DryerState.ProgramStatus.IDLE
+                && state.getStatus() != DryerState.ProgramStatus.ERROR
+                && elapsedMs < MAX_CYCLE_SECONDS * 1000L) {
+            simulation.updateState(STEP_MS);
+            elapsedMs += STEP_MS;
+            if (dryingMs < 0 && state.getStatus() != DryerState.ProgramStatus.RUNNING) {
+                dryingMs = elapsedMs;
+            }
+        }
+        dryingSeconds[index] = (int) ((dryingMs < 0 ? elapsedMs : dryingMs) / 1000);
+        cycleSeconds[index] = (int) (elapsedMs / 1000);
+    }
+}
@@ -0,0 +1,182 @@
+package clothdryer;
+
+/**
+ * DryerFleet groups many independent dryers, each driven by its own ProgramManager.
+ * <p>
+ * Unlike a single ProgramManager, the fleet does not start a thread per dryer.
+ * All dryers are advanced together by {@link #tick(int)}, either from a headless
+ * loop at maximum speed or from {@link #run()} in real time.
+ */
+public class DryerFleet implements Runnable {
+
+    private final ProgramManager[] dryers;
+    private final EnergyLedger energyLedger = new EnergyLedger();
+    private final FleetAggregates aggregates;
+    private PowerBudgetScheduler powerScheduler; // null: no power limit
+    private long lastUpdateTime;
+    private volatile long tickCount = 0;
+
+    /**
+     * Creates a fleet of idle dryers.
+     * @param size the number of dryers
+     */
+    public DryerFleet(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Fleet size must be positive: " + size);
+        }
+        dryers = new ProgramManager[size];
+        aggregates = new FleetAggregates(size);
+        for (int i = 0; i < size; i++) {
+            ProgramManager dryer = new ProgramManager(energyLedger);
+            int index = i;
+            dryer.addStateListener(() -> aggregates.update(index, dryer.getState()));
+            dryers[i] = dryer;
+        }
+        lastUpdateTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the number of dryers in the fleet
+     */
+    public int size() {
+        return dryers.length;
+    }
+
+    /**
+     * @param index the dryer index
+     * @return the ProgramManager of the dryer at the given index
+     */
+    public ProgramManager get(int index) {
+        return dryers[index];
+    }
+
+    /**
+     * @return the ledger summing up the energy use of all dryers, readable while the fleet runs
+     */
+    public EnergyLedger getEnergyLedger() {
+        return energyLedger;
+    }
+
+    /**
+     * @return the fleet-wide counts, means and percentiles, kept up to date after every tick and command
+     */
+    public FleetAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Limits the total heater power of the fleet. Dryers that do not get a share of
+     * the budget pause their program until they do. Must be called from the thread
+     * that runs the fleet, or before it is started.
+     *
+     * @param budgetWatts the maximum total heater power
+     * @return the scheduler enforcing the budget, e.g. to set priorities
+     */
+    public PowerBudgetScheduler setPowerBudget(long budgetWatts) {
+        if (powerScheduler == null) {
+            powerScheduler = new PowerBudgetScheduler(dryers.length, budgetWatts);
+            for (int i = 0; i < dryers.length; i++) {
+                dryers[i].setPowerScheduler(powerScheduler, i);
+            }
+        } else {
+            powerScheduler.setBudgetWatts(budgetWatts);
+        }
+        return powerScheduler;
+    }
+
+    /**
+     * @return the scheduler enforcing the power budget, or null if the fleet has no limit
+     */
+    public PowerBudgetScheduler getPowerScheduler() {
+        return powerScheduler;
+    }
+
+    /**
+     * Keeps a summary of every finished cycle of the fleet in the given store.
+     * @param cycleHistory the store, or null to stop keeping cycles
+     */
+    public void setCycleHistory(CycleHistoryStore cycleHistory) {
+        for (ProgramManager dryer : dryers) {
+            dryer.setCycleHistory(cycleHistory);
+        }
+    }
+
+    /**
+     * Starts the given program on every idle dryer.
+     * @param programName the program to start
+     */
+    public void startAll(String programName) {
+        for (ProgramManager dryer : dryers) {
+            dryer.startProgram(programName);
+        }
+    }
+
+    /**
+     * Starts the given programs round-robin: dryer i gets program i modulo the number of programs.
+     * @param programNames the programs to distribute over the fleet
+     */
+    public void startMixed(String... programNames) {
+        for (int i = 0; i < dryers.length; i++) {
+            dryers[i].startProgram(programNames[i % programNames.length]);
+        }
+    }
+
+    /**
+     * Advances every dryer by the given simulated time.
+     * @param elapsedMilliseconds simulated time since the last tick
+     */
+    public void tick(int elapsedMilliseconds) {
+        if (powerScheduler != null) {
+            powerScheduler.allocate();
+        }
+        for (ProgramManager dryer : dryers) {
+            dryer.tick(elapsedMilliseconds);
+        }
+        tickCount++;
+    }
+
+    /**
+     * Returns the number of completed fleet ticks. Observers compare this counter
+     * to find out whether anything changed since they last looked.
+     * @return the number of completed fleet ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Sets the tick counter of a fleet restored from a {@link SimulationCheckpoint}.
+     * @param tickCount the number of completed fleet ticks
+     */
+    void setTickCount(long tickCount) {
+        this.tickCount = tickCount;
+    }
+
+    /**
+     * Counts the dryers that currently have the given status, as of their last tick
+     * or command, without scanning the fleet.
+     * @param status the status to count
+     * @return the number of dryers with that status
+     */
+    public int countByStatus(DryerState.ProgramStatus status) {
+        return aggregates.count(status);
+    }
+
+    /**
+     * Main loop for a real-time fleet thread. Updates all dryers once per second.
+     */
+    @Override
+    public void run() {
+        lastUpdateTime = System.currentTimeMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            long currentTime = System.currentTimeMillis();
+            tick((int) (currentTime - lastUpdateTime));
+            lastUpdateTime = currentTime;
+            try {
+                Thread.sleep(1000); // refresh every second
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+}
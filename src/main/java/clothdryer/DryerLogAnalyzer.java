@@ -0,0 +1,439 @@
+package clothdryer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * DryerLogAnalyzer reconstructs the drying cycles recorded in dryerlog_*.log files
+ * and sums them up per program.
+ * <p>
+ * Files are analyzed in parallel, one task per file. Each file is memory-mapped in
+ * windows of {@link #WINDOW_SIZE} bytes that end at a line break, and its records
+ * are parsed in place with {@link DryerLogParser}, so no file is ever loaded as a
+ * whole. The few message texts the analysis depends on are compared byte by byte;
+ * only program names are decoded into strings.
+ * <p>
+ * A cycle starts with "&lt;program&gt; program started". "Drying finished, cooling
+ * down" marks the end of drying; the door stays locked until the drum is cool, and
+ * the "Door unlocked" that follows belongs to the same cycle. Older logs have no
+ * such record and unlock the door when the dryer starts to cool down, so there the
+ * first "Door unlocked" after the start marks the end of drying. A cycle is
+ * cancelled if "Program stopped" follows instead, and failed if an error is logged. Records carry no dryer
+ * id, so when a fleet logs into one file the cycles that are drying at the same time
+ * are matched to their ends in the order they started.
+ */
+public final class DryerLogAnalyzer {
+
+    static final int WINDOW_SIZE = 64 << 20;
+
+    private static final byte[] PROGRAM_STARTED = " program started".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PROGRAM_STOPPED = "Program stopped".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DOOR_LOCKED = "Door locked".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DOOR_UNLOCKED = "Door unlocked".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DRYING_FINISHED = "Drying finished".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DOOR_BLOCKED = "Cannot open door".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OVERHEATING = "Overheating".getBytes(StandardCharsets.US_ASCII);
+    private static final String UNKNOWN_PROGRAM = "unknown";
+
+    private DryerLogAnalyzer() {
+    }
+
+    /**
+     * One cycle reconstructed from a log.
+     */
+    public static final class Cycle {
+        private final String program;
+        private final long startMs;
+        private long dryingEndMs = -1;
+        private CycleHistoryStore.Outcome outcome; // null while drying
+
+        Cycle(String program, long startMs) {
+            this.program = program;
+            this.startMs = startMs;
+        }
+
+        public String getProgram() {
+            return program;
+        }
+
+        /**
+         * @return the start in local epoch milliseconds, see {@link DryerLogParser}
+         */
+        public long getStartMs() {
+            return startMs;
+        }
+
+        /**
+         * @return the end of drying in local epoch milliseconds, or -1 if drying did not end
+         */
+        public long getDryingEndMs() {
+            return dryingEndMs;
+        }
+
+        /**
+         * @return how the cycle ended, or null if the log ends while it is drying
+         */
+        public CycleHistoryStore.Outcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    /**
+     * Figures of one program over all analyzed logs.
+     */
+    public static final class ProgramStatistics {
+        private long cycles;
+        private final long[] outcomes = new long[CycleHistoryStore.Outcome.values().length];
+        private long dryingMs;
+        private long minDryingMs = Long.MAX_VALUE;
+        private long maxDryingMs = -1;
+        private long doorLocks;
+        private long blockedDoorOpenings;
+        private long overheats;
+
+        void add(Cycle cycle) {
+            cycles++;
+            if (cycle.outcome != null) {
+                outcomes[cycle.outcome.ordinal()]++;
+            }
+            if (cycle.outcome == CycleHistoryStore.Outcome.COMPLETED) {
+                long duration = cycle.dryingEndMs - cycle.startMs;
+                dryingMs += duration;
+                minDryingMs = Math.min(minDryingMs, duration);
+                maxDryingMs = Math.max(maxDryingMs, duration);
+            }
+        }
+
+        void add(ProgramStatistics other) {
+            cycles += other.cycles;
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] += other.outcomes[i];
+            }
+            dryingMs += other.dryingMs;
+            minDryingMs = Math.min(minDryingMs, other.minDryingMs);
+            maxDryingMs = Math.max(maxDryingMs, other.maxDryingMs);
+            doorLocks += other.doorLocks;
+            blockedDoorOpenings += other.blockedDoorOpenings;
+            overheats += other.overheats;
+        }
+
+        /**
+         * @return the number of started cycles
+         */
+        public long getCycles() {
+            return cycles;
+        }
+
+        /**
+         * @param outcome the outcome
+         * @return the number of cycles that ended this way
+         */
+        public long getCount(CycleHistoryStore.Outcome outcome) {
+            return outcomes[outcome.ordinal()];
+        }
+
+        /**
+         * @return the mean drying time of completed cycles in milliseconds, or -1 if none completed
+         */
+        public long getMeanDryingMs() {
+            long completed = getCount(CycleHistoryStore.Outcome.COMPLETED);
+            return completed == 0 ? -1 : dryingMs / completed;
+        }
+
+        /**
+         * @return the shortest drying time of a completed cycle in milliseconds, or -1 if none completed
+         */
+        public long getMinDryingMs() {
+            return maxDryingMs < 0 ? -1 : minDryingMs;
+        }
+
+        /**
+         * @return the longest drying time of a completed cycle in milliseconds, or -1 if none completed
+         */
+        public long getMaxDryingMs() {
+            return maxDryingMs;
+        }
+
+        /**
+         * @return how often the door was locked for this program
+         */
+        public long getDoorLocks() {
+            return doorLocks;
+        }
+
+        /**
+         * @return how often opening the door was refused during or right after this program
+         */
+        public long getBlockedDoorOpenings() {
+            return blockedDoorOpenings;
+        }
+
+        /**
+         * @return the number of overheating errors during this program
+         */
+        public long getOverheats() {
+            return overheats;
+        }
+    }
+
+    /**
+     * Result of an analysis.
+     */
+    public static final class Result {
+        private final List<Cycle> cycles = new ArrayList<>();
+        private final Map<String, ProgramStatistics> programs = new LinkedHashMap<>();
+        private long records;
+        private long bytes;
+        private int files;
+
+        ProgramStatistics program(String name) {
+            return programs.computeIfAbsent(name, key -> new ProgramStatistics());
+        }
+
+        void add(Result other) {
+            cycles.addAll(other.cycles);
+            other.programs.forEach((name, statistics) -> program(name).add(statistics));
+            records += other.records;
+            bytes += other.bytes;
+            files += other.files;
+        }
+
+        /**
+         * @return all cycles, per file in the order of the file names and then in the order they started
+         */
+        public List<Cycle> getCycles() {
+            return Collections.unmodifiableList(cycles);
+        }
+
+        /**
+         * @return the figures per program, in order of first appearance
+         */
+        public Map<String, ProgramStatistics> getPrograms() {
+            return Collections.unmodifiableMap(programs);
+        }
+
+        /**
+         * @return the number of log records read
+         */
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * @return the number of bytes read
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the number of files read
+         */
+        public int getFiles() {
+            return files;
+        }
+    }
+
+    /**
+     * Analyzes all dryerlog_*.log files in a directory.
+     *
+     * @param directory the log directory
+     * @return the result
+     * @throws IOException if a file cannot be read
+     */
+    public static Result analyze(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "dryerlog_*.log")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null); // file names start with a sortable timestamp
+        return analyze(files);
+    }
+
+    /**
+     * Analyzes the given log files in parallel.
+     *
+     * @param files the log files
+     * @return the result, merged in the order of the given files
+     * @throws IOException if a file cannot be read
+     */
+    public static Result analyze(List<Path> files) throws IOException {
+        return analyze(files, WINDOW_SIZE);
+    }
+
+    static Result analyze(List<Path> files, int windowSize) throws IOException {
+        List<Result> results;
+        try {
+            results = files.parallelStream().map(file -> {
+                try {
+                    return analyzeFile(file, windowSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Result result = new Result();
+        results.forEach(result::add);
+        return result;
+    }
+
+    private static Result analyzeFile(Path file, int windowSize) throws IOException {
+        FileAnalysis analysis = new FileAnalysis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = analysis.parse(buffer, (int) length, position + length == size);
+                if (consumed == 0) {
+                    throw new IOException("Line too long in " + file);
+                }
+                position += consumed;
+            }
+            analysis.result.bytes = size;
+        }
+        analysis.finish();
+        analysis.result.files = 1;
+        return analysis.result;
+    }
+
+    /**
+     * The state of reading one file. Cycles that are drying wait in a queue in the
+     * order they started.
+     */
+    private static final class FileAnalysis {
+        private final Result result = new Result();
+        private final ArrayDeque<Cycle> drying = new ArrayDeque<>();
+        private long pendingTime = DryerLogParser.INVALID;
+        private int pendingLocks = 0; // "Door locked" is logged just before "program started"
+        private Cycle lastDried; // reclassified if the program was stopped, which also unlocks the door
+        private int failedLocked = 0; // failed dryers whose door is unlocked later, not at the end of drying
+        private int coolingLocked = 0; // dried cycles whose door is unlocked at the end of cooling
+        private String lastProgram = UNKNOWN_PROGRAM;
+
+        /**
+         * Parses the complete lines of a window.
+         * @return the number of bytes up to the end of the last complete line
+         */
+        int parse(MappedByteBuffer buffer, int limit, boolean lastWindow) {
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    line(buffer, lineStart, i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i);
+                    lineStart = i + 1;
+                }
+            }
+            if (lastWindow && lineStart < limit) {
+                line(buffer, lineStart, limit); // the file does not end with a line break
+                lineStart = limit;
+            }
+            return lineStart;
+        }
+
+        private void line(MappedByteBuffer buffer, int from, int to) {
+            if (pendingTime != DryerLogParser.INVALID) {
+                // Usually the message line of the header before, which is cheaper to check
+                DryerState.EventType type = DryerLogParser.parseLevel(buffer, from, to);
+                if (type != null) {
+                    result.records++;
+                    record(buffer, type, DryerLogParser.messageStart(buffer, from, to), to);
+                    pendingTime = DryerLogParser.INVALID;
+                    return;
+                }
+            }
+            pendingTime = DryerLogParser.parseTimestamp(buffer, from, to);
+        }
+
+        private void record(MappedByteBuffer buffer, DryerState.EventType type, int from, int to) {
+            Cycle dried = null;
+            if (type == DryerState.EventType.ERROR) {
+                Cycle cycle = drying.pollLast();
+                String program = cycle != null ? cycle.program : lastProgram;
+                if (DryerLogParser.contains(buffer, from, to, OVERHEATING)) {
+                    result.program(program).overheats++;
+                }
+                if (cycle != null) {
+                    cycle.outcome = CycleHistoryStore.Outcome.FAILED;
+                    failedLocked++;
+                }
+            } else if (DryerLogParser.startsWith(buffer, from, to, DRYING_FINISHED)) {
+                dried = drying.pollFirst();
+                if (dried != null) {
+                    dried.dryingEndMs = pendingTime;
+                    dried.outcome = CycleHistoryStore.Outcome.COMPLETED;
+                }
+                coolingLocked++;
+            } else if (DryerLogParser.startsWith(buffer, from, to, DOOR_UNLOCKED)) {
+                if (coolingLocked > 0) {
+                    coolingLocked--;
+                } else if (failedLocked > 0) {
+                    failedLocked--;
+                } else {
+                    dried = drying.pollFirst();
+                    if (dried != null) {
+                        dried.dryingEndMs = pendingTime;
+                        dried.outcome = CycleHistoryStore.Outcome.COMPLETED;
+                    }
+                }
+            } else if (DryerLogParser.startsWith(buffer, from, to, DOOR_LOCKED)) {
+                pendingLocks++;
+            } else if (endsWith(buffer, from, to, PROGRAM_STARTED)) {
+                String program = new String(bytes(buffer, from, to - PROGRAM_STARTED.length), StandardCharsets.UTF_8);
+                Cycle cycle = new Cycle(program, pendingTime);
+                drying.addLast(cycle);
+                result.cycles.add(cycle);
+                result.program(program).doorLocks += pendingLocks;
+                pendingLocks = 0;
+                lastProgram = program;
+            } else if (DryerLogParser.startsWith(buffer, from, to, PROGRAM_STOPPED)) {
+                if (lastDried != null && lastDried.dryingEndMs == pendingTime) {
+                    lastDried.dryingEndMs = -1;
+                    lastDried.outcome = CycleHistoryStore.Outcome.CANCELLED;
+                } else if (!drying.isEmpty()) {
+                    drying.pollLast().outcome = CycleHistoryStore.Outcome.CANCELLED;
+                }
+            } else if (DryerLogParser.startsWith(buffer, from, to, DOOR_BLOCKED)) {
+                Cycle cycle = drying.peekLast();
+                result.program(cycle != null ? cycle.program : lastProgram).blockedDoorOpenings
+                        += DryerLogParser.occurrences(buffer, from, to);
+            }
+            lastDried = dried;
+        }
+
+        /**
+         * Adds up the cycles of the file, once their outcomes are final.
+         */
+        void finish() {
+            for (Cycle cycle : result.cycles) {
+                result.program(cycle.program).add(cycle);
+            }
+        }
+
+        private static boolean endsWith(MappedByteBuffer buffer, int from, int to, byte[] text) {
+            return to - from >= text.length && DryerLogParser.startsWith(buffer, to - text.length, to, text);
+        }
+
+        private static byte[] bytes(MappedByteBuffer buffer, int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            return bytes;
+        }
+    }
+}
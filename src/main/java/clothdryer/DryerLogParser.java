@@ -0,0 +1,293 @@
+package clothdryer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormatSymbols;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * DryerLogParser reads the records that java.util.logging's SimpleFormatter writes
+ * into the dryerlog_*.log files. Every record consists of two lines:
+ * <pre>
+ * Juni 19, 2025 4:37:15 PM clothdryer.DryerState logEvent
+ * INFORMATION: wool program started
+ * </pre>
+ * Month names, AM/PM markers and level names depend on the locale the log was
+ * written in, so the parser accepts the names of the default locale as well as
+ * German and English ones.
+ * <p>
+ * The parser works directly on bytes (heap or memory-mapped buffers) with absolute
+ * indexes and does not allocate. Timestamps are returned as "local epoch
+ * milliseconds", i.e. the local wall-clock time of the log counted as if it were UTC.
+ */
+public final class DryerLogParser {
+
+    /**
+     * Returned by {@link #parseTimestamp} if the line is not a record header.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final Locale[] LOCALES = {Locale.getDefault(Locale.Category.FORMAT), Locale.GERMAN, Locale.ENGLISH};
+
+    private static final byte[] REPEATED = WarningRateLimiter.REPEATED.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] MONTH_NAMES;
+    private static final int[] MONTH_NUMBERS;
+    private static final byte[][] LEVEL_NAMES;
+    private static final DryerState.EventType[] LEVEL_TYPES;
+
+    static {
+        List<byte[]> monthNames = new ArrayList<>();
+        List<Integer> monthNumbers = new ArrayList<>();
+        for (Locale locale : LOCALES) {
+            DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+            for (String[] names : new String[][]{symbols.getShortMonths(), symbols.getMonths()}) {
+                for (int month = 0; month < 12; month++) {
+                    String name = names[month];
+                    if (name.endsWith(".")) {
+                        name = name.substring(0, name.length() - 1);
+                    }
+                    if (!name.isEmpty()) {
+                        monthNames.add(name.toLowerCase(locale).getBytes(StandardCharsets.UTF_8));
+                        monthNumbers.add(month + 1);
+                    }
+                }
+            }
+        }
+        MONTH_NAMES = monthNames.toArray(new byte[0][]);
+        MONTH_NUMBERS = monthNumbers.stream().mapToInt(Integer::intValue).toArray();
+
+        List<byte[]> levelNames = new ArrayList<>();
+        List<DryerState.EventType> levelTypes = new ArrayList<>();
+        addLevelNames(levelNames, levelTypes, Level.INFO, DryerState.EventType.INFO, "INFORMATION");
+        addLevelNames(levelNames, levelTypes, Level.WARNING, DryerState.EventType.WARNING, "WARNUNG");
+        addLevelNames(levelNames, levelTypes, Level.SEVERE, DryerState.EventType.ERROR, "SCHWERWIEGEND");
+        LEVEL_NAMES = levelNames.toArray(new byte[0][]);
+        LEVEL_TYPES = levelTypes.toArray(new DryerState.EventType[0]);
+    }
+
+    private DryerLogParser() {
+    }
+
+    private static void addLevelNames(List<byte[]> names, List<DryerState.EventType> types,
+                                      Level level, DryerState.EventType type, String germanName) {
+        Set<String> candidates = new LinkedHashSet<>();
+        candidates.add(level.getName());
+        candidates.add(level.getLocalizedName());
+        candidates.add(germanName);
+        for (String candidate : candidates) {
+            names.add(candidate.getBytes(StandardCharsets.UTF_8));
+            types.add(type);
+        }
+    }
+
+    /**
+     * Parses a record header line such as "Juni 19, 2025 4:37:15 PM clothdryer.DryerState logEvent".
+     *
+     * @param buffer the bytes of the log
+     * @param from   index of the first byte of the line
+     * @param to     index after the last byte of the line (without line separator)
+     * @return the local epoch milliseconds, or {@link #INVALID} if the line is no header
+     */
+    public static long parseTimestamp(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        int monthEnd = indexOf(buffer, (byte) ' ', position, to);
+        if (monthEnd < 0) {
+            return INVALID;
+        }
+        int month = parseMonth(buffer, position, monthEnd);
+        if (month < 0) {
+            return INVALID;
+        }
+        position = monthEnd + 1;
+
+        int dayEnd = skipDigits(buffer, position, to);
+        if (dayEnd == position || dayEnd + 1 >= to || buffer.get(dayEnd) != ',') {
+            return INVALID;
+        }
+        int day = parseDigits(buffer, position, dayEnd);
+        position = dayEnd + 2; // ", "
+
+        int yearEnd = skipDigits(buffer, position, to);
+        if (yearEnd == position || yearEnd >= to) {
+            return INVALID;
+        }
+        int year = parseDigits(buffer, position, yearEnd);
+        position = yearEnd + 1;
+
+        int hourEnd = skipDigits(buffer, position, to);
+        if (hourEnd == position || hourEnd + 6 > to || buffer.get(hourEnd) != ':' || buffer.get(hourEnd + 3) != ':') {
+            return INVALID;
+        }
+        int hour = parseDigits(buffer, position, hourEnd);
+        int minute = parseDigits(buffer, hourEnd + 1, hourEnd + 3);
+        int second = parseDigits(buffer, hourEnd + 4, hourEnd + 6);
+        position = hourEnd + 6;
+
+        // Optional AM/PM marker (12 hour clock)
+        if (position + 1 < to && buffer.get(position) == ' ') {
+            byte marker = buffer.get(position + 1);
+            boolean isAm = marker == 'A' || marker == 'a' || marker == 'v'; // "vorm."
+            boolean isPm = marker == 'P' || marker == 'p' || marker == 'n'; // "nachm."
+            if (isAm && hour == 12) {
+                hour = 0;
+            } else if (isPm && hour < 12) {
+                hour += 12;
+            }
+        }
+
+        if (day < 1 || day > 31 || hour > 23 || minute > 59 || second > 60) {
+            return INVALID;
+        }
+        long days = daysFromCivil(year, month, day);
+        return ((days * 24 + hour) * 60 + minute) * 60_000L + second * 1000L;
+    }
+
+    /**
+     * Parses the level of a record line such as "WARNUNG: Cannot open door: Door is locked".
+     *
+     * @param buffer the bytes of the log
+     * @param from   index of the first byte of the line
+     * @param to     index after the last byte of the line
+     * @return the event type, or null if the line does not start with a known level
+     */
+    public static DryerState.EventType parseLevel(ByteBuffer buffer, int from, int to) {
+        int colon = indexOf(buffer, (byte) ':', from, to);
+        if (colon < 0) {
+            return null;
+        }
+        for (int i = 0; i < LEVEL_NAMES.length; i++) {
+            if (regionEquals(buffer, from, colon, LEVEL_NAMES[i], false)) {
+                return LEVEL_TYPES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns where the message of a record line starts, i.e. after the level and ": ".
+     *
+     * @param buffer the bytes of the log
+     * @param from   index of the first byte of the line
+     * @param to     index after the last byte of the line
+     * @return the index of the first message byte
+     */
+    public static int messageStart(ByteBuffer buffer, int from, int to) {
+        int colon = indexOf(buffer, (byte) ':', from, to);
+        if (colon < 0) {
+            return from;
+        }
+        return Math.min(to, colon + 2);
+    }
+
+    /**
+     * Checks whether the bytes between from and to start with the given ASCII text.
+     */
+    public static boolean startsWith(ByteBuffer buffer, int from, int to, byte[] text) {
+        return to - from >= text.length && regionEquals(buffer, from, from + text.length, text, false);
+    }
+
+    /**
+     * Checks whether the bytes between from and to contain the given ASCII text.
+     */
+    public static boolean contains(ByteBuffer buffer, int from, int to, byte[] text) {
+        int last = to - text.length;
+        for (int start = from; start <= last; start++) {
+            if (buffer.get(start) == text[0] && regionEquals(buffer, start, start + text.length, text, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns how many warnings a record stands for: the count of an aggregated record
+     * such as "Cannot open door: Door is locked [repeated 12 times, 14:03:07 - 14:03:15]"
+     * written by {@link WarningRateLimiter}, or 1 for any other record.
+     */
+    public static int occurrences(ByteBuffer buffer, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buffer.get(i) == '[') {
+                if (i == from || !startsWith(buffer, i - 1, to, REPEATED)) {
+                    return 1;
+                }
+                int digits = i - 1 + REPEATED.length;
+                int end = skipDigits(buffer, digits, to);
+                return end > digits ? parseDigits(buffer, digits, end) : 1;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Finds the next occurrence of a byte.
+     * @return its index, or -1 if it does not occur before to
+     */
+    public static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseMonth(ByteBuffer buffer, int from, int to) {
+        // Abbreviated German months may end with a dot ("Sept.")
+        int end = to > from && buffer.get(to - 1) == '.' ? to - 1 : to;
+        for (int i = 0; i < MONTH_NAMES.length; i++) {
+            if (regionEquals(buffer, from, end, MONTH_NAMES[i], true)) {
+                return MONTH_NUMBERS[i];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(ByteBuffer buffer, int from, int to, byte[] text, boolean ignoreCase) {
+        if (to - from != text.length) {
+            return false;
+        }
+        for (int i = 0; i < text.length; i++) {
+            byte b = buffer.get(from + i);
+            if (ignoreCase && b >= 'A' && b <= 'Z') {
+                b = (byte) (b + ('a' - 'A'));
+            }
+            if (b != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipDigits(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i < to && buffer.get(i) >= '0' && buffer.get(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseDigits(ByteBuffer buffer, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (buffer.get(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (H. Hinnant's algorithm).
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
@@ -2,6 +2,11 @@ package clothdryer;
 
 import clothdryer.DryerState.ProgramStatus;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * DryerSimulation simulates the drying process for different laundry programs.
  * It manages temperature, humidity, remaining time, and interacts with the SafetyModule
@@ -10,32 +15,58 @@ import clothdryer.DryerState.ProgramStatus;
  */
 public class DryerSimulation {
 
-    private static final double HUMIDITY_DECREASE_RATE_COTTON = 0.8;
-    private static final double HUMIDITY_DECREASE_RATE_SYNTHETIC = 0.5;
-    private static final double HUMIDITY_DECREASE_RATE_WOOL = 0.3;
+    static final double HUMIDITY_DECREASE_RATE_COTTON = 0.8;
+    static final double HUMIDITY_DECREASE_RATE_SYNTHETIC = 0.5;
+    static final double HUMIDITY_DECREASE_RATE_WOOL = 0.3;
 
-    private static final double MAX_TEMP_COTTON = 75.0;
-    private static final double MAX_TEMP_SYNTHETIC = 60.0;
-    private static final double MAX_TEMP_WOOL = 45.0;
+    static final double MAX_TEMP_COTTON = 75.0;
+    static final double MAX_TEMP_SYNTHETIC = 60.0;
+    static final double MAX_TEMP_WOOL = 45.0;
 
-    private static final double TEMP_INCREASE_RATE = 2.0;
-    private static final double TEMP_DECREASE_RATE = 0.8;
-    private static final double TEMP_COOLING_RATE = 3.0; // Fast cooling
+    static final double TEMP_INCREASE_RATE = 2.0;
+    static final double TEMP_DECREASE_RATE = 0.8;
+    static final double TEMP_COOLING_RATE = 3.0; // Fast cooling
 
-    private static final int TIME_COTTON = 3600;    // 60 minutes
-    private static final int TIME_SYNTHETIC = 2700; // 45 minutes
-    private static final int TIME_WOOL = 1800;      // 30 minutes
+    static final int TIME_COTTON = 3600;    // 60 minutes
+    static final int TIME_SYNTHETIC = 2700; // 45 minutes
+    static final int TIME_WOOL = 1800;      // 30 minutes
 
     private final DryerState dryerState;
     private final SafetyModule safetyModule;
-    private boolean heatingActive = false;
+    private boolean heatingActive = false; // the program wants the heater on
+    private boolean heaterEnabled = true; // false while a power budget withholds the heater
     private double humidityDecreaseRate = 0.0;
     private double targetTemperature = 0.0;
     private int initialTimeForProgram = 0;
 
-    private double previousHumidity;
     private double previousUpdateTime;
-    private static final double TARGET_HUMIDITY = 5.0; // Program finishes when humidity reaches this level
+    private static final int RATE_WINDOW = 10; // readings the drying rate is measured over
+    private final double[] rateTimes = new double[RATE_WINDOW];
+    private final double[] rateHumidities = new double[RATE_WINDOW];
+    private int rateCount = 0; // readings in the window since the filter was primed
+    private int rateNext = 0;
+    private long simulatedTimeMs = 0; // Sum of all elapsed tick times, keeps the simulation deterministic
+    static final double TARGET_HUMIDITY = 5.0; // Program finishes when humidity reaches this level
+
+    private DryingModel physicalModel; // null: linear model below
+    private AdaptiveIntegrator integrator;
+    private final DryingConditions conditions = new DryingConditions();
+    private final double[] modelState = new double[DryingModel.STATE_SIZE];
+
+    private LaundryLoad load; // null: the humidity is a single value for the whole drum
+    private final EnergyMeter energyMeter;
+    private ProgramCatalog programCatalog = ProgramCatalog.DEFAULT;
+    private static final double TRAJECTORY_TEMPERATURE_STEP = 0.5; // start temperatures sharing one table
+    private static final int MAX_TRAJECTORIES = 64;
+    private final Map<String, TrajectoryTable> trajectories = new HashMap<>(); // for the current catalog and model
+    private HumiditySensor humiditySensor = HumiditySensor.IDEAL;
+    private HumidityFilter humidityFilter = HumidityFilter.NONE;
+    private boolean filterPrimed = false; // false until the first reading of a program or load
+    private double measuredHumidity; // last filtered sensor reading while running
+    private CycleHistoryStore cycleHistory; // null: finished cycles are not kept
+    private long cycleStartMs; // wall-clock start of the current cycle
+    private long cycleStartSimulatedMs;
+    private double cyclePeakTemperature;
 
     /**
      * Constructs a DryerSimulation with the given dryer state and safety module.
@@ -43,15 +74,32 @@ public class DryerSimulation {
      * @param safetyModule the safety module for door and overheating checks
      */
     public DryerSimulation(DryerState dryerState, SafetyModule safetyModule) {
+        this(dryerState, safetyModule, new EnergyMeter(new EnergyLedger()));
+    }
+
+    /**
+     * Constructs a DryerSimulation that books its energy use with the given meter.
+     * @param dryerState the state object representing the dryer's current state
+     * @param safetyModule the safety module for door and overheating checks
+     * @param energyMeter the meter for heater and motor energy
+     */
+    public DryerSimulation(DryerState dryerState, SafetyModule safetyModule, EnergyMeter energyMeter) {
         this.dryerState = dryerState;
         this.safetyModule = safetyModule;
+        this.energyMeter = energyMeter;
     }
 
     /**
      * Starts a drying program by configuring parameters and setting the state to RUNNING.
      * @param programName the name of the selected program ("cotton", "synthetic", "wool")
+     * @throws IllegalArgumentException if the catalog has no such program
+     * @throws IllegalStateException if the door is open or locked
      */
     public void startProgram(String programName) {
+        ProgramProfile profile = programCatalog.get(programName);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown program: " + programName);
+        }
         if (!safetyModule.isOperationAllowed()) {
             throw new IllegalStateException("Operation not allowed: Door is open or locked.");
         }
@@ -59,11 +107,38 @@ public class DryerSimulation {
         // Remove this line to keep the current temperature:
         // dryerState.setTemperature(0.0);
 
+        // A cycle that is still running ends under its own program before the new one is applied
+        endCycle(CycleHistoryStore.Outcome.CANCELLED);
+
         // Configure program parameters to set the correct duration
+        applyProfile(profile);
         configureProgramParameters(programName);
+        beginProgram(programName);
+    }
 
+    /**
+     * Starts a drying program with the given parameters, e.g. a candidate profile of
+     * the {@link ProfileOptimizer}, instead of a program from the catalog.
+     * @param profile the program parameters
+     */
+    public void startProgram(ProgramProfile profile) {
+        if (!safetyModule.isOperationAllowed()) {
+            throw new IllegalStateException("Operation not allowed: Door is open or locked.");
+        }
+        endCycle(CycleHistoryStore.Outcome.CANCELLED);
+        applyProfile(profile);
+        configureProgramParameters(profile.getName());
+        beginProgram(profile.getName());
+    }
+
+    private void beginProgram(String programName) {
         // Set status to RUNNING after configuration
         dryerState.setStatus(ProgramStatus.RUNNING);
+        energyMeter.startCycle(programName);
+        cycleStartMs = System.currentTimeMillis();
+        cycleStartSimulatedMs = simulatedTimeMs;
+        cyclePeakTemperature = dryerState.getTemperature();
+        filterPrimed = false;
         safetyModule.updateDoorLock();
 
         // Log program start
@@ -81,6 +156,7 @@ public class DryerSimulation {
         dryerState.setStatus(ProgramStatus.IDLE);
 
         dryerState.setRemainingSeconds(0);
+        endCycle(CycleHistoryStore.Outcome.CANCELLED);
         
         // Update door lock status
         safetyModule.updateDoorLock();
@@ -89,31 +165,25 @@ public class DryerSimulation {
     }
 
     /**
-     * Configures simulation parameters for the selected program.
+     * Takes over the temperature, drying rate and duration of a program profile.
+     * @param profile the program parameters
+     */
+    private void applyProfile(ProgramProfile profile) {
+        humidityDecreaseRate = profile.getHumidityDecreaseRate();
+        targetTemperature = profile.getTargetTemperature();
+        dryerState.setRemainingSeconds(profile.getDurationSeconds());
+        initialTimeForProgram = profile.getDurationSeconds();
+    }
+
+    /**
+     * Configures the simulation parameters that do not depend on the profile.
      * @param programName the name of the program
      */
     private void configureProgramParameters(String programName) {
-        switch (programName) {
-            case "cotton" -> {
-                humidityDecreaseRate = HUMIDITY_DECREASE_RATE_COTTON;
-                targetTemperature = MAX_TEMP_COTTON;
-                dryerState.setRemainingSeconds(TIME_COTTON);
-                initialTimeForProgram = TIME_COTTON;
-            }
-            case "synthetic" -> {
-                humidityDecreaseRate = HUMIDITY_DECREASE_RATE_SYNTHETIC;
-                targetTemperature = MAX_TEMP_SYNTHETIC;
-                dryerState.setRemainingSeconds(TIME_SYNTHETIC);
-                initialTimeForProgram = TIME_SYNTHETIC;
-            }
-            case "wool" -> {
-                humidityDecreaseRate = HUMIDITY_DECREASE_RATE_WOOL;
-                targetTemperature = MAX_TEMP_WOOL;
-                dryerState.setRemainingSeconds(TIME_WOOL);
-                initialTimeForProgram = TIME_WOOL;
-            }
+        if (load != null) {
+            load.configure(targetTemperature);
         }
-        
+
         // Make sure remaining seconds is set to program duration
         dryerState.setProgramName(programName);
         heatingActive = true;
@@ -124,16 +194,40 @@ public class DryerSimulation {
      * @param elapsedTimeMs elapsed time in milliseconds since last update
      */
     public void updateState(int elapsedTimeMs) {
+        simulatedTimeMs += elapsedTimeMs;
+
         // Temperatur und Status immer aktualisieren, solange nicht ERROR oder DOOR_OPEN
         if (dryerState.getStatus() != ProgramStatus.ERROR &&
             dryerState.getStatus() != ProgramStatus.DOOR_OPEN) {
 
+            if (energyMeter.isCycleActive()) {
+                boolean motorOn = dryerState.getStatus() == ProgramStatus.RUNNING
+                        || dryerState.getStatus() == ProgramStatus.COOLING;
+                energyMeter.record(elapsedTimeMs,
+                        EnergyMeter.heaterPower(isHeating(), dryerState.getTemperature(), targetTemperature), motorOn);
+            }
+
             // Immer Temperatur aktualisieren
-            updateTemperature(elapsedTimeMs / 1000.0);
+            if (physicalModel != null) {
+                integratePhysicalModel(elapsedTimeMs / 1000.0);
+            } else {
+                updateTemperature(elapsedTimeMs / 1000.0);
+            }
+            if (energyMeter.isCycleActive()) {
+                cyclePeakTemperature = Math.max(cyclePeakTemperature, dryerState.getTemperature());
+            }
 
             if (null != dryerState.getStatus()) switch (dryerState.getStatus()) {
                 case RUNNING:
-                    updateHumidity(elapsedTimeMs / 1000.0);
+                    if (physicalModel == null || load != null) {
+                        updateHumidity(elapsedTimeMs / 1000.0);
+                    }
+                    if (heatingActive && !heaterEnabled) {
+                        // Waiting for power: the program pauses, drying rates measured before no longer apply
+                        filterPrimed = false;
+                        break;
+                    }
+                    measureHumidity();
                     updateRemainingTime(elapsedTimeMs / 1000.0);
                     if (safetyModule.isOverheating()) {
                         heatingActive = false;
@@ -145,10 +239,8 @@ public class DryerSimulation {
                         safetyModule.updateDoorLock();
                     }   break;
                 case COOLING:
-                    if (dryerState.getTemperature() > SafetyModule.SAFE_DOOR_TEMPERATURE) {
-                        dryerState.setDoorLocked(true);
-                    } else {
-                        dryerState.setDoorLocked(false);
+                    // The safety module keeps the door locked until the drum is cool
+                    if (dryerState.getTemperature() <= SafetyModule.SAFE_DOOR_TEMPERATURE) {
                         dryerState.setStatus(ProgramStatus.IDLE);
                     }   break;
                 case IDLE:
@@ -159,8 +251,16 @@ public class DryerSimulation {
             }
         }
 
+        // The cycle ends when the dryer is idle again or has failed
+        if (energyMeter.isCycleActive() && (dryerState.getStatus() == ProgramStatus.IDLE
+                || dryerState.getStatus() == ProgramStatus.ERROR)) {
+            endCycle(dryerState.getStatus() == ProgramStatus.IDLE
+                    ? CycleHistoryStore.Outcome.COMPLETED : CycleHistoryStore.Outcome.FAILED);
+        }
+
         // Always update door lock status
         safetyModule.updateDoorLock();
+        safetyModule.flushWarnings();
     }
 
     /**
@@ -170,7 +270,7 @@ public class DryerSimulation {
     private void updateTemperature(double elapsedTimeSec) {
         double currentTemp = dryerState.getTemperature();
 
-        if (heatingActive) {
+        if (isHeating()) {
             if (currentTemp < targetTemperature) {
                 double newTemp = currentTemp + (TEMP_INCREASE_RATE * elapsedTimeSec);
                 dryerState.setTemperature(Math.min(newTemp, targetTemperature));
@@ -186,40 +286,96 @@ public class DryerSimulation {
         }
     }
 
+    /**
+     * Advances temperature and humidity with the physical model. While a program is
+     * running, integration stops exactly where the humidity reaches the target; the
+     * heater is switched off for the rest of the tick, so large ticks do not overdry.
+     * @param elapsedTimeSec elapsed time in seconds
+     */
+    private void integratePhysicalModel(double elapsedTimeSec) {
+        ProgramStatus status = dryerState.getStatus();
+        boolean drying = status == ProgramStatus.RUNNING && load == null; // a load dries per garment
+        conditions.set(isHeating(), drying, status == ProgramStatus.COOLING, targetTemperature, humidityDecreaseRate);
+        modelState[DryingModel.TEMPERATURE] = dryerState.getTemperature();
+        modelState[DryingModel.HUMIDITY] = dryerState.getHumidity();
+
+        if (drying && isHeating()) {
+            double dried = integrator.integrateUntilBelow(physicalModel, conditions, modelState, elapsedTimeSec,
+                    DryingModel.HUMIDITY, TARGET_HUMIDITY);
+            if (dried < elapsedTimeSec) {
+                conditions.setHeating(false);
+                integrator.integrate(physicalModel, conditions, modelState, elapsedTimeSec - dried);
+            }
+        } else {
+            integrator.integrate(physicalModel, conditions, modelState, elapsedTimeSec);
+        }
+
+        dryerState.setTemperature(Math.max(0, modelState[DryingModel.TEMPERATURE]));
+        dryerState.setHumidity(Math.max(0, modelState[DryingModel.HUMIDITY]));
+    }
+
     /**
      * Updates the humidity based on heating state and elapsed time.
      * @param elapsedTimeSec elapsed time in seconds
      */
     private void updateHumidity(double elapsedTimeSec) {
+        if (load != null) {
+            if (isHeating()) {
+                load.dry(elapsedTimeSec);
+                dryerState.setHumidity(load.getHumidity());
+            }
+            return;
+        }
         double currentHumidity = dryerState.getHumidity();
 
-        if (heatingActive && currentHumidity > 0) {
+        if (isHeating() && currentHumidity > 0) {
             double newHumidity = currentHumidity - (humidityDecreaseRate * elapsedTimeSec);
             dryerState.setHumidity(Math.max(0, newHumidity));
         }
     }
 
+    /**
+     * Reads the humidity sensor and filters the reading. The filter starts afresh
+     * with the first reading after a program start or a new load.
+     */
+    private void measureHumidity() {
+        double reading = humiditySensor.read(dryerState.getHumidity());
+        if (!filterPrimed) {
+            humidityFilter.reset(reading);
+            filterPrimed = true;
+            rateCount = 0;
+            rateNext = 0;
+        }
+        measuredHumidity = humidityFilter.apply(reading);
+    }
+
     /**
      * Updates the remaining time estimate based on humidity decrease and elapsed time.
      * @param elapsedTimeSec elapsed time in seconds
      */
     private void updateRemainingTime(double elapsedTimeSec) {
-        double currentTime = System.currentTimeMillis() / 1000.0;
-        double currentHumidity = dryerState.getHumidity();
+        double currentTime = simulatedTimeMs / 1000.0;
+        double currentHumidity = measuredHumidity;
         
         // Initialize values if needed
         if (previousUpdateTime == 0) {
             previousUpdateTime = currentTime;
-            previousHumidity = currentHumidity;
             
             // For first call, just decrease time linearly
             int remainingTime = dryerState.getRemainingSeconds();
             dryerState.setRemainingSeconds(Math.max(0, (int)(remainingTime - elapsedTimeSec)));
         }
         
-        double timeDelta = currentTime - previousUpdateTime;
-        double humidityDelta = previousHumidity - currentHumidity;
-        
+        // Measure the drying rate over the last readings instead of a single tick,
+        // so the noise of one reading has little weight
+        int oldest = rateCount < RATE_WINDOW ? 0 : rateNext;
+        double timeDelta = rateCount > 0 ? currentTime - rateTimes[oldest] : 0;
+        double humidityDelta = rateCount > 0 ? rateHumidities[oldest] - currentHumidity : 0;
+        rateTimes[rateNext] = currentTime;
+        rateHumidities[rateNext] = currentHumidity;
+        rateNext = (rateNext + 1) % RATE_WINDOW;
+        rateCount = Math.min(rateCount + 1, RATE_WINDOW);
+
         // Calculate drying rate (humidity decrease per second)
         double dryingRate = (timeDelta > 0) ? humidityDelta / timeDelta : 0;
         
@@ -240,9 +396,7 @@ public class DryerSimulation {
             dryerState.setRemainingSeconds(Math.max(0, (int)(remainingTime - elapsedTimeSec)));
         }
         
-        // Update values for next calculation
         previousUpdateTime = currentTime;
-        previousHumidity = currentHumidity;
         
         // Check if program should finish based on humidity
         if (currentHumidity <= TARGET_HUMIDITY) {
@@ -250,21 +404,244 @@ public class DryerSimulation {
         }
     }
 
+    /**
+     * Ends the metered cycle, if any, and adds it to the cycle history.
+     * @param outcome how the cycle ended
+     */
+    private void endCycle(CycleHistoryStore.Outcome outcome) {
+        if (!energyMeter.isCycleActive()) {
+            return;
+        }
+        energyMeter.endCycle();
+        if (cycleHistory != null) {
+            try {
+                cycleHistory.append(new CycleHistoryStore.Cycle(dryerState.getProgramName(), cycleStartMs,
+                        simulatedTimeMs - cycleStartSimulatedMs, cyclePeakTemperature, dryerState.getHumidity(),
+                        energyMeter.getLastCycleKwh(), outcome));
+            } catch (IOException e) {
+                dryerState.logEvent(DryerState.EventType.WARNING, "Cycle history not written: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Keeps a summary of every finished cycle in the given store. The start time is
+     * taken from the wall clock, the duration from the simulated time.
+     * @param cycleHistory the store, may be shared by many dryers, or null to stop keeping cycles
+     */
+    public void setCycleHistory(CycleHistoryStore cycleHistory) {
+        this.cycleHistory = cycleHistory;
+    }
+
+    /**
+     * Writes the dryer state and everything the next tick depends on to a checkpoint.
+     * Configuration such as model, sensor, filter and catalog is not included.
+     * @param out the checkpoint being written
+     */
+    void writeCheckpoint(SimulationCheckpoint.Output out) {
+        dryerState.writeCheckpoint(out);
+        out.putBoolean(heatingActive)
+                .putBoolean(heaterEnabled)
+                .putDouble(humidityDecreaseRate)
+                .putDouble(targetTemperature)
+                .putInt(initialTimeForProgram)
+                .putDouble(previousUpdateTime)
+                .putInt(rateCount)
+                .putInt(rateNext);
+        for (int i = 0; i < RATE_WINDOW; i++) {
+            out.putDouble(rateTimes[i]).putDouble(rateHumidities[i]);
+        }
+        out.putLong(simulatedTimeMs)
+                .putBoolean(filterPrimed)
+                .putDouble(measuredHumidity)
+                .putLong(cycleStartMs)
+                .putLong(cycleStartSimulatedMs)
+                .putDouble(cyclePeakTemperature)
+                .putDouble(integrator != null ? integrator.getStepSize() : 0.0)
+                .putBoolean(load != null);
+        if (load != null) {
+            load.writeCheckpoint(out);
+        }
+        energyMeter.writeCheckpoint(out);
+    }
+
+    /**
+     * Restores a state written by {@link #writeCheckpoint}. The filter of a noisy
+     * sensor starts over with the next reading, as its history is not saved.
+     * @param in the checkpoint being read
+     * @throws IOException if the checkpoint is damaged
+     */
+    void readCheckpoint(ByteBuffer in) throws IOException {
+        dryerState.readCheckpoint(in);
+        heatingActive = SimulationCheckpoint.getBoolean(in);
+        heaterEnabled = SimulationCheckpoint.getBoolean(in);
+        humidityDecreaseRate = in.getDouble();
+        targetTemperature = in.getDouble();
+        initialTimeForProgram = in.getInt();
+        previousUpdateTime = in.getDouble();
+        rateCount = in.getInt();
+        rateNext = in.getInt();
+        if (rateCount < 0 || rateCount > RATE_WINDOW || rateNext < 0 || rateNext >= RATE_WINDOW) {
+            throw new IOException("Invalid drying rate window in checkpoint");
+        }
+        for (int i = 0; i < RATE_WINDOW; i++) {
+            rateTimes[i] = in.getDouble();
+            rateHumidities[i] = in.getDouble();
+        }
+        simulatedTimeMs = in.getLong();
+        filterPrimed = SimulationCheckpoint.getBoolean(in) && humidityFilter == HumidityFilter.NONE;
+        measuredHumidity = in.getDouble();
+        cycleStartMs = in.getLong();
+        cycleStartSimulatedMs = in.getLong();
+        cyclePeakTemperature = in.getDouble();
+        double stepSize = in.getDouble();
+        if (integrator != null && stepSize > 0) {
+            integrator.resetStepSize(stepSize);
+        }
+        load = SimulationCheckpoint.getBoolean(in) ? LaundryLoad.readCheckpoint(in) : null;
+        energyMeter.readCheckpoint(in);
+    }
+
     /**
      * Checks if the program should finish based on humidity or time.
      * Sets status to IDLE and disables heating if finished.
      */
     private boolean checkProgramFinished() {
-        if (dryerState.getHumidity() <= TARGET_HUMIDITY || dryerState.getRemainingSeconds() <= 0) {
-            // Statt IDLE auf COOLING setzen
-            dryerState.setStatus(ProgramStatus.COOLING);
-            heatingActive = false;
-            safetyModule.updateDoorLock();
+        if (measuredHumidity <= TARGET_HUMIDITY || dryerState.getRemainingSeconds() <= 0) {
+            if (dryerState.getStatus() == ProgramStatus.RUNNING) {
+                // Statt IDLE auf COOLING setzen
+                dryerState.setStatus(ProgramStatus.COOLING);
+                heatingActive = false;
+                // Marks the end of drying in the log, as the door stays locked until the drum is cool
+                dryerState.logEvent(DryerState.EventType.INFO, "Drying finished, cooling down");
+                safetyModule.updateDoorLock();
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * @return the simulated time in milliseconds, i.e. the sum of all elapsed tick times
+     */
+    public long getSimulatedTimeMs() {
+        return simulatedTimeMs;
+    }
+
+    /**
+     * Replaces the built-in linear temperature and humidity updates with a physical
+     * model that is solved by an {@link AdaptiveIntegrator}. With such a model, the
+     * accuracy no longer depends on the tick size, so coarse ticks can be used for
+     * fast simulation.
+     *
+     * @param model      the model to use, or null for the linear default model
+     * @param integrator the integrator solving the model, or null for one with default tolerances
+     */
+    public void setPhysicalModel(DryingModel model, AdaptiveIntegrator integrator) {
+        this.physicalModel = model;
+        this.integrator = model == null ? null : (integrator != null ? integrator : new AdaptiveIntegrator());
+        trajectories.clear();
+    }
+
+    /**
+     * @return the physical model in use, or null if the linear default model is used
+     */
+    public DryingModel getPhysicalModel() {
+        return physicalModel;
+    }
+
+    /**
+     * Sets the catalog that program names are looked up in when a program is started.
+     * @param programCatalog the catalog, e.g. one with optimized profiles
+     */
+    public void setProgramCatalog(ProgramCatalog programCatalog) {
+        this.programCatalog = programCatalog;
+        trajectories.clear();
+    }
+
+    /**
+     * Returns the precomputed course of a standard cycle of the given program: fully
+     * wet laundry, started at the given drum temperature and not interrupted. Tables
+     * are cached per program and start temperature (rounded to 0.5 °C) and dropped
+     * whenever the catalog or the physical model changes.
+     *
+     * @param programName      the program name
+     * @param startTemperature the drum temperature at program start in °C
+     * @return the trajectory table, or null if the catalog has no such program
+     */
+    public TrajectoryTable getTrajectory(String programName, double startTemperature) {
+        ProgramProfile profile = programCatalog.get(programName);
+        if (profile == null) {
+            return null;
+        }
+        double temperature = Math.round(startTemperature / TRAJECTORY_TEMPERATURE_STEP) * TRAJECTORY_TEMPERATURE_STEP;
+        String key = programName + '@' + temperature;
+        TrajectoryTable table = trajectories.get(key);
+        if (table == null) {
+            if (trajectories.size() >= MAX_TRAJECTORIES) {
+                trajectories.clear();
+            }
+            table = TrajectoryTable.compute(profile, temperature, physicalModel);
+            trajectories.put(key, table);
+        }
+        return table;
+    }
+
+    /**
+     * @return the catalog that program names are looked up in
+     */
+    public ProgramCatalog getProgramCatalog() {
+        return programCatalog;
+    }
+
+    /**
+     * Sets the sensor the controller reads the humidity from to decide when the
+     * laundry is dry and to estimate the remaining time.
+     *
+     * @param humiditySensor the sensor, or {@link HumiditySensor#IDEAL} for the true humidity
+     */
+    public void setHumiditySensor(HumiditySensor humiditySensor) {
+        this.humiditySensor = humiditySensor;
+    }
+
+    /**
+     * @return the sensor the controller reads the humidity from
+     */
+    public HumiditySensor getHumiditySensor() {
+        return humiditySensor;
+    }
+
+    /**
+     * Sets the filter the sensor readings pass through before the controller uses
+     * them. Noisy sensors should be combined with a filter such as
+     * {@link HumidityFilterChain#standard()}, otherwise single readings below the
+     * target end the program early and the remaining time jumps every tick.
+     *
+     * @param humidityFilter the filter, or {@link HumidityFilter#NONE} to use the raw readings
+     */
+    public void setHumidityFilter(HumidityFilter humidityFilter) {
+        this.humidityFilter = humidityFilter;
+        filterPrimed = false;
+    }
+
+    /**
+     * @return the filtered humidity the controller saw in the last running tick
+     */
+    public double getMeasuredHumidity() {
+        return measuredHumidity;
+    }
+
+    /**
+     * @return the meter booking this dryer's energy use
+     */
+    public EnergyMeter getEnergyMeter() {
+        return energyMeter;
+    }
+
+    /**
+     * Attempts to open the door using the safety module.
+     * @return true if the door was opened
+     */
     public boolean tryOpenDoor() {
         return safetyModule.tryOpenDoor();
     }
@@ -304,6 +681,31 @@ public class DryerSimulation {
         return heatingActive;
     }
 
+    /**
+     * @return true if the heater is actually on, i.e. requested by the program and not withheld
+     */
+    private boolean isHeating() {
+        return heatingActive && heaterEnabled;
+    }
+
+    /**
+     * Allows or withholds the heater, e.g. by a {@link PowerBudgetScheduler}. While
+     * the heater is withheld, a running program pauses: the drum cools down, the
+     * laundry does not dry and the remaining time stands still.
+     *
+     * @param enabled false to keep the heater off even if the program requests it
+     */
+    public void setHeaterEnabled(boolean enabled) {
+        this.heaterEnabled = enabled;
+    }
+
+    /**
+     * @return true unless the heater is currently withheld
+     */
+    public boolean isHeaterEnabled() {
+        return heaterEnabled;
+    }
+
     /**
      * Sets the heating active state.
      * @param active true to activate heating, false to deactivate
@@ -327,10 +729,36 @@ public class DryerSimulation {
     public void loadNewLaundry() {
         if (!dryerState.isDoorClosed()) {
             // Reset humidity to 100% for a new load of clothes
+            load = null;
+            filterPrimed = false;
             dryerState.setHumidity(100.0);
             dryerState.logEvent(DryerState.EventType.INFO, "New laundry loaded");
         } else {
             dryerState.logEvent(DryerState.EventType.WARNING, "Cannot load new laundry while door is closed");
         }
     }
+
+    /**
+     * Loads a mixed load of garments if the door is open. From now on the humidity
+     * is the mass-weighted moisture of the garments, each drying at its fabric's rate.
+     * @param newLoad the garments to load
+     */
+    public void loadNewLaundry(LaundryLoad newLoad) {
+        if (!dryerState.isDoorClosed()) {
+            load = newLoad;
+            filterPrimed = false;
+            load.configure(targetTemperature);
+            dryerState.setHumidity(load.getHumidity());
+            dryerState.logEvent(DryerState.EventType.INFO, "New laundry loaded: " + load.size() + " garments");
+        } else {
+            dryerState.logEvent(DryerState.EventType.WARNING, "Cannot load new laundry while door is closed");
+        }
+    }
+
+    /**
+     * @return the mixed load in the drum, or null if the laundry is modeled as a single humidity value
+     */
+    public LaundryLoad getLoad() {
+        return load;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package clothdryer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
@@ -8,9 +9,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.logging.FileHandler;
 import java.util.logging.Logger;
-import java.util.logging.SimpleFormatter;
 
 /**
  * DryerState holds the current state of the dryer, including program name,
@@ -20,20 +19,30 @@ import java.util.logging.SimpleFormatter;
  */
 public class DryerState {
 
-    private static final Logger LOGGER = Logger.getLogger(DryerState.class.getName());
-    private static FileHandler fileHandler;
-
-    static {
-        try {
-            // Create logs directory if it does not exist
-            Files.createDirectories(Path.of("logs"));
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            fileHandler = new FileHandler("logs/dryerlog_" + timestamp + ".log", true);
-            fileHandler.setFormatter(new SimpleFormatter());
-            LOGGER.addHandler(fileHandler);
-            LOGGER.setUseParentHandlers(false);
-        } catch (IOException e) {
-            System.err.println("Could not initialize log file: " + e.getMessage());
+    /**
+     * Directory that holds the dryerlog_*.log files.
+     */
+    public static final Path LOG_DIRECTORY = Path.of("logs");
+
+    /**
+     * Holds the file logger. The log file is only created when the first event is
+     * logged, so that loading DryerState (e.g. in headless runs) does not touch the disk.
+     */
+    private static final class LogFile {
+        private static final Logger LOGGER = Logger.getLogger(DryerState.class.getName());
+
+        static {
+            try {
+                // Create logs directory if it does not exist
+                Files.createDirectories(LOG_DIRECTORY);
+                RotatingLogHandler fileHandler = RotatingLogHandler.open(LOG_DIRECTORY);
+                LOGGER.addHandler(fileHandler);
+                LOGGER.setUseParentHandlers(false);
+                // Records are written by a background thread, which must finish before the JVM exits
+                Runtime.getRuntime().addShutdownHook(new Thread(fileHandler::close));
+            } catch (IOException e) {
+                System.err.println("Could not initialize log file: " + e.getMessage());
+            }
         }
     }
 
@@ -64,6 +73,7 @@ public class DryerState {
     private String currentError = null;
     private static final int MAX_EVENT_HISTORY = 100;
     private final List<DryerEvent> eventHistory = new ArrayList<>();
+    private boolean fileLogging = true;
     private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
@@ -175,14 +185,58 @@ public class DryerState {
             eventHistory.remove(0);
         }
 
+        if (!fileLogging) {
+            return;
+        }
+
         // Log to file
         switch (type) {
-            case INFO -> LOGGER.info(message);
-            case WARNING -> LOGGER.warning(message);
-            case ERROR -> LOGGER.severe(message);
+            case INFO -> LogFile.LOGGER.info(message);
+            case WARNING -> LogFile.LOGGER.warning(message);
+            case ERROR -> LogFile.LOGGER.severe(message);
         }
     }
     
+    /**
+     * Enables or disables writing events to the log file. Events are kept in the
+     * history either way. Batch simulations such as the optimizer turn file logging off.
+     * @param enabled true to write events to the log file
+     */
+    public synchronized void setFileLogging(boolean enabled) {
+        this.fileLogging = enabled;
+    }
+
+    /**
+     * Writes the state variables to a checkpoint. The event history is not included.
+     * @param out the checkpoint being written
+     */
+    synchronized void writeCheckpoint(SimulationCheckpoint.Output out) {
+        out.putByte(status.ordinal())
+                .putString(programName)
+                .putInt(remainingSeconds)
+                .putDouble(temperature)
+                .putDouble(humidity)
+                .putBoolean(doorClosed)
+                .putBoolean(doorLocked)
+                .putString(currentError);
+    }
+
+    /**
+     * Restores the state variables from a checkpoint without logging events.
+     * @param in the checkpoint being read
+     * @throws IOException if the checkpoint is damaged
+     */
+    synchronized void readCheckpoint(ByteBuffer in) throws IOException {
+        status = ProgramStatus.values()[in.get()];
+        programName = SimulationCheckpoint.getString(in);
+        remainingSeconds = in.getInt();
+        temperature = in.getDouble();
+        humidity = in.getDouble();
+        doorClosed = SimulationCheckpoint.getBoolean(in);
+        doorLocked = SimulationCheckpoint.getBoolean(in);
+        currentError = SimulationCheckpoint.getString(in);
+    }
+
     /**
      * Gets the event history as an unmodifiable list.
      * @return The event history
@@ -212,9 +266,16 @@ public class DryerState {
         private final LocalDateTime timestamp;
         
         public DryerEvent(EventType type, String message) {
+            this(type, message, LocalDateTime.now());
+        }
+
+        /**
+         * Creates an event with a given timestamp, e.g. one read back from a log file.
+         */
+        public DryerEvent(EventType type, String message, LocalDateTime timestamp) {
             this.type = type;
             this.message = message;
-            this.timestamp = LocalDateTime.now();
+            this.timestamp = timestamp;
         }
         
         public EventType getType() {
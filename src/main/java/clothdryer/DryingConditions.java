@@ -0,0 +1,61 @@
+package clothdryer;
+
+/**
+ * DryingConditions holds the inputs of a {@link DryingModel} that do not belong to
+ * the integrated state: whether the heater is on, the program's target temperature
+ * and drying rate. One instance is reused for every tick of a simulation.
+ */
+public final class DryingConditions {
+
+    private boolean heating;
+    private boolean drying;
+    private boolean cooling;
+    private double targetTemperature;
+    private double humidityDecreaseRate;
+
+    /**
+     * Updates all conditions at once.
+     *
+     * @param heating              true if the heater is on
+     * @param drying               true if a program is running, so moisture evaporates
+     * @param cooling              true if the dryer is in the fast cool-down phase
+     * @param targetTemperature    the program's target temperature in °C
+     * @param humidityDecreaseRate the program's drying rate in %/s at target temperature
+     */
+    public void set(boolean heating, boolean drying, boolean cooling, double targetTemperature, double humidityDecreaseRate) {
+        this.heating = heating;
+        this.drying = drying;
+        this.cooling = cooling;
+        this.targetTemperature = targetTemperature;
+        this.humidityDecreaseRate = humidityDecreaseRate;
+    }
+
+    /**
+     * Switches the heater on or off, leaving the other conditions unchanged.
+     *
+     * @param heating true if the heater is on
+     */
+    public void setHeating(boolean heating) {
+        this.heating = heating;
+    }
+
+    public boolean isHeating() {
+        return heating;
+    }
+
+    public boolean isDrying() {
+        return drying;
+    }
+
+    public boolean isCooling() {
+        return cooling;
+    }
+
+    public double getTargetTemperature() {
+        return targetTemperature;
+    }
+
+    public double getHumidityDecreaseRate() {
+        return humidityDecreaseRate;
+    }
+}
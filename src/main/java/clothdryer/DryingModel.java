@@ -0,0 +1,27 @@
+package clothdryer;
+
+/**
+ * A DryingModel describes how temperature and humidity change over time as a
+ * system of ordinary differential equations. It is evaluated by the
+ * {@link AdaptiveIntegrator}, which chooses the step size, so a model only has to
+ * compute the rates of change for a given state.
+ * <p>
+ * The state vector holds the temperature in °C at {@link #TEMPERATURE} and the
+ * humidity in % at {@link #HUMIDITY}.
+ */
+public interface DryingModel {
+
+    int TEMPERATURE = 0;
+    int HUMIDITY = 1;
+    int STATE_SIZE = 2;
+
+    /**
+     * Computes the rates of change for the given state. Implementations must not
+     * allocate, since this method is called several times per integration step.
+     *
+     * @param state      the current state (temperature, humidity)
+     * @param conditions the operating conditions of the dryer
+     * @param rates      receives the derivatives in °C/s and %/s
+     */
+    void derivatives(double[] state, DryingConditions conditions, double[] rates);
+}
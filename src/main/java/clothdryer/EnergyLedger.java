@@ -0,0 +1,201 @@
+package clothdryer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EnergyLedger sums up the electrical energy used by one or many dryers, in total
+ * and per program.
+ * <p>
+ * All counters are {@link LongAdder}s: each dryer's {@link EnergyMeter} adds to them
+ * on every tick without locking, and readers get a current sum at any time without
+ * pausing the simulation. Energy is counted in millijoules (watts times milliseconds),
+ * so every tick adds an exact integer.
+ */
+public class EnergyLedger {
+
+    /**
+     * Default electricity price in euros per kWh.
+     */
+    public static final double DEFAULT_PRICE_PER_KWH = 0.35;
+
+    static final double MILLIJOULES_PER_KWH = 3.6e9;
+
+    private final LongAdder energyMillijoules = new LongAdder();
+    private final LongAdder heaterOnMs = new LongAdder();
+    private final LongAdder completedCycles = new LongAdder();
+    private final ConcurrentHashMap<String, ProgramEnergy> programs = new ConcurrentHashMap<>();
+    private volatile double pricePerKwh = DEFAULT_PRICE_PER_KWH;
+
+    /**
+     * Energy counters of one program.
+     */
+    public static final class ProgramEnergy {
+        private final LongAdder energyMillijoules = new LongAdder();
+        private final LongAdder heaterOnMs = new LongAdder();
+        private final LongAdder cycles = new LongAdder();
+
+        /**
+         * @return the energy used by all cycles of this program in kWh, including running ones
+         */
+        public double getKwh() {
+            return energyMillijoules.sum() / MILLIJOULES_PER_KWH;
+        }
+
+        /**
+         * @return the time the heater was on during this program, in milliseconds
+         */
+        public long getHeaterOnMs() {
+            return heaterOnMs.sum();
+        }
+
+        /**
+         * @return the number of started cycles of this program
+         */
+        public long getCycles() {
+            return cycles.sum();
+        }
+
+        /**
+         * @return the average energy per started cycle in kWh, or 0 if none was started
+         */
+        public double getKwhPerCycle() {
+            long count = cycles.sum();
+            return count == 0 ? 0.0 : getKwh() / count;
+        }
+    }
+
+    /**
+     * Returns the counters of a program, creating them on first use.
+     *
+     * @param programName the program name
+     * @return the counters of the program
+     */
+    ProgramEnergy program(String programName) {
+        return programs.computeIfAbsent(programName, name -> new ProgramEnergy());
+    }
+
+    /**
+     * Books energy of a tick.
+     */
+    void add(ProgramEnergy program, long millijoules, long heaterMs) {
+        energyMillijoules.add(millijoules);
+        heaterOnMs.add(heaterMs);
+        if (program != null) {
+            program.energyMillijoules.add(millijoules);
+            program.heaterOnMs.add(heaterMs);
+        }
+    }
+
+    void cycleStarted(ProgramEnergy program) {
+        program.cycles.increment();
+    }
+
+    void cycleCompleted() {
+        completedCycles.increment();
+    }
+
+    /**
+     * Writes all counters and the price to a checkpoint. Must not be called while
+     * meters book into the ledger.
+     */
+    void writeCheckpoint(SimulationCheckpoint.Output out) {
+        out.putLong(energyMillijoules.sum())
+                .putLong(heaterOnMs.sum())
+                .putLong(completedCycles.sum())
+                .putDouble(pricePerKwh)
+                .putInt(programs.size());
+        for (Map.Entry<String, ProgramEnergy> entry : programs.entrySet()) {
+            ProgramEnergy program = entry.getValue();
+            out.putString(entry.getKey())
+                    .putLong(program.energyMillijoules.sum())
+                    .putLong(program.heaterOnMs.sum())
+                    .putLong(program.cycles.sum());
+        }
+    }
+
+    /**
+     * Replaces all counters and the price by those of a checkpoint. Meters booking
+     * into this ledger have to be restored afterwards, see {@link EnergyMeter}.
+     */
+    void readCheckpoint(ByteBuffer in) throws IOException {
+        energyMillijoules.reset();
+        energyMillijoules.add(in.getLong());
+        heaterOnMs.reset();
+        heaterOnMs.add(in.getLong());
+        completedCycles.reset();
+        completedCycles.add(in.getLong());
+        setPricePerKwh(in.getDouble());
+        programs.clear();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            ProgramEnergy program = program(SimulationCheckpoint.getString(in));
+            program.energyMillijoules.add(in.getLong());
+            program.heaterOnMs.add(in.getLong());
+            program.cycles.add(in.getLong());
+        }
+    }
+
+    /**
+     * @return the energy used by all dryers in kWh
+     */
+    public double getTotalKwh() {
+        return energyMillijoules.sum() / MILLIJOULES_PER_KWH;
+    }
+
+    /**
+     * @return the time the heaters were on, summed over all dryers, in milliseconds
+     */
+    public long getHeaterOnMs() {
+        return heaterOnMs.sum();
+    }
+
+    /**
+     * @return the number of finished cycles, whether completed or cancelled
+     */
+    public long getCompletedCycles() {
+        return completedCycles.sum();
+    }
+
+    /**
+     * @return the cost of the energy used by all dryers at the current price
+     */
+    public double getTotalCost() {
+        return getTotalKwh() * pricePerKwh;
+    }
+
+    /**
+     * @param programName the program name
+     * @return the counters of the program, or null if it never ran
+     */
+    public ProgramEnergy getProgram(String programName) {
+        return programs.get(programName);
+    }
+
+    /**
+     * @return a live, unmodifiable view of the counters per program
+     */
+    public Map<String, ProgramEnergy> getPrograms() {
+        return Collections.unmodifiableMap(programs);
+    }
+
+    public double getPricePerKwh() {
+        return pricePerKwh;
+    }
+
+    /**
+     * Sets the electricity price used by {@link #getTotalCost()}.
+     *
+     * @param pricePerKwh the price in euros per kWh
+     */
+    public void setPricePerKwh(double pricePerKwh) {
+        if (pricePerKwh < 0) {
+            throw new IllegalArgumentException("Price must not be negative: " + pricePerKwh);
+        }
+        this.pricePerKwh = pricePerKwh;
+    }
+}
@@ -0,0 +1,165 @@
+package clothdryer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * EnergyMeter integrates the electrical power of one dryer over the simulated time
+ * and books it into an {@link EnergyLedger}.
+ * <p>
+ * The heater draws its full power while the drum heats up. Once the target
+ * temperature is reached, it only has to make up for the heat loss, which the
+ * simulation models as {@code TEMP_DECREASE_RATE / TEMP_INCREASE_RATE} of its
+ * heating rate at the cotton temperature. The loss grows with the temperature
+ * difference to the (0 °C) surroundings, so cooler programs need less holding power.
+ * The drum motor runs while a program is running or cooling down.
+ * <p>
+ * The meter is written by the simulation thread only; the current cycle's values
+ * are volatile so that other threads can read them live.
+ */
+public class EnergyMeter {
+
+    static final long HEATER_POWER_W = 2500;
+    static final long HOLDING_POWER_W = Math.round(HEATER_POWER_W
+            * DryerSimulation.TEMP_DECREASE_RATE / DryerSimulation.TEMP_INCREASE_RATE); // at MAX_TEMP_COTTON
+    static final long MOTOR_POWER_W = 150;
+    private static final double HOLDING_BAND = 0.5; // °C below target that count as reached
+
+    private final EnergyLedger ledger;
+    private EnergyLedger.ProgramEnergy program;
+    private String programName;
+    private volatile long cycleMillijoules;
+    private volatile long cycleHeaterOnMs;
+    private volatile long lastCycleMillijoules;
+
+    /**
+     * Creates a meter that books into the given ledger.
+     *
+     * @param ledger the ledger, may be shared by many meters
+     */
+    public EnergyMeter(EnergyLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Returns the heater power for a tick.
+     *
+     * @param heating            true if the heater is switched on
+     * @param temperature        the drum temperature at the start of the tick
+     * @param targetTemperature  the program's target temperature
+     * @return the electrical power of the heater in watts
+     */
+    static long heaterPower(boolean heating, double temperature, double targetTemperature) {
+        if (!heating) {
+            return 0;
+        }
+        if (temperature < targetTemperature - HOLDING_BAND) {
+            return HEATER_POWER_W;
+        }
+        return Math.min(HEATER_POWER_W, Math.round(HOLDING_POWER_W * targetTemperature / DryerSimulation.MAX_TEMP_COTTON));
+    }
+
+    /**
+     * Starts a new cycle of the given program.
+     *
+     * @param programName the program name
+     */
+    void startCycle(String programName) {
+        if (program != null) {
+            endCycle();
+        }
+        this.programName = programName;
+        program = ledger.program(programName);
+        ledger.cycleStarted(program);
+        cycleMillijoules = 0;
+        cycleHeaterOnMs = 0;
+    }
+
+    /**
+     * Books the energy of one tick.
+     *
+     * @param elapsedMs    the tick length in milliseconds
+     * @param heaterPowerW the heater power during the tick
+     * @param motorOn      true if the drum motor was running
+     */
+    void record(int elapsedMs, long heaterPowerW, boolean motorOn) {
+        long power = heaterPowerW + (motorOn ? MOTOR_POWER_W : 0);
+        if (power == 0 || elapsedMs <= 0) {
+            return;
+        }
+        long millijoules = power * elapsedMs;
+        long heaterMs = heaterPowerW > 0 ? elapsedMs : 0;
+        ledger.add(program, millijoules, heaterMs);
+        cycleMillijoules += millijoules;
+        cycleHeaterOnMs += heaterMs;
+    }
+
+    /**
+     * Ends the current cycle, if any.
+     */
+    void endCycle() {
+        if (program == null) {
+            return;
+        }
+        program = null;
+        lastCycleMillijoules = cycleMillijoules;
+        ledger.cycleCompleted();
+    }
+
+    /**
+     * Writes the current cycle to a checkpoint.
+     */
+    void writeCheckpoint(SimulationCheckpoint.Output out) {
+        out.putString(program == null ? null : programName)
+                .putLong(cycleMillijoules)
+                .putLong(cycleHeaterOnMs)
+                .putLong(lastCycleMillijoules);
+    }
+
+    /**
+     * Restores the current cycle from a checkpoint. The ledger must have been
+     * restored first; the cycle is not counted again.
+     */
+    void readCheckpoint(ByteBuffer in) throws IOException {
+        programName = SimulationCheckpoint.getString(in);
+        program = programName == null ? null : ledger.program(programName);
+        cycleMillijoules = in.getLong();
+        cycleHeaterOnMs = in.getLong();
+        lastCycleMillijoules = in.getLong();
+    }
+
+    /**
+     * @return true while a cycle is being metered
+     */
+    boolean isCycleActive() {
+        return program != null;
+    }
+
+    /**
+     * @return the energy of the current cycle, or of the last one if none is active, in kWh
+     */
+    public double getCycleKwh() {
+        return cycleMillijoules / EnergyLedger.MILLIJOULES_PER_KWH;
+    }
+
+    /**
+     * @return the heater-on time of the current or last cycle in milliseconds
+     */
+    public long getCycleHeaterOnMs() {
+        return cycleHeaterOnMs;
+    }
+
+    /**
+     * @return the energy of the last finished cycle in kWh
+     */
+    public double getLastCycleKwh() {
+        return lastCycleMillijoules / EnergyLedger.MILLIJOULES_PER_KWH;
+    }
+
+    /**
+     * @return the ledger this meter books into
+     */
+    public EnergyLedger getLedger() {
+        return ledger;
+    }
+}
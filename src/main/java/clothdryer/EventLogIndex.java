@@ -0,0 +1,541 @@
+package clothdryer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * EventLogIndex makes the events in the dryerlog_*.log files browsable without
+ * loading them into memory.
+ * <p>
+ * The index is sparse: the records of each file are grouped into blocks of
+ * {@link #BLOCK_SIZE} records, and for every block only its file offset, record
+ * count, time range and the number of records per {@link DryerState.EventType}
+ * are kept. A {@link View} applies a type and time filter on this metadata and
+ * loads the blocks it actually needs from disk, keeping a few of them in a small
+ * LRU cache. {@link #refresh()} indexes data appended since the last call and
+ * forgets files that are gone, e.g. because the log handler compressed them; it
+ * scans into a copy of the metadata and swaps it in at the end, so lookups on
+ * other threads do not wait for the scan.
+ */
+public class EventLogIndex {
+
+    static final int BLOCK_SIZE = 256;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int CACHED_BLOCKS = 32;
+    private static final int TYPE_COUNT = DryerState.EventType.values().length;
+
+    private final Path directory;
+    private final Object refreshLock = new Object(); // one refresh at a time; readers never wait for it
+    private volatile Snapshot snapshot = new Snapshot();
+
+    private final Map<Integer, Block> cache = new LinkedHashMap<>(CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Block> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+
+    /**
+     * The indexed files and the block metadata in parallel primitive arrays. A
+     * refresh fills a copy and publishes it when done, so readers always see a
+     * complete snapshot and never wait for a scan.
+     */
+    private static final class Snapshot {
+        private final List<Path> files;
+        private final List<Long> indexedLengths;
+        private int blockCount;
+        private int[] blockFile;
+        private long[] blockStart;
+        private long[] blockEnd;
+        private int[] blockRecords;
+        private long[] blockMinTime;
+        private long[] blockMaxTime;
+        private int[] blockTypeCounts;
+
+        Snapshot() {
+            files = new ArrayList<>();
+            indexedLengths = new ArrayList<>();
+            blockFile = new int[64];
+            blockStart = new long[64];
+            blockEnd = new long[64];
+            blockRecords = new int[64];
+            blockMinTime = new long[64];
+            blockMaxTime = new long[64];
+            blockTypeCounts = new int[64 * TYPE_COUNT];
+        }
+
+        Snapshot(Snapshot previous) {
+            files = new ArrayList<>(previous.files);
+            indexedLengths = new ArrayList<>(previous.indexedLengths);
+            blockCount = previous.blockCount;
+            blockFile = previous.blockFile.clone();
+            blockStart = previous.blockStart.clone();
+            blockEnd = previous.blockEnd.clone();
+            blockRecords = previous.blockRecords.clone();
+            blockMinTime = previous.blockMinTime.clone();
+            blockMaxTime = previous.blockMaxTime.clone();
+            blockTypeCounts = previous.blockTypeCounts.clone();
+        }
+
+        /**
+         * Copies the given snapshot with only the kept files and their blocks.
+         */
+        Snapshot(Snapshot previous, boolean[] keepFile) {
+            this();
+            int[] fileIndex = new int[keepFile.length];
+            for (int file = 0; file < keepFile.length; file++) {
+                if (keepFile[file]) {
+                    fileIndex[file] = files.size();
+                    files.add(previous.files.get(file));
+                    indexedLengths.add(previous.indexedLengths.get(file));
+                }
+            }
+            for (int block = 0; block < previous.blockCount; block++) {
+                if (keepFile[previous.blockFile[block]]) {
+                    int copy = newBlock(fileIndex[previous.blockFile[block]], previous.blockStart[block],
+                            previous.blockMinTime[block]);
+                    blockEnd[copy] = previous.blockEnd[block];
+                    blockRecords[copy] = previous.blockRecords[block];
+                    blockMaxTime[copy] = previous.blockMaxTime[block];
+                    System.arraycopy(previous.blockTypeCounts, block * TYPE_COUNT, blockTypeCounts, copy * TYPE_COUNT,
+                            TYPE_COUNT);
+                }
+            }
+        }
+
+        /**
+         * Removes the last block of a file if it is not full, so it gets rescanned together with new data.
+         * @return the offset to continue scanning from
+         */
+        long dropTrailingPartialBlock(int fileIndex, long indexed) {
+            if (blockCount > 0 && blockFile[blockCount - 1] == fileIndex && blockRecords[blockCount - 1] < BLOCK_SIZE) {
+                blockCount--;
+                return blockStart[blockCount];
+            }
+            return indexed;
+        }
+
+        int newBlock(int fileIndex, long offset, long time) {
+            if (blockCount == blockFile.length) {
+                int capacity = blockCount * 2;
+                blockFile = Arrays.copyOf(blockFile, capacity);
+                blockStart = Arrays.copyOf(blockStart, capacity);
+                blockEnd = Arrays.copyOf(blockEnd, capacity);
+                blockRecords = Arrays.copyOf(blockRecords, capacity);
+                blockMinTime = Arrays.copyOf(blockMinTime, capacity);
+                blockMaxTime = Arrays.copyOf(blockMaxTime, capacity);
+                blockTypeCounts = Arrays.copyOf(blockTypeCounts, capacity * TYPE_COUNT);
+            }
+            int block = blockCount++;
+            blockFile[block] = fileIndex;
+            blockStart[block] = offset;
+            blockEnd[block] = offset;
+            blockRecords[block] = 0;
+            blockMinTime[block] = time;
+            blockMaxTime[block] = time;
+            Arrays.fill(blockTypeCounts, block * TYPE_COUNT, (block + 1) * TYPE_COUNT, 0);
+            return block;
+        }
+
+        void addRecord(int block, long time, DryerState.EventType type, long end) {
+            blockRecords[block]++;
+            blockEnd[block] = end;
+            blockMinTime[block] = Math.min(blockMinTime[block], time);
+            blockMaxTime[block] = Math.max(blockMaxTime[block], time);
+            blockTypeCounts[block * TYPE_COUNT + type.ordinal()]++;
+        }
+    }
+
+    /**
+     * Creates an index over the log files in the given directory. Call {@link #refresh()} to build it.
+     * @param directory the directory containing dryerlog_*.log files
+     */
+    public EventLogIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Indexes new log files and records appended to known files since the last refresh.
+     * @throws IOException if a log file cannot be read
+     */
+    public void refresh() throws IOException {
+        refresh(() -> false);
+    }
+
+    /**
+     * Indexes new log files and records appended to known files since the last
+     * refresh. Files that are gone are dropped from the index, and a file that has
+     * become shorter, e.g. because it was truncated, is indexed again from the
+     * start. Views and lookups keep working on the previous index while the
+     * files are scanned; the new index replaces it at the end. A cancelled refresh
+     * leaves the index as it was.
+     *
+     * @param cancelled checked while scanning; the refresh stops once it returns true
+     * @throws InterruptedIOException if the refresh was cancelled or the thread interrupted
+     * @throws IOException if a log file cannot be read
+     */
+    public void refresh(BooleanSupplier cancelled) throws IOException {
+        synchronized (refreshLock) {
+            List<Path> found = new ArrayList<>();
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "dryerlog_*.log")) {
+                    stream.forEach(found::add);
+                }
+            }
+            found.sort(null); // file names start with a sortable timestamp
+
+            Snapshot previous = snapshot;
+            boolean[] keepFile = new boolean[previous.files.size()];
+            boolean changed = false;
+            for (int file = 0; file < keepFile.length; file++) {
+                Path path = previous.files.get(file);
+                keepFile[file] = found.contains(path) && Files.size(path) >= previous.indexedLengths.get(file);
+                changed |= !keepFile[file];
+            }
+            Snapshot next = changed ? new Snapshot(previous, keepFile) : new Snapshot(previous);
+            for (Path file : found) {
+                int fileIndex = next.files.indexOf(file);
+                if (fileIndex < 0) {
+                    next.files.add(file);
+                    next.indexedLengths.add(0L);
+                    fileIndex = next.files.size() - 1;
+                }
+                long size = Files.size(file);
+                long indexed = next.indexedLengths.get(fileIndex);
+                if (size > indexed) {
+                    long from = next.dropTrailingPartialBlock(fileIndex, indexed);
+                    next.indexedLengths.set(fileIndex, scanFile(next, fileIndex, file, from, size, cancelled));
+                }
+            }
+            snapshot = next;
+            if (changed) {
+                synchronized (cache) {
+                    cache.clear(); // block numbers have moved
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans a file from the given offset and appends block metadata.
+     * @return the offset up to which the file has been indexed (start of an incomplete record, if any)
+     */
+    private static long scanFile(Snapshot next, int fileIndex, Path file, long from, long size,
+            BooleanSupplier cancelled) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            long bufferOffset = from; // file offset of buffer index 0
+            channel.position(from);
+
+            long pendingOffset = -1;
+            long pendingTime = DryerLogParser.INVALID;
+            long lastComplete = from;
+            int current = -1;
+
+            while (bufferOffset + buffer.position() < size) {
+                if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Refresh of the event log index cancelled");
+                }
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+                int limit = buffer.position();
+                int lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) != '\n') {
+                        continue;
+                    }
+                    int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                    long time = DryerLogParser.parseTimestamp(buffer, lineStart, lineEnd);
+                    if (time != DryerLogParser.INVALID) {
+                        pendingOffset = bufferOffset + lineStart;
+                        pendingTime = time;
+                    } else if (pendingOffset >= 0) {
+                        DryerState.EventType type = DryerLogParser.parseLevel(buffer, lineStart, lineEnd);
+                        if (type != null) {
+                            if (current < 0 || next.blockRecords[current] == BLOCK_SIZE) {
+                                current = next.newBlock(fileIndex, pendingOffset, pendingTime);
+                            }
+                            next.addRecord(current, pendingTime, type, bufferOffset + i + 1);
+                            lastComplete = bufferOffset + i + 1;
+                        }
+                        pendingOffset = -1;
+                    }
+                    lineStart = i + 1;
+                }
+                // Keep the unfinished line for the next read
+                if (lineStart == 0 && limit == buffer.capacity()) {
+                    throw new IOException("Line too long in " + file);
+                }
+                buffer.limit(limit);
+                buffer.position(lineStart);
+                buffer.compact();
+                bufferOffset += lineStart;
+            }
+            return lastComplete;
+        }
+    }
+
+    /**
+     * @return the number of indexed events in all files
+     */
+    public long getEventCount() {
+        Snapshot current = snapshot;
+        long count = 0;
+        for (int block = 0; block < current.blockCount; block++) {
+            count += current.blockRecords[block];
+        }
+        return count;
+    }
+
+    /**
+     * Creates a filtered view of the currently indexed events. May read the blocks
+     * at the borders of the time range, so call it off the FX thread.
+     *
+     * @param types  the event types to include
+     * @param fromMs first local epoch millisecond to include, or Long.MIN_VALUE
+     * @param toMs   last local epoch millisecond to include, or Long.MAX_VALUE
+     * @return the view; later refreshes do not change it
+     */
+    public View view(java.util.Set<DryerState.EventType> types, long fromMs, long toMs) {
+        Snapshot current = snapshot;
+        boolean[] includeType = new boolean[TYPE_COUNT];
+        for (DryerState.EventType type : types) {
+            includeType[type.ordinal()] = true;
+        }
+
+        int[] blocks = new int[current.blockCount];
+        long[] prefix = new long[current.blockCount + 1];
+        int selected = 0;
+        for (int block = 0; block < current.blockCount; block++) {
+            if (current.blockMaxTime[block] < fromMs || current.blockMinTime[block] > toMs) {
+                continue; // skipped using the index only
+            }
+            long matches;
+            if (current.blockMinTime[block] >= fromMs && current.blockMaxTime[block] <= toMs) {
+                matches = 0;
+                for (int type = 0; type < TYPE_COUNT; type++) {
+                    if (includeType[type]) {
+                        matches += current.blockTypeCounts[block * TYPE_COUNT + type];
+                    }
+                }
+            } else {
+                // Block at the border of the time range: count exactly
+                matches = loadBlock(current, block).matchingPositions(includeType, fromMs, toMs).length;
+            }
+            if (matches > 0) {
+                blocks[selected] = block;
+                prefix[selected + 1] = prefix[selected] + matches;
+                selected++;
+            }
+        }
+        return new View(current, Arrays.copyOf(blocks, selected), Arrays.copyOf(prefix, selected + 1),
+                includeType, fromMs, toMs);
+    }
+
+    /**
+     * @return the cached block as indexed in the given snapshot, or null if it has to be read
+     */
+    private Block cachedBlock(Snapshot indexed, int block) {
+        synchronized (cache) {
+            Block cached = cache.get(block);
+            // A trailing block grows with later refreshes; only the version with the same end fits.
+            // Views on a snapshot from before files were dropped number their blocks differently.
+            return cached != null && cached.end == indexed.blockEnd[block]
+                    && cached.file.equals(indexed.files.get(indexed.blockFile[block])) ? cached : null;
+        }
+    }
+
+    private Block loadBlock(Snapshot indexed, int block) {
+        Block cached = cachedBlock(indexed, block);
+        if (cached != null) {
+            return cached;
+        }
+        Path file = indexed.files.get(indexed.blockFile[block]);
+        long start = indexed.blockStart[block];
+        ByteBuffer buffer = ByteBuffer.allocate((int) (indexed.blockEnd[block] - start));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Block loaded = Block.parse(buffer, file, indexed.blockRecords[block], indexed.blockEnd[block]);
+        synchronized (cache) {
+            cache.put(block, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * The records of one block, parsed.
+     */
+    private static final class Block {
+        private final Path file;
+        private final long end; // file offset after the last record, identifies the version of a growing block
+        private final long[] times;
+        private final DryerState.EventType[] types;
+        private final String[] messages;
+
+        private Block(int capacity, Path file, long end) {
+            this.file = file;
+            this.end = end;
+            times = new long[capacity];
+            types = new DryerState.EventType[capacity];
+            messages = new String[capacity];
+        }
+
+        static Block parse(ByteBuffer buffer, Path file, int records, long end) {
+            Block block = new Block(records, file, end);
+            int count = 0;
+            long pendingTime = DryerLogParser.INVALID;
+            int limit = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i <= limit && count < records; i++) {
+                if (i < limit && buffer.get(i) != '\n') {
+                    continue;
+                }
+                int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                long time = DryerLogParser.parseTimestamp(buffer, lineStart, lineEnd);
+                if (time != DryerLogParser.INVALID) {
+                    pendingTime = time;
+                } else if (pendingTime != DryerLogParser.INVALID) {
+                    DryerState.EventType type = DryerLogParser.parseLevel(buffer, lineStart, lineEnd);
+                    if (type != null) {
+                        int messageStart = DryerLogParser.messageStart(buffer, lineStart, lineEnd);
+                        block.times[count] = pendingTime;
+                        block.types[count] = type;
+                        block.messages[count] = new String(buffer.array(), messageStart, lineEnd - messageStart,
+                                StandardCharsets.UTF_8);
+                        count++;
+                    }
+                    pendingTime = DryerLogParser.INVALID;
+                }
+                lineStart = i + 1;
+            }
+            return block;
+        }
+
+        int[] matchingPositions(boolean[] includeType, long fromMs, long toMs) {
+            int[] positions = new int[times.length];
+            int count = 0;
+            for (int i = 0; i < times.length; i++) {
+                if (types[i] != null && includeType[types[i].ordinal()] && times[i] >= fromMs && times[i] <= toMs) {
+                    positions[count++] = i;
+                }
+            }
+            return Arrays.copyOf(positions, count);
+        }
+
+        DryerState.DryerEvent event(int position) {
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(times[position], 1000L), 0, ZoneOffset.UTC);
+            return new DryerState.DryerEvent(types[position], messages[position], timestamp);
+        }
+    }
+
+    /**
+     * A filtered, immutable view over the indexed events. Events are loaded block by
+     * block on demand; {@link #getIfLoaded(long)} never touches the disk, so the FX
+     * thread can show what is cached and leave the rest to a background thread.
+     */
+    public final class View {
+        private final Snapshot indexed;
+        private final int[] blocks;
+        private final long[] prefix;
+        private final boolean[] includeType;
+        private final long fromMs;
+        private final long toMs;
+        private volatile Positions lastPositions; // matching positions of the block used last
+
+        private View(Snapshot indexed, int[] blocks, long[] prefix, boolean[] includeType, long fromMs, long toMs) {
+            this.indexed = indexed;
+            this.blocks = blocks;
+            this.prefix = prefix;
+            this.includeType = includeType;
+            this.fromMs = fromMs;
+            this.toMs = toMs;
+        }
+
+        /**
+         * @return the number of events matching the filter
+         */
+        public long size() {
+            return prefix[prefix.length - 1];
+        }
+
+        /**
+         * Returns the event at the given position of the filtered list, reading its
+         * block from disk if it is not cached.
+         *
+         * @param index position between 0 and size() - 1
+         * @return the event
+         * @throws UncheckedIOException if the block cannot be read
+         */
+        public DryerState.DryerEvent get(long index) {
+            int selected = selectedBlock(index);
+            return event(index, selected, loadBlock(indexed, blocks[selected]));
+        }
+
+        /**
+         * Returns the event at the given position if its block is cached, without any file access.
+         *
+         * @param index position between 0 and size() - 1
+         * @return the event, or null if its block has to be read with {@link #get(long)} first
+         */
+        public DryerState.DryerEvent getIfLoaded(long index) {
+            int selected = selectedBlock(index);
+            Block cached = cachedBlock(indexed, blocks[selected]);
+            return cached != null ? event(index, selected, cached) : null;
+        }
+
+        private int selectedBlock(long index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of range for " + size() + " events");
+            }
+            int search = Arrays.binarySearch(prefix, index);
+            int selected = search >= 0 ? search : -search - 2;
+            while (prefix[selected + 1] == prefix[selected]) {
+                selected++;
+            }
+            return selected;
+        }
+
+        private DryerState.DryerEvent event(long index, int selected, Block loaded) {
+            Positions positions = lastPositions;
+            if (positions == null || positions.block != blocks[selected]) {
+                positions = new Positions(blocks[selected], loaded.matchingPositions(includeType, fromMs, toMs));
+                lastPositions = positions;
+            }
+            return loaded.event(positions.positions[(int) (index - prefix[selected])]);
+        }
+    }
+
+    private static final class Positions {
+        private final int block;
+        private final int[] positions;
+
+        Positions(int block, int[] positions) {
+            this.block = block;
+            this.positions = positions;
+        }
+    }
+}
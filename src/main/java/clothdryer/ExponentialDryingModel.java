@@ -0,0 +1,46 @@
+package clothdryer;
+
+/**
+ * ExponentialDryingModel is a simple physical model of the drum:
+ * <ul>
+ *   <li>With the heater on, the temperature approaches the target temperature
+ *       exponentially. Without heating, it decays towards the ambient temperature,
+ *       faster while the cool-down fan runs.</li>
+ *   <li>Moisture evaporates proportionally to the temperature relative to the target
+ *       and slows down as the laundry gets dry, because the remaining water is bound
+ *       more tightly in the fabric.</li>
+ * </ul>
+ * At target temperature and 100% humidity the drying rate equals the program's
+ * nominal rate, and the initial heating rate matches the linear model.
+ */
+public class ExponentialDryingModel implements DryingModel {
+
+    static final double AMBIENT_TEMPERATURE = 0.0; // same floor as the linear model
+    static final double INITIAL_HEATING_RATE = 2.0; // °C/s when starting cold
+    static final double COOLING_TIME_CONSTANT = 20.0; // s, with the cool-down fan
+    static final double IDLE_TIME_CONSTANT = 90.0; // s, natural cooling
+    static final double BOUND_WATER_HUMIDITY = 20.0; // % at which evaporation runs at half speed
+
+    @Override
+    public void derivatives(double[] state, DryingConditions conditions, double[] rates) {
+        double temperature = state[TEMPERATURE];
+        double humidity = state[HUMIDITY];
+        double target = conditions.getTargetTemperature();
+
+        if (conditions.isHeating() && target > AMBIENT_TEMPERATURE) {
+            double timeConstant = (target - AMBIENT_TEMPERATURE) / INITIAL_HEATING_RATE;
+            rates[TEMPERATURE] = (target - temperature) / timeConstant;
+        } else {
+            double timeConstant = conditions.isCooling() ? COOLING_TIME_CONSTANT : IDLE_TIME_CONSTANT;
+            rates[TEMPERATURE] = (AMBIENT_TEMPERATURE - temperature) / timeConstant;
+        }
+
+        if (conditions.isDrying() && conditions.isHeating() && humidity > 0 && target > AMBIENT_TEMPERATURE) {
+            double warmth = Math.max(0.0, (temperature - AMBIENT_TEMPERATURE) / (target - AMBIENT_TEMPERATURE));
+            double moisture = humidity * (100.0 + BOUND_WATER_HUMIDITY) / (100.0 * (humidity + BOUND_WATER_HUMIDITY));
+            rates[HUMIDITY] = -conditions.getHumidityDecreaseRate() * warmth * moisture;
+        } else {
+            rates[HUMIDITY] = 0.0;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package clothdryer;
+
+import clothdryer.DryerState.ProgramStatus;
+
+/**
+ * FleetAggregates keeps fleet-wide figures up to date while the dryers change:
+ * the number of dryers per {@link ProgramStatus}, mean temperature, humidity and
+ * remaining time, and percentiles of temperature and remaining time.
+ * <p>
+ * Every dryer reports its state after each tick and command. The aggregates
+ * remember what each dryer contributed last, in parallel primitive arrays, and
+ * replace only that contribution, so an update is O(1). Means are kept as exact
+ * fixed-point sums. Percentiles come from histograms with two levels, fine bins
+ * and groups of {@link #GROUP_SIZE} bins, so finding one walks at most a few
+ * hundred counters no matter how many dryers the fleet has.
+ * <p>
+ * Temperatures are binned at {@link #TEMPERATURE_RESOLUTION} °C, remaining times
+ * at one second; values beyond the last bin count into it. Remaining times only
+ * cover running dryers, since idle ones have none. All methods are synchronized,
+ * so dashboards may query from any thread while the fleet runs.
+ */
+public class FleetAggregates {
+
+    static final double TEMPERATURE_RESOLUTION = 0.1;
+    static final double MAX_TEMPERATURE = 150.0;
+    static final int MAX_REMAINING_SECONDS = 6 * 3600;
+    static final int GROUP_SIZE = 64;
+    private static final ProgramStatus[] STATUSES = ProgramStatus.values();
+    private static final int TEMPERATURE_BINS = (int) Math.round(MAX_TEMPERATURE / TEMPERATURE_RESOLUTION) + 1;
+
+    /**
+     * Counts of binned values, with a count per group of bins to find ranks quickly.
+     */
+    static final class Histogram {
+        private final int[] bins;
+        private final int[] groups;
+        private int total = 0;
+
+        Histogram(int binCount) {
+            bins = new int[binCount];
+            groups = new int[(binCount + GROUP_SIZE - 1) / GROUP_SIZE];
+        }
+
+        void add(int bin, int delta) {
+            bins[bin] += delta;
+            groups[bin / GROUP_SIZE] += delta;
+            total += delta;
+        }
+
+        int total() {
+            return total;
+        }
+
+        /**
+         * @param percentile the percentile between 0 and 100
+         * @return the bin holding the value at that percentile by nearest rank, or -1 if empty
+         */
+        int binAt(double percentile) {
+            if (total == 0) {
+                return -1;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            int group = 0;
+            while (rank > groups[group]) {
+                rank -= groups[group++];
+            }
+            int bin = group * GROUP_SIZE;
+            while (rank > bins[bin]) {
+                rank -= bins[bin++];
+            }
+            return bin;
+        }
+    }
+
+    private final byte[] status;
+    private final int[] temperatureMilli; // 1/1000 °C
+    private final int[] humidityMilli; // 1/1000 %
+    private final int[] remainingSeconds;
+    private final short[] temperatureBin;
+    private final int[] statusCounts = new int[STATUSES.length];
+    private long temperatureSum = 0;
+    private long humiditySum = 0;
+    private long remainingSum = 0; // of running dryers
+    private final Histogram temperatures = new Histogram(TEMPERATURE_BINS);
+    private final Histogram remaining = new Histogram(MAX_REMAINING_SECONDS + 1);
+
+    /**
+     * Creates the aggregates for a fleet of idle dryers with default state.
+     *
+     * @param dryers the number of dryers, addressed by index 0 .. dryers - 1
+     */
+    public FleetAggregates(int dryers) {
+        if (dryers <= 0) {
+            throw new IllegalArgumentException("Number of dryers must be positive: " + dryers);
+        }
+        status = new byte[dryers];
+        temperatureMilli = new int[dryers];
+        humidityMilli = new int[dryers];
+        remainingSeconds = new int[dryers];
+        temperatureBin = new short[dryers];
+        DryerState initial = new DryerState();
+        for (int i = 0; i < dryers; i++) {
+            status[i] = (byte) initial.getStatus().ordinal();
+            temperatureMilli[i] = toMilli(initial.getTemperature());
+            humidityMilli[i] = toMilli(initial.getHumidity());
+            temperatureBin[i] = (short) temperatureBin(initial.getTemperature());
+            add(i, 1);
+        }
+    }
+
+    /**
+     * Replaces the contribution of a dryer by its current state.
+     *
+     * @param dryer the dryer index
+     * @param state the dryer's state
+     */
+    public synchronized void update(int dryer, DryerState state) {
+        add(dryer, -1);
+        double temperature = state.getTemperature();
+        status[dryer] = (byte) state.getStatus().ordinal();
+        temperatureMilli[dryer] = toMilli(temperature);
+        humidityMilli[dryer] = toMilli(state.getHumidity());
+        remainingSeconds[dryer] = Math.max(0, state.getRemainingSeconds());
+        temperatureBin[dryer] = (short) temperatureBin(temperature);
+        add(dryer, 1);
+    }
+
+    private void add(int dryer, int sign) {
+        statusCounts[status[dryer]] += sign;
+        temperatureSum += sign * (long) temperatureMilli[dryer];
+        humiditySum += sign * (long) humidityMilli[dryer];
+        temperatures.add(temperatureBin[dryer], sign);
+        if (status[dryer] == ProgramStatus.RUNNING.ordinal()) {
+            remainingSum += sign * (long) remainingSeconds[dryer];
+            remaining.add(Math.min(remainingSeconds[dryer], MAX_REMAINING_SECONDS), sign);
+        }
+    }
+
+    private static int toMilli(double value) {
+        return (int) Math.round(value * 1000);
+    }
+
+    private static int temperatureBin(double temperature) {
+        return (int) Math.max(0, Math.min(TEMPERATURE_BINS - 1, Math.round(temperature / TEMPERATURE_RESOLUTION)));
+    }
+
+    /**
+     * @return the number of dryers
+     */
+    public int size() {
+        return status.length;
+    }
+
+    /**
+     * @param status the status to count
+     * @return the number of dryers with that status
+     */
+    public synchronized int count(ProgramStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    /**
+     * @return the mean drum temperature of all dryers in °C
+     */
+    public synchronized double getMeanTemperature() {
+        return temperatureSum / 1000.0 / status.length;
+    }
+
+    /**
+     * @return the mean humidity of all dryers in %
+     */
+    public synchronized double getMeanHumidity() {
+        return humiditySum / 1000.0 / status.length;
+    }
+
+    /**
+     * @return the mean remaining time of the running dryers in seconds, or 0 if none runs
+     */
+    public synchronized double getMeanRemainingSeconds() {
+        int running = remaining.total();
+        return running == 0 ? 0.0 : (double) remainingSum / running;
+    }
+
+    /**
+     * Returns a percentile of the drum temperatures of all dryers, to
+     * {@link #TEMPERATURE_RESOLUTION} °C.
+     *
+     * @param percentile the percentile between 0 and 100, e.g. 95
+     * @return the temperature in °C
+     */
+    public synchronized double getTemperaturePercentile(double percentile) {
+        checkPercentile(percentile);
+        return temperatures.binAt(percentile) * TEMPERATURE_RESOLUTION;
+    }
+
+    /**
+     * Returns a percentile of the remaining times of the running dryers.
+     *
+     * @param percentile the percentile between 0 and 100, e.g. 95
+     * @return the remaining time in seconds, or -1 if no dryer is running
+     */
+    public synchronized int getRemainingSecondsPercentile(double percentile) {
+        checkPercentile(percentile);
+        return remaining.binAt(percentile);
+    }
+
+    private static void checkPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+    }
+}
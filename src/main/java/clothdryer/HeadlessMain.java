@@ -0,0 +1,513 @@
+package clothdryer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Command line entry point for server-side simulation runs.
+ * <p>
+ * In contrast to {@link Main}, this class never touches JavaFX. Dryers are ticked
+ * at maximum speed without sleeping, and results are printed to standard output.
+ * The log file is only created once the first event is logged.
+ */
+public class HeadlessMain {
+
+    private static final int DEFAULT_STEP_MS = 1000;
+    private static final int MAX_CYCLE_SECONDS = 6 * 3600; // abort runs that never become idle
+    private static final long MIXED_LOAD_SEED = 42L; // reproducible mixed loads
+    private static final double NOISY_SENSOR_NOISE = 1.0;
+    private static final double NOISY_SENSOR_RESOLUTION = 0.5;
+    private static final long NOISY_SENSOR_SEED = 7L;
+    private static final int DEFAULT_LAUNDROMAT_DAYS = 30;
+    private static final long LAUNDROMAT_SEED = 1L;
+    private static final int DEFAULT_TEMPERATURE_STEPS = 46;
+    private static final int DEFAULT_RATE_STEPS = 25;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: HeadlessMain <command> [arguments] [--record <file>] [--history <dir>] [--ode] [--noisy]",
+            "  run <program> [stepMs]           run one program until the dryer is idle again",
+            "  script <step>...                 execute steps: start:<program>, stop, open, close,",
+            "                                   load, loadmix:<garments>, tick:<ms>, run:<seconds>, status,",
+            "                                   save:<file>, restore:<file> (checkpoint of the whole dryer state)",
+            "  fleet <size> <program> [stepMs] [budgetKw]  run one program on a whole fleet,",
+            "                                   optionally with a limit on the total heater power",
+            "  offheap <size> <program> [stepMs] [file]  run one program on a fleet stored off-heap,",
+            "                                   optionally in a mapped file that keeps the state",
+            "  replay <file>                    replay and verify a recorded session",
+            "  optimize [program] [tSteps] [rSteps]  sweep program profiles, print the Pareto front",
+            "  estimate [program] [runs]        Monte Carlo percentiles of the cycle time",
+            "  train <model> <session>...       learn remaining times from recorded sessions, compare errors",
+            "  trajectory <program> [startTemp] [intervalSeconds]  print the precomputed standard cycle",
+            "  laundromat <customersPerHour> [minDryers] [maxDryers] [days]  size a shop by queueing simulation",
+            "  history <dir> [hours]            summarize the cycles kept in a cycle history, per program",
+            "  analyze [logDir]                 reconstruct cycles from dryerlog_*.log files, per program",
+            "  --history <dir>                  keep a summary of every finished cycle (run, fleet)",
+            "  --ode                            use the physical model with adaptive step size (run, fleet)",
+            "  --noisy                          use a noisy, quantized humidity sensor with filtering (run)");
+
+    /**
+     * Main method. Parses the command and runs it.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        Path recordFile = null;
+        int recordIndex = arguments.indexOf("--record");
+        if (recordIndex >= 0 && recordIndex + 1 < arguments.size()) {
+            recordFile = Path.of(arguments.get(recordIndex + 1));
+            arguments.subList(recordIndex, recordIndex + 2).clear();
+        }
+        Path historyDirectory = null;
+        int historyIndex = arguments.indexOf("--history");
+        if (historyIndex >= 0 && historyIndex + 1 < arguments.size()) {
+            historyDirectory = Path.of(arguments.get(historyIndex + 1));
+            arguments.subList(historyIndex, historyIndex + 2).clear();
+        }
+        DryingModel physicalModel = arguments.remove("--ode") ? new ExponentialDryingModel() : null;
+        boolean noisySensor = arguments.remove("--noisy");
+        if (arguments.isEmpty() || ((physicalModel != null || noisySensor) && recordFile != null)) {
+            // Replays always use the linear model and the ideal sensor, so such sessions are not recorded
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        CycleHistoryStore cycleHistory = null;
+        try {
+            if (historyDirectory != null) {
+                cycleHistory = CycleHistoryStore.open(historyDirectory);
+            }
+            String command = arguments.get(0);
+            List<String> parameters = arguments.subList(1, arguments.size());
+            switch (command) {
+                case "run" -> runProgram(parameters, recordFile, physicalModel, noisySensor, cycleHistory);
+                case "script" -> runScript(parameters, recordFile);
+                case "fleet" -> runFleet(parameters, physicalModel, cycleHistory);
+                case "offheap" -> runOffHeapFleet(parameters);
+                case "replay" -> replay(parameters);
+                case "optimize" -> optimize(parameters);
+                case "estimate" -> estimate(parameters);
+                case "train" -> train(parameters);
+                case "trajectory" -> printTrajectory(parameters);
+                case "laundromat" -> simulateLaundromat(parameters);
+                case "history" -> printHistory(parameters);
+                case "analyze" -> analyzeLogs(parameters);
+                default -> throw new IllegalArgumentException("Unknown command: " + command);
+            }
+        } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(2);
+        } finally {
+            if (cycleHistory != null) {
+                cycleHistory.close();
+            }
+        }
+    }
+
+    private static void runProgram(List<String> parameters, Path recordFile, DryingModel physicalModel,
+                                   boolean noisySensor, CycleHistoryStore cycleHistory) throws IOException {
+        String programName = requireProgram(parameters.get(0));
+        int stepMs = parseStepMs(parameters, 1);
+        ProgramManager manager = new ProgramManager();
+        manager.setPhysicalModel(physicalModel);
+        manager.setCycleHistory(cycleHistory);
+        if (noisySensor) {
+            manager.setHumiditySensor(new NoisyHumiditySensor(0.0, NOISY_SENSOR_NOISE, NOISY_SENSOR_RESOLUTION,
+                    new SplittableRandom(NOISY_SENSOR_SEED)), HumidityFilterChain.standard());
+        }
+        SessionRecorder recorder = startRecording(manager, recordFile);
+
+        manager.startProgram(programName);
+        manager.tick(0);
+        printTimeToFirstTick(manager);
+
+        long startNanos = System.nanoTime();
+        long dryingMs = -1;
+        long elapsedMs = 0;
+        while (manager.getState().getStatus() != DryerState.ProgramStatus.IDLE
+                && manager.getState().getStatus() != DryerState.ProgramStatus.ERROR
+                && elapsedMs < MAX_CYCLE_SECONDS * 1000L) {
+            manager.tick(stepMs);
+            elapsedMs += stepMs;
+            if (dryingMs < 0 && manager.getState().getStatus() != DryerState.ProgramStatus.RUNNING) {
+                dryingMs = elapsedMs;
+            }
+        }
+        long wallNanos = System.nanoTime() - startNanos;
+        stopRecording(recorder);
+
+        DryerState state = manager.getState();
+        System.out.printf("Program:         %s%n", programName);
+        System.out.printf("Final status:    %s%n", state.getStatus());
+        System.out.printf("Drying time:     %s%n", formatDuration(dryingMs));
+        System.out.printf("Cycle time:      %s%n", formatDuration(elapsedMs));
+        System.out.printf("Final humidity:  %.1f%%%n", state.getHumidity());
+        System.out.printf("Final temp:      %.1f °C%n", state.getTemperature());
+        EnergyMeter meter = manager.getEnergyMeter();
+        System.out.printf("Energy:          %.3f kWh (heater on %s, %.2f EUR)%n", meter.getLastCycleKwh(),
+                formatDuration(meter.getCycleHeaterOnMs()), meter.getLedger().getTotalCost());
+        System.out.printf("Simulated %d ticks in %.2f ms%n", elapsedMs / stepMs, wallNanos / 1e6);
+    }
+
+    /**
+     * @return the program name, if the catalog knows it
+     * @throws IllegalArgumentException otherwise
+     */
+    private static String requireProgram(String programName) {
+        if (ProgramCatalog.DEFAULT.get(programName) == null) {
+            throw new IllegalArgumentException("Unknown program: " + programName);
+        }
+        return programName;
+    }
+
+    /**
+     * Parses the optional simulation step of a command.
+     *
+     * @param parameters the command parameters
+     * @param index      the position of the step
+     * @return the step in milliseconds, {@link #DEFAULT_STEP_MS} if not given
+     * @throws IllegalArgumentException if the step is not a positive number
+     */
+    private static int parseStepMs(List<String> parameters, int index) {
+        int stepMs = parameters.size() > index ? Integer.parseInt(parameters.get(index)) : DEFAULT_STEP_MS;
+        if (stepMs <= 0) {
+            throw new IllegalArgumentException("Step must be a positive number of milliseconds: " + stepMs);
+        }
+        return stepMs;
+    }
+
+    private static void runScript(List<String> steps, Path recordFile) throws IOException {
+        ProgramManager manager = new ProgramManager();
+        SessionRecorder recorder = startRecording(manager, recordFile);
+
+        for (String step : steps) {
+            String[] parts = step.split(":", 2);
+            switch (parts[0]) {
+                case "start" -> manager.startProgram(parts[1]);
+                case "stop" -> manager.stopProgram();
+                case "open" -> System.out.println("open -> " + (manager.tryOpenDoor() ? "opened" : "refused"));
+                case "close" -> manager.closeDoor();
+                case "load" -> System.out.println("load -> " + (manager.loadNewLaundry() ? "loaded" : "refused"));
+                case "loadmix" -> System.out.println("loadmix -> " + (manager.loadNewLaundry(
+                        LaundryLoad.random(Integer.parseInt(parts[1]), MIXED_LOAD_SEED)) ? "loaded" : "refused"));
+                case "tick" -> manager.tick(Integer.parseInt(parts[1]));
+                case "run" -> {
+                    int seconds = Integer.parseInt(parts[1]);
+                    for (int i = 0; i < seconds; i++) {
+                        manager.tick(DEFAULT_STEP_MS);
+                    }
+                }
+                case "status" -> printStatus(manager.getState());
+                case "save" -> SimulationCheckpoint.save(manager, Path.of(parts[1]));
+                case "restore" -> SimulationCheckpoint.restore(manager, Path.of(parts[1]));
+                default -> throw new IllegalArgumentException("Unknown script step: " + step);
+            }
+        }
+        printStatus(manager.getState());
+        printTimeToFirstTick(manager);
+        stopRecording(recorder);
+    }
+
+    private static void runFleet(List<String> parameters, DryingModel physicalModel, CycleHistoryStore cycleHistory) {
+        int size = Integer.parseInt(parameters.get(0));
+        String programName = requireProgram(parameters.get(1));
+        int stepMs = parseStepMs(parameters, 2);
+
+        long setupStart = System.nanoTime();
+        DryerFleet fleet = new DryerFleet(size);
+        fleet.setCycleHistory(cycleHistory);
+        if (parameters.size() > 3) {
+            fleet.setPowerBudget(Math.round(Double.parseDouble(parameters.get(3)) * 1000));
+        }
+        if (physicalModel != null) {
+            for (int i = 0; i < size; i++) {
+                fleet.get(i).setPhysicalModel(physicalModel);
+            }
+        }
+        fleet.startAll(programName);
+        fleet.tick(0);
+        System.out.printf("Fleet of %d dryers ready in %.1f ms%n", size, (System.nanoTime() - setupStart) / 1e6);
+        printTimeToFirstTick(fleet.get(0));
+
+        long startNanos = System.nanoTime();
+        long elapsedMs = 0;
+        int ticks = 0;
+        long peakReservedWatts = 0;
+        while (fleet.countByStatus(DryerState.ProgramStatus.IDLE) + fleet.countByStatus(DryerState.ProgramStatus.ERROR) < size
+                && elapsedMs < MAX_CYCLE_SECONDS * 1000L) {
+            fleet.tick(stepMs);
+            elapsedMs += stepMs;
+            ticks++;
+            if (fleet.getPowerScheduler() != null) {
+                peakReservedWatts = Math.max(peakReservedWatts, fleet.getPowerScheduler().getReservedWatts());
+            }
+        }
+        long wallNanos = System.nanoTime() - startNanos;
+
+        System.out.printf("Simulated cycle: %s%n", formatDuration(elapsedMs));
+        for (DryerState.ProgramStatus status : DryerState.ProgramStatus.values()) {
+            System.out.printf("  %-10s %d%n", status, fleet.countByStatus(status));
+        }
+        printEnergy(fleet.getEnergyLedger());
+        if (fleet.getPowerScheduler() != null) {
+            System.out.printf("Heater budget:   %.1f kW, peak %.1f kW%n",
+                    fleet.getPowerScheduler().getBudgetWatts() / 1000.0, peakReservedWatts / 1000.0);
+        }
+        System.out.printf("%d fleet ticks in %.1f ms (%.2f µs per dryer tick)%n",
+                ticks, wallNanos / 1e6, ticks == 0 ? 0.0 : wallNanos / 1e3 / ticks / size);
+    }
+
+    private static void runOffHeapFleet(List<String> parameters) throws IOException {
+        int size = Integer.parseInt(parameters.get(0));
+        String programName = requireProgram(parameters.get(1));
+        int stepMs = parseStepMs(parameters, 2);
+
+        long setupStart = System.nanoTime();
+        OffHeapFleet fleet = parameters.size() > 3
+                ? OffHeapFleet.map(Path.of(parameters.get(3)), size) : new OffHeapFleet(size);
+        long heapBefore = usedHeapBytes();
+        for (int i = 0; i < size; i++) {
+            fleet.startProgram(i, programName);
+        }
+        System.out.printf("Off-heap fleet of %d dryers ready in %.1f ms (%.1f MB off-heap)%n", size,
+                (System.nanoTime() - setupStart) / 1e6, ((double) OffHeapFleet.HEADER_BYTES
+                        + (double) size * OffHeapFleet.RECORD_BYTES) / (1 << 20));
+
+        long startNanos = System.nanoTime();
+        long elapsedMs = 0;
+        int ticks = 0;
+        while (fleet.countByStatus(DryerState.ProgramStatus.IDLE) + fleet.countByStatus(DryerState.ProgramStatus.ERROR) < size
+                && elapsedMs < MAX_CYCLE_SECONDS * 1000L) {
+            fleet.tick(stepMs);
+            elapsedMs += stepMs;
+            ticks++;
+        }
+        long wallNanos = System.nanoTime() - startNanos;
+        fleet.force();
+
+        System.out.printf("Simulated cycle: %s%n", formatDuration(elapsedMs));
+        for (DryerState.ProgramStatus status : DryerState.ProgramStatus.values()) {
+            System.out.printf("  %-10s %d%n", status, fleet.countByStatus(status));
+        }
+        System.out.printf("Energy:          %.1f kWh (%d cycles)%n", fleet.getTotalKwh(), fleet.getCompletedCycles());
+        System.out.printf("Heap growth:     %.1f MB%n", (usedHeapBytes() - heapBefore) / (double) (1 << 20));
+        System.out.printf("%d fleet ticks in %.1f ms (%.3f µs per dryer tick)%n",
+                ticks, wallNanos / 1e6, ticks == 0 ? 0.0 : wallNanos / 1e3 / ticks / size);
+    }
+
+    private static long usedHeapBytes() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void replay(List<String> parameters) throws IOException {
+        long startNanos = System.nanoTime();
+        SessionReplayer.ReplayResult result = new SessionReplayer().replay(Path.of(parameters.get(0)));
+        System.out.printf("Replayed %d ticks and %d commands (%s simulated) in %.1f ms: trajectory identical%n",
+                result.getTicks(), result.getCommands(), formatDuration(result.getSimulatedTimeMs()),
+                (System.nanoTime() - startNanos) / 1e6);
+        printStatus(result.getFinalState());
+    }
+
+    private static void optimize(List<String> parameters) {
+        List<LaundryLoad.Fabric> fabrics = new ArrayList<>();
+        if (parameters.isEmpty() || parameters.get(0).equals("all")) {
+            fabrics.addAll(Arrays.asList(LaundryLoad.Fabric.values()));
+        } else {
+            fabrics.add(LaundryLoad.Fabric.valueOf(parameters.get(0).toUpperCase()));
+        }
+        int temperatureSteps = parameters.size() > 1 ? Integer.parseInt(parameters.get(1)) : DEFAULT_TEMPERATURE_STEPS;
+        int rateSteps = parameters.size() > 2 ? Integer.parseInt(parameters.get(2)) : DEFAULT_RATE_STEPS;
+        ProfileOptimizer optimizer = new ProfileOptimizer(temperatureSteps, rateSteps);
+
+        for (LaundryLoad.Fabric fabric : fabrics) {
+            long startNanos = System.nanoTime();
+            ProfileOptimizer.Result result = optimizer.optimize(fabric);
+            ProgramProfile current = ProgramCatalog.DEFAULT.get(fabric.name().toLowerCase());
+            ProfileOptimizer.Candidate baseline = ProfileOptimizer.evaluate(current, fabric.getProgramTemperature());
+            System.out.printf("%s: %d candidates (%d feasible) in %.0f ms%n", fabric, result.getEvaluated(),
+                    result.getFeasible(), (System.nanoTime() - startNanos) / 1e6);
+            System.out.printf("  current   %5.1f °C  %.3f %%/s  cycle %s  %.4f kWh%n", current.getTargetTemperature(),
+                    current.getHumidityDecreaseRate(), formatDuration(baseline.getCycleMs()), baseline.getEnergyKwh());
+            for (ProfileOptimizer.Candidate candidate : result.getParetoFront()) {
+                ProgramProfile profile = candidate.getProfile();
+                System.out.printf("  pareto    %5.1f °C  %.3f %%/s  cycle %s  %.4f kWh  (duration %d s)%n",
+                        profile.getTargetTemperature(), profile.getHumidityDecreaseRate(),
+                        formatDuration(candidate.getCycleMs()), candidate.getEnergyKwh(), profile.getDurationSeconds());
+            }
+        }
+    }
+
+    private static void estimate(List<String> parameters) {
+        List<String> programs = new ArrayList<>();
+        if (parameters.isEmpty() || parameters.get(0).equals("all")) {
+            ProgramCatalog.DEFAULT.getProfiles().forEach(profile -> programs.add(profile.getName()));
+        } else {
+            programs.add(parameters.get(0));
+        }
+        int runs = parameters.size() > 1 ? Integer.parseInt(parameters.get(1)) : CycleTimeEstimator.DEFAULT_RUNS;
+        CycleTimeEstimator estimator = new CycleTimeEstimator(ProgramCatalog.DEFAULT, runs, CycleTimeEstimator.DEFAULT_SEED);
+
+        for (String program : programs) {
+            long startNanos = System.nanoTime();
+            CycleTimeDistribution distribution = estimator.estimate(program);
+            System.out.print(distribution.toTable());
+            System.out.printf("  estimated in %.0f ms%n", (System.nanoTime() - startNanos) / 1e6);
+        }
+    }
+
+    private static void train(List<String> parameters) throws IOException {
+        if (parameters.size() < 2) {
+            throw new IllegalArgumentException("Expected a model file and at least one session");
+        }
+        Path modelFile = Path.of(parameters.get(0));
+        RemainingTimePredictor predictor = RemainingTimePredictor.load(modelFile);
+        SessionReplayer replayer = new SessionReplayer(predictor);
+        for (String session : parameters.subList(1, parameters.size())) {
+            replayer.replay(Path.of(session));
+        }
+        predictor.save(modelFile);
+
+        // Each cycle is scored with what was learned before it, like in live use
+        System.out.printf("Scored %d ticks of completed cycles%n", predictor.getEvaluatedSamples());
+        System.out.printf("  built-in estimate  mean error %.1f s%n", predictor.getBuiltInMeanError());
+        System.out.printf("  learned prediction mean error %.1f s%n", predictor.getLearnedMeanError());
+    }
+
+    private static void printTrajectory(List<String> parameters) {
+        String programName = parameters.get(0);
+        double startTemperature = parameters.size() > 1 ? Double.parseDouble(parameters.get(1)) : 0.0;
+        int intervalSeconds = parameters.size() > 2 ? Integer.parseInt(parameters.get(2)) : 60;
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+
+        long startNanos = System.nanoTime();
+        TrajectoryTable table = simulation.getTrajectory(programName, startTemperature);
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown program: " + programName);
+        }
+        System.out.printf("%s from %.1f °C: drying %s, cycle %s (computed in %.1f ms)%n", programName,
+                table.getStartTemperature(), formatDuration(table.getDryingEndMs()),
+                formatDuration(table.getCycleEndMs()), (System.nanoTime() - startNanos) / 1e6);
+        for (long timeMs = 0; timeMs <= table.getCycleEndMs(); timeMs += intervalSeconds * 1000L) {
+            System.out.printf("  %s  %-8s temp=%5.1f °C humidity=%5.1f%% remaining=%ds%n", formatDuration(timeMs),
+                    table.getStatus(timeMs), table.getTemperature(timeMs), table.getHumidity(timeMs),
+                    table.getRemainingSeconds(timeMs));
+        }
+    }
+
+    private static void simulateLaundromat(List<String> parameters) {
+        double customersPerHour = Double.parseDouble(parameters.get(0));
+        int minDryers = parameters.size() > 1 ? Integer.parseInt(parameters.get(1)) : 1;
+        int maxDryers = parameters.size() > 2 ? Integer.parseInt(parameters.get(2)) : minDryers + 5;
+        int days = parameters.size() > 3 ? Integer.parseInt(parameters.get(3)) : DEFAULT_LAUNDROMAT_DAYS;
+
+        System.out.printf("%.1f customers/h, %d days, open %d-%d h%n", customersPerHour, days,
+                LaundromatSimulator.OPENING_HOUR, LaundromatSimulator.CLOSING_HOUR);
+        System.out.println("dryers  customers  utilisation  wait P50    P90    P95    P99  queue  door waits  time");
+        for (int dryers = minDryers; dryers <= maxDryers; dryers++) {
+            long startNanos = System.nanoTime();
+            LaundromatSimulator.Result result = new LaundromatSimulator(dryers, customersPerHour)
+                    .simulate(days, LAUNDROMAT_SEED);
+            System.out.printf("%6d  %9d  %10.1f%%  %s %s %s %s  %5d  %5d (%3.0f s)  %.0f ms%n", dryers,
+                    result.getCustomers(), result.getUtilisation() * 100,
+                    formatDuration(result.getWaitSeconds(50) * 1000L), formatDuration(result.getWaitSeconds(90) * 1000L),
+                    formatDuration(result.getWaitSeconds(95) * 1000L), formatDuration(result.getWaitSeconds(99) * 1000L),
+                    result.getMaxQueueLength(), result.getDoorWaits(), result.getMeanDoorWaitSeconds(),
+                    (System.nanoTime() - startNanos) / 1e6);
+        }
+    }
+
+    private static void printHistory(List<String> parameters) throws IOException {
+        long toMs = System.currentTimeMillis() + 1;
+        long fromMs = parameters.size() > 1 ? toMs - Math.round(Double.parseDouble(parameters.get(1)) * 3600_000) : Long.MIN_VALUE;
+        try (CycleHistoryStore store = CycleHistoryStore.open(Path.of(parameters.get(0)))) {
+            long startNanos = System.nanoTime();
+            Map<String, CycleHistoryStore.Summary> programs = store.summarizeByProgram(fromMs, toMs);
+            CycleHistoryStore.Summary total = store.summarize(fromMs, toMs, null);
+            long queryNanos = System.nanoTime() - startNanos;
+
+            System.out.printf("%d cycles stored, %d in range%n", store.size(), total.getCount());
+            System.out.println("program       cycles  completed  cancelled  failed  mean cycle  mean kWh  peak °C");
+            programs.forEach((program, summary) -> System.out.printf("%-12s %7d  %9d  %9d  %6d  %s  %8.3f  %7.1f%n",
+                    program, summary.getCount(), summary.getCount(CycleHistoryStore.Outcome.COMPLETED),
+                    summary.getCount(CycleHistoryStore.Outcome.CANCELLED),
+                    summary.getCount(CycleHistoryStore.Outcome.FAILED), formatDuration(summary.getMeanDurationMs()),
+                    summary.getMeanKwh(), summary.getPeakTemperature()));
+            System.out.printf("Total energy:   %.1f kWh (queried in %.2f ms)%n", total.getTotalKwh(), queryNanos / 1e6);
+        }
+    }
+
+    private static void analyzeLogs(List<String> parameters) throws IOException {
+        Path directory = parameters.isEmpty() ? DryerState.LOG_DIRECTORY : Path.of(parameters.get(0));
+        long startNanos = System.nanoTime();
+        DryerLogAnalyzer.Result result = DryerLogAnalyzer.analyze(directory);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.printf("%d files, %d records, %.1f MB in %.0f ms (%.0f MB/s)%n", result.getFiles(),
+                result.getRecords(), result.getBytes() / 1e6, seconds * 1000, result.getBytes() / 1e6 / seconds);
+        System.out.printf("%-12s %7s  %9s  %9s  %6s  %-26s  %6s  %7s  %9s%n", "program", "cycles", "completed",
+                "cancelled", "failed", "drying min / mean / max", "locks", "blocked", "overheats");
+        result.getPrograms().forEach((program, statistics) -> System.out.printf(
+                "%-12s %7d  %9d  %9d  %6d  %s %s %s  %6d  %7d  %9d%n", program, statistics.getCycles(),
+                statistics.getCount(CycleHistoryStore.Outcome.COMPLETED),
+                statistics.getCount(CycleHistoryStore.Outcome.CANCELLED),
+                statistics.getCount(CycleHistoryStore.Outcome.FAILED), formatDuration(statistics.getMinDryingMs()),
+                formatDuration(statistics.getMeanDryingMs()), formatDuration(statistics.getMaxDryingMs()),
+                statistics.getDoorLocks(), statistics.getBlockedDoorOpenings(), statistics.getOverheats()));
+    }
+
+    private static SessionRecorder startRecording(ProgramManager manager, Path recordFile) throws IOException {
+        if (recordFile == null) {
+            return null;
+        }
+        SessionRecorder recorder = new SessionRecorder(recordFile);
+        manager.setSessionRecorder(recorder);
+        return recorder;
+    }
+
+    private static void stopRecording(SessionRecorder recorder) throws IOException {
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+
+    private static void printStatus(DryerState state) {
+        System.out.printf("[%s] program=%s temp=%.1f °C humidity=%.1f%% remaining=%ds door=%s%n",
+                state.getStatus(), state.getProgramName(), state.getTemperature(), state.getHumidity(),
+                state.getRemainingSeconds(),
+                state.isDoorLocked() ? "locked" : state.isDoorClosed() ? "closed" : "open");
+    }
+
+    private static void printEnergy(EnergyLedger ledger) {
+        System.out.printf("Energy:          %.1f kWh (%.2f EUR at %.2f EUR/kWh)%n",
+                ledger.getTotalKwh(), ledger.getTotalCost(), ledger.getPricePerKwh());
+        ledger.getPrograms().forEach((program, energy) -> System.out.printf("  %-10s %d cycles, %.3f kWh per cycle%n",
+                program, energy.getCycles(), energy.getKwhPerCycle()));
+    }
+
+    private static void printTimeToFirstTick(ProgramManager manager) {
+        System.out.printf("Time to first tick: %d ms (JVM uptime %d ms)%n",
+                manager.getFirstTickUptimeMs(), ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private static String formatDuration(long milliseconds) {
+        if (milliseconds < 0) {
+            return "--:--:--";
+        }
+        long seconds = milliseconds / 1000;
+        return String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,39 @@
+package clothdryer;
+
+/**
+ * A HumidityFilter smooths the stream of humidity sensor readings, one value per
+ * tick, before the controller uses them. Implementations keep their history in
+ * preallocated primitive arrays, so filtering a reading never allocates.
+ */
+public interface HumidityFilter {
+
+    /**
+     * A filter that passes every reading through unchanged.
+     */
+    HumidityFilter NONE = new HumidityFilter() {
+        @Override
+        public double apply(double reading) {
+            return reading;
+        }
+
+        @Override
+        public void reset(double reading) {
+        }
+    };
+
+    /**
+     * Filters the next reading.
+     *
+     * @param reading the sensor reading in %
+     * @return the filtered humidity in %
+     */
+    double apply(double reading);
+
+    /**
+     * Forgets the history, e.g. when new laundry was loaded, and starts again as if
+     * every earlier reading had been the given one.
+     *
+     * @param reading the first reading of the new series in %
+     */
+    void reset(double reading);
+}
@@ -0,0 +1,182 @@
+package clothdryer;
+
+import java.util.Arrays;
+
+/**
+ * HumidityFilterChain passes each sensor reading through a fixed sequence of
+ * filter stages. The {@link #standard() standard chain} first removes outliers with
+ * a running median, then smooths with an exponentially weighted moving average and
+ * finally with a one-dimensional Kalman filter.
+ * <p>
+ * Every stage lags behind a falling humidity by a tick or two. The stages are tuned
+ * so the chain as a whole stays within a few ticks, which delays the end of a program
+ * by seconds while keeping the remaining-time estimate steady.
+ * <p>
+ * Chains are stateful and not thread-safe; every dryer needs its own instance.
+ */
+public class HumidityFilterChain implements HumidityFilter {
+
+    static final int STANDARD_MEDIAN_WINDOW = 5;
+    static final double STANDARD_EWMA_ALPHA = 0.5;
+    static final double STANDARD_PROCESS_NOISE = 0.5; // %² per tick
+    static final double STANDARD_MEASUREMENT_NOISE = 1.0; // %²
+
+    private final HumidityFilter[] stages;
+
+    /**
+     * Creates a chain of the given stages, applied in order.
+     *
+     * @param stages the filter stages
+     */
+    public HumidityFilterChain(HumidityFilter... stages) {
+        this.stages = stages.clone();
+    }
+
+    /**
+     * @return a new median, EWMA and Kalman chain for sensors with about 1 % noise
+     */
+    public static HumidityFilterChain standard() {
+        return new HumidityFilterChain(
+                new Median(STANDARD_MEDIAN_WINDOW),
+                new Ewma(STANDARD_EWMA_ALPHA),
+                new Kalman(STANDARD_PROCESS_NOISE, STANDARD_MEASUREMENT_NOISE));
+    }
+
+    @Override
+    public double apply(double reading) {
+        double value = reading;
+        for (HumidityFilter stage : stages) {
+            value = stage.apply(value);
+        }
+        return value;
+    }
+
+    @Override
+    public void reset(double reading) {
+        for (HumidityFilter stage : stages) {
+            stage.reset(reading);
+        }
+    }
+
+    /**
+     * Running median over the last readings. Removes single outliers without
+     * smearing them into the following values.
+     */
+    public static class Median implements HumidityFilter {
+
+        private final double[] window; // ring of the last readings in arrival order
+        private final double[] sorted; // the same readings, sorted
+        private int next = 0;
+
+        /**
+         * @param size the number of readings the median is taken over, odd
+         */
+        public Median(int size) {
+            if (size <= 0 || size % 2 == 0) {
+                throw new IllegalArgumentException("Median window must be odd and positive: " + size);
+            }
+            window = new double[size];
+            sorted = new double[size];
+        }
+
+        @Override
+        public double apply(double reading) {
+            double oldest = window[next];
+            window[next] = reading;
+            next = (next + 1) % window.length;
+
+            // Replace the oldest reading in the sorted copy and move the new one into place
+            int position = 0;
+            while (sorted[position] != oldest) {
+                position++;
+            }
+            while (position > 0 && sorted[position - 1] > reading) {
+                sorted[position] = sorted[position - 1];
+                position--;
+            }
+            while (position < sorted.length - 1 && sorted[position + 1] < reading) {
+                sorted[position] = sorted[position + 1];
+                position++;
+            }
+            sorted[position] = reading;
+            return sorted[sorted.length / 2];
+        }
+
+        @Override
+        public void reset(double reading) {
+            Arrays.fill(window, reading);
+            Arrays.fill(sorted, reading);
+            next = 0;
+        }
+    }
+
+    /**
+     * Exponentially weighted moving average.
+     */
+    public static class Ewma implements HumidityFilter {
+
+        private final double alpha;
+        private double value;
+
+        /**
+         * @param alpha weight of the newest reading, between 0 (exclusive) and 1
+         */
+        public Ewma(double alpha) {
+            if (!(alpha > 0 && alpha <= 1)) {
+                throw new IllegalArgumentException("Alpha must be in (0, 1]: " + alpha);
+            }
+            this.alpha = alpha;
+        }
+
+        @Override
+        public double apply(double reading) {
+            value += alpha * (reading - value);
+            return value;
+        }
+
+        @Override
+        public void reset(double reading) {
+            value = reading;
+        }
+    }
+
+    /**
+     * One-dimensional Kalman filter for a slowly changing value. The gain adapts
+     * from trusting the readings after a reset to the steady state given by the
+     * ratio of process to measurement noise.
+     */
+    public static class Kalman implements HumidityFilter {
+
+        private final double processNoise;
+        private final double measurementNoise;
+        private double estimate;
+        private double variance;
+
+        /**
+         * @param processNoise     expected variance of the true change per tick in %²
+         * @param measurementNoise variance of a reading in %²
+         */
+        public Kalman(double processNoise, double measurementNoise) {
+            if (!(processNoise > 0) || !(measurementNoise > 0)) {
+                throw new IllegalArgumentException("Noise variances must be positive");
+            }
+            this.processNoise = processNoise;
+            this.measurementNoise = measurementNoise;
+        }
+
+        @Override
+        public double apply(double reading) {
+            double predicted = variance + processNoise;
+            double gain = predicted / (predicted + measurementNoise);
+            estimate += gain * (reading - estimate);
+            variance = (1 - gain) * predicted;
+            return estimate;
+        }
+
+        @Override
+        public void reset(double reading) {
+            estimate = reading;
+            variance = measurementNoise;
+        }
+    }
+}
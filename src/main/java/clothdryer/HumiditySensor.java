@@ -0,0 +1,22 @@
+package clothdryer;
+
+/**
+ * A HumiditySensor turns the true residual humidity of the laundry into the value
+ * the dryer's controller sees. The controller decides when the laundry is dry and
+ * estimates the remaining time from sensor readings only.
+ */
+public interface HumiditySensor {
+
+    /**
+     * A perfect sensor that reports the true humidity.
+     */
+    HumiditySensor IDEAL = humidity -> humidity;
+
+    /**
+     * Takes one reading. Called once per tick while a program is running.
+     *
+     * @param trueHumidity the actual humidity in %
+     * @return the measured humidity in %
+     */
+    double read(double trueHumidity);
+}
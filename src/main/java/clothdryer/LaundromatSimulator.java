@@ -0,0 +1,377 @@
+package clothdryer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * LaundromatSimulator sizes a shop: customers arrive at random, each with a load
+ * for the cotton, synthetic or wool program, and queue for the next free dryer.
+ * <p>
+ * The shop is a discrete-event simulation. Events are kept in a priority queue by
+ * time and processed in order, so a month of operation takes well under a second.
+ * Every customer goes through these phases:
+ * <ol>
+ *     <li>waiting in line until a dryer is free,</li>
+ *     <li>opening the door and loading,</li>
+ *     <li>the program itself, drying and cooling down, taken from the dryer's
+ *     precomputed {@link TrajectoryTable} for the drum temperature at start,</li>
+ *     <li>coming back some time after drying has ended, and waiting at the dryer
+ *     until the drum is below {@link SafetyModule#SAFE_DOOR_TEMPERATURE} if it is
+ *     still cooling down,</li>
+ *     <li>unloading, which frees the dryer for the next customer.</li>
+ * </ol>
+ * A dryer stays warm between customers and cools down while idle, so the next
+ * program starts from whatever temperature is left.
+ */
+public class LaundromatSimulator {
+
+    static final String[] PROGRAMS = {"cotton", "synthetic", "wool"};
+    static final double[] DEFAULT_PROGRAM_SHARES = {0.5, 0.3, 0.2};
+    static final int DEFAULT_LOAD_SECONDS = 90;
+    static final int DEFAULT_UNLOAD_SECONDS = 60;
+    static final int DEFAULT_MEAN_PICKUP_DELAY_SECONDS = 300;
+    static final int OPENING_HOUR = 7;
+    static final int CLOSING_HOUR = 22; // no new customers after closing, the queue is still served
+    private static final int SECONDS_PER_DAY = 24 * 3600;
+
+    private static final int ARRIVAL = 0;
+    private static final int LOADED = 1;
+    private static final int DRYING_ENDED = 2;
+    private static final int CUSTOMER_BACK = 3;
+    private static final int UNLOADED = 4;
+
+    private final int dryers;
+    private final double customersPerHour;
+    private final double[] programShares;
+    private final int loadSeconds;
+    private final int unloadSeconds;
+    private final int meanPickupDelaySeconds;
+
+    /**
+     * A scheduled event. Ties are broken by creation order, so runs are reproducible.
+     */
+    private static final class Event implements Comparable<Event> {
+        final long timeSec;
+        final long sequence;
+        final int type;
+        final int dryer;
+        final int customer;
+
+        Event(long timeSec, long sequence, int type, int dryer, int customer) {
+            this.timeSec = timeSec;
+            this.sequence = sequence;
+            this.type = type;
+            this.dryer = dryer;
+            this.customer = customer;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(timeSec, other.timeSec);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Creates a shop with default program mix and handling times.
+     *
+     * @param dryers           the number of dryers
+     * @param customersPerHour the mean arrival rate during opening hours
+     */
+    public LaundromatSimulator(int dryers, double customersPerHour) {
+        this(dryers, customersPerHour, DEFAULT_PROGRAM_SHARES, DEFAULT_LOAD_SECONDS, DEFAULT_UNLOAD_SECONDS,
+                DEFAULT_MEAN_PICKUP_DELAY_SECONDS);
+    }
+
+    /**
+     * Creates a shop.
+     *
+     * @param dryers                 the number of dryers
+     * @param customersPerHour       the mean arrival rate during opening hours
+     * @param programShares          the share of customers choosing cotton, synthetic and wool
+     * @param loadSeconds            time to open the door and load the dryer
+     * @param unloadSeconds          time to unload the dryer
+     * @param meanPickupDelaySeconds mean time after drying ended until the customer is back
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public LaundromatSimulator(int dryers, double customersPerHour, double[] programShares,
+                               int loadSeconds, int unloadSeconds, int meanPickupDelaySeconds) {
+        if (dryers <= 0 || !(customersPerHour > 0)) {
+            throw new IllegalArgumentException("Need at least one dryer and a positive arrival rate");
+        }
+        if (programShares.length != PROGRAMS.length || loadSeconds < 0 || unloadSeconds < 0
+                || meanPickupDelaySeconds < 0) {
+            throw new IllegalArgumentException("Invalid program shares or handling times");
+        }
+        this.dryers = dryers;
+        this.customersPerHour = customersPerHour;
+        this.programShares = programShares.clone();
+        this.loadSeconds = loadSeconds;
+        this.unloadSeconds = unloadSeconds;
+        this.meanPickupDelaySeconds = meanPickupDelaySeconds;
+    }
+
+    /**
+     * Simulates the shop.
+     *
+     * @param days the number of days to simulate
+     * @param seed the seed of the random arrivals and program choices
+     * @return the throughput, utilisation and waiting times
+     */
+    public Result simulate(int days, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        DryerState scratch = new DryerState();
+        scratch.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(scratch, new SafetyModule(scratch));
+
+        long endOfArrivals = (long) days * SECONDS_PER_DAY;
+        PriorityQueue<Event> events = new PriorityQueue<>();
+        long sequence = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        // Per customer
+        int[] arrivalSec = new int[1024];
+        byte[] program = new byte[1024];
+        int[] waitSeconds = new int[1024];
+        int customers = 0;
+
+        // Per dryer
+        boolean[] busy = new boolean[dryers];
+        long[] busySeconds = new long[dryers];
+        long[] busySince = new long[dryers];
+        long[] cycleStart = new long[dryers];
+        long[] cycleEnd = new long[dryers];
+        double[] cycleEndTemperature = new double[dryers];
+        long[] coolingSince = new long[dryers]; // end of the last cycle, the drum cools from here
+        TrajectoryTable[] trajectory = new TrajectoryTable[dryers];
+
+        long doorWaitSeconds = 0;
+        int doorWaits = 0;
+        int maxQueue = 0;
+        long lastEventSec = 0;
+
+        long firstArrival = nextArrival(0, random);
+        if (firstArrival < endOfArrivals) {
+            events.add(new Event(firstArrival, sequence++, ARRIVAL, -1, -1));
+        }
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            long now = event.timeSec;
+            lastEventSec = now;
+            switch (event.type) {
+                case ARRIVAL -> {
+                    if (customers == arrivalSec.length) {
+                        arrivalSec = Arrays.copyOf(arrivalSec, customers * 2);
+                        program = Arrays.copyOf(program, customers * 2);
+                        waitSeconds = Arrays.copyOf(waitSeconds, customers * 2);
+                    }
+                    int customer = customers++;
+                    arrivalSec[customer] = (int) now;
+                    program[customer] = (byte) chooseProgram(random);
+                    queue.add(customer);
+                    maxQueue = Math.max(maxQueue, queue.size());
+                    long next = nextArrival(now, random);
+                    if (next < endOfArrivals) {
+                        events.add(new Event(next, sequence++, ARRIVAL, -1, -1));
+                    }
+                }
+                case LOADED -> {
+                    int dryer = event.dryer;
+                    double startTemperature = Math.max(0.0, cycleEndTemperature[dryer]
+                            - DryerSimulation.TEMP_DECREASE_RATE * (now - coolingSince[dryer]));
+                    trajectory[dryer] = simulation.getTrajectory(PROGRAMS[program[event.customer]], startTemperature);
+                    cycleStart[dryer] = now;
+                    cycleEnd[dryer] = now + trajectory[dryer].getCycleEndMs() / 1000;
+                    long dryingEnd = now + trajectory[dryer].getDryingEndMs() / 1000;
+                    events.add(new Event(dryingEnd, sequence++, DRYING_ENDED, dryer, event.customer));
+                }
+                case DRYING_ENDED -> {
+                    long back = now + pickupDelay(random);
+                    events.add(new Event(back, sequence++, CUSTOMER_BACK, event.dryer, event.customer));
+                }
+                case CUSTOMER_BACK -> {
+                    int dryer = event.dryer;
+                    long doorOpens = Math.max(now, cycleEnd[dryer]);
+                    if (doorOpens > now) {
+                        doorWaitSeconds += doorOpens - now;
+                        doorWaits++;
+                    }
+                    cycleEndTemperature[dryer] = trajectory[dryer].getTemperature(
+                            (cycleEnd[dryer] - cycleStart[dryer]) * 1000);
+                    coolingSince[dryer] = cycleEnd[dryer];
+                    events.add(new Event(doorOpens + unloadSeconds, sequence++, UNLOADED, dryer, event.customer));
+                }
+                case UNLOADED -> {
+                    int dryer = event.dryer;
+                    busy[dryer] = false;
+                    busySeconds[dryer] += openSecondsBetween(busySince[dryer], now);
+                }
+                default -> throw new IllegalStateException("Unknown event type " + event.type);
+            }
+
+            // Hand free dryers to waiting customers
+            for (int dryer = 0; dryer < dryers && !queue.isEmpty(); dryer++) {
+                if (!busy[dryer]) {
+                    int customer = queue.poll();
+                    busy[dryer] = true;
+                    busySince[dryer] = now;
+                    waitSeconds[customer] = (int) (now - arrivalSec[customer]);
+                    events.add(new Event(now + loadSeconds, sequence++, LOADED, dryer, customer));
+                }
+            }
+        }
+
+        long totalBusy = 0;
+        for (long seconds : busySeconds) {
+            totalBusy += seconds;
+        }
+        long openSeconds = openSecondsBetween(0, Math.max(endOfArrivals, lastEventSec));
+        int[] waits = Arrays.copyOf(waitSeconds, customers);
+        Arrays.sort(waits);
+        return new Result(dryers, customers, waits, (double) totalBusy / ((double) openSeconds * dryers),
+                doorWaits, doorWaits > 0 ? (double) doorWaitSeconds / doorWaits : 0.0, maxQueue);
+    }
+
+    /**
+     * Draws the next arrival after the given time. Arrivals form a Poisson process
+     * during opening hours; the clock skips the nights.
+     */
+    private long nextArrival(long now, SplittableRandom random) {
+        double gap = -Math.log(1.0 - random.nextDouble()) * 3600.0 / customersPerHour;
+        long time = now;
+        double remaining = gap;
+        while (true) {
+            long dayStart = time / SECONDS_PER_DAY * SECONDS_PER_DAY;
+            long opening = dayStart + OPENING_HOUR * 3600L;
+            long closing = dayStart + CLOSING_HOUR * 3600L;
+            if (time < opening) {
+                time = opening;
+            }
+            if (time >= closing) {
+                time = dayStart + SECONDS_PER_DAY + OPENING_HOUR * 3600L;
+                continue;
+            }
+            if (time + remaining < closing) {
+                return time + (long) Math.ceil(remaining);
+            }
+            remaining -= closing - time;
+            time = closing;
+        }
+    }
+
+    /**
+     * @return the number of seconds within opening hours between the two times
+     */
+    private static long openSecondsBetween(long from, long to) {
+        long total = 0;
+        long time = from;
+        while (time < to) {
+            long dayStart = time / SECONDS_PER_DAY * SECONDS_PER_DAY;
+            long opening = dayStart + OPENING_HOUR * 3600L;
+            long closing = dayStart + CLOSING_HOUR * 3600L;
+            long end = Math.min(to, closing);
+            if (end > Math.max(time, opening)) {
+                total += end - Math.max(time, opening);
+            }
+            time = dayStart + SECONDS_PER_DAY;
+        }
+        return total;
+    }
+
+    private int chooseProgram(SplittableRandom random) {
+        double value = random.nextDouble();
+        double sum = 0.0;
+        for (int i = 0; i < programShares.length; i++) {
+            sum += programShares[i];
+            if (value < sum) {
+                return i;
+            }
+        }
+        return programShares.length - 1;
+    }
+
+    private long pickupDelay(SplittableRandom random) {
+        return (long) (-Math.log(1.0 - random.nextDouble()) * meanPickupDelaySeconds);
+    }
+
+    /**
+     * Outcome of one simulated period.
+     */
+    public static final class Result {
+        private final int dryers;
+        private final int customers;
+        private final int[] sortedWaitSeconds;
+        private final double utilisation;
+        private final int doorWaits;
+        private final double meanDoorWaitSeconds;
+        private final int maxQueueLength;
+
+        Result(int dryers, int customers, int[] sortedWaitSeconds, double utilisation, int doorWaits,
+               double meanDoorWaitSeconds, int maxQueueLength) {
+            this.dryers = dryers;
+            this.customers = customers;
+            this.sortedWaitSeconds = sortedWaitSeconds;
+            this.utilisation = utilisation;
+            this.doorWaits = doorWaits;
+            this.meanDoorWaitSeconds = meanDoorWaitSeconds;
+            this.maxQueueLength = maxQueueLength;
+        }
+
+        public int getDryers() {
+            return dryers;
+        }
+
+        /**
+         * @return the number of customers served
+         */
+        public int getCustomers() {
+            return customers;
+        }
+
+        /**
+         * @return the share of the opening hours the dryers were occupied, from loading to unloading,
+         *         between 0 and 1
+         */
+        public double getUtilisation() {
+            return utilisation;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the time customers waited for a free dryer that the given share did not exceed, in seconds
+         */
+        public int getWaitSeconds(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            if (sortedWaitSeconds.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedWaitSeconds.length);
+            return sortedWaitSeconds[Math.max(0, rank - 1)];
+        }
+
+        /**
+         * @return the number of customers that had to wait for the drum to cool down before unloading
+         */
+        public int getDoorWaits() {
+            return doorWaits;
+        }
+
+        /**
+         * @return the mean time those customers waited at the locked door, in seconds
+         */
+        public double getMeanDoorWaitSeconds() {
+            return meanDoorWaitSeconds;
+        }
+
+        /**
+         * @return the longest line of waiting customers
+         */
+        public int getMaxQueueLength() {
+            return maxQueueLength;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package clothdryer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * LaundryLoad models a mixed load as individual garments, each with a mass, a
+ * fabric and its own residual moisture.
+ * <p>
+ * The garments are stored in parallel primitive arrays instead of one object per
+ * garment, so a load of several hundred items costs a few kilobytes and a tick is
+ * a single loop over contiguous memory. The humidity of the whole load is the
+ * mass-weighted mean moisture; it is maintained incrementally while drying, so
+ * reading it is O(1).
+ * <p>
+ * Each fabric dries at the rate that {@link DryerSimulation} uses for its own
+ * program, scaled by how hot the running program is compared to the fabric's
+ * program temperature: wool in a cotton program dries faster than in a wool program.
+ */
+public class LaundryLoad {
+
+    /**
+     * Fabric types, with the drying rate and temperature of the matching program.
+     */
+    public enum Fabric {
+        COTTON(DryerSimulation.HUMIDITY_DECREASE_RATE_COTTON, DryerSimulation.MAX_TEMP_COTTON),
+        SYNTHETIC(DryerSimulation.HUMIDITY_DECREASE_RATE_SYNTHETIC, DryerSimulation.MAX_TEMP_SYNTHETIC),
+        WOOL(DryerSimulation.HUMIDITY_DECREASE_RATE_WOOL, DryerSimulation.MAX_TEMP_WOOL);
+
+        private static final Fabric[] VALUES = values();
+
+        private final double dryingRate;
+        private final double programTemperature;
+
+        Fabric(double dryingRate, double programTemperature) {
+            this.dryingRate = dryingRate;
+            this.programTemperature = programTemperature;
+        }
+
+        /**
+         * @return the drying rate in %/s at the fabric's own program temperature
+         */
+        public double getDryingRate() {
+            return dryingRate;
+        }
+
+        /**
+         * @return the temperature of the program intended for this fabric
+         */
+        public double getProgramTemperature() {
+            return programTemperature;
+        }
+    }
+
+    static final double FULL_MOISTURE = 100.0;
+
+    private int size = 0;
+    private float[] mass;
+    private float[] moisture;
+    private float[] rate; // %/s for the configured program temperature
+    private byte[] fabric;
+
+    private double totalMass = 0.0;
+    private double moistureMass = 0.0; // sum of mass * moisture
+    private int wetCount = 0; // garments with moisture above 0
+    private double programTemperature = 0.0;
+
+    /**
+     * Creates an empty load.
+     */
+    public LaundryLoad() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty load with room for the given number of garments.
+     *
+     * @param capacity the expected number of garments
+     */
+    public LaundryLoad(int capacity) {
+        int initial = Math.max(1, capacity);
+        mass = new float[initial];
+        moisture = new float[initial];
+        rate = new float[initial];
+        fabric = new byte[initial];
+    }
+
+    /**
+     * Creates a random mixed load, e.g. for simulating a fleet.
+     *
+     * @param garments  the number of garments
+     * @param seed      seed of the random generator, for reproducible loads
+     * @return the load with all garments fully wet
+     */
+    public static LaundryLoad random(int garments, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LaundryLoad load = new LaundryLoad(garments);
+        for (int i = 0; i < garments; i++) {
+            Fabric type = Fabric.VALUES[random.nextInt(Fabric.VALUES.length)];
+            load.addGarment(type, 0.1 + random.nextDouble() * 0.9);
+        }
+        return load;
+    }
+
+    /**
+     * Adds a fully wet garment to the load.
+     *
+     * @param type   the fabric of the garment
+     * @param massKg the dry mass of the garment in kg
+     * @return the index of the garment
+     * @throws IllegalArgumentException if the mass is not positive
+     */
+    public int addGarment(Fabric type, double massKg) {
+        return addGarment(type, massKg, FULL_MOISTURE);
+    }
+
+    /**
+     * Adds a garment with the given moisture to the load.
+     *
+     * @param type            the fabric of the garment
+     * @param massKg          the dry mass of the garment in kg
+     * @param moisturePercent the moisture of the garment between 0 and 100 %
+     * @return the index of the garment
+     * @throws IllegalArgumentException if the mass is not positive or the moisture out of range
+     */
+    public int addGarment(Fabric type, double massKg, double moisturePercent) {
+        if (!(massKg > 0)) {
+            throw new IllegalArgumentException("Garment mass must be positive: " + massKg);
+        }
+        if (!(moisturePercent >= 0 && moisturePercent <= FULL_MOISTURE)) {
+            throw new IllegalArgumentException("Moisture must be between 0 and 100: " + moisturePercent);
+        }
+        if (size == mass.length) {
+            int capacity = size * 2;
+            mass = Arrays.copyOf(mass, capacity);
+            moisture = Arrays.copyOf(moisture, capacity);
+            rate = Arrays.copyOf(rate, capacity);
+            fabric = Arrays.copyOf(fabric, capacity);
+        }
+        int index = size++;
+        mass[index] = (float) massKg;
+        moisture[index] = (float) moisturePercent;
+        fabric[index] = (byte) type.ordinal();
+        rate[index] = (float) rateFor(type);
+        totalMass += mass[index];
+        moistureMass += mass[index] * (double) moisture[index];
+        if (moisture[index] > 0f) {
+            wetCount++;
+        }
+        return index;
+    }
+
+    /**
+     * Sets the temperature of the running program, which scales the drying rate of every garment.
+     *
+     * @param temperature the program's target temperature in °C
+     */
+    public void configure(double temperature) {
+        programTemperature = temperature;
+        for (int i = 0; i < size; i++) {
+            rate[i] = (float) rateFor(Fabric.VALUES[fabric[i]]);
+        }
+    }
+
+    private double rateFor(Fabric type) {
+        if (programTemperature <= 0) {
+            return type.getDryingRate();
+        }
+        return type.getDryingRate() * programTemperature / type.getProgramTemperature();
+    }
+
+    /**
+     * Dries every garment for the given time.
+     *
+     * @param elapsedTimeSec elapsed time in seconds
+     */
+    public void dry(double elapsedTimeSec) {
+        if (wetCount == 0 || elapsedTimeSec <= 0) {
+            return;
+        }
+        double removed = 0.0;
+        int stillWet = 0;
+        float seconds = (float) elapsedTimeSec;
+        for (int i = 0; i < size; i++) {
+            float before = moisture[i];
+            if (before <= 0f) {
+                continue;
+            }
+            float after = before - rate[i] * seconds;
+            if (after <= 0f) {
+                after = 0f;
+            } else {
+                stillWet++;
+            }
+            moisture[i] = after;
+            removed += mass[i] * (double) (before - after);
+        }
+        wetCount = stillWet;
+        moistureMass = stillWet == 0 ? 0.0 : Math.max(0.0, moistureMass - removed);
+    }
+
+    /**
+     * Makes every garment fully wet again.
+     */
+    public void wet() {
+        Arrays.fill(moisture, 0, size, (float) FULL_MOISTURE);
+        moistureMass = totalMass * FULL_MOISTURE;
+        wetCount = size;
+    }
+
+    /**
+     * Writes all garments and the running sums to a checkpoint, so drying continues
+     * bit for bit after a restore.
+     */
+    void writeCheckpoint(SimulationCheckpoint.Output out) {
+        out.putInt(size)
+                .putDouble(totalMass)
+                .putDouble(moistureMass)
+                .putInt(wetCount)
+                .putDouble(programTemperature);
+        for (int i = 0; i < size; i++) {
+            out.putFloat(mass[i]).putFloat(moisture[i]).putFloat(rate[i]).putByte(fabric[i]);
+        }
+    }
+
+    /**
+     * Creates a load from a checkpoint.
+     */
+    static LaundryLoad readCheckpoint(ByteBuffer in) {
+        int garments = in.getInt();
+        if (garments < 0 || garments > in.remaining() / 13) {
+            throw new IllegalArgumentException("Invalid number of garments: " + garments);
+        }
+        LaundryLoad load = new LaundryLoad(garments);
+        load.size = garments;
+        load.totalMass = in.getDouble();
+        load.moistureMass = in.getDouble();
+        load.wetCount = in.getInt();
+        load.programTemperature = in.getDouble();
+        for (int i = 0; i < garments; i++) {
+            load.mass[i] = in.getFloat();
+            load.moisture[i] = in.getFloat();
+            load.rate[i] = in.getFloat();
+            byte type = in.get();
+            if (type < 0 || type >= Fabric.VALUES.length) {
+                throw new IllegalArgumentException("Invalid fabric: " + type);
+            }
+            load.fabric[i] = type;
+        }
+        return load;
+    }
+
+    /**
+     * @return the mass-weighted moisture of the whole load in %, or 0 for an empty load
+     */
+    public double getHumidity() {
+        return totalMass > 0 ? moistureMass / totalMass : 0.0;
+    }
+
+    /**
+     * @return the number of garments
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of garments that still contain moisture
+     */
+    public int getWetCount() {
+        return wetCount;
+    }
+
+    /**
+     * @return the dry mass of the load in kg
+     */
+    public double getTotalMass() {
+        return totalMass;
+    }
+
+    /**
+     * @param index the garment index
+     * @return the moisture of the garment in %
+     */
+    public double getMoisture(int index) {
+        checkIndex(index);
+        return moisture[index];
+    }
+
+    /**
+     * @param index the garment index
+     * @return the fabric of the garment
+     */
+    public Fabric getFabric(int index) {
+        checkIndex(index);
+        return Fabric.VALUES[fabric[index]];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Garment " + index + " out of range for " + size + " garments");
+        }
+    }
+}
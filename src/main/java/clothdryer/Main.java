@@ -1,10 +1,13 @@
 package clothdryer;
 
-import clothdryer.scenes.ProgramSelectionScene;
+import clothdryer.scenes.SceneNavigator;
 import javafx.application.Application;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
 /**
  * Main class for the dryer simulation application.
  * <p>
@@ -13,6 +16,10 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
     private ProgramManager programManager;
+    private SceneNavigator navigator;
+    private RemainingTimePredictor remainingTimePredictor;
+    private CycleHistoryStore cycleHistory; // null if the history could not be opened
+    private SessionRecorder sessionRecorder; // null unless started with --record=<file>
 
     private static final String TITLE = "Wäschetrockner";
 
@@ -26,6 +33,14 @@ public class Main extends Application {
     public void start(Stage stage) {
         // Initialize DryerState and ProgramManager
         programManager = new ProgramManager();
+        remainingTimePredictor = loadRemainingTimePredictor();
+        programManager.setRemainingTimePredictor(remainingTimePredictor);
+        cycleHistory = openCycleHistory();
+        programManager.setCycleHistory(cycleHistory);
+        // Optional session recording, e.g. started with --record=session.bin
+        sessionRecorder = startRecording(getParameters().getNamed().get("record"));
+
+        printTimeToFirstTick();
 
         // Start the ProgramManager in a background thread
         Thread managerThread = new Thread(programManager);
@@ -33,18 +48,129 @@ public class Main extends Application {
         managerThread.start();
 
         // Initialize GUI
-        Scene scene = new ProgramSelectionScene(stage, programManager).getScene();
-        stage.setScene(scene);
+        navigator = new SceneNavigator(stage, programManager);
+
+        // Optional fleet dashboard, e.g. started with --fleet=10000
+        int fleetSize = parseFleetSize(getParameters().getNamed().get("fleet"));
+        if (fleetSize > 0) {
+            DryerFleet fleet = new DryerFleet(fleetSize);
+            Thread fleetThread = new Thread(() -> {
+                fleet.startMixed("cotton", "synthetic", "wool");
+                fleet.run();
+            });
+            fleetThread.setDaemon(true);
+            fleetThread.start();
+            navigator.setFleet(fleet);
+        }
+
+        navigator.showProgramSelection();
         stage.setTitle(TITLE);
         stage.show();
     }
 
+    /**
+     * Prints the startup time once the background thread has completed its first tick,
+     * in the same format as the headless entry point (HeadlessMain), so both can be compared.
+     */
+    private void printTimeToFirstTick() {
+        programManager.addStateListener(new Runnable() {
+            @Override
+            public void run() {
+                long firstTickUptimeMs = programManager.getFirstTickUptimeMs();
+                if (firstTickUptimeMs >= 0) {
+                    programManager.removeStateListener(this);
+                    System.out.printf("Time to first tick: %d ms (JVM uptime %d ms)%n",
+                            firstTickUptimeMs, ManagementFactory.getRuntimeMXBean().getUptime());
+                }
+            }
+        });
+    }
+
+    /**
+     * Detaches the screens from the simulation, finishes the session recording, saves
+     * what the remaining time predictor learned during this run and closes the cycle history.
+     */
+    @Override
+    public void stop() {
+        if (navigator != null) {
+            navigator.dispose();
+        }
+        if (sessionRecorder != null) {
+            programManager.setSessionRecorder(null);
+            try {
+                sessionRecorder.close();
+            } catch (IOException e) {
+                System.err.println("Could not finish session recording: " + e.getMessage());
+            }
+        }
+        try {
+            remainingTimePredictor.save(RemainingTimePredictor.DEFAULT_FILE);
+        } catch (IOException e) {
+            System.err.println("Could not save remaining time predictor: " + e.getMessage());
+        }
+        if (cycleHistory != null) {
+            cycleHistory.close();
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --fleet=<size>} parameter.
+     *
+     * @param value the parameter value, null if the parameter was not given
+     * @return the fleet size, 0 if no fleet was requested
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    static int parseFleetSize(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int size = Integer.parseInt(value.trim());
+        if (size <= 0) {
+            throw new IllegalArgumentException("Fleet size must be positive: " + value);
+        }
+        return size;
+    }
+
+    private SessionRecorder startRecording(String file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            SessionRecorder recorder = new SessionRecorder(Path.of(file));
+            programManager.setSessionRecorder(recorder);
+            return recorder;
+        } catch (IOException e) {
+            System.err.println("Could not record session, continuing without: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static RemainingTimePredictor loadRemainingTimePredictor() {
+        try {
+            return RemainingTimePredictor.load(RemainingTimePredictor.DEFAULT_FILE);
+        } catch (IOException e) {
+            System.err.println("Could not load remaining time predictor, starting empty: " + e.getMessage());
+            return new RemainingTimePredictor();
+        }
+    }
+
+    private static CycleHistoryStore openCycleHistory() {
+        try {
+            return CycleHistoryStore.open(CycleHistoryStore.DEFAULT_DIRECTORY);
+        } catch (IOException e) {
+            System.err.println("Could not open cycle history, cycles are not kept: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Main method. Launches the JavaFX application.
+     * Pass {@code --fleet=<size>} to additionally simulate a fleet and offer the fleet dashboard,
+     * and {@code --record=<file>} to record the session for {@code HeadlessMain replay}.
      *
      * @param args command-line arguments
      */
     public static void main(String[] args) {
-        launch();
+        launch(args);
     }
 }
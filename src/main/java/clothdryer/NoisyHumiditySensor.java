@@ -0,0 +1,55 @@
+package clothdryer;
+
+import java.util.SplittableRandom;
+
+/**
+ * NoisyHumiditySensor adds a fixed calibration offset and Gaussian noise to every
+ * reading and rounds it to the sensor's resolution. It is used to simulate real
+ * sensors, e.g. in Monte Carlo runs; see {@link HumidityFilterChain} for smoothing
+ * its readings.
+ */
+public class NoisyHumiditySensor implements HumiditySensor {
+
+    private final double offset;
+    private final double noise;
+    private final double resolution;
+    private final SplittableRandom random;
+
+    /**
+     * Creates a noisy sensor with continuous readings.
+     *
+     * @param offset calibration error in %, added to every reading
+     * @param noise  standard deviation of the reading noise in %
+     * @param random random generator, owned by this sensor from now on
+     */
+    public NoisyHumiditySensor(double offset, double noise, SplittableRandom random) {
+        this(offset, noise, 0.0, random);
+    }
+
+    /**
+     * Creates a noisy sensor.
+     *
+     * @param offset     calibration error in %, added to every reading
+     * @param noise      standard deviation of the reading noise in %
+     * @param resolution smallest step between two readings in %, or 0 for continuous readings
+     * @param random     random generator, owned by this sensor from now on
+     */
+    public NoisyHumiditySensor(double offset, double noise, double resolution, SplittableRandom random) {
+        if (noise < 0 || resolution < 0) {
+            throw new IllegalArgumentException("Noise and resolution must not be negative");
+        }
+        this.offset = offset;
+        this.noise = noise;
+        this.resolution = resolution;
+        this.random = random;
+    }
+
+    @Override
+    public double read(double trueHumidity) {
+        double reading = trueHumidity + offset + noise * random.nextGaussian();
+        if (resolution > 0) {
+            reading = Math.round(reading / resolution) * resolution;
+        }
+        return Math.max(0.0, Math.min(100.0, reading));
+    }
+}
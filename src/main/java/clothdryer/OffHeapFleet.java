@@ -0,0 +1,593 @@
+package clothdryer;
+
+import clothdryer.DryerState.ProgramStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OffHeapFleet simulates very large fleets, a million dryers and more, with the
+ * state of all dryers in one buffer outside the Java heap.
+ * <p>
+ * Every dryer is a fixed-size record of {@link #RECORD_BYTES} at a fixed offset,
+ * holding what the tick needs: temperature, humidity, program parameters, the
+ * drying rate window, remaining time, status and the door and heater flags. The
+ * tick kernel reads and writes the records in place with absolute buffer access,
+ * so no objects exist per dryer and the heap footprint does not grow with the
+ * fleet. The buffer is either direct memory or a file mapped with
+ * {@link #map(Path, int)}, which makes the fleet persistent. A tick updates the
+ * records in place one after the other, so the file is only consistent between
+ * ticks: {@link #force()} writes it to disk and must not be called while a tick runs.
+ * <p>
+ * The kernel follows {@link DryerSimulation} with the linear model, the ideal
+ * sensor and no filter, command for command and bit for bit, and books energy like
+ * {@link EnergyMeter}. Features that need per-dryer objects are not available:
+ * physical model, mixed loads, noisy sensors, event history and log file, cycle
+ * history and power budget. Energy and cycles are counted for the whole fleet.
+ * <p>
+ * The fleet is not thread-safe; tick it and send commands from one thread.
+ */
+public class OffHeapFleet {
+
+    static final int MAGIC = 0x44525946; // "DRYF"
+    static final int VERSION = 1;
+    static final int MAX_PROGRAMS = 16;
+    private static final int NAME_BYTES = 32;
+
+    // Header
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SIZE = 8;
+    private static final int H_PROGRAMS = 12;
+    private static final int H_TICKS = 16;
+    private static final int H_SIMULATED_MS = 24;
+    private static final int H_ENERGY_MJ = 32;
+    private static final int H_HEATER_MS = 40;
+    private static final int H_COMPLETED = 48;
+    private static final int H_STARTED = 56;
+    private static final int H_NAMES = 64;
+    static final int HEADER_BYTES = H_NAMES + MAX_PROGRAMS * NAME_BYTES;
+
+    // Dryer record
+    private static final int RATE_WINDOW = 10; // as in DryerSimulation
+    private static final int TEMPERATURE = 0;
+    private static final int HUMIDITY = 8;
+    private static final int DECREASE_RATE = 16;
+    private static final int TARGET = 24;
+    private static final int PREVIOUS_UPDATE = 32;
+    private static final int RATE_TIMES = 40;
+    private static final int RATE_HUMIDITIES = RATE_TIMES + 8 * RATE_WINDOW;
+    private static final int REMAINING = RATE_HUMIDITIES + 8 * RATE_WINDOW;
+    private static final int INITIAL_TIME = REMAINING + 4;
+    private static final int RATE_COUNT = INITIAL_TIME + 4;
+    private static final int RATE_NEXT = RATE_COUNT + 1;
+    private static final int STATUS = RATE_NEXT + 1;
+    private static final int FLAGS = STATUS + 1;
+    private static final int PROGRAM = FLAGS + 1;
+    static final int RECORD_BYTES = PROGRAM + 4; // padded to a multiple of 8
+
+    private static final int DOOR_CLOSED = 1;
+    private static final int DOOR_LOCKED = 2;
+    private static final int HEATING = 4;
+    private static final int FILTER_PRIMED = 8;
+    private static final int CYCLE_ACTIVE = 16;
+
+    private static final byte IDLE = (byte) ProgramStatus.IDLE.ordinal();
+    private static final byte RUNNING = (byte) ProgramStatus.RUNNING.ordinal();
+    private static final byte COOLING = (byte) ProgramStatus.COOLING.ordinal();
+    private static final byte ERROR = (byte) ProgramStatus.ERROR.ordinal();
+    private static final byte DOOR_OPEN = (byte) ProgramStatus.DOOR_OPEN.ordinal();
+    private static final ProgramStatus[] STATUSES = ProgramStatus.values();
+
+    private final ByteBuffer state;
+    private final int size;
+    private final String[] programNames = new String[MAX_PROGRAMS]; // cache of the names in the header
+    private ProgramCatalog programCatalog = ProgramCatalog.DEFAULT;
+
+    private OffHeapFleet(ByteBuffer state, int size) {
+        this.state = state.order(ByteOrder.LITTLE_ENDIAN);
+        this.size = size;
+    }
+
+    /**
+     * Creates a fleet of idle dryers in direct memory.
+     *
+     * @param size the number of dryers
+     */
+    public OffHeapFleet(int size) {
+        this(ByteBuffer.allocateDirect(bytesFor(size)), size);
+        initialize();
+    }
+
+    /**
+     * Opens the fleet stored in the given file, or creates a fleet of idle dryers
+     * there. The file is mapped into memory, so every tick changes it directly.
+     *
+     * @param file the fleet file
+     * @param size the number of dryers; must match an existing file
+     * @return the fleet
+     * @throws IOException if the file cannot be mapped or holds a different fleet
+     */
+    public static OffHeapFleet map(Path file, int size) throws IOException {
+        long bytes = bytesFor(size);
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (exists && channel.size() != bytes) {
+                throw new IOException("Fleet file " + file + " does not hold " + size + " dryers");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+        OffHeapFleet fleet = new OffHeapFleet(buffer, size);
+        if (!exists) {
+            fleet.initialize();
+        } else if (fleet.state.getInt(H_MAGIC) != MAGIC || fleet.state.getInt(H_VERSION) != VERSION
+                || fleet.state.getInt(H_SIZE) != size) {
+            throw new IOException("Not a fleet file of this version: " + file);
+        }
+        return fleet;
+    }
+
+    private static int bytesFor(int size) {
+        if (size <= 0 || size > (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES) {
+            throw new IllegalArgumentException("Fleet size must be between 1 and "
+                    + (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES + ": " + size);
+        }
+        return HEADER_BYTES + size * RECORD_BYTES;
+    }
+
+    private void initialize() {
+        state.putInt(H_MAGIC, MAGIC).putInt(H_VERSION, VERSION).putInt(H_SIZE, size);
+        for (int i = 0; i < size; i++) {
+            int r = record(i);
+            // Same defaults as a new DryerState
+            state.putDouble(r + HUMIDITY, 100.0);
+            state.put(r + STATUS, IDLE);
+            state.put(r + FLAGS, (byte) DOOR_CLOSED);
+            state.put(r + PROGRAM, (byte) -1);
+        }
+    }
+
+    private static int record(int dryer) {
+        return HEADER_BYTES + dryer * RECORD_BYTES;
+    }
+
+    private int checked(int dryer) {
+        if (dryer < 0 || dryer >= size) {
+            throw new IndexOutOfBoundsException("Dryer " + dryer + " out of range for " + size + " dryers");
+        }
+        return record(dryer);
+    }
+
+    private boolean flag(int r, int flag) {
+        return (state.get(r + FLAGS) & flag) != 0;
+    }
+
+    private void setFlag(int r, int flag, boolean value) {
+        byte flags = state.get(r + FLAGS);
+        state.put(r + FLAGS, (byte) (value ? flags | flag : flags & ~flag));
+    }
+
+    /**
+     * Sets the catalog that program names are looked up in when a program is started.
+     *
+     * @param programCatalog the catalog
+     */
+    public void setProgramCatalog(ProgramCatalog programCatalog) {
+        this.programCatalog = programCatalog;
+    }
+
+    /**
+     * Starts a program on an idle dryer, like {@link ProgramManager#startProgram(String)}.
+     *
+     * @param dryer       the dryer index
+     * @param programName the program name
+     * @throws IllegalArgumentException if the catalog has no such program
+     * @throws IllegalStateException if the door is open
+     */
+    public void startProgram(int dryer, String programName) {
+        int r = checked(dryer);
+        ProgramProfile profile = programCatalog.get(programName);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown program: " + programName);
+        }
+        if (state.get(r + STATUS) != IDLE) {
+            return;
+        }
+        if (!flag(r, DOOR_CLOSED)) {
+            throw new IllegalStateException("Operation not allowed: Door is open or locked.");
+        }
+        state.putDouble(r + DECREASE_RATE, profile.getHumidityDecreaseRate());
+        state.putDouble(r + TARGET, profile.getTargetTemperature());
+        state.putInt(r + REMAINING, profile.getDurationSeconds());
+        state.putInt(r + INITIAL_TIME, profile.getDurationSeconds());
+        state.put(r + PROGRAM, (byte) programId(programName));
+        setFlag(r, HEATING, true);
+        state.put(r + STATUS, RUNNING);
+        if (flag(r, CYCLE_ACTIVE)) {
+            add(H_COMPLETED, 1);
+        }
+        setFlag(r, CYCLE_ACTIVE, true);
+        add(H_STARTED, 1);
+        setFlag(r, FILTER_PRIMED, false);
+        updateDoorLock(r);
+    }
+
+    /**
+     * Starts the given programs round-robin on all idle dryers, like {@link DryerFleet#startMixed(String...)}.
+     *
+     * @param programNames the programs to distribute over the fleet
+     */
+    public void startMixed(String... programNames) {
+        for (int i = 0; i < size; i++) {
+            startProgram(i, programNames[i % programNames.length]);
+        }
+    }
+
+    /**
+     * Stops the program of a running dryer, like {@link ProgramManager#stopProgram()}.
+     *
+     * @param dryer the dryer index
+     */
+    public void stopProgram(int dryer) {
+        int r = checked(dryer);
+        if (state.get(r + STATUS) != RUNNING) {
+            return;
+        }
+        setFlag(r, HEATING, false);
+        state.put(r + STATUS, IDLE);
+        state.putInt(r + REMAINING, 0);
+        endCycle(r);
+        updateDoorLock(r);
+    }
+
+    /**
+     * Opens the door if it is neither locked nor too hot, like {@link SafetyModule#tryOpenDoor()}.
+     *
+     * @param dryer the dryer index
+     * @return true if the door was opened
+     */
+    public boolean tryOpenDoor(int dryer) {
+        int r = checked(dryer);
+        if (flag(r, DOOR_LOCKED) || state.getDouble(r + TEMPERATURE) >= SafetyModule.SAFE_DOOR_TEMPERATURE) {
+            return false;
+        }
+        setFlag(r, DOOR_CLOSED, false);
+        if (state.get(r + STATUS) != ERROR) {
+            state.put(r + STATUS, DOOR_OPEN);
+        }
+        return true;
+    }
+
+    /**
+     * Closes the door, like {@link SafetyModule#closeDoor()}.
+     *
+     * @param dryer the dryer index
+     */
+    public void closeDoor(int dryer) {
+        int r = checked(dryer);
+        setFlag(r, DOOR_CLOSED, true);
+        if (state.get(r + STATUS) == DOOR_OPEN) {
+            state.put(r + STATUS, IDLE);
+        }
+    }
+
+    /**
+     * Loads wet laundry if the door is open, like {@link ProgramManager#loadNewLaundry()}.
+     *
+     * @param dryer the dryer index
+     * @return true if successful, false if the door is closed
+     */
+    public boolean loadNewLaundry(int dryer) {
+        int r = checked(dryer);
+        if (flag(r, DOOR_CLOSED)) {
+            return false;
+        }
+        state.putDouble(r + HUMIDITY, 100.0);
+        setFlag(r, FILTER_PRIMED, false);
+        return true;
+    }
+
+    /**
+     * Advances every dryer by the given simulated time.
+     *
+     * @param elapsedMilliseconds simulated time since the last tick
+     */
+    public void tick(int elapsedMilliseconds) {
+        long simulatedMs = state.getLong(H_SIMULATED_MS) + elapsedMilliseconds;
+        state.putLong(H_SIMULATED_MS, simulatedMs);
+        double seconds = elapsedMilliseconds / 1000.0;
+        double currentTime = simulatedMs / 1000.0;
+        long energy = 0;
+        long heaterMs = 0;
+        long completed = 0;
+
+        for (int r = HEADER_BYTES, end = record(size); r < end; r += RECORD_BYTES) {
+            byte status = state.get(r + STATUS);
+            if (status != ERROR && status != DOOR_OPEN) {
+                int flags = state.get(r + FLAGS);
+                boolean heating = (flags & HEATING) != 0;
+                double temperature = state.getDouble(r + TEMPERATURE);
+                double target = state.getDouble(r + TARGET);
+
+                if ((flags & CYCLE_ACTIVE) != 0) {
+                    long heaterPower = EnergyMeter.heaterPower(heating, temperature, target);
+                    boolean motorOn = status == RUNNING || status == COOLING;
+                    long power = heaterPower + (motorOn ? EnergyMeter.MOTOR_POWER_W : 0);
+                    if (power > 0 && elapsedMilliseconds > 0) {
+                        energy += power * elapsedMilliseconds;
+                        heaterMs += heaterPower > 0 ? elapsedMilliseconds : 0;
+                    }
+                }
+
+                // Temperature, as DryerSimulation.updateTemperature
+                if (heating) {
+                    if (temperature < target) {
+                        temperature = Math.min(temperature + DryerSimulation.TEMP_INCREASE_RATE * seconds, target);
+                    }
+                } else if (temperature > 0) {
+                    double coolingRate = status == COOLING
+                            ? DryerSimulation.TEMP_COOLING_RATE : DryerSimulation.TEMP_DECREASE_RATE;
+                    temperature = Math.max(0, temperature - coolingRate * seconds);
+                }
+                state.putDouble(r + TEMPERATURE, temperature);
+
+                if (status == RUNNING) {
+                    if (!runProgram(r, heating, temperature, seconds, currentTime)) {
+                        continue; // overheated: DryerSimulation returns before ending the cycle
+                    }
+                } else if (status == COOLING) {
+                    if (temperature <= SafetyModule.SAFE_DOOR_TEMPERATURE) {
+                        state.put(r + STATUS, IDLE);
+                    }
+                } else if (status == IDLE) {
+                    setFlag(r, HEATING, false);
+                }
+            }
+
+            byte after = state.get(r + STATUS);
+            if (flag(r, CYCLE_ACTIVE) && (after == IDLE || after == ERROR)) {
+                setFlag(r, CYCLE_ACTIVE, false);
+                completed++;
+            }
+            updateDoorLock(r);
+        }
+
+        add(H_ENERGY_MJ, energy);
+        add(H_HEATER_MS, heaterMs);
+        add(H_COMPLETED, completed);
+        add(H_TICKS, 1);
+    }
+
+    /**
+     * The RUNNING branch of DryerSimulation.updateState for one dryer.
+     *
+     * @return false if the dryer overheated
+     */
+    private boolean runProgram(int r, boolean heating, double temperature, double seconds, double currentTime) {
+        // Humidity, as DryerSimulation.updateHumidity
+        double humidity = state.getDouble(r + HUMIDITY);
+        if (heating && humidity > 0) {
+            humidity = Math.max(0, humidity - state.getDouble(r + DECREASE_RATE) * seconds);
+            state.putDouble(r + HUMIDITY, humidity);
+        }
+
+        // Ideal sensor without filter: the measured humidity is the true one
+        int rateCount = state.get(r + RATE_COUNT);
+        int rateNext = state.get(r + RATE_NEXT);
+        if (!flag(r, FILTER_PRIMED)) {
+            setFlag(r, FILTER_PRIMED, true);
+            rateCount = 0;
+            rateNext = 0;
+        }
+
+        // Remaining time, as DryerSimulation.updateRemainingTime
+        int remaining = state.getInt(r + REMAINING);
+        if (state.getDouble(r + PREVIOUS_UPDATE) == 0) {
+            remaining = Math.max(0, (int) (remaining - seconds));
+        }
+        int oldest = rateCount < RATE_WINDOW ? 0 : rateNext;
+        double timeDelta = rateCount > 0 ? currentTime - state.getDouble(r + RATE_TIMES + 8 * oldest) : 0;
+        double humidityDelta = rateCount > 0 ? state.getDouble(r + RATE_HUMIDITIES + 8 * oldest) - humidity : 0;
+        state.putDouble(r + RATE_TIMES + 8 * rateNext, currentTime);
+        state.putDouble(r + RATE_HUMIDITIES + 8 * rateNext, humidity);
+        state.put(r + RATE_NEXT, (byte) ((rateNext + 1) % RATE_WINDOW));
+        state.put(r + RATE_COUNT, (byte) Math.min(rateCount + 1, RATE_WINDOW));
+        double dryingRate = timeDelta > 0 ? humidityDelta / timeDelta : 0;
+        if (dryingRate > 0) {
+            int estimated = (int) ((humidity - DryerSimulation.TARGET_HUMIDITY) / dryingRate);
+            estimated = Math.max(5, estimated);
+            remaining = Math.min(state.getInt(r + INITIAL_TIME), estimated);
+        } else {
+            remaining = Math.max(0, (int) (remaining - seconds));
+        }
+        state.putInt(r + REMAINING, remaining);
+        state.putDouble(r + PREVIOUS_UPDATE, currentTime);
+        if (humidity <= DryerSimulation.TARGET_HUMIDITY) {
+            finishProgram(r);
+        }
+
+        if (temperature >= SafetyModule.OVERHEAT_THRESHOLD) {
+            state.put(r + STATUS, ERROR);
+            setFlag(r, HEATING, false);
+            return false;
+        }
+        if (humidity <= DryerSimulation.TARGET_HUMIDITY || remaining <= 0) {
+            finishProgram(r);
+        }
+        return true;
+    }
+
+    private void finishProgram(int r) {
+        state.put(r + STATUS, COOLING);
+        setFlag(r, HEATING, false);
+        updateDoorLock(r);
+    }
+
+    private void endCycle(int r) {
+        if (flag(r, CYCLE_ACTIVE)) {
+            setFlag(r, CYCLE_ACTIVE, false);
+            add(H_COMPLETED, 1);
+        }
+    }
+
+    private void updateDoorLock(int r) {
+        byte status = state.get(r + STATUS);
+        setFlag(r, DOOR_LOCKED, status == RUNNING
+                || (status == COOLING && state.getDouble(r + TEMPERATURE) > SafetyModule.SAFE_DOOR_TEMPERATURE));
+    }
+
+    private void add(int headerOffset, long value) {
+        state.putLong(headerOffset, state.getLong(headerOffset) + value);
+    }
+
+    private int programId(String programName) {
+        int programs = state.getInt(H_PROGRAMS);
+        for (int id = 0; id < programs; id++) {
+            if (programName.equals(getProgram(id))) {
+                return id;
+            }
+        }
+        byte[] bytes = programName.getBytes(StandardCharsets.UTF_8);
+        if (programs == MAX_PROGRAMS || bytes.length >= NAME_BYTES) {
+            throw new IllegalArgumentException("Cannot store program name: " + programName);
+        }
+        int offset = H_NAMES + programs * NAME_BYTES;
+        state.put(offset, (byte) bytes.length);
+        state.put(offset + 1, bytes);
+        state.putInt(H_PROGRAMS, programs + 1);
+        return programs;
+    }
+
+    private String getProgram(int id) {
+        if (programNames[id] == null) {
+            int offset = H_NAMES + id * NAME_BYTES;
+            byte[] bytes = new byte[state.get(offset)];
+            state.get(offset + 1, bytes);
+            programNames[id] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return programNames[id];
+    }
+
+    /**
+     * Writes the state of a mapped fleet to its file. Does nothing for a fleet in direct memory.
+     * Call it between ticks from the thread that ticks the fleet; a crash during a
+     * tick may leave a file with some dryers ticked and others not.
+     */
+    public void force() {
+        if (state instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    /**
+     * @return the number of dryers in the fleet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of completed fleet ticks
+     */
+    public long getTickCount() {
+        return state.getLong(H_TICKS);
+    }
+
+    /**
+     * @return the simulated time in milliseconds, i.e. the sum of all elapsed tick times
+     */
+    public long getSimulatedTimeMs() {
+        return state.getLong(H_SIMULATED_MS);
+    }
+
+    /**
+     * @return the energy used by all dryers in kWh
+     */
+    public double getTotalKwh() {
+        return state.getLong(H_ENERGY_MJ) / EnergyLedger.MILLIJOULES_PER_KWH;
+    }
+
+    /**
+     * @return the time the heaters were on, summed over all dryers, in milliseconds
+     */
+    public long getHeaterOnMs() {
+        return state.getLong(H_HEATER_MS);
+    }
+
+    /**
+     * @return the number of started cycles
+     */
+    public long getStartedCycles() {
+        return state.getLong(H_STARTED);
+    }
+
+    /**
+     * @return the number of finished cycles, whether completed or cancelled
+     */
+    public long getCompletedCycles() {
+        return state.getLong(H_COMPLETED);
+    }
+
+    public double getTemperature(int dryer) {
+        return state.getDouble(checked(dryer) + TEMPERATURE);
+    }
+
+    public double getHumidity(int dryer) {
+        return state.getDouble(checked(dryer) + HUMIDITY);
+    }
+
+    public int getRemainingSeconds(int dryer) {
+        return state.getInt(checked(dryer) + REMAINING);
+    }
+
+    public ProgramStatus getStatus(int dryer) {
+        return STATUSES[state.get(checked(dryer) + STATUS)];
+    }
+
+    public boolean isDoorClosed(int dryer) {
+        return flag(checked(dryer), DOOR_CLOSED);
+    }
+
+    public boolean isDoorLocked(int dryer) {
+        return flag(checked(dryer), DOOR_LOCKED);
+    }
+
+    public boolean isHeatingActive(int dryer) {
+        return flag(checked(dryer), HEATING);
+    }
+
+    /**
+     * @param dryer the dryer index
+     * @return the name of the last started program, or "None" if none was started
+     */
+    public String getProgramName(int dryer) {
+        int id = state.get(checked(dryer) + PROGRAM);
+        return id < 0 ? "None" : getProgram(id);
+    }
+
+    /**
+     * Counts the dryers that currently have the given status by scanning the fleet.
+     *
+     * @param status the status to count
+     * @return the number of dryers with that status
+     */
+    public int countByStatus(ProgramStatus status) {
+        byte wanted = (byte) status.ordinal();
+        int count = 0;
+        for (int r = HEADER_BYTES, end = record(size); r < end; r += RECORD_BYTES) {
+            if (state.get(r + STATUS) == wanted) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
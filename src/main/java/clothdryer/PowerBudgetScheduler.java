@@ -0,0 +1,183 @@
+package clothdryer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PowerBudgetScheduler keeps the heaters of a fleet within a common power budget,
+ * so that many dryers starting at once do not trip the circuit.
+ * <p>
+ * Every heater that is switched on reserves its full {@link EnergyMeter#HEATER_POWER_W}.
+ * Before each fleet tick, {@link #allocate()} hands out the budget to the dryers that
+ * request heat, in this order:
+ * <ol>
+ *     <li>higher {@link #setPriority(int, int) priority} first,</li>
+ *     <li>within a priority, dryers that already heat before waiting ones, so heaters
+ *     do not flap between ticks,</li>
+ *     <li>then the dryer closest to finishing, which frees its share soonest.</li>
+ * </ol>
+ * The order is found by a counting sort over a fixed number of buckets, so a pass is
+ * O(n) and allocates nothing. Dryers without a share pause their program until they
+ * get one, see {@link DryerSimulation#setHeaterEnabled(boolean)}.
+ * <p>
+ * Each dryer only reads its grant before and reports its request after its own tick,
+ * both O(1). The reserved power is an atomic counter and the budget a volatile field,
+ * so dashboards may read them and the budget may be changed from any thread without
+ * locking; the new budget takes effect with the next pass.
+ */
+public class PowerBudgetScheduler {
+
+    public static final int PRIORITY_LEVELS = 4;
+    static final int DEFAULT_PRIORITY = 1;
+    private static final int REMAINING_BUCKETS = 64; // one minute each, the last one open-ended
+    private static final int BUCKETS = PRIORITY_LEVELS * 2 * REMAINING_BUCKETS;
+
+    private volatile long budgetWatts;
+    private final AtomicLong reservedWatts = new AtomicLong();
+
+    private final boolean[] granted;
+    private final boolean[] requesting;
+    private final byte[] priority;
+    private final int[] remainingSeconds;
+    private final short[] bucket; // of each requesting dryer in the current pass
+    private final int[] bucketStart = new int[BUCKETS + 1];
+    private final int[] order;
+    private volatile int waiting = 0;
+
+    /**
+     * Creates a scheduler for the given number of dryers.
+     *
+     * @param dryers      the number of dryers, addressed by index 0 .. dryers - 1
+     * @param budgetWatts the maximum total heater power
+     */
+    public PowerBudgetScheduler(int dryers, long budgetWatts) {
+        if (dryers <= 0) {
+            throw new IllegalArgumentException("Number of dryers must be positive: " + dryers);
+        }
+        this.budgetWatts = requireBudget(budgetWatts);
+        granted = new boolean[dryers];
+        requesting = new boolean[dryers];
+        priority = new byte[dryers];
+        remainingSeconds = new int[dryers];
+        bucket = new short[dryers];
+        order = new int[dryers];
+        Arrays.fill(priority, (byte) DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Changes the power budget. Safe to call from any thread.
+     *
+     * @param budgetWatts the maximum total heater power
+     */
+    public void setBudgetWatts(long budgetWatts) {
+        this.budgetWatts = requireBudget(budgetWatts);
+    }
+
+    private static long requireBudget(long budgetWatts) {
+        if (budgetWatts < 0) {
+            throw new IllegalArgumentException("Power budget must not be negative: " + budgetWatts);
+        }
+        return budgetWatts;
+    }
+
+    /**
+     * @return the maximum total heater power in watts
+     */
+    public long getBudgetWatts() {
+        return budgetWatts;
+    }
+
+    /**
+     * @return the heater power currently handed out in watts; never above the budget after a pass
+     */
+    public long getReservedWatts() {
+        return reservedWatts.get();
+    }
+
+    /**
+     * @return the number of dryers that requested heat in the last pass but did not get it
+     */
+    public int getWaitingCount() {
+        return waiting;
+    }
+
+    /**
+     * Sets the priority of a dryer. Must be called from the thread that runs the fleet.
+     *
+     * @param dryer    the dryer index
+     * @param priority 0 (lowest) to {@link #PRIORITY_LEVELS} - 1 (highest)
+     */
+    public void setPriority(int dryer, int priority) {
+        if (priority < 0 || priority >= PRIORITY_LEVELS) {
+            throw new IllegalArgumentException("Priority must be between 0 and " + (PRIORITY_LEVELS - 1));
+        }
+        this.priority[dryer] = (byte) priority;
+    }
+
+    /**
+     * @param dryer the dryer index
+     * @return true if the dryer may switch its heater on in the current tick
+     */
+    boolean isGranted(int dryer) {
+        return granted[dryer];
+    }
+
+    /**
+     * Records what a dryer needs, after its tick.
+     *
+     * @param dryer            the dryer index
+     * @param heatRequested    true if the dryer's program wants the heater on
+     * @param remainingSeconds the dryer's remaining program time
+     */
+    void report(int dryer, boolean heatRequested, int remainingSeconds) {
+        requesting[dryer] = heatRequested;
+        this.remainingSeconds[dryer] = remainingSeconds;
+    }
+
+    /**
+     * Distributes the budget for the next tick. Called by the fleet before every tick.
+     */
+    void allocate() {
+        int dryers = granted.length;
+        Arrays.fill(bucketStart, 0);
+        int requests = 0;
+        for (int i = 0; i < dryers; i++) {
+            if (requesting[i]) {
+                int b = bucketOf(i);
+                bucket[i] = (short) b;
+                bucketStart[b + 1]++;
+                requests++;
+            }
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        for (int i = 0; i < dryers; i++) {
+            if (requesting[i]) {
+                order[bucketStart[bucket[i]]++] = i;
+            }
+        }
+
+        // Everything requesting is now in order[0 .. requests); grant from the front
+        long available = budgetWatts / EnergyMeter.HEATER_POWER_W;
+        long reserved = 0;
+        int denied = 0;
+        Arrays.fill(granted, false);
+        for (int k = 0; k < requests; k++) {
+            if (reserved < available) {
+                granted[order[k]] = true;
+                reserved++;
+            } else {
+                denied++;
+            }
+        }
+        reservedWatts.set(reserved * EnergyMeter.HEATER_POWER_W);
+        waiting = denied;
+    }
+
+    private int bucketOf(int dryer) {
+        int remaining = Math.max(0, Math.min(REMAINING_BUCKETS - 1, remainingSeconds[dryer] / 60));
+        int holding = granted[dryer] ? 0 : 1;
+        return ((PRIORITY_LEVELS - 1 - priority[dryer]) * 2 + holding) * REMAINING_BUCKETS + remaining;
+    }
+}
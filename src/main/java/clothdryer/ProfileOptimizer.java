@@ -0,0 +1,247 @@
+package clothdryer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * ProfileOptimizer searches program profiles that dry faster or use less energy
+ * than the built-in ones.
+ * <p>
+ * For a fabric, it sweeps a grid of target temperatures and drying rates and
+ * simulates one complete cycle per candidate, including the cool-down until the
+ * door may be opened. The candidates are simulated in parallel on fresh, headless
+ * dryers without file logging. A candidate is feasible if the program ended because
+ * the laundry was dry, the dryer never reached the {@link SafetyModule} overheat
+ * threshold and the temperature stayed within what the fabric tolerates.
+ * <p>
+ * The result is the Pareto front of the feasible candidates over cycle time and
+ * energy: no candidate on the front is beaten by another in both.
+ */
+public class ProfileOptimizer {
+
+    static final double MIN_TEMPERATURE = 30.0;
+    static final double MIN_RATE_FRACTION = 0.2; // slowest rate relative to the fabric's maximum
+    static final double DURATION_MARGIN = 1.1; // suggested duration relative to the measured drying time
+    private static final int STEP_MS = 1000;
+    private static final int MAX_CYCLE_SECONDS = 6 * 3600;
+
+    private final int temperatureSteps;
+    private final int rateSteps;
+
+    /**
+     * Evaluated candidate profile.
+     */
+    public static final class Candidate {
+        private final ProgramProfile profile;
+        private final boolean feasible;
+        private final long dryingMs;
+        private final long cycleMs;
+        private final double energyKwh;
+        private final double maxTemperature;
+
+        Candidate(ProgramProfile profile, boolean feasible, long dryingMs, long cycleMs, double energyKwh, double maxTemperature) {
+            this.profile = profile;
+            this.feasible = feasible;
+            this.dryingMs = dryingMs;
+            this.cycleMs = cycleMs;
+            this.energyKwh = energyKwh;
+            this.maxTemperature = maxTemperature;
+        }
+
+        /**
+         * @return the candidate profile, with the duration suggested from the simulated drying time
+         */
+        public ProgramProfile getProfile() {
+            return profile;
+        }
+
+        public boolean isFeasible() {
+            return feasible;
+        }
+
+        /**
+         * @return the time until the laundry was dry, in milliseconds
+         */
+        public long getDryingMs() {
+            return dryingMs;
+        }
+
+        /**
+         * @return the time until the door could be opened again, in milliseconds
+         */
+        public long getCycleMs() {
+            return cycleMs;
+        }
+
+        public double getEnergyKwh() {
+            return energyKwh;
+        }
+
+        public double getMaxTemperature() {
+            return maxTemperature;
+        }
+    }
+
+    /**
+     * Result of one optimization run.
+     */
+    public static final class Result {
+        private final LaundryLoad.Fabric fabric;
+        private final int evaluated;
+        private final int feasible;
+        private final List<Candidate> paretoFront;
+
+        Result(LaundryLoad.Fabric fabric, int evaluated, int feasible, List<Candidate> paretoFront) {
+            this.fabric = fabric;
+            this.evaluated = evaluated;
+            this.feasible = feasible;
+            this.paretoFront = paretoFront;
+        }
+
+        public LaundryLoad.Fabric getFabric() {
+            return fabric;
+        }
+
+        public int getEvaluated() {
+            return evaluated;
+        }
+
+        public int getFeasible() {
+            return feasible;
+        }
+
+        /**
+         * @return the non-dominated candidates, sorted by cycle time (fastest first)
+         */
+        public List<Candidate> getParetoFront() {
+            return paretoFront;
+        }
+
+        /**
+         * @return the candidate on the front with the shortest cycle, or null if none was feasible
+         */
+        public Candidate getFastest() {
+            return paretoFront.isEmpty() ? null : paretoFront.get(0);
+        }
+
+        /**
+         * @return the candidate on the front with the lowest energy, or null if none was feasible
+         */
+        public Candidate getMostEfficient() {
+            return paretoFront.isEmpty() ? null : paretoFront.get(paretoFront.size() - 1);
+        }
+    }
+
+    /**
+     * Creates an optimizer with the given grid resolution.
+     *
+     * @param temperatureSteps number of target temperatures to try
+     * @param rateSteps        number of drying rates to try per temperature
+     */
+    public ProfileOptimizer(int temperatureSteps, int rateSteps) {
+        if (temperatureSteps < 1 || rateSteps < 1) {
+            throw new IllegalArgumentException("Grid must have at least one step per dimension");
+        }
+        this.temperatureSteps = temperatureSteps;
+        this.rateSteps = rateSteps;
+    }
+
+    /**
+     * Sweeps the profiles for a fabric. The profiles are named like the fabric's program.
+     *
+     * @param fabric the fabric the program is meant for
+     * @return the evaluated candidates' Pareto front
+     */
+    public Result optimize(LaundryLoad.Fabric fabric) {
+        String programName = fabric.name().toLowerCase();
+        double maxTemperature = Math.min(fabric.getProgramTemperature(), SafetyModule.OVERHEAT_THRESHOLD);
+        double minTemperature = Math.min(MIN_TEMPERATURE, maxTemperature);
+        int duration = ProgramCatalog.DEFAULT.get(programName).getDurationSeconds() * 2;
+        int count = temperatureSteps * rateSteps;
+
+        Candidate[] candidates = IntStream.range(0, count).parallel().mapToObj(i -> {
+            double temperature = interpolate(minTemperature, maxTemperature, i / rateSteps, temperatureSteps);
+            // A fabric dries at most as fast as in its own program, scaled by temperature
+            double maxRate = fabric.getDryingRate() * temperature / fabric.getProgramTemperature();
+            double rate = interpolate(maxRate * MIN_RATE_FRACTION, maxRate, i % rateSteps, rateSteps);
+            return evaluate(new ProgramProfile(programName, temperature, rate, duration), fabric.getProgramTemperature());
+        }).toArray(Candidate[]::new);
+
+        List<Candidate> feasible = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.isFeasible()) {
+                feasible.add(candidate);
+            }
+        }
+        return new Result(fabric, count, feasible.size(), paretoFront(feasible));
+    }
+
+    private static double interpolate(double from, double to, int step, int steps) {
+        return steps == 1 ? to : from + (to - from) * step / (steps - 1);
+    }
+
+    /**
+     * Simulates one complete cycle of a profile on a fresh dryer.
+     *
+     * @param profile           the profile to evaluate
+     * @param fabricTemperature the highest temperature the fabric tolerates
+     * @return the evaluated candidate
+     */
+    static Candidate evaluate(ProgramProfile profile, double fabricTemperature) {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        SafetyModule safetyModule = new SafetyModule(state);
+        EnergyMeter meter = new EnergyMeter(new EnergyLedger());
+        DryerSimulation simulation = new DryerSimulation(state, safetyModule, meter);
+        simulation.startProgram(profile);
+
+        long elapsedMs = 0;
+        long dryingMs = -1;
+        double maxTemperature = state.getTemperature();
+        boolean dry = false;
+        while (state.getStatus() != DryerState.ProgramStatus.IDLE
+                && state.getStatus() != DryerState.ProgramStatus.ERROR
+                && elapsedMs < MAX_CYCLE_SECONDS * 1000L) {
+            simulation.updateState(STEP_MS);
+            elapsedMs += STEP_MS;
+            maxTemperature = Math.max(maxTemperature, state.getTemperature());
+            if (dryingMs < 0 && state.getStatus() != DryerState.ProgramStatus.RUNNING) {
+                dryingMs = elapsedMs;
+                dry = state.getHumidity() <= DryerSimulation.TARGET_HUMIDITY;
+            }
+        }
+
+        boolean feasible = dry
+                && state.getStatus() == DryerState.ProgramStatus.IDLE
+                && maxTemperature < SafetyModule.OVERHEAT_THRESHOLD
+                && maxTemperature <= fabricTemperature;
+        int suggestedDuration = dryingMs < 0 ? profile.getDurationSeconds()
+                : (int) Math.ceil(dryingMs / 1000.0 * DURATION_MARGIN / 60.0) * 60;
+        ProgramProfile suggested = new ProgramProfile(profile.getName(), profile.getTargetTemperature(),
+                profile.getHumidityDecreaseRate(), suggestedDuration);
+        return new Candidate(suggested, feasible, dryingMs, elapsedMs, meter.getLastCycleKwh(), maxTemperature);
+    }
+
+    /**
+     * Returns the candidates that are not dominated in cycle time and energy.
+     *
+     * @param candidates feasible candidates
+     * @return the front sorted by cycle time, energy strictly decreasing
+     */
+    static List<Candidate> paretoFront(List<Candidate> candidates) {
+        Candidate[] sorted = candidates.toArray(new Candidate[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(Candidate::getCycleMs).thenComparingDouble(Candidate::getEnergyKwh));
+        List<Candidate> front = new ArrayList<>();
+        double bestEnergy = Double.POSITIVE_INFINITY;
+        for (Candidate candidate : sorted) {
+            if (candidate.getEnergyKwh() < bestEnergy) {
+                front.add(candidate);
+                bestEnergy = candidate.getEnergyKwh();
+            }
+        }
+        return front;
+    }
+}
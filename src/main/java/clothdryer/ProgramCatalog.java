@@ -0,0 +1,73 @@
+package clothdryer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ProgramCatalog is an immutable set of {@link ProgramProfile}s by program name.
+ * <p>
+ * Changing a profile creates a new catalog with a new, globally unique version, so
+ * data derived from a catalog can be cached and invalidated by comparing versions.
+ * {@link #DEFAULT} contains the built-in programs of {@link DryerSimulation}.
+ */
+public final class ProgramCatalog {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    /**
+     * The built-in programs cotton, synthetic and wool.
+     */
+    public static final ProgramCatalog DEFAULT = new ProgramCatalog(Map.of())
+            .withProfile(new ProgramProfile("cotton", DryerSimulation.MAX_TEMP_COTTON,
+                    DryerSimulation.HUMIDITY_DECREASE_RATE_COTTON, DryerSimulation.TIME_COTTON))
+            .withProfile(new ProgramProfile("synthetic", DryerSimulation.MAX_TEMP_SYNTHETIC,
+                    DryerSimulation.HUMIDITY_DECREASE_RATE_SYNTHETIC, DryerSimulation.TIME_SYNTHETIC))
+            .withProfile(new ProgramProfile("wool", DryerSimulation.MAX_TEMP_WOOL,
+                    DryerSimulation.HUMIDITY_DECREASE_RATE_WOOL, DryerSimulation.TIME_WOOL));
+
+    private final Map<String, ProgramProfile> profiles;
+    private final long version;
+
+    private ProgramCatalog(Map<String, ProgramProfile> profiles) {
+        this.profiles = Collections.unmodifiableMap(profiles);
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Returns a catalog that contains the given profile in addition to, or in place
+     * of the profile with the same name in, this catalog.
+     *
+     * @param profile the profile to add or replace
+     * @return the new catalog
+     */
+    public ProgramCatalog withProfile(ProgramProfile profile) {
+        Map<String, ProgramProfile> copy = new LinkedHashMap<>(profiles);
+        copy.put(profile.getName(), profile);
+        return new ProgramCatalog(copy);
+    }
+
+    /**
+     * @param programName the program name
+     * @return the profile, or null if the catalog has no such program
+     */
+    public ProgramProfile get(String programName) {
+        return profiles.get(programName);
+    }
+
+    /**
+     * @return all profiles in insertion order
+     */
+    public Collection<ProgramProfile> getProfiles() {
+        return profiles.values();
+    }
+
+    /**
+     * @return the version of this catalog; every catalog instance has a different one
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -1,5 +1,10 @@
 package clothdryer;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  * ProgramManager coordinates the simulation and state of the dryer.
  * <p>
@@ -9,18 +14,38 @@ package clothdryer;
  */
 public class ProgramManager implements Runnable {
 
+    private static final int TREND_CAPACITY = 4096; // samples kept for live charts
+
     private final DryerState state;
     private final DryerSimulation simulation;
     private long lastUpdateTime;
     private final SafetyModule safetyModule;
+    private SessionRecorder sessionRecorder;
+    private volatile long firstTickUptimeMs = -1;
+    private volatile Runnable[] stateListeners = new Runnable[0];
+    private volatile SampleRingBuffer trend; // created on first use, fleets without charts don't need it
+    private RemainingTimePredictor.Tracker remainingTimeTracker; // null: no learned prediction
+    private volatile int predictedRemainingSeconds = -1; // published with every state change, read without the lock
+    private PowerBudgetScheduler powerScheduler; // null: the heater is never withheld
+    private int powerSlot;
 
     /**
      * Constructs a new ProgramManager, initializing the state, safety module, and simulation.
      */
     public ProgramManager() {
+        this(new EnergyLedger());
+    }
+
+    /**
+     * Constructs a new ProgramManager that books its energy use into the given ledger,
+     * e.g. one shared by a whole fleet.
+     *
+     * @param energyLedger the ledger for heater and motor energy
+     */
+    public ProgramManager(EnergyLedger energyLedger) {
         this.state = new DryerState();
         this.safetyModule = new SafetyModule(state);
-        this.simulation = new DryerSimulation(state, safetyModule);
+        this.simulation = new DryerSimulation(state, safetyModule, new EnergyMeter(energyLedger));
         this.lastUpdateTime = System.currentTimeMillis();
     }
 
@@ -29,20 +54,34 @@ public class ProgramManager implements Runnable {
      *
      * @param programName The name of the drying program to start.
      */
-    public void startProgram(String programName) {
+    public synchronized void startProgram(String programName) {
+        if (sessionRecorder != null) {
+            sessionRecorder.recordStartProgram(programName);
+        }
         if (state.getStatus() == DryerState.ProgramStatus.IDLE) {
             simulation.startProgram(programName);
             lastUpdateTime = System.currentTimeMillis();
+            if (remainingTimeTracker != null) {
+                remainingTimeTracker.discard();
+            }
         }
+        notifyStateListeners();
     }
 
     /**
      * Stops the currently running drying program.
      */
-    public void stopProgram() {
+    public synchronized void stopProgram() {
+        if (sessionRecorder != null) {
+            sessionRecorder.recordStopProgram();
+        }
         if (state.getStatus() == DryerState.ProgramStatus.RUNNING) {
             simulation.stopProgram();
+            if (remainingTimeTracker != null) {
+                remainingTimeTracker.discard();
+            }
         }
+        notifyStateListeners();
     }
 
     /**
@@ -73,27 +112,254 @@ public class ProgramManager implements Runnable {
     /**
      * Updates the simulation state based on elapsed time.
      */
-    private void refreshState() {
+    private synchronized void refreshState() {
         long currentTime = System.currentTimeMillis();
         int elapsedMilliseconds = (int) (currentTime - lastUpdateTime);
 
-        simulation.updateState(elapsedMilliseconds);
+        tick(elapsedMilliseconds);
         lastUpdateTime = currentTime;
     }
 
+    /**
+     * Advances the simulation by the given time without waiting for the wall clock.
+     * Used by the background loop as well as by replays and headless runs.
+     *
+     * @param elapsedMilliseconds simulated time since the last tick
+     */
+    synchronized void tick(int elapsedMilliseconds) {
+        if (powerScheduler != null) {
+            simulation.setHeaterEnabled(powerScheduler.isGranted(powerSlot));
+        }
+        simulation.updateState(elapsedMilliseconds);
+        if (powerScheduler != null) {
+            powerScheduler.report(powerSlot, simulation.isHeatingActive(), state.getRemainingSeconds());
+        }
+        if (trend != null) {
+            trend.add(simulation.getSimulatedTimeMs(), state.getTemperature(), state.getHumidity());
+        }
+        if (remainingTimeTracker != null) {
+            remainingTimeTracker.update(state, simulation.getMeasuredHumidity(), simulation.getSimulatedTimeMs());
+        }
+        if (firstTickUptimeMs < 0) {
+            firstTickUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        }
+        notifyStateListeners();
+        if (sessionRecorder != null) {
+            sessionRecorder.recordTick(elapsedMilliseconds, state);
+        }
+    }
+
+    /**
+     * Returns the temperature and humidity samples recorded on every tick.
+     * Recording starts with the first call of this method.
+     *
+     * @return the ring buffer of recent samples
+     */
+    public synchronized SampleRingBuffer getTrend() {
+        if (trend == null) {
+            trend = new SampleRingBuffer(TREND_CAPACITY);
+        }
+        return trend;
+    }
+
+    /**
+     * Returns the JVM uptime at which the first simulation tick completed.
+     * Used to compare the startup cost of the GUI and the headless entry points.
+     *
+     * @return the uptime in milliseconds, or -1 if no tick has happened yet
+     */
+    public long getFirstTickUptimeMs() {
+        return firstTickUptimeMs;
+    }
+
+    /**
+     * Attaches a recorder that captures every command and tick of this manager,
+     * starting with a checkpoint of the current state. A replay runs on a fresh
+     * ProgramManager with the linear model and the ideal sensor, so recording has
+     * to start while no cycle is running and with that configuration.
+     *
+     * @param recorder the recorder to use, or null to stop recording
+     * @throws IllegalStateException if a cycle is running or another model or sensor is in use
+     */
+    public synchronized void setSessionRecorder(SessionRecorder recorder) {
+        if (recorder != null) {
+            DryerState.ProgramStatus status = state.getStatus();
+            if (status == DryerState.ProgramStatus.RUNNING || status == DryerState.ProgramStatus.COOLING) {
+                throw new IllegalStateException("Recording has to start while no cycle is running");
+            }
+            if (simulation.getPhysicalModel() != null || simulation.getHumiditySensor() != HumiditySensor.IDEAL) {
+                throw new IllegalStateException("Sessions can only be recorded with the linear model and the ideal sensor");
+            }
+            SimulationCheckpoint.Output checkpoint = new SimulationCheckpoint.Output();
+            writeCheckpoint(checkpoint);
+            recorder.recordInitialState(checkpoint.toByteArray());
+        }
+        this.sessionRecorder = recorder;
+    }
+
+    /**
+     * @return the meter booking this dryer's energy use; safe to read from any thread
+     */
+    public EnergyMeter getEnergyMeter() {
+        return simulation.getEnergyMeter();
+    }
+
+    /**
+     * Switches the simulation to a physical model solved with adaptive step size,
+     * or back to the linear default model.
+     *
+     * @param model the model to use, or null for the linear default model
+     * @throws IllegalStateException while a session is recorded, because replays use the linear model
+     */
+    public synchronized void setPhysicalModel(DryingModel model) {
+        if (sessionRecorder != null) {
+            throw new IllegalStateException("Cannot change the physical model while recording");
+        }
+        simulation.setPhysicalModel(model, null);
+    }
+
+    /**
+     * Puts the heater of this dryer under a shared power budget.
+     *
+     * @param scheduler the scheduler of the fleet, or null to remove the budget
+     * @param slot      the index of this dryer in the scheduler
+     */
+    synchronized void setPowerScheduler(PowerBudgetScheduler scheduler, int slot) {
+        this.powerScheduler = scheduler;
+        this.powerSlot = slot;
+        if (scheduler == null) {
+            simulation.setHeaterEnabled(true);
+        } else {
+            scheduler.report(slot, simulation.isHeatingActive(), state.getRemainingSeconds());
+        }
+    }
+
+    /**
+     * Returns the precomputed course of a standard cycle of the given program,
+     * started at the current drum temperature. The first call for a program simulates
+     * the whole cycle while holding this manager, so call it off the FX thread.
+     *
+     * @param programName the program name
+     * @return the trajectory table, or null for an unknown program
+     */
+    public synchronized TrajectoryTable getTrajectory(String programName) {
+        return simulation.getTrajectory(programName, state.getTemperature());
+    }
+
+    /**
+     * Keeps a summary of every finished cycle of this dryer in the given store.
+     *
+     * @param cycleHistory the store, may be shared by many dryers, or null to stop keeping cycles
+     */
+    public synchronized void setCycleHistory(CycleHistoryStore cycleHistory) {
+        simulation.setCycleHistory(cycleHistory);
+    }
+
+    /**
+     * Lets the given predictor learn from the cycles of this dryer and provide
+     * {@link #getPredictedRemainingSeconds() predictions}. The built-in estimate in
+     * the dryer state is not changed, so recorded sessions stay replayable.
+     *
+     * @param predictor the predictor, may be shared by many dryers, or null to stop predicting
+     */
+    public synchronized void setRemainingTimePredictor(RemainingTimePredictor predictor) {
+        remainingTimeTracker = predictor != null ? predictor.tracker() : null;
+        predictedRemainingSeconds = -1;
+    }
+
+    /**
+     * Returns the prediction as of the last tick or command. Does not lock the
+     * manager, so the FX thread can call it while a tick is running.
+     *
+     * @return the learned remaining time of the running program in seconds, or -1 if
+     *         there is no predictor or it has no data for the current state yet
+     */
+    public int getPredictedRemainingSeconds() {
+        return predictedRemainingSeconds;
+    }
+
+    /**
+     * Replaces the ideal humidity sensor, e.g. by a {@link NoisyHumiditySensor}, and
+     * sets the filter its readings pass through.
+     *
+     * @param sensor the sensor
+     * @param filter the filter, or {@link HumidityFilter#NONE}
+     * @throws IllegalStateException while a session is recorded, because replays use the ideal sensor
+     */
+    public synchronized void setHumiditySensor(HumiditySensor sensor, HumidityFilter filter) {
+        if (sessionRecorder != null) {
+            throw new IllegalStateException("Cannot change the humidity sensor while recording");
+        }
+        simulation.setHumiditySensor(sensor);
+        simulation.setHumidityFilter(filter);
+    }
+
+    /**
+     * @throws IllegalStateException while a session is recorded, because a replay could not reproduce a restore
+     */
+    synchronized void requireNotRecording() {
+        if (sessionRecorder != null) {
+            throw new IllegalStateException("Cannot restore a checkpoint while recording");
+        }
+    }
+
+    /**
+     * Writes the state of this dryer to a checkpoint, see {@link SimulationCheckpoint}.
+     * @param out the checkpoint being written
+     */
+    synchronized void writeCheckpoint(SimulationCheckpoint.Output out) {
+        simulation.writeCheckpoint(out);
+    }
+
+    /**
+     * Restores the state of this dryer from a checkpoint. The wall clock of the
+     * background loop restarts now, and a learned prediction starts with the next cycle.
+     * @param in the checkpoint being read
+     * @throws IOException if the checkpoint is damaged
+     * @throws IllegalStateException while a session is recorded, because a replay could not reproduce the jump
+     */
+    synchronized void readCheckpoint(ByteBuffer in) throws IOException {
+        requireNotRecording();
+        simulation.readCheckpoint(in);
+        lastUpdateTime = System.currentTimeMillis();
+        if (remainingTimeTracker != null) {
+            remainingTimeTracker.discard();
+        }
+        if (powerScheduler != null) {
+            powerScheduler.report(powerSlot, simulation.isHeatingActive(), state.getRemainingSeconds());
+        }
+        notifyStateListeners();
+    }
+
+    /**
+     * @return the simulation driven by this manager
+     */
+    DryerSimulation getSimulation() {
+        return simulation;
+    }
+
     /**
      * Attempts to open the dryer door.
      * @return true if the door was opened, false otherwise
      */
-    public boolean tryOpenDoor() {
-        return simulation.tryOpenDoor();
+    public synchronized boolean tryOpenDoor() {
+        if (sessionRecorder != null) {
+            sessionRecorder.recordOpenDoor();
+        }
+        boolean opened = simulation.tryOpenDoor();
+        notifyStateListeners();
+        return opened;
     }
 
     /**
      * Closes the dryer door.
      */
-    public void closeDoor() {
+    public synchronized void closeDoor() {
+        if (sessionRecorder != null) {
+            sessionRecorder.recordCloseDoor();
+        }
         simulation.closeDoor();
+        notifyStateListeners();
     }
 
     /**
@@ -114,12 +380,73 @@ public class ProgramManager implements Runnable {
      * Simulates loading new laundry, resetting humidity values.
      * @return true if successful, false if door is closed
      */
-    public boolean loadNewLaundry() {
+    public synchronized boolean loadNewLaundry() {
+        if (sessionRecorder != null) {
+            sessionRecorder.recordLoadNewLaundry();
+        }
         if (!isDoorClosed()) {
             simulation.loadNewLaundry();
+            notifyStateListeners();
             return true;
         }
         return false;
     }
+
+    /**
+     * Loads a mixed load of garments, each drying at the rate of its fabric.
+     * Mixed loads are not part of recorded sessions.
+     *
+     * @param load the garments to load
+     * @return true if successful, false if door is closed
+     * @throws IllegalStateException if a session is being recorded
+     */
+    public synchronized boolean loadNewLaundry(LaundryLoad load) {
+        if (sessionRecorder != null) {
+            throw new IllegalStateException("Mixed loads cannot be recorded");
+        }
+        if (!isDoorClosed()) {
+            simulation.loadNewLaundry(load);
+            notifyStateListeners();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Registers a listener that is called after every tick and every command.
+     * Listeners run on the thread that changed the state and must return quickly.
+     *
+     * @param listener the listener to add
+     */
+    public synchronized void addStateListener(Runnable listener) {
+        Runnable[] listeners = Arrays.copyOf(stateListeners, stateListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        stateListeners = listeners;
+    }
+
+    /**
+     * Removes a previously registered state listener.
+     *
+     * @param listener the listener to remove
+     */
+    public synchronized void removeStateListener(Runnable listener) {
+        Runnable[] listeners = stateListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                Runnable[] remaining = new Runnable[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, listeners.length - i - 1);
+                stateListeners = remaining;
+                return;
+            }
+        }
+    }
+
+    private void notifyStateListeners() {
+        predictedRemainingSeconds = remainingTimeTracker != null ? remainingTimeTracker.getPrediction() : -1;
+        for (Runnable listener : stateListeners) {
+            listener.run();
+        }
+    }
 }
 
@@ -0,0 +1,57 @@
+package clothdryer;
+
+/**
+ * ProgramProfile holds the parameters of one drying program: the target
+ * temperature, the drying rate at that temperature and the maximum duration.
+ * Profiles are immutable and can be shared between any number of dryers.
+ */
+public final class ProgramProfile {
+
+    private final String name;
+    private final double targetTemperature;
+    private final double humidityDecreaseRate;
+    private final int durationSeconds;
+
+    /**
+     * Creates a program profile.
+     *
+     * @param name                 the program name, e.g. "cotton"
+     * @param targetTemperature    the target temperature in °C
+     * @param humidityDecreaseRate the drying rate in %/s
+     * @param durationSeconds      the maximum program duration in seconds
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public ProgramProfile(String name, double targetTemperature, double humidityDecreaseRate, int durationSeconds) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Program name must not be empty");
+        }
+        if (!(targetTemperature > 0) || !(humidityDecreaseRate > 0) || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Program parameters must be positive: " + name);
+        }
+        this.name = name;
+        this.targetTemperature = targetTemperature;
+        this.humidityDecreaseRate = humidityDecreaseRate;
+        this.durationSeconds = durationSeconds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getTargetTemperature() {
+        return targetTemperature;
+    }
+
+    public double getHumidityDecreaseRate() {
+        return humidityDecreaseRate;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.1f °C, %.3f %%/s, max %d s", name, targetTemperature, humidityDecreaseRate, durationSeconds);
+    }
+}
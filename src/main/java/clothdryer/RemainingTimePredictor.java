@@ -0,0 +1,396 @@
+package clothdryer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RemainingTimePredictor learns from completed cycles how long drying takes from a
+ * given state, instead of extrapolating the drying rate of the last few seconds.
+ * <p>
+ * For every program it keeps a lookup table over residual humidity (1 % steps) and
+ * drum temperature (10 °C steps). Each cell holds the mean time until the end of
+ * drying that was observed in that state. A prediction reads two neighbouring cells
+ * and interpolates along the humidity, so it costs O(1) per tick. Cells without data
+ * fall back to the mean over all temperatures for that humidity. Elapsed time is not
+ * a separate dimension: a cycle's elapsed time is already reflected by its humidity
+ * and temperature.
+ * <p>
+ * A {@link Tracker} records the trajectory of one dryer. When the program reaches its
+ * drying end the trajectory is learned; cycles that were stopped or failed are
+ * discarded. Learning replaces a program's table by an updated copy, so predictions
+ * from other threads never take a lock. Every cell is a running mean whose weight is
+ * capped, so newer cycles gradually replace older ones.
+ * <p>
+ * Along with learning, the predictor compares its own predictions and those of the
+ * built-in estimator with the actual remaining time of each learned cycle.
+ */
+public class RemainingTimePredictor {
+
+    /**
+     * File the application keeps its predictor in between runs.
+     */
+    public static final Path DEFAULT_FILE = DryerState.LOG_DIRECTORY.resolve("remaining-time.bin");
+
+    static final int HUMIDITY_BUCKETS = 101; // 0..100 %
+    static final int TEMPERATURE_BUCKETS = 10; // 10 °C each, the last one open-ended
+    static final double TEMPERATURE_STEP = 10.0;
+    static final int MAX_WEIGHT = 20; // cycles a cell averages over before older ones fade out
+    private static final int CELLS = HUMIDITY_BUCKETS * TEMPERATURE_BUCKETS;
+    static final int TRACKED_SAMPLES = 1024; // per cycle; longer cycles keep every second, fourth, ... tick
+
+    private static final int MAGIC = 0x44525950; // "DRYP"
+    private static final short VERSION = 1;
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private long evaluatedSamples;
+    private double builtInAbsoluteError;
+    private double learnedAbsoluteError;
+
+    /**
+     * The learned data of one program. Never modified after it was published.
+     */
+    private static final class Table {
+        final int cycles;
+        final float[] cellSeconds = new float[CELLS];
+        final short[] cellWeights = new short[CELLS];
+        final float[] humiditySeconds = new float[HUMIDITY_BUCKETS];
+        final short[] humidityWeights = new short[HUMIDITY_BUCKETS];
+
+        Table(int cycles) {
+            this.cycles = cycles;
+        }
+
+        Table copy(int newCycles) {
+            Table copy = new Table(newCycles);
+            System.arraycopy(cellSeconds, 0, copy.cellSeconds, 0, CELLS);
+            System.arraycopy(cellWeights, 0, copy.cellWeights, 0, CELLS);
+            System.arraycopy(humiditySeconds, 0, copy.humiditySeconds, 0, HUMIDITY_BUCKETS);
+            System.arraycopy(humidityWeights, 0, copy.humidityWeights, 0, HUMIDITY_BUCKETS);
+            return copy;
+        }
+
+        double seconds(int humidityBucket, int temperatureBucket) {
+            int cell = humidityBucket * TEMPERATURE_BUCKETS + temperatureBucket;
+            if (cellWeights[cell] > 0) {
+                return cellSeconds[cell];
+            }
+            return humidityWeights[humidityBucket] > 0 ? humiditySeconds[humidityBucket] : -1;
+        }
+    }
+
+    /**
+     * Predicts the time until the end of drying.
+     *
+     * @param programName the running program
+     * @param humidity    the residual humidity in %
+     * @param temperature the drum temperature in °C
+     * @return the predicted remaining seconds, or -1 if nothing was learned for this state yet
+     */
+    public int predict(String programName, double humidity, double temperature) {
+        Table table = programName != null ? tables.get(programName) : null;
+        if (table == null) {
+            return -1;
+        }
+        double position = Math.max(0.0, Math.min(HUMIDITY_BUCKETS - 1, humidity));
+        int lower = (int) position;
+        int upper = Math.min(lower + 1, HUMIDITY_BUCKETS - 1);
+        int temperatureBucket = temperatureBucket(temperature);
+
+        double lowerSeconds = table.seconds(lower, temperatureBucket);
+        double upperSeconds = table.seconds(upper, temperatureBucket);
+        if (lowerSeconds < 0 && upperSeconds < 0) {
+            return -1;
+        }
+        if (lowerSeconds < 0) {
+            return (int) Math.round(upperSeconds);
+        }
+        if (upperSeconds < 0) {
+            return (int) Math.round(lowerSeconds);
+        }
+        double fraction = position - lower;
+        return (int) Math.round(lowerSeconds + (upperSeconds - lowerSeconds) * fraction);
+    }
+
+    private static int temperatureBucket(double temperature) {
+        return (int) Math.max(0, Math.min(TEMPERATURE_BUCKETS - 1, temperature / TEMPERATURE_STEP));
+    }
+
+    /**
+     * @param programName the program name
+     * @return the number of cycles learned for the program
+     */
+    public int getLearnedCycles(String programName) {
+        Table table = tables.get(programName);
+        return table != null ? table.cycles : 0;
+    }
+
+    /**
+     * Learns one completed cycle and scores the predictions made during it. The
+     * samples of the cycle are averaged per cell first, so every cycle counts once
+     * towards {@link #MAX_WEIGHT}, however many ticks it spent in a cell.
+     */
+    private synchronized void learn(String programName, Tracker trajectory, long dryingEndMs) {
+        Table previous = tables.get(programName);
+        Table table = previous != null ? previous.copy(previous.cycles + 1) : new Table(1);
+        int stride = trajectory.stride;
+        for (int i = 0; i < trajectory.count; i++) {
+            double actual = (dryingEndMs - trajectory.timesMs[i]) / 1000.0;
+            int shown = trajectory.learned[i] >= 0 ? trajectory.learned[i] : trajectory.builtIn[i];
+            // each kept sample stands for the ticks skipped after it
+            builtInAbsoluteError += stride * Math.abs(trajectory.builtIn[i] - actual);
+            learnedAbsoluteError += stride * Math.abs(shown - actual);
+
+            int humidityBucket = (int) Math.round(Math.max(0.0, Math.min(HUMIDITY_BUCKETS - 1, trajectory.humidities[i])));
+            int cell = humidityBucket * TEMPERATURE_BUCKETS + temperatureBucket(trajectory.temperatures[i]);
+            trajectory.cellSums[cell] += actual;
+            trajectory.cellCounts[cell]++;
+            trajectory.humiditySums[humidityBucket] += actual;
+            trajectory.humidityCounts[humidityBucket]++;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (trajectory.cellCounts[cell] > 0) {
+                table.cellWeights[cell] = addSample(table.cellSeconds, table.cellWeights[cell], cell,
+                        trajectory.cellSums[cell] / trajectory.cellCounts[cell]);
+                trajectory.cellSums[cell] = 0;
+                trajectory.cellCounts[cell] = 0;
+            }
+        }
+        for (int bucket = 0; bucket < HUMIDITY_BUCKETS; bucket++) {
+            if (trajectory.humidityCounts[bucket] > 0) {
+                table.humidityWeights[bucket] = addSample(table.humiditySeconds, table.humidityWeights[bucket], bucket,
+                        trajectory.humiditySums[bucket] / trajectory.humidityCounts[bucket]);
+                trajectory.humiditySums[bucket] = 0;
+                trajectory.humidityCounts[bucket] = 0;
+            }
+        }
+        evaluatedSamples += (long) trajectory.count * stride;
+        tables.put(programName, table);
+    }
+
+    private static short addSample(float[] means, short weight, int index, double value) {
+        int newWeight = Math.min(weight + 1, MAX_WEIGHT);
+        means[index] += (float) ((value - means[index]) / newWeight);
+        return (short) newWeight;
+    }
+
+    /**
+     * @return the number of ticks of learned cycles whose predictions were scored
+     */
+    public synchronized long getEvaluatedSamples() {
+        return evaluatedSamples;
+    }
+
+    /**
+     * @return the mean absolute error of the built-in estimator in seconds, 0 without samples
+     */
+    public synchronized double getBuiltInMeanError() {
+        return evaluatedSamples > 0 ? builtInAbsoluteError / evaluatedSamples : 0.0;
+    }
+
+    /**
+     * Returns the mean absolute error of the learned prediction. Ticks without a
+     * learned prediction count with the built-in estimate, as that is what is shown then.
+     *
+     * @return the mean absolute error in seconds, 0 without samples
+     */
+    public synchronized double getLearnedMeanError() {
+        return evaluatedSamples > 0 ? learnedAbsoluteError / evaluatedSamples : 0.0;
+    }
+
+    /**
+     * @return a new tracker for one dryer that learns into this predictor
+     */
+    public Tracker tracker() {
+        return new Tracker(this);
+    }
+
+    /**
+     * Writes the learned tables. The file is replaced atomically, so a crash while
+     * saving leaves the previous version intact.
+     *
+     * @param file the target file
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(tables.size());
+            for (Map.Entry<String, Table> entry : tables.entrySet()) {
+                Table table = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(table.cycles);
+                for (int i = 0; i < CELLS; i++) {
+                    out.writeFloat(table.cellSeconds[i]);
+                    out.writeShort(table.cellWeights[i]);
+                }
+                for (int i = 0; i < HUMIDITY_BUCKETS; i++) {
+                    out.writeFloat(table.humiditySeconds[i]);
+                    out.writeShort(table.humidityWeights[i]);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a predictor written by {@link #save(Path)}.
+     *
+     * @param file the file to read
+     * @return the predictor, or an empty one if the file does not exist
+     * @throws IOException if the file cannot be read or has an unknown format
+     */
+    public static RemainingTimePredictor load(Path file) throws IOException {
+        RemainingTimePredictor predictor = new RemainingTimePredictor();
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a remaining time predictor file: " + file);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported predictor version: " + version);
+            }
+            int programs = in.readInt();
+            for (int p = 0; p < programs; p++) {
+                String programName = in.readUTF();
+                Table table = new Table(in.readInt());
+                for (int i = 0; i < CELLS; i++) {
+                    table.cellSeconds[i] = in.readFloat();
+                    table.cellWeights[i] = in.readShort();
+                }
+                for (int i = 0; i < HUMIDITY_BUCKETS; i++) {
+                    table.humiditySeconds[i] = in.readFloat();
+                    table.humidityWeights[i] = in.readShort();
+                }
+                predictor.tables.put(programName, table);
+            }
+        } catch (NoSuchFileException e) {
+            return predictor;
+        }
+        return predictor;
+    }
+
+    /**
+     * Tracker follows the cycles of one dryer: it records the trajectory of the running
+     * program, provides the prediction for the current tick and hands the trajectory
+     * to the predictor once drying has ended. Used by the single thread that ticks the dryer.
+     * The trajectory is kept in {@link #TRACKED_SAMPLES} preallocated slots: when a long
+     * cycle fills them, every second sample is dropped and only every second tick is
+     * recorded from then on, so recording never allocates.
+     */
+    public static final class Tracker {
+
+        private final RemainingTimePredictor predictor;
+        private String programName; // null while no cycle is tracked
+        private int count = 0;
+        private int stride = 1; // ticks per recorded sample
+        private int skipped = 0; // ticks since the last recorded sample
+        private final long[] timesMs = new long[TRACKED_SAMPLES];
+        private final float[] humidities = new float[TRACKED_SAMPLES];
+        private final float[] temperatures = new float[TRACKED_SAMPLES];
+        private final int[] builtIn = new int[TRACKED_SAMPLES];
+        private final int[] learned = new int[TRACKED_SAMPLES];
+        // per cell sums of a cycle while it is learned, kept to learn without allocating
+        private final double[] cellSums = new double[CELLS];
+        private final int[] cellCounts = new int[CELLS];
+        private final double[] humiditySums = new double[HUMIDITY_BUCKETS];
+        private final int[] humidityCounts = new int[HUMIDITY_BUCKETS];
+        private int prediction = -1;
+
+        private Tracker(RemainingTimePredictor predictor) {
+            this.predictor = predictor;
+        }
+
+        /**
+         * Records the state after a tick and updates the prediction. The humidity is
+         * the one the controller measured, as the true humidity is not known to a real dryer.
+         *
+         * @param state             the dryer state after the tick
+         * @param measuredHumidity  the filtered humidity reading of the tick in %
+         * @param simulatedTimeMs   the simulated time after the tick
+         */
+        public void update(DryerState state, double measuredHumidity, long simulatedTimeMs) {
+            DryerState.ProgramStatus status = state.getStatus();
+            if (status == DryerState.ProgramStatus.RUNNING) {
+                if (programName == null) {
+                    programName = state.getProgramName();
+                    clear();
+                }
+                prediction = predictor.predict(programName, measuredHumidity, state.getTemperature());
+                record(simulatedTimeMs, measuredHumidity, state.getTemperature(), state.getRemainingSeconds());
+            } else if (programName != null) {
+                if (status == DryerState.ProgramStatus.COOLING) {
+                    predictor.learn(programName, this, simulatedTimeMs);
+                }
+                discard();
+            }
+        }
+
+        /**
+         * Forgets the current cycle without learning it, e.g. when a program is stopped or restarted.
+         */
+        public void discard() {
+            programName = null;
+            clear();
+            prediction = -1;
+        }
+
+        private void clear() {
+            count = 0;
+            stride = 1;
+            skipped = 0;
+        }
+
+        /**
+         * @return the predicted remaining seconds of the running program, or -1 if there is none
+         */
+        public int getPrediction() {
+            return prediction;
+        }
+
+        private void record(long timeMs, double humidity, double temperature, int builtInSeconds) {
+            if (skipped > 0) {
+                skipped = (skipped + 1) % stride;
+                return;
+            }
+            if (count == TRACKED_SAMPLES) {
+                // keep the samples of every second recorded tick
+                for (int i = 0; i < count / 2; i++) {
+                    timesMs[i] = timesMs[2 * i];
+                    humidities[i] = humidities[2 * i];
+                    temperatures[i] = temperatures[2 * i];
+                    builtIn[i] = builtIn[2 * i];
+                    learned[i] = learned[2 * i];
+                }
+                count /= 2;
+                stride *= 2;
+            }
+            timesMs[count] = timeMs;
+            humidities[count] = (float) humidity;
+            temperatures[count] = (float) temperature;
+            builtIn[count] = builtInSeconds;
+            learned[count] = prediction;
+            count++;
+            skipped = 1 % stride;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package clothdryer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RotatingLogHandler writes log records to dryerlog_*.log files and starts a new
+ * file when the current one reaches a size limit or when a record is older than the
+ * file by more than an age limit.
+ * <p>
+ * {@link #publish(LogRecord)} only puts the record into a bounded queue and never
+ * waits: a writer thread formats the records, writes them and rotates the file. If
+ * the queue is full, e.g. because the disk stalls, records are dropped and counted,
+ * and the writer logs how many were lost once it catches up.
+ * <p>
+ * {@link EventLogIndex} and {@link DryerLogAnalyzer} only read plain files, so the
+ * newest files stay uncompressed: the current one and the ones before it, up to a
+ * configurable number, which includes the last file of the previous run. Whenever
+ * a file is opened, a second thread gzip-compresses the plain files beyond that
+ * number, so a slow compression does not hold up writing. These are files rotated
+ * by this handler and files of earlier runs, including crashed ones, that nobody
+ * has written to for {@link #LEFTOVER_QUIET_MS}. Only the newest compressed files
+ * are kept, so the directory does not grow from one start to the next.
+ * <p>
+ * Handlers are created with {@link #open(Path)}, which starts the writer thread.
+ * The files are only created when the first record is written. Plain files keep
+ * the name pattern of {@link DryerState#LOG_DIRECTORY}; compressed files end with ".log.gz".
+ */
+public final class RotatingLogHandler extends Handler {
+
+    public static final long DEFAULT_MAX_BYTES = 10L << 20;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(1);
+    public static final int DEFAULT_MAX_PLAIN_FILES = 3;
+    public static final int DEFAULT_MAX_ARCHIVES = 30;
+    static final int QUEUE_CAPACITY = 1 << 16;
+    static final long LEFTOVER_QUIET_MS = 60_000; // a file written to more recently may belong to a running process
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String PREFIX = "dryerlog_";
+    private static final String SUFFIX = ".log";
+    private static final String ARCHIVE_SUFFIX = ".log.gz";
+    private static final LogRecord CLOSE = new LogRecord(Level.OFF, "close");
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxAgeMs;
+    private final int maxPlainFiles;
+    private final int maxArchives;
+    private final BlockingQueue<LogRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Set<Path> rotatedFiles = ConcurrentHashMap.newKeySet(); // closed by the writer, no need to wait for quiet
+    private Thread writer; // started by open, once the handler is fully constructed
+    private final ExecutorService compressor;
+    private volatile boolean closed = false;
+
+    // Owned by the writer thread
+    private Path currentFile;
+    private OutputStream out;
+    private long currentBytes;
+    private long openedAtMs;
+
+    /**
+     * Creates and starts a handler with the default limits.
+     *
+     * @param directory the directory for the log files
+     * @return the running handler
+     */
+    public static RotatingLogHandler open(Path directory) {
+        return open(directory, DEFAULT_MAX_BYTES, DEFAULT_MAX_AGE, DEFAULT_MAX_PLAIN_FILES, DEFAULT_MAX_ARCHIVES);
+    }
+
+    /**
+     * Creates and starts a handler.
+     *
+     * @param directory     the directory for the log files
+     * @param maxBytes      the size at which a file is rotated
+     * @param maxAge        the age at which a file is rotated
+     * @param maxPlainFiles the number of newest files, including the current one, that stay uncompressed
+     * @param maxArchives   the number of compressed files to keep
+     * @return the running handler
+     */
+    public static RotatingLogHandler open(Path directory, long maxBytes, Duration maxAge, int maxPlainFiles,
+                                          int maxArchives) {
+        RotatingLogHandler handler = new RotatingLogHandler(directory, maxBytes, maxAge, maxPlainFiles, maxArchives);
+        handler.setFormatter(new SimpleFormatter());
+        handler.writer = new Thread(handler::writeLoop, "log-writer");
+        handler.writer.setDaemon(true);
+        handler.writer.start();
+        return handler;
+    }
+
+    private RotatingLogHandler(Path directory, long maxBytes, Duration maxAge, int maxPlainFiles, int maxArchives) {
+        if (maxBytes <= 0 || maxAge.isNegative() || maxAge.isZero() || maxPlainFiles < 1 || maxArchives < 0) {
+            throw new IllegalArgumentException("Invalid rotation limits");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxAgeMs = maxAge.toMillis();
+        this.maxPlainFiles = maxPlainFiles;
+        this.maxArchives = maxArchives;
+        compressor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "log-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a record for writing. Never blocks; drops the record if the queue is full.
+     *
+     * @param record the record
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Does nothing: the writer thread flushes whenever it has written all queued records.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Writes all queued records, closes the current file and waits for running compressions.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(CLOSE);
+            writer.join();
+            compressor.shutdown();
+            compressor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of records dropped so far because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        long reportedDrops = 0;
+        try {
+            while (true) {
+                LogRecord record = queue.take();
+                if (record == CLOSE) {
+                    break;
+                }
+                try {
+                    long drops = dropped.get();
+                    if (drops > reportedDrops) {
+                        write(new LogRecord(Level.WARNING, (drops - reportedDrops)
+                                + " log records dropped, the log could not keep up"));
+                        reportedDrops = drops;
+                    }
+                    write(record);
+                    if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    reportError("Could not write log file " + currentFile, e, ErrorManager.WRITE_FAILURE);
+                    closeCurrentFile(false); // try a new file with the next record
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeCurrentFile(false);
+        }
+    }
+
+    private void write(LogRecord record) throws IOException {
+        byte[] bytes = getFormatter().format(record).getBytes(StandardCharsets.UTF_8);
+        long now = record.getMillis(); // rotation follows the record times, however late they are written
+        if (out != null && currentBytes > 0
+                && (currentBytes + bytes.length > maxBytes || now - openedAtMs >= maxAgeMs)) {
+            closeCurrentFile(true);
+        }
+        if (out == null) {
+            openFile(now);
+        }
+        out.write(bytes);
+        currentBytes += bytes.length;
+    }
+
+    private void openFile(long now) throws IOException {
+        Files.createDirectories(directory);
+        String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()).format(FILE_TIMESTAMP);
+        Path file = directory.resolve(PREFIX + timestamp + SUFFIX);
+        for (int i = 1; Files.exists(file) || Files.exists(archiveOf(file)); i++) {
+            file = directory.resolve(PREFIX + timestamp + "_" + i + SUFFIX);
+        }
+        currentFile = file;
+        out = new BufferedOutputStream(Files.newOutputStream(file));
+        currentBytes = 0;
+        openedAtMs = now;
+        compressor.execute(this::compressOldFiles);
+    }
+
+    private void closeCurrentFile(boolean rotated) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            reportError("Could not close log file " + currentFile, e, ErrorManager.CLOSE_FAILURE);
+        }
+        out = null;
+        if (rotated) {
+            rotatedFiles.add(currentFile); // compressed once newer files push it beyond maxPlainFiles
+        }
+    }
+
+    private void compress(Path file) {
+        Path archive = archiveOf(file);
+        Path temporary = directory.resolve(archive.getFileName() + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                in.transferTo(gzip);
+            }
+            Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(file);
+            deleteOldArchives();
+        } catch (IOException e) {
+            reportError("Could not compress log file " + file, e, ErrorManager.GENERIC_FAILURE);
+        }
+    }
+
+    /**
+     * Compresses the plain files beyond the newest {@link #maxPlainFiles} and applies
+     * the retention limit. The writer may have opened further files by now; those
+     * count towards the limit like any other.
+     */
+    private void compressOldFiles() {
+        List<Path> plain = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(plain::add);
+        } catch (IOException e) {
+            reportError("Could not list log files in " + directory, e, ErrorManager.GENERIC_FAILURE);
+            return;
+        }
+        plain.sort(Comparator.reverseOrder()); // file names start with a sortable timestamp
+        long quietSince = System.currentTimeMillis() - LEFTOVER_QUIET_MS;
+        for (int i = maxPlainFiles; i < plain.size(); i++) {
+            Path file = plain.get(i);
+            try {
+                if (rotatedFiles.contains(file) || Files.getLastModifiedTime(file).toMillis() < quietSince) {
+                    compress(file);
+                    rotatedFiles.remove(file);
+                }
+            } catch (IOException e) {
+                reportError("Could not read log file " + file, e, ErrorManager.GENERIC_FAILURE);
+            }
+        }
+        try {
+            deleteOldArchives();
+        } catch (IOException e) {
+            reportError("Could not delete old log files in " + directory, e, ErrorManager.GENERIC_FAILURE);
+        }
+    }
+
+    private void deleteOldArchives() throws IOException {
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + ARCHIVE_SUFFIX)) {
+            stream.forEach(archives::add);
+        }
+        archives.sort(null); // file names start with a sortable timestamp
+        for (int i = 0; i < archives.size() - maxArchives; i++) {
+            Files.deleteIfExists(archives.get(i));
+        }
+    }
+
+    private static Path archiveOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+}
@@ -1,22 +1,45 @@
 package clothdryer;
 
+import java.util.function.LongSupplier;
+
 /**
  * SafetyModule handles all safety-related checks and actions for the dryer.
  * <p>
  * It manages door locking/unlocking, checks if operation is allowed,
  * ensures the door can only be opened at safe temperatures, and detects overheating.
+ * <p>
+ * Refused operations are reported through a {@link WarningRateLimiter}, so a user
+ * pressing a button again and again produces one aggregated warning per interval.
  */
 public class SafetyModule {
     private final DryerState dryerState;
-    private static final double OVERHEAT_THRESHOLD = 100.0;
+    private final WarningRateLimiter warnings;
+    static final double OVERHEAT_THRESHOLD = 100.0;
     public static final double SAFE_DOOR_TEMPERATURE = 40.0;
 
+    // Codes of the rate-limited warnings
+    static final int WARNING_DOOR_OPEN = 0;
+    static final int WARNING_DOOR_LOCKED = 1;
+    static final int WARNING_TOO_HOT = 2;
+    private static final int WARNING_CODES = 3;
+
     /**
      * Constructs a SafetyModule for the given dryer state.
      * @param dryerState the DryerState instance to monitor and control
      */
     public SafetyModule(DryerState dryerState) {
+        this(dryerState, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a SafetyModule whose warnings are rate-limited by the given clock.
+     * @param dryerState the DryerState instance to monitor and control
+     * @param clockMs the clock in milliseconds since the epoch
+     */
+    SafetyModule(DryerState dryerState, LongSupplier clockMs) {
         this.dryerState = dryerState;
+        this.warnings = new WarningRateLimiter(WARNING_CODES, WarningRateLimiter.DEFAULT_INTERVAL_MS, clockMs,
+                message -> dryerState.logEvent(DryerState.EventType.WARNING, message));
     }
 
     /**
@@ -27,17 +50,20 @@ public class SafetyModule {
     public boolean isOperationAllowed() {
         boolean allowed = dryerState.isDoorClosed();
         if (!allowed) {
-            dryerState.logEvent(DryerState.EventType.WARNING, "Operation not allowed: Door is open");
+            warnings.warn(WARNING_DOOR_OPEN, "Operation not allowed: Door is open");
         }
         return allowed;
     }
 
     /**
-     * Locks the door when a program is running, unlocks it otherwise.
+     * Locks the door while a program is running and while the drum cools down from
+     * above {@link #SAFE_DOOR_TEMPERATURE}, unlocks it otherwise.
      * Logs the locking/unlocking events.
      */
     public void updateDoorLock() {
-        boolean shouldBeLocked = dryerState.getStatus() == DryerState.ProgramStatus.RUNNING;
+        DryerState.ProgramStatus status = dryerState.getStatus();
+        boolean shouldBeLocked = status == DryerState.ProgramStatus.RUNNING
+                || (status == DryerState.ProgramStatus.COOLING && dryerState.getTemperature() > SAFE_DOOR_TEMPERATURE);
         boolean wasLocked = dryerState.isDoorLocked();
         dryerState.setDoorLocked(shouldBeLocked);
         
@@ -56,12 +82,12 @@ public class SafetyModule {
      */
     public boolean tryOpenDoor() {
         if (dryerState.isDoorLocked()) {
-            dryerState.logEvent(DryerState.EventType.WARNING, "Cannot open door: Door is locked");
+            warnings.warn(WARNING_DOOR_LOCKED, "Cannot open door: Door is locked");
             return false;
         }
 
         if (!isSafeToOpen()) {
-            dryerState.logEvent(DryerState.EventType.WARNING, "Cannot open door: Temperature too high (" + 
+            warnings.warn(WARNING_TOO_HOT, "Cannot open door: Temperature too high (" +
                 dryerState.getTemperature() + "°C)");
             return false;
         }
@@ -86,6 +112,13 @@ public class SafetyModule {
         dryerState.logEvent(DryerState.EventType.INFO, "Door closed");
     }
 
+    /**
+     * Logs the aggregated warnings whose interval has passed. Called on every tick.
+     */
+    public void flushWarnings() {
+        warnings.flush();
+    }
+
     /**
      * Checks if it is safe to open the door (temperature below threshold).
      * @return true if temperature is safe, false otherwise
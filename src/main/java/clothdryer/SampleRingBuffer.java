@@ -0,0 +1,95 @@
+package clothdryer;
+
+/**
+ * SampleRingBuffer stores the most recent temperature and humidity samples in
+ * fixed-size primitive arrays, so recording a sample never allocates.
+ * <p>
+ * Samples are addressed by a running sequence number. A single writer (the
+ * simulation thread) appends samples, readers (e.g. the GUI) keep their own cursor
+ * and read everything between their cursor and {@link #getWriteCount()}. Once more
+ * than {@code capacity} samples were written, the oldest ones are overwritten.
+ */
+public class SampleRingBuffer {
+
+    private final int capacity;
+    private final long[] timesMs;
+    private final double[] temperatures;
+    private final double[] humidities;
+    private volatile long writeCount = 0;
+
+    /**
+     * Creates an empty ring buffer.
+     * @param capacity the maximum number of samples kept
+     */
+    public SampleRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timesMs = new long[capacity];
+        this.temperatures = new double[capacity];
+        this.humidities = new double[capacity];
+    }
+
+    /**
+     * Appends a sample, overwriting the oldest one if the buffer is full.
+     * Must only be called by a single writer thread.
+     *
+     * @param timeMs the simulated time of the sample in milliseconds
+     * @param temperature the temperature in °C
+     * @param humidity the humidity in percent
+     */
+    public void add(long timeMs, double temperature, double humidity) {
+        long sequence = writeCount;
+        int index = (int) (sequence % capacity);
+        timesMs[index] = timeMs;
+        temperatures[index] = temperature;
+        humidities[index] = humidity;
+        writeCount = sequence + 1; // volatile write publishes the sample
+    }
+
+    /**
+     * @return the total number of samples written so far (sequence of the next sample)
+     */
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * @return the sequence number of the oldest sample that is still available
+     */
+    public long getOldestSequence() {
+        return Math.max(0, writeCount - capacity);
+    }
+
+    /**
+     * @return the maximum number of samples kept
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param sequence a sequence number between {@link #getOldestSequence()} and {@link #getWriteCount()}
+     * @return the simulated time of the sample in milliseconds
+     */
+    public long getTimeMs(long sequence) {
+        return timesMs[(int) (sequence % capacity)];
+    }
+
+    /**
+     * @param sequence a sequence number between {@link #getOldestSequence()} and {@link #getWriteCount()}
+     * @return the temperature of the sample
+     */
+    public double getTemperature(long sequence) {
+        return temperatures[(int) (sequence % capacity)];
+    }
+
+    /**
+     * @param sequence a sequence number between {@link #getOldestSequence()} and {@link #getWriteCount()}
+     * @return the humidity of the sample
+     */
+    public double getHumidity(long sequence) {
+        return humidities[(int) (sequence % capacity)];
+    }
+}
@@ -0,0 +1,147 @@
+package clothdryer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * SessionRecorder writes every external command and every tick of a dryer session
+ * into a compact binary session file.
+ * <p>
+ * The header holds a {@link SimulationCheckpoint} record of the dryer, so a replay
+ * starts from exactly the recorded state, including the laundry, the heater and the
+ * energy counters. Each tick is stored together with the resulting state (temperature
+ * and humidity as raw IEEE-754 bits), so that {@link SessionReplayer} can re-execute
+ * the session and verify the trajectory bit for bit.
+ */
+public class SessionRecorder implements Closeable {
+
+    static final int MAGIC = 0x44525953; // "DRYS"
+    static final short VERSION = 2; // also bump when the checkpoint format changes
+
+    static final byte OP_START_PROGRAM = 1;
+    static final byte OP_STOP_PROGRAM = 2;
+    static final byte OP_OPEN_DOOR = 3;
+    static final byte OP_CLOSE_DOOR = 4;
+    static final byte OP_LOAD_LAUNDRY = 5;
+    static final byte OP_TICK = 6;
+
+    static final int FLAG_DOOR_CLOSED = 1;
+    static final int FLAG_DOOR_LOCKED = 2;
+
+    private final DataOutputStream out;
+    private boolean headerWritten = false;
+
+    /**
+     * Creates a recorder writing to the given file. An existing file is overwritten.
+     * @param file the session file
+     * @throws IOException if the file cannot be created
+     */
+    public SessionRecorder(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    /**
+     * Creates a recorder writing to the given stream.
+     * @param outputStream the target stream, closed together with the recorder
+     */
+    public SessionRecorder(OutputStream outputStream) {
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream));
+    }
+
+    /**
+     * Writes the file header and the state the session starts from.
+     * @param checkpoint the checkpoint record of the dryer at the beginning of the recording
+     */
+    synchronized void recordInitialState(byte[] checkpoint) {
+        if (headerWritten) {
+            return;
+        }
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(checkpoint.length);
+            out.write(checkpoint);
+            headerWritten = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void recordStartProgram(String programName) {
+        try {
+            out.writeByte(OP_START_PROGRAM);
+            out.writeUTF(programName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void recordStopProgram() {
+        writeOpcode(OP_STOP_PROGRAM);
+    }
+
+    synchronized void recordOpenDoor() {
+        writeOpcode(OP_OPEN_DOOR);
+    }
+
+    synchronized void recordCloseDoor() {
+        writeOpcode(OP_CLOSE_DOOR);
+    }
+
+    synchronized void recordLoadNewLaundry() {
+        writeOpcode(OP_LOAD_LAUNDRY);
+    }
+
+    /**
+     * Records a tick and the state it produced.
+     * @param elapsedMilliseconds the elapsed time passed to the simulation
+     * @param state the state after the tick
+     */
+    synchronized void recordTick(int elapsedMilliseconds, DryerState state) {
+        try {
+            out.writeByte(OP_TICK);
+            out.writeInt(elapsedMilliseconds);
+            writeSnapshot(state);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeOpcode(byte opcode) {
+        try {
+            out.writeByte(opcode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSnapshot(DryerState state) throws IOException {
+        synchronized (state) {
+            out.writeLong(Double.doubleToRawLongBits(state.getTemperature()));
+            out.writeLong(Double.doubleToRawLongBits(state.getHumidity()));
+            out.writeInt(state.getRemainingSeconds());
+            out.writeByte(state.getStatus().ordinal());
+            out.writeByte((state.isDoorClosed() ? FLAG_DOOR_CLOSED : 0)
+                    | (state.isDoorLocked() ? FLAG_DOOR_LOCKED : 0));
+        }
+    }
+
+    /**
+     * Flushes buffered records to the underlying stream.
+     * @throws IOException if writing fails
+     */
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,199 @@
+package clothdryer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * SessionReplayer re-executes a session written by {@link SessionRecorder} against a
+ * fresh {@link ProgramManager} (and therefore fresh DryerState and DryerSimulation
+ * instances) at maximum speed, i.e. without sleeping between ticks.
+ * <p>
+ * After every tick the resulting state is compared bit for bit with the recorded one.
+ * The first divergence aborts the replay with an IllegalStateException.
+ */
+public class SessionReplayer {
+
+    private final RemainingTimePredictor predictor;
+
+    /**
+     * Creates a replayer.
+     */
+    public SessionReplayer() {
+        this(null);
+    }
+
+    /**
+     * Creates a replayer that also lets the given predictor learn from the replayed
+     * cycles, e.g. to compare it with the built-in remaining time estimate.
+     *
+     * @param predictor the predictor, or null
+     */
+    public SessionReplayer(RemainingTimePredictor predictor) {
+        this.predictor = predictor;
+    }
+
+    /**
+     * Summary of a successful replay.
+     */
+    public static class ReplayResult {
+        private final int ticks;
+        private final int commands;
+        private final long simulatedTimeMs;
+        private final DryerState finalState;
+
+        ReplayResult(int ticks, int commands, long simulatedTimeMs, DryerState finalState) {
+            this.ticks = ticks;
+            this.commands = commands;
+            this.simulatedTimeMs = simulatedTimeMs;
+            this.finalState = finalState;
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public int getCommands() {
+            return commands;
+        }
+
+        public long getSimulatedTimeMs() {
+            return simulatedTimeMs;
+        }
+
+        public DryerState getFinalState() {
+            return finalState;
+        }
+    }
+
+    /**
+     * Replays the given session file and verifies its trajectory.
+     * @param file the session file
+     * @return the replay summary
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the replayed trajectory differs from the recording
+     */
+    public ReplayResult replay(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return replay(in);
+        }
+    }
+
+    /**
+     * Replays a session from the given stream and verifies its trajectory.
+     * @param inputStream the session data
+     * @return the replay summary
+     * @throws IOException if the stream cannot be read
+     * @throws IllegalStateException if the replayed trajectory differs from the recording
+     */
+    public ReplayResult replay(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != SessionRecorder.MAGIC) {
+            throw new IOException("Not a dryer session file");
+        }
+        short version = in.readShort();
+        if (version != SessionRecorder.VERSION) {
+            throw new IOException("Unsupported session version: " + version);
+        }
+
+        ProgramManager manager = new ProgramManager();
+        manager.setRemainingTimePredictor(predictor);
+        DryerState state = manager.getState();
+        state.setFileLogging(false); // the recorded session already is in the log
+        restoreInitialState(in, manager);
+        long startMs = manager.getSimulation().getSimulatedTimeMs();
+
+        int ticks = 0;
+        int commands = 0;
+        while (true) {
+            int opcode;
+            try {
+                opcode = in.readByte();
+            } catch (EOFException e) {
+                break;
+            }
+            switch (opcode) {
+                case SessionRecorder.OP_START_PROGRAM -> {
+                    String programName = in.readUTF();
+                    manager.startProgram(programName);
+                    commands++;
+                }
+                case SessionRecorder.OP_STOP_PROGRAM -> {
+                    manager.stopProgram();
+                    commands++;
+                }
+                case SessionRecorder.OP_OPEN_DOOR -> {
+                    manager.tryOpenDoor();
+                    commands++;
+                }
+                case SessionRecorder.OP_CLOSE_DOOR -> {
+                    manager.closeDoor();
+                    commands++;
+                }
+                case SessionRecorder.OP_LOAD_LAUNDRY -> {
+                    manager.loadNewLaundry();
+                    commands++;
+                }
+                case SessionRecorder.OP_TICK -> {
+                    int elapsedMilliseconds = in.readInt();
+                    manager.tick(elapsedMilliseconds);
+                    verifySnapshot(in, state, ticks);
+                    ticks++;
+                }
+                default -> throw new IOException("Unknown opcode " + opcode + " after tick " + ticks);
+            }
+        }
+        return new ReplayResult(ticks, commands, manager.getSimulation().getSimulatedTimeMs() - startMs, state);
+    }
+
+    private void restoreInitialState(DataInputStream in, ProgramManager manager) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Damaged session file");
+        }
+        byte[] checkpoint = new byte[length];
+        in.readFully(checkpoint);
+        try {
+            manager.readCheckpoint(ByteBuffer.wrap(checkpoint));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Damaged session file", e);
+        }
+    }
+
+    private void verifySnapshot(DataInputStream in, DryerState state, int tick) throws IOException {
+        long temperatureBits = in.readLong();
+        long humidityBits = in.readLong();
+        int remainingSeconds = in.readInt();
+        int status = in.readByte();
+        int flags = in.readByte();
+
+        if (Double.doubleToRawLongBits(state.getTemperature()) != temperatureBits) {
+            throw divergence(tick, "temperature", Double.longBitsToDouble(temperatureBits), state.getTemperature());
+        }
+        if (Double.doubleToRawLongBits(state.getHumidity()) != humidityBits) {
+            throw divergence(tick, "humidity", Double.longBitsToDouble(humidityBits), state.getHumidity());
+        }
+        if (state.getRemainingSeconds() != remainingSeconds) {
+            throw divergence(tick, "remaining seconds", remainingSeconds, state.getRemainingSeconds());
+        }
+        if (state.getStatus().ordinal() != status) {
+            throw divergence(tick, "status", DryerState.ProgramStatus.values()[status], state.getStatus());
+        }
+        int actualFlags = (state.isDoorClosed() ? SessionRecorder.FLAG_DOOR_CLOSED : 0)
+                | (state.isDoorLocked() ? SessionRecorder.FLAG_DOOR_LOCKED : 0);
+        if (actualFlags != flags) {
+            throw divergence(tick, "door flags", flags, actualFlags);
+        }
+    }
+
+    private IllegalStateException divergence(int tick, String field, Object expected, Object actual) {
+        return new IllegalStateException("Replay diverged at tick " + tick + ": " + field
+                + " expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,255 @@
+package clothdryer;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * SimulationCheckpoint saves the complete simulation state of one dryer or a whole
+ * fleet to a file and restores it, so a simulation can resume after a restart.
+ * <p>
+ * A checkpoint holds everything that the next tick depends on: the dryer state,
+ * the private fields of the simulation (heater, program parameters, drying rate
+ * window, simulated time, current cycle), the garments of a mixed load and the
+ * energy counters. Doubles are stored bit for bit, so a restored dryer continues
+ * exactly like the original one would have. Configuration is not part of a
+ * checkpoint: physical model, humidity sensor and filter, program catalog,
+ * predictor, cycle history and power budget have to be set up as before. Filters
+ * start over with the first reading after the restore.
+ * <p>
+ * The format is binary and versioned: a header with {@link #MAGIC}, {@link #VERSION}
+ * and the kind of checkpoint, the energy ledger, then one record per dryer. It is
+ * written through a {@link FileChannel} into a temporary file that replaces the
+ * checkpoint atomically, and read from a memory-mapped file.
+ */
+public final class SimulationCheckpoint {
+
+    static final int MAGIC = 0x44525943; // "DRYC"
+    static final short VERSION = 1;
+    private static final byte KIND_DRYER = 1;
+    private static final byte KIND_FLEET = 2;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MIN_DRYER_BYTES = 31; // a dryer state without program name and error, lower bound of a record
+
+    private SimulationCheckpoint() {
+    }
+
+    /**
+     * Growable buffer the state is written into.
+     */
+    static final class Output {
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+        private ByteBuffer ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            return buffer;
+        }
+
+        Output putBoolean(boolean value) {
+            ensure(1).put((byte) (value ? 1 : 0));
+            return this;
+        }
+
+        Output putByte(int value) {
+            ensure(1).put((byte) value);
+            return this;
+        }
+
+        Output putInt(int value) {
+            ensure(4).putInt(value);
+            return this;
+        }
+
+        Output putLong(long value) {
+            ensure(8).putLong(value);
+            return this;
+        }
+
+        Output putFloat(float value) {
+            ensure(4).putFloat(value);
+            return this;
+        }
+
+        Output putDouble(double value) {
+            ensure(8).putDouble(value);
+            return this;
+        }
+
+        /**
+         * Writes a string of at most 32767 UTF-8 bytes, or null.
+         */
+        Output putString(String value) {
+            if (value == null) {
+                return putInt(-1);
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length).put(bytes);
+            return this;
+        }
+
+        /**
+         * @return a copy of the bytes written so far
+         */
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+
+    static boolean getBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    static String getString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IOException("Truncated checkpoint");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Saves the state of one dryer.
+     *
+     * @param manager the dryer
+     * @param file    the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(ProgramManager manager, Path file) throws IOException {
+        Output out = header(KIND_DRYER, 1);
+        manager.getEnergyMeter().getLedger().writeCheckpoint(out);
+        manager.writeCheckpoint(out);
+        write(out, file);
+    }
+
+    /**
+     * Restores the state of one dryer. The dryer's energy ledger is replaced by the
+     * saved one, so it should not be shared with other dryers. The checkpoint is
+     * read into a scratch dryer first, so a damaged file leaves the dryer unchanged.
+     *
+     * @param manager the dryer, configured like the one that was saved
+     * @param file    the checkpoint file
+     * @throws IOException if the file cannot be read or is no dryer checkpoint
+     * @throws IllegalStateException while the dryer records a session
+     */
+    public static void restore(ProgramManager manager, Path file) throws IOException {
+        ByteBuffer in = read(file, KIND_DRYER);
+        manager.requireNotRecording();
+        ProgramManager scratch = new ProgramManager();
+        scratch.getState().setFileLogging(false);
+        readDryer(scratch, in.duplicate(), file);
+        readDryer(manager, in, file);
+    }
+
+    private static void readDryer(ProgramManager manager, ByteBuffer in, Path file) throws IOException {
+        try {
+            in.getInt(); // dryer count
+            manager.getEnergyMeter().getLedger().readCheckpoint(in);
+            manager.readCheckpoint(in);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Damaged checkpoint: " + file, e);
+        }
+    }
+
+    /**
+     * Saves the state of a fleet. Call it from the thread that ticks the fleet, or
+     * while the fleet is not ticked.
+     *
+     * @param fleet the fleet
+     * @param file  the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(DryerFleet fleet, Path file) throws IOException {
+        Output out = header(KIND_FLEET, fleet.size());
+        out.putLong(fleet.getTickCount());
+        fleet.getEnergyLedger().writeCheckpoint(out);
+        for (int i = 0; i < fleet.size(); i++) {
+            fleet.get(i).writeCheckpoint(out);
+        }
+        write(out, file);
+    }
+
+    /**
+     * Creates a fleet in the saved state. The fleet uses the linear model and the
+     * ideal sensor; other configuration has to be applied before it is ticked.
+     *
+     * @param file the checkpoint file
+     * @return the fleet
+     * @throws IOException if the file cannot be read or is no fleet checkpoint
+     */
+    public static DryerFleet restoreFleet(Path file) throws IOException {
+        ByteBuffer in = read(file, KIND_FLEET);
+        try {
+            int count = in.getInt();
+            // A damaged count must not allocate a huge fleet before the records run out
+            if (count <= 0 || count > in.remaining() / MIN_DRYER_BYTES) {
+                throw new IOException("Damaged checkpoint: " + file);
+            }
+            DryerFleet fleet = new DryerFleet(count);
+            fleet.setTickCount(in.getLong());
+            fleet.getEnergyLedger().readCheckpoint(in);
+            for (int i = 0; i < fleet.size(); i++) {
+                fleet.get(i).readCheckpoint(in);
+            }
+            return fleet;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Damaged checkpoint: " + file, e);
+        }
+    }
+
+    private static Output header(byte kind, int dryers) {
+        return new Output().putInt(MAGIC).putInt(VERSION).putByte(kind).putInt(dryers);
+    }
+
+    private static void write(Output out, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = out.buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer read(Path file, byte kind) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < 9 || in.getInt() != MAGIC) {
+            throw new IOException("Not a simulation checkpoint: " + file);
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version: " + version);
+        }
+        if (in.get() != kind) {
+            throw new IOException(kind == KIND_FLEET ? "Not a fleet checkpoint: " + file : "Not a dryer checkpoint: " + file);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,180 @@
+package clothdryer;
+
+import java.util.Arrays;
+
+/**
+ * TrajectoryTable holds the precomputed course of one standard program: started
+ * with fully wet laundry at a known drum temperature and left alone until the dryer
+ * is idle again. Such a cycle is deterministic, so it is simulated once and stored
+ * as one sample per {@link #STEP_MS}.
+ * <p>
+ * The state at any time of the cycle is then answered by linear interpolation
+ * between two samples instead of stepping a simulation; the status follows from the
+ * two transition times (end of drying and end of cooling). Tables are immutable and
+ * can be shared between threads.
+ */
+public final class TrajectoryTable {
+
+    static final int STEP_MS = 1000;
+    private static final int MAX_CYCLE_MS = 6 * 3600 * 1000; // give up on programs that never end
+
+    private final ProgramProfile profile;
+    private final double startTemperature;
+    private final float[] temperatures;
+    private final float[] humidities;
+    private final float[] remainingSeconds; // whole seconds, exact in a float for any cycle length
+    private final long dryingEndMs;
+    private final long cycleEndMs;
+
+    private TrajectoryTable(ProgramProfile profile, double startTemperature, float[] temperatures, float[] humidities,
+                            float[] remainingSeconds, long dryingEndMs, long cycleEndMs) {
+        this.profile = profile;
+        this.startTemperature = startTemperature;
+        this.temperatures = temperatures;
+        this.humidities = humidities;
+        this.remainingSeconds = remainingSeconds;
+        this.dryingEndMs = dryingEndMs;
+        this.cycleEndMs = cycleEndMs;
+    }
+
+    /**
+     * Simulates a standard cycle of the given program and stores its trajectory.
+     *
+     * @param profile          the program parameters
+     * @param startTemperature the drum temperature at program start in °C
+     * @param model            the physical model the dryer uses, or null for the linear default model
+     * @return the table
+     */
+    static TrajectoryTable compute(ProgramProfile profile, double startTemperature, DryingModel model) {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        state.setTemperature(startTemperature);
+        state.setHumidity(LaundryLoad.FULL_MOISTURE);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        simulation.setPhysicalModel(model, null);
+        simulation.startProgram(profile);
+
+        int capacity = profile.getDurationSeconds() * 1000 / STEP_MS + 1;
+        float[] temperatures = new float[capacity];
+        float[] humidities = new float[capacity];
+        float[] remaining = new float[capacity];
+        temperatures[0] = (float) state.getTemperature();
+        humidities[0] = (float) state.getHumidity();
+        remaining[0] = state.getRemainingSeconds();
+        int samples = 1;
+        long timeMs = 0;
+        long dryingEndMs = -1;
+        while (state.getStatus() != DryerState.ProgramStatus.IDLE
+                && state.getStatus() != DryerState.ProgramStatus.ERROR
+                && timeMs < MAX_CYCLE_MS) {
+            simulation.updateState(STEP_MS);
+            timeMs += STEP_MS;
+            if (dryingEndMs < 0 && state.getStatus() != DryerState.ProgramStatus.RUNNING) {
+                dryingEndMs = timeMs;
+            }
+            if (samples == temperatures.length) {
+                capacity = samples * 2;
+                temperatures = Arrays.copyOf(temperatures, capacity);
+                humidities = Arrays.copyOf(humidities, capacity);
+                remaining = Arrays.copyOf(remaining, capacity);
+            }
+            temperatures[samples] = (float) state.getTemperature();
+            humidities[samples] = (float) state.getHumidity();
+            remaining[samples] = state.getRemainingSeconds();
+            samples++;
+        }
+        return new TrajectoryTable(profile, startTemperature, Arrays.copyOf(temperatures, samples),
+                Arrays.copyOf(humidities, samples), Arrays.copyOf(remaining, samples),
+                dryingEndMs < 0 ? timeMs : dryingEndMs, timeMs);
+    }
+
+    /**
+     * @param timeMs time since program start in milliseconds
+     * @return the drum temperature at that time in °C
+     */
+    public double getTemperature(long timeMs) {
+        return interpolate(temperatures, timeMs);
+    }
+
+    /**
+     * @param timeMs time since program start in milliseconds
+     * @return the residual humidity at that time in %
+     */
+    public double getHumidity(long timeMs) {
+        return interpolate(humidities, timeMs);
+    }
+
+    /**
+     * @param timeMs time since program start in milliseconds
+     * @return the remaining time the dryer shows at that time in seconds
+     */
+    public int getRemainingSeconds(long timeMs) {
+        return (int) Math.round(interpolate(remainingSeconds, timeMs));
+    }
+
+    /**
+     * @param timeMs time since program start in milliseconds
+     * @return the program status at that time
+     */
+    public DryerState.ProgramStatus getStatus(long timeMs) {
+        if (timeMs < dryingEndMs) {
+            return DryerState.ProgramStatus.RUNNING;
+        }
+        return timeMs < cycleEndMs ? DryerState.ProgramStatus.COOLING : DryerState.ProgramStatus.IDLE;
+    }
+
+    /**
+     * Copies the state at the given time into a dryer state, e.g. to show where a
+     * dryer will be without simulating it.
+     *
+     * @param timeMs time since program start in milliseconds
+     * @param target the state to write to
+     */
+    public void applyTo(long timeMs, DryerState target) {
+        target.setTemperature(getTemperature(timeMs));
+        target.setHumidity(getHumidity(timeMs));
+        target.setRemainingSeconds(getRemainingSeconds(timeMs));
+        target.setStatus(getStatus(timeMs));
+    }
+
+    private static double interpolate(float[] values, long timeMs) {
+        if (timeMs <= 0) {
+            return values[0];
+        }
+        long step = timeMs / STEP_MS;
+        if (step >= values.length - 1) {
+            return values[values.length - 1];
+        }
+        int index = (int) step;
+        double fraction = (timeMs - step * STEP_MS) / (double) STEP_MS;
+        return values[index] + (values[index + 1] - values[index]) * fraction;
+    }
+
+    /**
+     * @return the time from program start until drying ended, in milliseconds
+     */
+    public long getDryingEndMs() {
+        return dryingEndMs;
+    }
+
+    /**
+     * @return the time from program start until the dryer was idle again, in milliseconds
+     */
+    public long getCycleEndMs() {
+        return cycleEndMs;
+    }
+
+    /**
+     * @return the program parameters the table was computed for
+     */
+    public ProgramProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return the drum temperature the table starts at in °C
+     */
+    public double getStartTemperature() {
+        return startTemperature;
+    }
+}
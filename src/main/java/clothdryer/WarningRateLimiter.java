@@ -0,0 +1,123 @@
+package clothdryer;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * WarningRateLimiter keeps repeated warnings from flooding the event history and
+ * the log file, e.g. when a user keeps pressing the button of a locked door.
+ * <p>
+ * Warnings are identified by a small integer code. The first warning of a code is
+ * passed on at once and opens a window of {@link #DEFAULT_INTERVAL_MS}. Further
+ * warnings of that code within the window are only counted, which costs a few
+ * array writes. When the window has passed, {@link #flush()} passes on a single
+ * aggregated warning with the last message, the count and the times of the first
+ * and last repetition, e.g. "Cannot open door: Door is locked [repeated 12 times,
+ * 14:03:07 - 14:03:15]", and opens the next window. A burst therefore produces one
+ * record per window, and a lone warning after a quiet window is passed on at once.
+ */
+public class WarningRateLimiter {
+
+    public static final long DEFAULT_INTERVAL_MS = 10_000;
+    static final String REPEATED = " [repeated ";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Consumer<String> sink;
+    private final LongSupplier clockMs;
+    private final long intervalMs;
+    private final long[] windowEndMs;
+    private final int[] repeated;
+    private final long[] firstRepeatMs;
+    private final long[] lastRepeatMs;
+    private final String[] lastMessage;
+    private int pending = 0; // codes with repetitions not passed on yet, so flush() is free when there are none
+
+    /**
+     * Creates a limiter that passes warnings on to the given sink.
+     *
+     * @param codes      the number of warning codes, 0 .. codes - 1
+     * @param intervalMs the length of a window in milliseconds
+     * @param clockMs    the clock in milliseconds since the epoch, e.g. System::currentTimeMillis
+     * @param sink       receives the warnings that are passed on
+     */
+    public WarningRateLimiter(int codes, long intervalMs, LongSupplier clockMs, Consumer<String> sink) {
+        if (codes <= 0 || intervalMs <= 0) {
+            throw new IllegalArgumentException("Number of codes and interval must be positive");
+        }
+        this.sink = sink;
+        this.clockMs = clockMs;
+        this.intervalMs = intervalMs;
+        windowEndMs = new long[codes];
+        repeated = new int[codes];
+        firstRepeatMs = new long[codes];
+        lastRepeatMs = new long[codes];
+        lastMessage = new String[codes];
+        Arrays.fill(windowEndMs, Long.MIN_VALUE);
+    }
+
+    /**
+     * Passes a warning on, or counts it if the same code was passed on within the current window.
+     *
+     * @param code    the warning code
+     * @param message the warning text
+     */
+    public synchronized void warn(int code, String message) {
+        long now = clockMs.getAsLong();
+        flush(code, now);
+        if (now < windowEndMs[code]) {
+            if (repeated[code]++ == 0) {
+                firstRepeatMs[code] = now;
+                pending++;
+            }
+            lastRepeatMs[code] = now;
+            lastMessage[code] = message;
+            return;
+        }
+        windowEndMs[code] = now + intervalMs;
+        sink.accept(message);
+    }
+
+    /**
+     * Passes on the aggregated warnings of all codes whose window has passed. Cheap
+     * enough to be called on every simulation tick.
+     */
+    public synchronized void flush() {
+        if (pending == 0) {
+            return;
+        }
+        long now = clockMs.getAsLong();
+        for (int code = 0; code < repeated.length; code++) {
+            flush(code, now);
+        }
+    }
+
+    private void flush(int code, long now) {
+        if (repeated[code] == 0 || now < windowEndMs[code]) {
+            return;
+        }
+        String message = lastMessage[code] + REPEATED + repeated[code] + " times, "
+                + format(firstRepeatMs[code]) + " - " + format(lastRepeatMs[code]) + "]";
+        repeated[code] = 0;
+        lastMessage[code] = null;
+        pending--;
+        windowEndMs[code] = now + intervalMs;
+        sink.accept(message);
+    }
+
+    private static String format(long epochMs) {
+        return LocalTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()).format(TIME);
+    }
+
+    /**
+     * @param code the warning code
+     * @return the number of repetitions counted in the current window and not yet passed on
+     */
+    public synchronized int getRepeated(int code) {
+        return repeated[code];
+    }
+}
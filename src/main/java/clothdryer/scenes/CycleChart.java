@@ -0,0 +1,228 @@
+package clothdryer.scenes;
+
+import clothdryer.SampleRingBuffer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * The CycleChart draws the temperature and humidity curves of the whole running
+ * cycle on a Canvas.
+ * <p>
+ * Samples are read from the {@link SampleRingBuffer} filled by the simulation and
+ * reduced to one min/max pair per pixel column (min/max decimation). Each refresh
+ * only redraws the columns that received new samples, so the drawing cost does not
+ * grow with the cycle length. When the cycle runs longer than the visible time
+ * span, the span is doubled and neighbouring columns are merged. The ring buffer
+ * only keeps the most recent samples, so a chart that is not shown keeps folding
+ * them into its columns with {@link #consume()} to not lose the start of a long cycle.
+ */
+public class CycleChart extends Canvas {
+
+    private static final double MAX_VALUE = 100.0; // °C and % share the same 0-100 scale
+    private static final double MIN_SPAN_MS = 60_000;
+    private static final Color TEMPERATURE_COLOR = Color.ORANGERED;
+    private static final Color HUMIDITY_COLOR = Color.STEELBLUE;
+    private static final Color GRID_COLOR = Color.gray(0.85);
+    private static final Color BACKGROUND_COLOR = Color.WHITE;
+
+    private final SampleRingBuffer samples;
+    private final int columns;
+
+    private final boolean[] filled;
+    private final double[] minTemperature;
+    private final double[] maxTemperature;
+    private final double[] lastTemperature;
+    private final double[] minHumidity;
+    private final double[] maxHumidity;
+    private final double[] lastHumidity;
+
+    private long cursor;
+    private long originSequence;
+    private long originMs;
+    private double msPerColumn;
+    private int dirtyFrom;
+    private int dirtyTo;
+    private boolean fullRedraw;
+
+    /**
+     * Constructs a new chart reading from the given samples.
+     *
+     * @param samples the ring buffer filled by the simulation
+     * @param width   the width in pixels, i.e. the number of columns
+     * @param height  the height in pixels
+     */
+    public CycleChart(SampleRingBuffer samples, double width, double height) {
+        super(width, height);
+        this.samples = samples;
+        this.columns = Math.max(2, (int) width);
+        this.filled = new boolean[columns];
+        this.minTemperature = new double[columns];
+        this.maxTemperature = new double[columns];
+        this.lastTemperature = new double[columns];
+        this.minHumidity = new double[columns];
+        this.maxHumidity = new double[columns];
+        this.lastHumidity = new double[columns];
+        reset(0);
+    }
+
+    /**
+     * Starts a new cycle. Samples written before this call are ignored.
+     *
+     * @param expectedDurationMs the expected cycle duration, used as initial time span
+     */
+    public void reset(long expectedDurationMs) {
+        long writeCount = samples.getWriteCount();
+        cursor = writeCount;
+        originSequence = writeCount;
+        originMs = writeCount > 0 ? samples.getTimeMs(writeCount - 1) : 0;
+        msPerColumn = Math.max(expectedDurationMs, MIN_SPAN_MS) / columns;
+        Arrays.fill(filled, false);
+        clearDirty();
+        fullRedraw = true;
+    }
+
+    /**
+     * Changes the time span of the current cycle, e.g. once its expected duration is
+     * known. The samples of the cycle are decimated again with the next refresh.
+     *
+     * @param expectedDurationMs the expected cycle duration, used as time span
+     */
+    public void rescale(long expectedDurationMs) {
+        cursor = originSequence;
+        msPerColumn = Math.max(expectedDurationMs, MIN_SPAN_MS) / columns;
+        Arrays.fill(filled, false);
+        clearDirty();
+        fullRedraw = true;
+    }
+
+    /**
+     * Folds all new samples into the columns without drawing them. The affected
+     * columns are drawn with the next {@link #refresh()}.
+     */
+    public void consume() {
+        long writeCount = samples.getWriteCount();
+        for (long sequence = Math.max(cursor, samples.getOldestSequence()); sequence < writeCount; sequence++) {
+            addSample(samples.getTimeMs(sequence) - originMs,
+                    samples.getTemperature(sequence), samples.getHumidity(sequence));
+        }
+        cursor = writeCount;
+    }
+
+    /**
+     * Consumes all new samples and redraws the affected columns.
+     */
+    public void refresh() {
+        consume();
+        if (fullRedraw) {
+            drawColumns(0, columns - 1);
+            fullRedraw = false;
+        } else if (dirtyFrom <= dirtyTo) {
+            // Also redraw the next column, it connects to the changed one
+            drawColumns(dirtyFrom, Math.min(columns - 1, dirtyTo + 1));
+        }
+        clearDirty();
+    }
+
+    private void addSample(long timeMs, double temperature, double humidity) {
+        if (timeMs < 0) {
+            return;
+        }
+        int column = (int) (timeMs / msPerColumn);
+        while (column >= columns) {
+            compress();
+            column = (int) (timeMs / msPerColumn);
+        }
+        if (!filled[column]) {
+            filled[column] = true;
+            minTemperature[column] = maxTemperature[column] = temperature;
+            minHumidity[column] = maxHumidity[column] = humidity;
+        } else {
+            minTemperature[column] = Math.min(minTemperature[column], temperature);
+            maxTemperature[column] = Math.max(maxTemperature[column], temperature);
+            minHumidity[column] = Math.min(minHumidity[column], humidity);
+            maxHumidity[column] = Math.max(maxHumidity[column], humidity);
+        }
+        lastTemperature[column] = temperature;
+        lastHumidity[column] = humidity;
+        dirtyFrom = Math.min(dirtyFrom, column);
+        dirtyTo = Math.max(dirtyTo, column);
+    }
+
+    /**
+     * Doubles the time span per column by merging each pair of neighbouring columns.
+     */
+    private void compress() {
+        for (int target = 0; target < columns / 2; target++) {
+            int left = 2 * target;
+            int right = left + 1;
+            if (filled[left] && filled[right]) {
+                minTemperature[target] = Math.min(minTemperature[left], minTemperature[right]);
+                maxTemperature[target] = Math.max(maxTemperature[left], maxTemperature[right]);
+                minHumidity[target] = Math.min(minHumidity[left], minHumidity[right]);
+                maxHumidity[target] = Math.max(maxHumidity[left], maxHumidity[right]);
+                lastTemperature[target] = lastTemperature[right];
+                lastHumidity[target] = lastHumidity[right];
+            } else {
+                int source = filled[right] ? right : left;
+                minTemperature[target] = minTemperature[source];
+                maxTemperature[target] = maxTemperature[source];
+                minHumidity[target] = minHumidity[source];
+                maxHumidity[target] = maxHumidity[source];
+                lastTemperature[target] = lastTemperature[source];
+                lastHumidity[target] = lastHumidity[source];
+            }
+            filled[target] = filled[left] || filled[right];
+        }
+        Arrays.fill(filled, columns / 2, columns, false);
+        msPerColumn *= 2;
+        fullRedraw = true;
+    }
+
+    private void clearDirty() {
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = -1;
+    }
+
+    private void drawColumns(int from, int to) {
+        GraphicsContext gc = getGraphicsContext2D();
+        double height = getHeight();
+
+        gc.setFill(BACKGROUND_COLOR);
+        gc.fillRect(from, 0, to - from + 1, height);
+        gc.setFill(GRID_COLOR);
+        for (int value = 25; value < MAX_VALUE; value += 25) {
+            gc.fillRect(from, toY(value), to - from + 1, 1);
+        }
+
+        for (int column = from; column <= to; column++) {
+            if (!filled[column]) {
+                continue;
+            }
+            boolean connected = column > 0 && filled[column - 1];
+            gc.setFill(HUMIDITY_COLOR);
+            drawRange(gc, column, minHumidity[column], maxHumidity[column],
+                    connected ? lastHumidity[column - 1] : minHumidity[column]);
+            gc.setFill(TEMPERATURE_COLOR);
+            drawRange(gc, column, minTemperature[column], maxTemperature[column],
+                    connected ? lastTemperature[column - 1] : minTemperature[column]);
+        }
+    }
+
+    /**
+     * Draws a one pixel wide vertical bar covering the column's min/max range,
+     * extended to the previous column's last value so the curve stays connected.
+     */
+    private void drawRange(GraphicsContext gc, int column, double min, double max, double previous) {
+        double top = toY(Math.max(max, previous));
+        double bottom = toY(Math.min(min, previous));
+        gc.fillRect(column, top, 1, Math.max(1, bottom - top));
+    }
+
+    private double toY(double value) {
+        double clamped = Math.max(0, Math.min(MAX_VALUE, value));
+        return (1 - clamped / MAX_VALUE) * (getHeight() - 1);
+    }
+}
@@ -0,0 +1,231 @@
+package clothdryer.scenes;
+
+import clothdryer.DryerState;
+import clothdryer.ProgramManager;
+import clothdryer.SafetyModule;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.text.DecimalFormatSymbols;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The DryerStateBridge mirrors the {@link DryerState} of a ProgramManager into
+ * JavaFX properties that the scenes bind to.
+ * <p>
+ * Any number of simulation updates between two pulses are collapsed into a single
+ * {@link Platform#runLater(Runnable)}. On the FX thread, values are compared at display
+ * precision (0.1 °C, 0.1 %, 1 s) and only the texts that actually change are rebuilt,
+ * using one reusable StringBuilder instead of String.format.
+ */
+public class DryerStateBridge {
+
+    private final ProgramManager programManager;
+    private final Runnable stateListener = this::publish;
+    private final AtomicBoolean applyScheduled = new AtomicBoolean(false);
+    private final Runnable applyTask = this::apply;
+    private final StringBuilder buffer = new StringBuilder(32);
+    private final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    private final ReadOnlyObjectWrapper<DryerState.ProgramStatus> status = new ReadOnlyObjectWrapper<>(DryerState.ProgramStatus.IDLE);
+    private final ReadOnlyStringWrapper programName = new ReadOnlyStringWrapper("");
+    private final ReadOnlyStringWrapper statusText = new ReadOnlyStringWrapper("");
+    private final ReadOnlyStringWrapper temperatureText = new ReadOnlyStringWrapper("");
+    private final ReadOnlyStringWrapper humidityText = new ReadOnlyStringWrapper("");
+    private final ReadOnlyStringWrapper remainingTimeText = new ReadOnlyStringWrapper("");
+    private final ReadOnlyBooleanWrapper doorClosed = new ReadOnlyBooleanWrapper(true);
+    private final ReadOnlyBooleanWrapper doorLocked = new ReadOnlyBooleanWrapper(false);
+    private final ReadOnlyBooleanWrapper tooHotToOpen = new ReadOnlyBooleanWrapper(false);
+    private final ReadOnlyLongWrapper revision = new ReadOnlyLongWrapper(0);
+
+    // Last displayed values at display precision; MIN_VALUE forces the first update
+    private long shownTemperatureTenths = Long.MIN_VALUE;
+    private long shownHumidityTenths = Long.MIN_VALUE;
+    private int shownRemainingSeconds = Integer.MIN_VALUE;
+
+    /**
+     * Constructs a bridge and subscribes to the state changes of the given manager
+     * until {@link #dispose()} is called.
+     *
+     * @param programManager the manager whose state is mirrored
+     */
+    public DryerStateBridge(ProgramManager programManager) {
+        this.programManager = programManager;
+        programManager.addStateListener(stateListener);
+    }
+
+    /**
+     * Unsubscribes from the manager. The properties keep their last values; an
+     * update that is already scheduled still runs.
+     */
+    public void dispose() {
+        programManager.removeStateListener(stateListener);
+    }
+
+    /**
+     * Schedules an update of the properties on the FX thread unless one is already
+     * pending. Safe to call from any thread, as often as needed.
+     */
+    public void publish() {
+        if (applyScheduled.compareAndSet(false, true)) {
+            Platform.runLater(applyTask);
+        }
+    }
+
+    /**
+     * Copies the current state into the properties right away. Must be called on the FX thread.
+     */
+    public void apply() {
+        applyScheduled.set(false);
+        DryerState state = programManager.getState();
+
+        double temperature;
+        double humidity;
+        int remainingSeconds;
+        DryerState.ProgramStatus currentStatus;
+        boolean closed;
+        boolean locked;
+        String currentProgram;
+        synchronized (state) {
+            temperature = state.getTemperature();
+            humidity = state.getHumidity();
+            remainingSeconds = state.getRemainingSeconds();
+            currentStatus = state.getStatus();
+            closed = state.isDoorClosed();
+            locked = state.isDoorLocked();
+            currentProgram = state.getProgramName();
+        }
+        // Prefer the remaining time learned from earlier cycles once there is one; read without locking the manager
+        int predictedSeconds = programManager.getPredictedRemainingSeconds();
+        if (currentStatus == DryerState.ProgramStatus.RUNNING && predictedSeconds >= 0) {
+            remainingSeconds = predictedSeconds;
+        }
+
+        if (status.get() != currentStatus || statusText.get().isEmpty()) {
+            statusText.set("Status: " + formatStatus(currentStatus));
+            status.set(currentStatus);
+        }
+        programName.set(currentProgram);
+        doorClosed.set(closed);
+        doorLocked.set(locked);
+        tooHotToOpen.set(temperature > SafetyModule.SAFE_DOOR_TEMPERATURE);
+
+        long temperatureTenths = Math.round(temperature * 10);
+        if (temperatureTenths != shownTemperatureTenths) {
+            shownTemperatureTenths = temperatureTenths;
+            buffer.setLength(0);
+            buffer.append("Temperatur: ");
+            appendTenths(temperatureTenths);
+            buffer.append(" °C");
+            temperatureText.set(buffer.toString());
+        }
+
+        long humidityTenths = Math.round(humidity * 10);
+        if (humidityTenths != shownHumidityTenths) {
+            shownHumidityTenths = humidityTenths;
+            buffer.setLength(0);
+            buffer.append("Restfeuchte: ");
+            appendTenths(humidityTenths);
+            buffer.append('%');
+            humidityText.set(buffer.toString());
+        }
+
+        if (remainingSeconds != shownRemainingSeconds) {
+            shownRemainingSeconds = remainingSeconds;
+            buffer.setLength(0);
+            buffer.append("Restlaufzeit: ");
+            appendTwoDigits(remainingSeconds / 3600);
+            buffer.append(':');
+            appendTwoDigits((remainingSeconds % 3600) / 60);
+            buffer.append(':');
+            appendTwoDigits(remainingSeconds % 60);
+            remainingTimeText.set(buffer.toString());
+        }
+
+        revision.set(revision.get() + 1);
+    }
+
+    private void appendTenths(long tenths) {
+        if (tenths < 0) {
+            buffer.append('-');
+            tenths = -tenths;
+        }
+        buffer.append(tenths / 10).append(decimalSeparator).append(tenths % 10);
+    }
+
+    private void appendTwoDigits(int value) {
+        if (value < 10) {
+            buffer.append('0');
+        }
+        buffer.append(value);
+    }
+
+    /**
+     * Formats the program status for display.
+     *
+     * @param status the program status
+     * @return the localized status string
+     */
+    static String formatStatus(DryerState.ProgramStatus status) {
+        return switch (status) {
+            case IDLE -> "Bereit";
+            case RUNNING -> "Läuft";
+            case COOLING -> "Kühlt ab...";
+            case ERROR -> "Fehler";
+            case DOOR_OPEN -> "Tür geöffnet";
+        };
+    }
+
+    public ReadOnlyObjectProperty<DryerState.ProgramStatus> statusProperty() {
+        return status.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty programNameProperty() {
+        return programName.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty statusTextProperty() {
+        return statusText.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty temperatureTextProperty() {
+        return temperatureText.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty humidityTextProperty() {
+        return humidityText.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty remainingTimeTextProperty() {
+        return remainingTimeText.getReadOnlyProperty();
+    }
+
+    public ReadOnlyBooleanProperty doorClosedProperty() {
+        return doorClosed.getReadOnlyProperty();
+    }
+
+    public ReadOnlyBooleanProperty doorLockedProperty() {
+        return doorLocked.getReadOnlyProperty();
+    }
+
+    /**
+     * @return true while the temperature is above {@link SafetyModule#SAFE_DOOR_TEMPERATURE}
+     */
+    public ReadOnlyBooleanProperty tooHotToOpenProperty() {
+        return tooHotToOpen.getReadOnlyProperty();
+    }
+
+    /**
+     * @return a counter incremented on every apply, for consumers that redraw on each update
+     */
+    public ReadOnlyLongProperty revisionProperty() {
+        return revision.getReadOnlyProperty();
+    }
+}
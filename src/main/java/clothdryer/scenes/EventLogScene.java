@@ -0,0 +1,262 @@
+package clothdryer.scenes;
+
+import clothdryer.DryerState;
+import clothdryer.EventLogIndex;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The EventLogScene lets the user browse the events of all dryer log files,
+ * filtered by event type and time range.
+ * <p>
+ * The events are not loaded into memory: an {@link EventLogIndex} keeps a sparse
+ * index of the files, the ListView is backed by an {@link IndexList}, and each
+ * visible cell reads its event from the filtered index view. Refreshing the index,
+ * building a new view and reading blocks from disk run in the background; the FX
+ * thread only swaps results in, and a cell shows a placeholder until its block has
+ * been read.
+ */
+public class EventLogScene implements ManagedScene {
+
+    private static final double ROW_HEIGHT = 24;
+    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final DateTimeFormatter ROW_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+    private static final String LOADING = "Lade ...";
+    // One loader thread: requests for the same block queue up and then hit the cache
+    private static final ExecutorService BLOCK_LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-log-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SceneNavigator navigator;
+    private final EventLogIndex index;
+    private final Map<DryerState.EventType, CheckBox> typeFilters = new EnumMap<>(DryerState.EventType.class);
+    private Scene scene;
+    private ListView<Integer> listView;
+    private TextField fromField;
+    private TextField toField;
+    private Label summaryLabel;
+    private EventLogIndex.View view;
+    private CompletableFuture<EventLogIndex.View> pendingRefresh;
+    private AtomicBoolean refreshCancelled; // stops the scan of the pending refresh
+
+    /**
+     * Constructs a new EventLogScene.
+     *
+     * @param navigator the navigator used to switch screens
+     * @param index     the index over the log files to display
+     */
+    EventLogScene(SceneNavigator navigator, EventLogIndex index) {
+        this.navigator = navigator;
+        this.index = index;
+    }
+
+    /**
+     * Returns the JavaFX Scene for the event log. The scene is built on the
+     * first call; later calls return the same scene.
+     *
+     * @return the event log Scene
+     */
+    @Override
+    public Scene getScene() {
+        if (scene == null) {
+            scene = buildScene();
+        }
+        return scene;
+    }
+
+    /**
+     * Picks up events logged since the scene was last shown.
+     */
+    @Override
+    public void onShow() {
+        refresh();
+    }
+
+    /**
+     * Discards a refresh that has not finished yet.
+     */
+    @Override
+    public void onHide() {
+        cancelPendingRefresh();
+    }
+
+    private void cancelPendingRefresh() {
+        if (pendingRefresh != null) {
+            refreshCancelled.set(true);
+            pendingRefresh.cancel(false);
+            pendingRefresh = null;
+        }
+    }
+
+    private Scene buildScene() {
+        Label headline = new Label("Ereignisprotokoll");
+        summaryLabel = new Label();
+
+        HBox typeBox = new HBox(10);
+        for (DryerState.EventType type : DryerState.EventType.values()) {
+            CheckBox checkBox = new CheckBox(formatType(type));
+            checkBox.setSelected(true);
+            checkBox.setOnAction(e -> refresh());
+            typeFilters.put(type, checkBox);
+            typeBox.getChildren().add(checkBox);
+        }
+
+        fromField = new TextField();
+        fromField.setPromptText("von (TT.MM.JJJJ HH:MM)");
+        fromField.setOnAction(e -> refresh());
+        toField = new TextField();
+        toField.setPromptText("bis (TT.MM.JJJJ HH:MM)");
+        toField.setOnAction(e -> refresh());
+        Button applyButton = new Button("Aktualisieren");
+        applyButton.setOnAction(e -> refresh());
+        HBox rangeBox = new HBox(10, fromField, toField, applyButton);
+
+        listView = new ListView<>(new IndexList(0));
+        listView.setFixedCellSize(ROW_HEIGHT);
+        listView.setCellFactory(list -> new EventCell());
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        Button back = new Button("Zurück");
+        back.setOnAction(e -> navigator.showProgramSelection());
+        HBox controls = new HBox(10, back);
+        controls.setAlignment(Pos.CENTER);
+
+        VBox layout = new VBox(10, headline, typeBox, rangeBox, summaryLabel, listView, controls);
+        layout.setStyle("-fx-padding: 20");
+        return new Scene(layout, 640, 600);
+    }
+
+    /**
+     * Re-indexes the log files and applies the current filter in the background.
+     */
+    private void refresh() {
+        getScene();
+        long fromMs;
+        long toMs;
+        try {
+            fromMs = parseTime(fromField.getText(), Long.MIN_VALUE);
+            toMs = parseTime(toField.getText(), Long.MAX_VALUE);
+        } catch (DateTimeParseException e) {
+            summaryLabel.setText("Ungültige Zeitangabe, Format: TT.MM.JJJJ HH:MM");
+            return;
+        }
+        Set<DryerState.EventType> types = EnumSet.noneOf(DryerState.EventType.class);
+        typeFilters.forEach((type, checkBox) -> {
+            if (checkBox.isSelected()) {
+                types.add(type);
+            }
+        });
+
+        cancelPendingRefresh();
+        summaryLabel.setText("Lade Ereignisse ...");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<EventLogIndex.View> refresh = CompletableFuture.supplyAsync(() -> {
+            try {
+                index.refresh(cancelled::get);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return index.view(types, fromMs, toMs);
+        });
+        pendingRefresh = refresh;
+        refreshCancelled = cancelled;
+        refresh.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (pendingRefresh != refresh) {
+                return; // superseded by a newer refresh or the scene was hidden
+            }
+            pendingRefresh = null;
+            if (error != null) {
+                summaryLabel.setText("Protokoll konnte nicht gelesen werden");
+                return;
+            }
+            show(result);
+        }));
+    }
+
+    private void show(EventLogIndex.View result) {
+        view = result;
+        int rows = (int) Math.min(result.size(), Integer.MAX_VALUE);
+        listView.setItems(new IndexList(rows));
+        summaryLabel.setText(result.size() + " Ereignisse");
+        if (rows > 0) {
+            listView.scrollTo(rows - 1);
+        }
+    }
+
+    private static long parseTime(String text, long fallback) {
+        if (text == null || text.isBlank()) {
+            return fallback;
+        }
+        // Same "local epoch milliseconds" as the index uses
+        return LocalDateTime.parse(text.trim(), INPUT_FORMAT).toEpochSecond(ZoneOffset.UTC) * 1000;
+    }
+
+    private static String formatType(DryerState.EventType type) {
+        return switch (type) {
+            case INFO -> "Info";
+            case WARNING -> "Warnung";
+            case ERROR -> "Fehler";
+        };
+    }
+
+    private static String formatEvent(DryerState.DryerEvent event) {
+        return event.getTimestamp().format(ROW_FORMAT) + "  " + formatType(event.getType()) + "  " + event.getMessage();
+    }
+
+    /**
+     * A row of the event log. Cells are recycled by the ListView while scrolling,
+     * so a block read in the background is only shown if the cell still displays
+     * the same row of the same view.
+     */
+    private final class EventCell extends ListCell<Integer> {
+        @Override
+        protected void updateItem(Integer item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null || view == null || item >= view.size()) {
+                setText(null);
+                return;
+            }
+            EventLogIndex.View shown = view;
+            DryerState.DryerEvent event = shown.getIfLoaded(item);
+            if (event != null) {
+                setText(formatEvent(event));
+                return;
+            }
+            setText(LOADING);
+            CompletableFuture.supplyAsync(() -> shown.get(item), BLOCK_LOADER)
+                    .whenComplete((loaded, error) -> Platform.runLater(() -> {
+                        if (view != shown || !item.equals(getItem())) {
+                            return; // the cell has been reused meanwhile
+                        }
+                        setText(error != null ? "Ereignis konnte nicht gelesen werden" : formatEvent(loaded));
+                    }));
+        }
+    }
+}
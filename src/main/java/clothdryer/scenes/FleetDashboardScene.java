@@ -0,0 +1,201 @@
+package clothdryer.scenes;
+
+import clothdryer.DryerFleet;
+import clothdryer.DryerState;
+import clothdryer.FleetAggregates;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The FleetDashboardScene shows the status, temperature, humidity and remaining
+ * time of every dryer in a {@link DryerFleet}.
+ * <p>
+ * The list is virtualized: only the rows that are currently visible exist as
+ * cells, and the list model computes its items on demand instead of storing one
+ * element per dryer. A single AnimationTimer checks once per pulse whether the
+ * fleet has ticked and then refreshes all visible rows and the summary in one batch.
+ * The scene only holds its cells weakly, so cells the ListView discards, e.g. when
+ * it rebuilds its cells, can be collected.
+ * The summary reads the fleet's {@link FleetAggregates}, so it costs the same for
+ * any fleet size.
+ */
+public class FleetDashboardScene implements ManagedScene {
+
+    private static final double ROW_HEIGHT = 24;
+
+    private final SceneNavigator navigator;
+    private final DryerFleet fleet;
+    private final Set<DryerCell> cells = Collections.newSetFromMap(new WeakHashMap<>());
+    private Scene scene;
+    private Label summaryLabel;
+    private AnimationTimer pulseTimer;
+    private long renderedTick = -1;
+
+    /**
+     * Constructs a new FleetDashboardScene.
+     *
+     * @param navigator the navigator used to switch screens
+     * @param fleet     the fleet to display
+     */
+    FleetDashboardScene(SceneNavigator navigator, DryerFleet fleet) {
+        this.navigator = navigator;
+        this.fleet = fleet;
+    }
+
+    /**
+     * Returns the JavaFX Scene for the fleet dashboard. The scene is built on the
+     * first call; later calls return the same scene.
+     *
+     * @return the dashboard Scene
+     */
+    @Override
+    public Scene getScene() {
+        if (scene == null) {
+            scene = buildScene();
+        }
+        return scene;
+    }
+
+    /**
+     * Starts refreshing the visible rows once per pulse.
+     */
+    @Override
+    public void onShow() {
+        if (pulseTimer == null) {
+            pulseTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    refresh();
+                }
+            };
+        }
+        renderedTick = -1; // force a refresh after the scene was hidden
+        pulseTimer.start();
+    }
+
+    /**
+     * Stops refreshing while another screen is shown.
+     */
+    @Override
+    public void onHide() {
+        if (pulseTimer != null) {
+            pulseTimer.stop();
+        }
+    }
+
+    private Scene buildScene() {
+        Label headline = new Label("Flottenübersicht: " + fleet.size() + " Trockner");
+        summaryLabel = new Label();
+
+        ListView<Integer> listView = new ListView<>(new IndexList(fleet.size()));
+        listView.setFixedCellSize(ROW_HEIGHT);
+        listView.setCellFactory(view -> {
+            DryerCell cell = new DryerCell();
+            cells.add(cell);
+            return cell;
+        });
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        Button back = new Button("Zurück");
+        back.setOnAction(e -> navigator.showProgramSelection());
+        HBox controls = new HBox(10, back);
+        controls.setAlignment(Pos.CENTER);
+
+        VBox layout = new VBox(10, headline, summaryLabel, listView, controls);
+        layout.setStyle("-fx-padding: 20");
+        return new Scene(layout, 560, 600);
+    }
+
+    /**
+     * Re-renders the visible rows and the summary if the fleet ticked since the last pulse.
+     */
+    void refresh() {
+        long tick = fleet.getTickCount();
+        if (tick == renderedTick) {
+            return;
+        }
+        renderedTick = tick;
+        for (DryerCell cell : cells) {
+            if (cell.getListView() != null && cell.isVisible()) {
+                cell.render();
+            }
+        }
+
+        FleetAggregates aggregates = fleet.getAggregates();
+        StringBuilder summary = new StringBuilder();
+        for (DryerState.ProgramStatus status : DryerState.ProgramStatus.values()) {
+            if (summary.length() > 0) {
+                summary.append("   ");
+            }
+            summary.append(formatStatus(status)).append(": ").append(aggregates.count(status));
+        }
+        summary.append(String.format("%nTemperatur: Ø %.1f °C   p50 %.1f   p95 %.1f   p99 %.1f",
+                aggregates.getMeanTemperature(), aggregates.getTemperaturePercentile(50),
+                aggregates.getTemperaturePercentile(95), aggregates.getTemperaturePercentile(99)));
+        summary.append(String.format("%nRestzeit:   Ø %s   p50 %s   p95 %s   p99 %s",
+                formatSeconds((int) Math.round(aggregates.getMeanRemainingSeconds())),
+                formatSeconds(aggregates.getRemainingSecondsPercentile(50)),
+                formatSeconds(aggregates.getRemainingSecondsPercentile(95)),
+                formatSeconds(aggregates.getRemainingSecondsPercentile(99))));
+        summaryLabel.setText(summary.toString());
+    }
+
+    /**
+     * @return the number of cells that have not been collected yet
+     */
+    int getCellCount() {
+        return cells.size();
+    }
+
+    private static String formatSeconds(int seconds) {
+        return seconds < 0 ? "--:--" : String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private static String formatStatus(DryerState.ProgramStatus status) {
+        return switch (status) {
+            case IDLE -> "Bereit";
+            case RUNNING -> "Läuft";
+            case COOLING -> "Kühlt ab";
+            case ERROR -> "Fehler";
+            case DOOR_OPEN -> "Tür geöffnet";
+        };
+    }
+
+    /**
+     * A row of the dashboard. Cells are recycled by the ListView while scrolling.
+     */
+    private final class DryerCell extends ListCell<Integer> {
+        private int dryerIndex = -1;
+
+        @Override
+        protected void updateItem(Integer item, boolean empty) {
+            super.updateItem(item, empty);
+            dryerIndex = empty || item == null ? -1 : item;
+            render();
+        }
+
+        void render() {
+            if (dryerIndex < 0) {
+                setText(null);
+                return;
+            }
+            DryerState state = fleet.get(dryerIndex).getState();
+            int seconds = state.getRemainingSeconds();
+            setText(String.format("#%05d  %-12s %5.1f °C  %5.1f %%  %02d:%02d:%02d  %s",
+                    dryerIndex + 1, formatStatus(state.getStatus()), state.getTemperature(), state.getHumidity(),
+                    seconds / 3600, (seconds % 3600) / 60, seconds % 60, state.getProgramName()));
+        }
+    }
+}
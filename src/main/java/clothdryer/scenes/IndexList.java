@@ -0,0 +1,29 @@
+package clothdryer.scenes;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * List model whose item at position i is simply i. It stores nothing per row, so
+ * a ListView over it only creates cells for the visible rows and looks up the
+ * actual data when a cell is rendered.
+ */
+final class IndexList extends ObservableListBase<Integer> {
+    private final int size;
+
+    IndexList(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public Integer get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,32 @@
+package clothdryer.scenes;
+
+import javafx.scene.Scene;
+
+/**
+ * A screen of the application that is created once and reused by the
+ * {@link SceneNavigator}.
+ * <p>
+ * The navigator calls {@link #onShow()} when the screen becomes visible and
+ * {@link #onHide()} when another screen replaces it. Implementations start their
+ * update loops in onShow and pause them in onHide, so hidden screens cost no CPU.
+ */
+public interface ManagedScene {
+
+    /**
+     * Returns the JavaFX Scene of this screen. The scene is built on the first call
+     * and the same instance is returned afterwards.
+     *
+     * @return the scene
+     */
+    Scene getScene();
+
+    /**
+     * Called when the screen becomes visible. Must be idempotent.
+     */
+    void onShow();
+
+    /**
+     * Called when the screen is replaced by another one. Must be idempotent.
+     */
+    void onHide();
+}
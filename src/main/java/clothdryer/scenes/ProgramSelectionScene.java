@@ -1,11 +1,9 @@
 package clothdryer.scenes;
 
-import clothdryer.DryerState;
 import clothdryer.ProgramManager;
 import clothdryer.SafetyModule;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.PauseTransition;
+import javafx.beans.value.ChangeListener;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -21,12 +19,14 @@ import javafx.util.Duration;
  * open or close the door, and load new laundry.
  * 
  * The scene updates its controls dynamically based on the current state
- * of the dryer (door open/closed/locked).
+ * of the dryer (door open/closed/locked). It is bound to the {@link DryerStateBridge}
+ * only while the scene is shown.
  */
-public class ProgramSelectionScene {
+public class ProgramSelectionScene implements ManagedScene {
 
-    private final Stage stage;
+    private final SceneNavigator navigator;
     private final ProgramManager programManager;
+    private Scene scene;
 
     private Label doorStatusLabel;
     private Button doorButton;
@@ -34,7 +34,9 @@ public class ProgramSelectionScene {
     private Button syntheticButton;
     private Button woolButton;
     private Button loadLaundryButton;
-    private Timeline updateTimeline;
+    private PauseTransition laundryConfirmationReset;
+    private final ChangeListener<Object> controlsListener = (observable, oldValue, newValue) -> updateDoorControls();
+    private boolean active = false;
 
     private Label statusLabel;
     private Label tempLabel;
@@ -47,37 +49,101 @@ public class ProgramSelectionScene {
      * @param programManager the manager handling dryer state and logic
      */
     public ProgramSelectionScene(Stage stage, ProgramManager programManager) {
-        this.stage = stage;
         this.programManager = programManager;
+        this.navigator = new SceneNavigator(stage, programManager, this);
     }
 
     /**
-     * Creates and returns the JavaFX Scene for program selection.
+     * Constructs a ProgramSelectionScene managed by the given navigator.
+     *
+     * @param navigator the navigator used to switch screens
+     * @param programManager the manager handling dryer state and logic
+     */
+    ProgramSelectionScene(SceneNavigator navigator, ProgramManager programManager) {
+        this.navigator = navigator;
+        this.programManager = programManager;
+    }
+
+    /**
+     * Returns the JavaFX Scene for program selection. The scene is built and bound
+     * to the dryer state on the first call; later calls return the same scene.
      * 
      * @return the program selection Scene
      */
+    @Override
     public Scene getScene() {
+        if (scene == null) {
+            scene = buildScene();
+            onShow();
+        }
+        return scene;
+    }
+
+    /**
+     * Binds the labels to the dryer state and updates the controls whenever the
+     * door or program state changes.
+     */
+    @Override
+    public void onShow() {
+        if (active) {
+            return;
+        }
+        active = true;
+        DryerStateBridge bridge = navigator.getBridge();
+        bridge.apply();
+        statusLabel.textProperty().bind(bridge.statusTextProperty());
+        tempLabel.textProperty().bind(bridge.temperatureTextProperty());
+        humidityLabel.textProperty().bind(bridge.humidityTextProperty());
+        bridge.statusProperty().addListener(controlsListener);
+        bridge.doorClosedProperty().addListener(controlsListener);
+        bridge.doorLockedProperty().addListener(controlsListener);
+        bridge.tooHotToOpenProperty().addListener(controlsListener);
+        updateDoorControls();
+    }
+
+    /**
+     * Detaches the scene from the dryer state while another screen is shown.
+     */
+    @Override
+    public void onHide() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        DryerStateBridge bridge = navigator.getBridge();
+        statusLabel.textProperty().unbind();
+        tempLabel.textProperty().unbind();
+        humidityLabel.textProperty().unbind();
+        bridge.statusProperty().removeListener(controlsListener);
+        bridge.doorClosedProperty().removeListener(controlsListener);
+        bridge.doorLockedProperty().removeListener(controlsListener);
+        bridge.tooHotToOpenProperty().removeListener(controlsListener);
+        laundryConfirmationReset.stop();
+        loadLaundryButton.setText("Neue Wäsche einlegen");
+    }
+
+    /**
+     * @return true while the scene is bound to the dryer state
+     */
+    boolean isUpdating() {
+        return active;
+    }
+
+    /**
+     * Creates the JavaFX Scene for program selection.
+     * 
+     * @return the program selection Scene
+     */
+    private Scene buildScene() {
         Label headline = new Label("Wähle ein Trockenprogramm:");
 
         cottonButton = new Button("Baumwolle");
         syntheticButton = new Button("Synthetik");
         woolButton = new Button("Wolle");
 
-        cottonButton.setOnAction(e -> {
-            String selectedProgram = "cotton";
-            RunningScene runningScene = new RunningScene(stage, selectedProgram, programManager);
-            stage.setScene(runningScene.getScene());
-        });
-        syntheticButton.setOnAction(e -> {
-            String selectedProgram = "synthetic";
-            RunningScene runningScene = new RunningScene(stage, selectedProgram, programManager);
-            stage.setScene(runningScene.getScene());
-        });
-        woolButton.setOnAction(e -> {
-            String selectedProgram = "wool";
-            RunningScene runningScene = new RunningScene(stage, selectedProgram, programManager);
-            stage.setScene(runningScene.getScene());
-        });
+        cottonButton.setOnAction(e -> navigator.showRunning("cotton"));
+        syntheticButton.setOnAction(e -> navigator.showRunning("synthetic"));
+        woolButton.setOnAction(e -> navigator.showRunning("wool"));
 
         doorStatusLabel = new Label(getDoorStatusText());
         doorButton = new Button(getDoorButtonText());
@@ -85,15 +151,14 @@ public class ProgramSelectionScene {
         
         // Add new laundry load button
         loadLaundryButton = new Button("Neue Wäsche einlegen");
+        // Reset text 2 seconds after the confirmation message
+        laundryConfirmationReset = new PauseTransition(Duration.seconds(2));
+        laundryConfirmationReset.setOnFinished(event -> loadLaundryButton.setText("Neue Wäsche einlegen"));
         loadLaundryButton.setOnAction(e -> {
             if (programManager.loadNewLaundry()) {
                 // Show confirmation message
                 loadLaundryButton.setText("✓ Wäsche eingelegt");
-                // Reset text after 2 seconds
-                new javafx.animation.Timeline(
-                    new javafx.animation.KeyFrame(javafx.util.Duration.seconds(2), 
-                    event -> loadLaundryButton.setText("Neue Wäsche einlegen"))
-                ).play();
+                laundryConfirmationReset.playFromStart();
             }
         });
         // Initially disable button, will be updated in updateDoorControls()
@@ -109,24 +174,18 @@ public class ProgramSelectionScene {
         doorControls.setAlignment(Pos.CENTER);
 
         VBox layout = new VBox(15, headline, cottonButton, syntheticButton, woolButton, loadLaundryButton, doorControls, infoBox);
+        Button eventLogButton = new Button("Ereignisprotokoll");
+        eventLogButton.setOnAction(e -> navigator.showEventLog());
+        HBox overviewControls = new HBox(10, eventLogButton);
+        overviewControls.setAlignment(Pos.CENTER);
+        if (navigator.getFleet() != null) {
+            Button fleetButton = new Button("Flottenübersicht");
+            fleetButton.setOnAction(e -> navigator.showFleetDashboard());
+            overviewControls.getChildren().add(fleetButton);
+        }
+        layout.getChildren().add(overviewControls);
         layout.setStyle("-fx-padding: 20; -fx-alignment: center");
-        startUpdateTimeline();
-        Scene scene = new Scene(layout, 400, 420); // Increased height from e.g. 300/350 to 420
-        return scene;
-    }
-
-    /**
-     * Starts a timeline that periodically updates the door controls and
-     * program buttons based on the current state.
-     */
-    private void startUpdateTimeline() {
-        updateTimeline = new Timeline(
-                new KeyFrame(Duration.seconds(0.5), event -> {
-                    updateDoorControls();
-                })
-        );
-        updateTimeline.setCycleCount(Animation.INDEFINITE);
-        updateTimeline.play();
+        return new Scene(layout, 400, 460);
     }
 
     /**
@@ -153,11 +212,6 @@ public class ProgramSelectionScene {
         cottonButton.setDisable(!doorClosed);
         syntheticButton.setDisable(!doorClosed);
         woolButton.setDisable(!doorClosed);
-
-        DryerState state = programManager.getState();
-        statusLabel.setText("Status: " + formatStatus(state.getStatus()));
-        tempLabel.setText(String.format("Temperatur: %.1f °C", state.getTemperature()));
-        humidityLabel.setText(String.format("Restfeuchte: %.1f%%", state.getHumidity()));
     }
 
     /**
@@ -201,15 +255,4 @@ public class ProgramSelectionScene {
 
         updateDoorControls();
     }
-
-    private String formatStatus(DryerState.ProgramStatus status) {
-        return switch (status) {
-            case IDLE -> "Bereit";
-            case RUNNING -> "Läuft";
-            case COOLING -> "Kühlt ab...";
-            case ERROR -> "Fehler";
-            case DOOR_OPEN -> "Tür geöffnet";
-            default -> "Unbekannt";
-        };
-    }
 }
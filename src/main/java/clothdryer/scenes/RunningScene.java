@@ -2,132 +2,260 @@ package clothdryer.scenes;
 
 import clothdryer.DryerState;
 import clothdryer.ProgramManager;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The RunningScene class represents the user interface shown while a drying
  * program is running. It displays the current program, status, remaining time,
  * humidity, and temperature, and allows the user to cancel the program.
  * <p>
- * The scene updates its display periodically with live data from the simulation.
+ * The scene is bound to the live data of the simulation via the {@link DryerStateBridge}
+ * and plots the temperature and humidity curves of the whole cycle. Below the
+ * remaining time it shows the range the cycle usually takes, estimated in the
+ * background by the {@link clothdryer.CycleTimeEstimator}. While the scene is hidden,
+ * the chart keeps collecting the samples without drawing them, so showing the scene
+ * again for a cycle that is still running continues its chart.
  * When the program finishes or an error occurs, it automatically returns to the
  * program selection scene after a short delay.
  */
-public class RunningScene {
+public class RunningScene implements ManagedScene {
 
-    private final Stage stage;
-    private final String programName;
+    private final SceneNavigator navigator;
     private final ProgramManager programManager;
-    private Timeline updateTimeline;
+    private String programName;
+    private Scene scene;
+    private PauseTransition returnDelay;
+    private boolean active = false;
+
+    private Label title;
+    private Label status;
+    private Label timeRemaining;
+    private Label expectedDuration;
+    private Label humidity;
+    private Label temperature;
+    private CycleChart chart;
+    private long chartRun; // incremented for every new chart, so late results of an earlier run are dropped
+
+    private final ChangeListener<DryerState.ProgramStatus> statusListener =
+            (observable, oldStatus, newStatus) -> checkProgramEnded(newStatus);
+    private final ChangeListener<Number> revisionListener = (observable, oldValue, newValue) -> chart.refresh();
+    private final ChangeListener<Number> hiddenRevisionListener = (observable, oldValue, newValue) -> chart.consume();
 
     /**
-     * Constructs a new RunningScene and starts the selected program in the simulation.
+     * Constructs a new RunningScene. The scene is reused for every program run,
+     * see {@link #start(String)}.
      *
-     * @param stage         the primary stage of the application
-     * @param programName   the name of the selected drying program
+     * @param navigator      the navigator used to switch screens
      * @param programManager the manager handling dryer state and logic
      */
-    public RunningScene(Stage stage, String programName, ProgramManager programManager) {
-        this.stage = stage;
-        this.programName = programName;
+    RunningScene(SceneNavigator navigator, ProgramManager programManager) {
+        this.navigator = navigator;
         this.programManager = programManager;
+    }
+
+    /**
+     * Starts the selected program in the simulation and resets the display. If the
+     * program is already running, its chart is continued.
+     *
+     * @param programName the name of the selected drying program
+     */
+    void start(String programName) {
+        DryerState state = programManager.getState();
+        boolean resumed = state.getStatus() == DryerState.ProgramStatus.RUNNING
+                && programName.equals(state.getProgramName());
+        this.programName = programName;
 
         // Start the selected program in the simulation
         programManager.startProgram(programName);
+
+        if (scene != null) {
+            resetLabels();
+            if (!resumed) {
+                resetChart();
+            }
+            showExpectedDuration();
+        }
     }
 
     /**
-     * Creates and returns the JavaFX Scene for the running program.
+     * Returns the JavaFX Scene for the running program. The scene is built on the
+     * first call; later calls return the same scene.
      *
      * @return the running program Scene
      */
+    @Override
     public Scene getScene() {
-        Label title = new Label("Programm: " + programName);
-        Label status = new Label("Status: Läuft");
-        Label timeRemaining = new Label("Restlaufzeit: --:--:--");
-        Label humidity = new Label("Restfeuchte: ---%");
-        Label temperature = new Label("Temperatur: -- °C");
+        if (scene == null) {
+            scene = buildScene();
+        }
+        return scene;
+    }
+
+    /**
+     * Binds the labels to the dryer state and starts watching for the end of the program.
+     */
+    @Override
+    public void onShow() {
+        if (active) {
+            return;
+        }
+        active = true;
+        DryerStateBridge bridge = navigator.getBridge();
+        bridge.apply();
+        status.textProperty().bind(bridge.statusTextProperty());
+        timeRemaining.textProperty().bind(bridge.remainingTimeTextProperty());
+        humidity.textProperty().bind(bridge.humidityTextProperty());
+        temperature.textProperty().bind(bridge.temperatureTextProperty());
+        bridge.statusProperty().addListener(statusListener);
+        bridge.revisionProperty().removeListener(hiddenRevisionListener);
+        bridge.revisionProperty().addListener(revisionListener);
+        chart.refresh();
+        checkProgramEnded(bridge.statusProperty().get());
+    }
+
+    /**
+     * Detaches the labels from the dryer state, leaves the chart only collecting samples
+     * and stops a pending return to the selection scene.
+     */
+    @Override
+    public void onHide() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        DryerStateBridge bridge = navigator.getBridge();
+        status.textProperty().unbind();
+        timeRemaining.textProperty().unbind();
+        humidity.textProperty().unbind();
+        temperature.textProperty().unbind();
+        bridge.statusProperty().removeListener(statusListener);
+        bridge.revisionProperty().removeListener(revisionListener);
+        bridge.revisionProperty().addListener(hiddenRevisionListener); // the ring buffer would overwrite the cycle's start
+        returnDelay.stop();
+    }
+
+    /**
+     * @return true while the scene is bound to the dryer state
+     */
+    boolean isUpdating() {
+        return active;
+    }
+
+    /**
+     * Creates the JavaFX Scene for the running program.
+     *
+     * @return the running program Scene
+     */
+    private Scene buildScene() {
+        title = new Label();
+        status = new Label();
+        timeRemaining = new Label();
+        expectedDuration = new Label();
+        humidity = new Label();
+        temperature = new Label();
+        resetLabels();
+        showExpectedDuration();
+
+        chart = new CycleChart(programManager.getTrend(), 360, 140);
+        resetChart();
+        Label temperatureLegend = new Label("■ Temperatur (°C)");
+        temperatureLegend.setStyle("-fx-text-fill: orangered");
+        Label humidityLegend = new Label("■ Restfeuchte (%)");
+        humidityLegend.setStyle("-fx-text-fill: steelblue");
+        HBox legend = new HBox(15, temperatureLegend, humidityLegend);
+        legend.setAlignment(Pos.CENTER);
 
         Button cancel = new Button("Abbrechen");
         cancel.setOnAction(e -> {
-            if (updateTimeline != null) {
-                updateTimeline.stop();
-            }
-
             programManager.stopProgram();
-            ProgramSelectionScene programSelectionScene = new ProgramSelectionScene(stage, programManager);
-            stage.setScene(programSelectionScene.getScene());
+            navigator.showProgramSelection();
         });
 
-        VBox layout = new VBox(10, title, status, timeRemaining, humidity, temperature, cancel);
-        layout.setStyle("-fx-padding: 20; -fx-alignment: center");
-
-        Scene scene = new Scene(layout, 400, 300);
+        // Delay returning to the selection scene so the user can see the status
+        returnDelay = new PauseTransition(Duration.seconds(3));
+        returnDelay.setOnFinished(event -> navigator.showProgramSelection());
 
-        // Periodically update the UI with data from the simulation
-        updateTimeline = new Timeline(
-                new KeyFrame(Duration.seconds(0.5), event -> {
-                    updateLabels(title, status, timeRemaining, humidity, temperature);
-                })
-        );
-        updateTimeline.setCycleCount(Animation.INDEFINITE);
-        updateTimeline.play();
+        VBox layout = new VBox(10, title, status, timeRemaining, expectedDuration, humidity, temperature, chart, legend, cancel);
+        layout.setStyle("-fx-padding: 20; -fx-alignment: center");
 
-        return scene;
+        return new Scene(layout, 400, 510);
     }
 
     /**
-     * Updates the UI labels with the current simulation state.
-     * If the program finishes or an error occurs, returns to the selection scene after a delay.
-     *
-     * @param title         the label for the program name
-     * @param status        the label for the program status
-     * @param timeRemaining the label for the remaining time
-     * @param humidity      the label for the humidity
-     * @param temperature   the label for the temperature
+     * Starts a new chart for the current program run, scaled to the program duration
+     * at first. The precomputed length of a standard cycle including cool-down may
+     * need a simulation, so it is computed in the background and rescales the chart
+     * when it arrives, unless another run has started since.
      */
-    private void updateLabels(Label title, Label status, Label timeRemaining,
-                              Label humidity, Label temperature) {
-        DryerState state = programManager.getState();
-
-        title.setText("Programm: " + formatProgramName(state.getProgramName()));
-        status.setText("Status: " + formatStatus(state.getStatus()));
-        timeRemaining.setText("Restlaufzeit: " + formatTime(state.getRemainingSeconds()));
-        humidity.setText("Restfeuchte: " + String.format("%.1f%%", state.getHumidity()));
-        temperature.setText("Temperatur: " + String.format("%.1f °C", state.getTemperature()));
-
-        // If the program is finished or an error occurred, return to the selection scene after a short delay
-        if (state.getStatus() == DryerState.ProgramStatus.IDLE ||
-                state.getStatus() == DryerState.ProgramStatus.ERROR ||
-                state.getStatus() == DryerState.ProgramStatus.COOLING) {
-
-            if (updateTimeline != null) {
-                updateTimeline.stop();
-            }
+    private void resetChart() {
+        long run = ++chartRun;
+        String chartedProgram = programName;
+        chart.reset(programManager.getState().getRemainingSeconds() * 1000L);
+        chart.refresh();
+        CompletableFuture.supplyAsync(() -> programManager.getTrajectory(chartedProgram))
+                .thenAccept(trajectory -> Platform.runLater(() -> {
+                    if (trajectory != null && run == chartRun) {
+                        chart.rescale(trajectory.getCycleEndMs());
+                        chart.refresh();
+                    }
+                }));
+    }
 
-            // Delay returning to the selection scene so the user can see the status
-            new Timeline(new KeyFrame(Duration.seconds(3), event -> {
-                ProgramSelectionScene programSelectionScene = new ProgramSelectionScene(stage, programManager);
-                stage.setScene(programSelectionScene.getScene());
-            })).play();
+    /**
+     * Resets the labels to their initial placeholders for a new program run.
+     * Labels that are currently bound to the dryer state are left alone.
+     */
+    private void resetLabels() {
+        title.setText("Programm: " + formatProgramName(programName));
+        if (!status.textProperty().isBound()) {
+            status.setText("Status: Läuft");
+            timeRemaining.setText("Restlaufzeit: --:--:--");
+            humidity.setText("Restfeuchte: ---%");
+            temperature.setText("Temperatur: -- °C");
         }
     }
 
     /**
-     * Formats the program name for display.
+     * Shows the 10th to 90th percentile of the cycle time of the current program as
+     * soon as the estimate is available. A result arriving after another program
+     * was started is dropped.
+     */
+    private void showExpectedDuration() {
+        String estimatedProgram = programName;
+        expectedDuration.setText("Dauer (P10–P90): wird berechnet ...");
+        navigator.getCycleTimeEstimator().estimateAsync(estimatedProgram)
+                .whenComplete((distribution, error) -> Platform.runLater(() -> {
+                    if (!estimatedProgram.equals(programName)) {
+                        return;
+                    }
+                    if (error != null) {
+                        expectedDuration.setText("Dauer (P10–P90): unbekannt");
+                        return;
+                    }
+                    expectedDuration.setText("Dauer (P10–P90): "
+                            + formatMinutes(distribution.getCycleSeconds(10)) + " – "
+                            + formatMinutes(distribution.getCycleSeconds(90)) + " min");
+                }));
+    }
+
+    /**
+     * Formats the internal program name for display.
      *
      * @param name the internal program name
      * @return the localized display name
      */
-    private String formatProgramName(String name) {
+    private static String formatProgramName(String name) {
         return switch (name) {
             case "cotton" -> "Baumwolle";
             case "synthetic" -> "Synthetik";
@@ -136,33 +264,21 @@ public class RunningScene {
         };
     }
 
-    /**
-     * Formats the program status for display.
-     *
-     * @param status the program status
-     * @return the localized status string
-     */
-    private String formatStatus(DryerState.ProgramStatus status) {
-        return switch (status) {
-            case IDLE -> "Bereit";
-            case RUNNING -> "Läuft";
-            case COOLING -> "Kühlt ab...";
-            case ERROR -> "Fehler";
-            case DOOR_OPEN -> "Tür geöffnet";
-            default -> "Unbekannt";
-        };
+    private static String formatMinutes(int seconds) {
+        return String.valueOf((seconds + 59) / 60);
     }
 
     /**
-     * Formats the remaining time in seconds as HH:mm:ss.
+     * Returns to the selection scene after a short delay once the program is finished
+     * or an error occurred, so the user can still see the final status.
      *
-     * @param seconds the remaining time in seconds
-     * @return the formatted time string
+     * @param programStatus the current program status
      */
-    private String formatTime(int seconds) {
-        int hours = seconds / 3600;
-        int minutes = (seconds % 3600) / 60;
-        int secs = seconds % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
+    private void checkProgramEnded(DryerState.ProgramStatus programStatus) {
+        if (programStatus == DryerState.ProgramStatus.IDLE ||
+                programStatus == DryerState.ProgramStatus.ERROR ||
+                programStatus == DryerState.ProgramStatus.COOLING) {
+            returnDelay.playFromStart();
+        }
     }
-}
\ No newline at end of file
+}
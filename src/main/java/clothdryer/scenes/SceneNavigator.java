@@ -0,0 +1,186 @@
+package clothdryer.scenes;
+
+import clothdryer.CycleTimeEstimator;
+import clothdryer.DryerFleet;
+import clothdryer.DryerState;
+import clothdryer.EventLogIndex;
+import clothdryer.ProgramManager;
+import javafx.stage.Stage;
+
+/**
+ * The SceneNavigator switches the stage between the application's screens.
+ * <p>
+ * Every screen is created once and cached. On each navigation the previous
+ * screen is paused via {@link ManagedScene#onHide()} and the next one resumed via
+ * {@link ManagedScene#onShow()}, so no update loops pile up over many program cycles.
+ */
+public class SceneNavigator {
+
+    private final Stage stage;
+    private final ProgramManager programManager;
+
+    private ProgramSelectionScene programSelectionScene;
+    private RunningScene runningScene;
+    private DryerFleet fleet;
+    private FleetDashboardScene fleetDashboardScene;
+    private EventLogScene eventLogScene;
+    private ManagedScene currentScene;
+    private DryerStateBridge bridge;
+    private CycleTimeEstimator cycleTimeEstimator;
+
+    /**
+     * Constructs a new SceneNavigator.
+     *
+     * @param stage          the primary stage of the application
+     * @param programManager the manager handling dryer state and logic
+     */
+    public SceneNavigator(Stage stage, ProgramManager programManager) {
+        this.stage = stage;
+        this.programManager = programManager;
+    }
+
+    /**
+     * Constructs a navigator around an already existing selection screen.
+     */
+    SceneNavigator(Stage stage, ProgramManager programManager, ProgramSelectionScene programSelectionScene) {
+        this(stage, programManager);
+        this.programSelectionScene = programSelectionScene;
+        this.currentScene = programSelectionScene;
+    }
+
+    /**
+     * Shows the program selection screen.
+     */
+    public void showProgramSelection() {
+        if (programSelectionScene == null) {
+            programSelectionScene = new ProgramSelectionScene(this, programManager);
+        }
+        show(programSelectionScene);
+    }
+
+    /**
+     * Starts the given program and shows the running screen.
+     *
+     * @param programName the name of the selected drying program
+     */
+    public void showRunning(String programName) {
+        if (runningScene == null) {
+            runningScene = new RunningScene(this, programManager);
+        }
+        runningScene.start(programName);
+        show(runningScene);
+    }
+
+    /**
+     * Sets the fleet shown by the fleet dashboard. Must be called before the
+     * program selection screen is shown for the first time to offer the dashboard there.
+     *
+     * @param fleet the fleet to display
+     */
+    public void setFleet(DryerFleet fleet) {
+        this.fleet = fleet;
+        this.fleetDashboardScene = null;
+    }
+
+    /**
+     * @return the fleet shown by the dashboard, or null if there is none
+     */
+    public DryerFleet getFleet() {
+        return fleet;
+    }
+
+    /**
+     * Shows the fleet dashboard.
+     *
+     * @throws IllegalStateException if no fleet was set
+     */
+    public void showFleetDashboard() {
+        if (fleet == null) {
+            throw new IllegalStateException("No fleet to display");
+        }
+        if (fleetDashboardScene == null) {
+            fleetDashboardScene = new FleetDashboardScene(this, fleet);
+        }
+        show(fleetDashboardScene);
+    }
+
+    /**
+     * Shows the event log of all dryer log files.
+     */
+    public void showEventLog() {
+        if (eventLogScene == null) {
+            eventLogScene = new EventLogScene(this, new EventLogIndex(DryerState.LOG_DIRECTORY));
+        }
+        show(eventLogScene);
+    }
+
+    /**
+     * Returns the bridge that mirrors the dryer state into JavaFX properties.
+     * All screens of this navigator share one bridge.
+     *
+     * @return the state bridge
+     */
+    public DryerStateBridge getBridge() {
+        if (bridge == null) {
+            bridge = new DryerStateBridge(programManager);
+        }
+        return bridge;
+    }
+
+    /**
+     * Pauses the current screen and detaches the state bridge from the program
+     * manager, e.g. when the application stops.
+     */
+    public void dispose() {
+        if (currentScene != null) {
+            currentScene.onHide();
+        }
+        if (bridge != null) {
+            bridge.dispose();
+            bridge = null;
+        }
+    }
+
+    /**
+     * Returns the estimator for the expected cycle times. Its estimates are cached,
+     * so every program is simulated only once per application run.
+     *
+     * @return the cycle time estimator
+     */
+    public CycleTimeEstimator getCycleTimeEstimator() {
+        if (cycleTimeEstimator == null) {
+            cycleTimeEstimator = new CycleTimeEstimator();
+        }
+        return cycleTimeEstimator;
+    }
+
+    /**
+     * @return the screen that is currently shown, or null if none was shown yet
+     */
+    public ManagedScene getCurrentScene() {
+        return currentScene;
+    }
+
+    ProgramSelectionScene getProgramSelectionScene() {
+        return programSelectionScene;
+    }
+
+    RunningScene getRunningScene() {
+        return runningScene;
+    }
+
+    FleetDashboardScene getFleetDashboardScene() {
+        return fleetDashboardScene;
+    }
+
+    private void show(ManagedScene next) {
+        if (currentScene != null && currentScene != next) {
+            currentScene.onHide();
+        }
+        currentScene = next;
+        if (stage.getScene() != next.getScene()) {
+            stage.setScene(next.getScene());
+        }
+        next.onShow();
+    }
+}
@@ -0,0 +1,79 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für das physikalische Trocknungsmodell und den adaptiven Integrator
+ *
+ * Traceability:
+ * - TC-005: Feuchtesensorintegration
+ * - TC-009: Abkühlfunktion
+ */
+public class AdaptiveIntegratorTest {
+
+    @Test // TC-009
+    void testHeatingMatchesExactSolution() {
+        DryingConditions conditions = new DryingConditions();
+        conditions.set(true, false, false, 75.0, 0.8);
+        double[] state = {20.0, 100.0};
+        AdaptiveIntegrator integrator = new AdaptiveIntegrator();
+
+        integrator.integrate(new ExponentialDryingModel(), conditions, state, 120.0);
+
+        double timeConstant = 75.0 / ExponentialDryingModel.INITIAL_HEATING_RATE;
+        double expected = 75.0 - (75.0 - 20.0) * Math.exp(-120.0 / timeConstant);
+        assertEquals(expected, state[DryingModel.TEMPERATURE], 1e-3, "Temperatur sollte der exakten Lösung folgen");
+        assertEquals(100.0, state[DryingModel.HUMIDITY], "Ohne laufendes Programm sollte nichts trocknen");
+    }
+
+    @Test // TC-005
+    void testStopsExactlyAtThreshold() {
+        DryingConditions conditions = new DryingConditions();
+        conditions.set(true, true, false, 75.0, 0.8);
+        double[] state = {75.0, 100.0};
+        AdaptiveIntegrator integrator = new AdaptiveIntegrator();
+
+        double advanced = integrator.integrateUntilBelow(new ExponentialDryingModel(), conditions, state, 3600.0,
+                DryingModel.HUMIDITY, 5.0);
+
+        assertTrue(advanced < 3600.0, "Integration sollte beim Schwellwert anhalten");
+        assertEquals(5.0, state[DryingModel.HUMIDITY], 1e-3, "Feuchtigkeit sollte genau den Schwellwert erreichen");
+    }
+
+    @Test // TC-005
+    void testCoarseTicksGiveSameResultAsFineTicks() {
+        ProgramManager fine = new ProgramManager();
+        fine.getState().setFileLogging(false);
+        ProgramManager coarse = new ProgramManager();
+        coarse.getState().setFileLogging(false);
+        fine.setPhysicalModel(new ExponentialDryingModel());
+        coarse.setPhysicalModel(new ExponentialDryingModel());
+        fine.startProgram("synthetic");
+        coarse.startProgram("synthetic");
+
+        for (int i = 0; i < 60; i++) {
+            fine.tick(1000);
+        }
+        coarse.tick(60_000);
+
+        assertEquals(fine.getState().getTemperature(), coarse.getState().getTemperature(), 1e-2,
+                "Temperatur sollte nicht von der Schrittweite abhängen");
+        assertEquals(fine.getState().getHumidity(), coarse.getState().getHumidity(), 1e-2,
+                "Feuchtigkeit sollte nicht von der Schrittweite abhängen");
+    }
+
+    @Test // TC-005, TC-009
+    void testLargeTickFinishesAtTargetHumidity() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.setPhysicalModel(new ExponentialDryingModel());
+        manager.startProgram("cotton");
+
+        manager.tick(3_600_000);
+
+        assertEquals(DryerState.ProgramStatus.COOLING, manager.getState().getStatus(), "Programm sollte abkühlen");
+        assertEquals(5.0, manager.getState().getHumidity(), 1e-3, "Wäsche sollte nicht übertrocknet werden");
+    }
+}
@@ -0,0 +1,157 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Testklasse für die dauerhafte Zyklushistorie
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-008: Ereignis- und Fehlerprotokollierung
+ */
+public class CycleHistoryStoreTest {
+
+    private static final String[] PROGRAMS = {"cotton", "synthetic", "wool"};
+
+    @TempDir
+    Path historyDirectory;
+
+    private static CycleHistoryStore.Cycle randomCycle(SplittableRandom random, int i) {
+        // Cycles end out of order of their start, like on a fleet
+        long startMs = i * 60_000L + random.nextLong(3_600_000L);
+        return new CycleHistoryStore.Cycle(PROGRAMS[random.nextInt(PROGRAMS.length)], startMs,
+                1_000L + random.nextInt(3_600_000), 40 + random.nextInt(40), random.nextInt(10),
+                random.nextInt(1000) / 1000.0, CycleHistoryStore.Outcome.values()[random.nextInt(3)]);
+    }
+
+    @Test // TC-008
+    void testCyclesSurviveReopening() throws IOException {
+        try (CycleHistoryStore store = CycleHistoryStore.open(historyDirectory)) {
+            store.append(new CycleHistoryStore.Cycle("cotton", 1000L, 3_600_000L, 75.0, 4.5, 1.25,
+                    CycleHistoryStore.Outcome.COMPLETED));
+            store.append(new CycleHistoryStore.Cycle("wool", 2000L, 60_000L, 30.0, 80.0, 0.05,
+                    CycleHistoryStore.Outcome.CANCELLED));
+        }
+
+        try (CycleHistoryStore store = CycleHistoryStore.open(historyDirectory)) {
+            assertEquals(2, store.size(), "Beide Zyklen sollten gespeichert sein");
+            List<CycleHistoryStore.Cycle> wool = store.find(0, Long.MAX_VALUE, "wool", 10);
+            assertEquals(1, wool.size(), "Nur ein Wolle-Zyklus sollte gefunden werden");
+            CycleHistoryStore.Cycle cycle = wool.get(0);
+            assertEquals(2000L, cycle.getStartMs(), "Startzeit sollte erhalten bleiben");
+            assertEquals(62_000L, cycle.getEndMs(), "Endzeit sollte erhalten bleiben");
+            assertEquals(80.0, cycle.getFinalHumidity(), 1e-6, "Restfeuchte sollte erhalten bleiben");
+            assertEquals(CycleHistoryStore.Outcome.CANCELLED, cycle.getOutcome(), "Ergebnis sollte erhalten bleiben");
+
+            store.append(new CycleHistoryStore.Cycle("synthetic", 3000L, 1L, 60.0, 5.0, 0.5,
+                    CycleHistoryStore.Outcome.FAILED));
+            assertEquals(3, store.summarize(0, Long.MAX_VALUE, null).getCount(), "Anhängen nach dem Öffnen sollte möglich sein");
+        }
+    }
+
+    @Test // TC-001
+    void testRangeAggregatesMatchFullScan() throws IOException {
+        int cycles = 3 * CycleHistoryStore.SEGMENT_RECORDS + 123;
+        CycleHistoryStore.Cycle[] all = new CycleHistoryStore.Cycle[cycles];
+        SplittableRandom random = new SplittableRandom(3);
+        try (CycleHistoryStore store = CycleHistoryStore.open(historyDirectory)) {
+            for (int i = 0; i < cycles; i++) {
+                all[i] = randomCycle(random, i);
+                store.append(all[i]);
+            }
+        }
+
+        try (CycleHistoryStore store = CycleHistoryStore.open(historyDirectory)) {
+            assertEquals(cycles, store.size(), "Alle Zyklen sollten über mehrere Segmente gespeichert sein");
+            long[][] ranges = {{0, Long.MAX_VALUE}, {1_000_000_000L, 5_000_000_000L}, {7_777_777L, 7_800_000L}};
+            for (long[] range : ranges) {
+                for (String program : new String[]{null, "cotton", "wool"}) {
+                    long count = 0;
+                    long completed = 0;
+                    double energy = 0;
+                    for (CycleHistoryStore.Cycle cycle : all) {
+                        if (cycle.getStartMs() >= range[0] && cycle.getStartMs() < range[1]
+                                && (program == null || program.equals(cycle.getProgram()))) {
+                            count++;
+                            energy += cycle.getEnergyKwh();
+                            completed += cycle.getOutcome() == CycleHistoryStore.Outcome.COMPLETED ? 1 : 0;
+                        }
+                    }
+                    CycleHistoryStore.Summary summary = store.summarize(range[0], range[1], program);
+                    assertEquals(count, summary.getCount(), "Anzahl sollte der vollständigen Suche entsprechen");
+                    assertEquals(completed, summary.getCount(CycleHistoryStore.Outcome.COMPLETED),
+                            "Abgeschlossene Zyklen sollten der vollständigen Suche entsprechen");
+                    assertEquals(energy, summary.getTotalKwh(), 1e-6 * Math.max(1, energy),
+                            "Energie sollte der vollständigen Suche entsprechen");
+                }
+            }
+            assertEquals(0, store.summarize(0, Long.MAX_VALUE, "unknown").getCount(), "Unbekanntes Programm sollte leer sein");
+        }
+    }
+
+    @Test // TC-008
+    void testDryerKeepsFinishedAndStoppedCycles() throws IOException {
+        try (CycleHistoryStore store = CycleHistoryStore.open(historyDirectory)) {
+            ProgramManager manager = new ProgramManager();
+            manager.getState().setFileLogging(false);
+            manager.setCycleHistory(store);
+
+            manager.startProgram("synthetic");
+            for (int i = 0; i < 6 * 3600 && manager.getState().getStatus() != DryerState.ProgramStatus.IDLE; i++) {
+                manager.tick(1000);
+            }
+            // The laundry is dry now, so a new program is only stopped before its first tick
+            manager.startProgram("wool");
+            manager.stopProgram();
+
+            List<CycleHistoryStore.Cycle> cycles = store.find(Long.MIN_VALUE, Long.MAX_VALUE, null, 10);
+            assertEquals(2, cycles.size(), "Beide Zyklen sollten festgehalten werden");
+            CycleHistoryStore.Cycle finished = cycles.get(0);
+            assertEquals("synthetic", finished.getProgram(), "Programm sollte festgehalten werden");
+            assertEquals(CycleHistoryStore.Outcome.COMPLETED, finished.getOutcome(), "Zyklus sollte abgeschlossen sein");
+            assertTrue(finished.getFinalHumidity() <= DryerSimulation.TARGET_HUMIDITY, "Wäsche sollte trocken sein");
+            assertTrue(finished.getPeakTemperature() > 50, "Spitzentemperatur sollte festgehalten werden");
+            assertTrue(finished.getEnergyKwh() > 0, "Energie sollte festgehalten werden");
+            assertEquals(CycleHistoryStore.Outcome.CANCELLED, cycles.get(1).getOutcome(), "Gestoppter Zyklus sollte abgebrochen sein");
+            assertEquals(0, cycles.get(1).getDurationMs(), "Dauer sollte der simulierten Zeit entsprechen");
+            assertTrue(finished.getDurationMs() > 60_000, "Dauer sollte den ganzen Zyklus umfassen");
+        }
+    }
+
+    @Test // TC-008
+    void testRestartRecordsCancelledCycleUnderItsOwnProgram() throws IOException {
+        try (CycleHistoryStore store = CycleHistoryStore.open(historyDirectory)) {
+            DryerState state = new DryerState();
+            state.setFileLogging(false);
+            DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+            simulation.setCycleHistory(store);
+
+            simulation.startProgram("cotton");
+            simulation.updateState(60_000);
+            simulation.startProgram("wool");
+
+            List<CycleHistoryStore.Cycle> cycles = store.find(Long.MIN_VALUE, Long.MAX_VALUE, null, 10);
+            assertEquals(1, cycles.size(), "Der unterbrochene Zyklus sollte festgehalten werden");
+            assertEquals("cotton", cycles.get(0).getProgram(), "Zyklus sollte unter seinem eigenen Programm stehen");
+            assertEquals(CycleHistoryStore.Outcome.CANCELLED, cycles.get(0).getOutcome(), "Zyklus sollte abgebrochen sein");
+            assertEquals("wool", state.getProgramName(), "Neues Programm sollte laufen");
+        }
+    }
+
+    @Test // TC-008
+    void testClosedStoreRejectsAppends() throws IOException {
+        CycleHistoryStore store = CycleHistoryStore.open(historyDirectory);
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.append(new CycleHistoryStore.Cycle("cotton", 0L, 0L,
+                0.0, 0.0, 0.0, CycleHistoryStore.Outcome.COMPLETED)), "Geschlossene Historie sollte nichts annehmen");
+    }
+}
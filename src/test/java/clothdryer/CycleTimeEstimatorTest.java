@@ -0,0 +1,98 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testklasse für die Monte-Carlo-Schätzung der Programmdauer
+ *
+ * Traceability:
+ * - TC-004: Anzeige Restlaufzeit
+ * - TC-005: Feuchtesensorintegration
+ */
+public class CycleTimeEstimatorTest {
+
+    private static final int RUNS = 200;
+
+    @Test // TC-004
+    void testSameSeedGivesSameDistribution() {
+        CycleTimeDistribution first = new CycleTimeEstimator(ProgramCatalog.DEFAULT, RUNS, 7L).estimate("synthetic");
+        CycleTimeDistribution second = new CycleTimeEstimator(ProgramCatalog.DEFAULT, RUNS, 7L).estimate("synthetic");
+
+        assertEquals(RUNS, first.getRuns(), "Anzahl der Läufe sollte stimmen");
+        for (int percentile : CycleTimeDistribution.TABLE_PERCENTILES) {
+            assertEquals(first.getCycleSeconds(percentile), second.getCycleSeconds(percentile),
+                    "Gleicher Seed sollte gleiche Perzentile liefern (P" + percentile + ")");
+        }
+    }
+
+    @Test // TC-004
+    void testPercentilesAreOrdered() {
+        CycleTimeDistribution distribution = new CycleTimeEstimator(ProgramCatalog.DEFAULT, RUNS, 1L).estimate("cotton");
+
+        int previous = 0;
+        for (int percentile : CycleTimeDistribution.TABLE_PERCENTILES) {
+            int cycle = distribution.getCycleSeconds(percentile);
+            assertTrue(cycle >= previous, "Perzentile sollten aufsteigend sein");
+            assertTrue(cycle >= distribution.getDryingSeconds(percentile), "Zyklus sollte Trocknung einschließen");
+            previous = cycle;
+        }
+        assertTrue(distribution.getCycleSeconds(90) > distribution.getCycleSeconds(10),
+                "Zufällige Bedingungen sollten streuen");
+        assertTrue(distribution.getCycleSeconds(100) <= ProgramCatalog.DEFAULT.get("cotton").getDurationSeconds() + 3600,
+                "Kein Lauf sollte hängen bleiben");
+    }
+
+    @Test // TC-004
+    void testEstimatesAreCachedPerProgram() {
+        CycleTimeEstimator estimator = new CycleTimeEstimator(ProgramCatalog.DEFAULT, 50, 3L);
+
+        CycleTimeDistribution distribution = estimator.estimateAsync("wool").join();
+
+        assertSame(distribution, estimator.estimateAsync("wool").join(), "Schätzung sollte zwischengespeichert sein");
+        assertSame(distribution, estimator.getIfReady("wool"), "Fertige Schätzung sollte verfügbar sein");
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate("unknown"),
+                "Unbekanntes Programm sollte abgelehnt werden");
+    }
+
+    @Test // TC-004
+    void testFailedEstimateIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        CycleTimeEstimator estimator = new CycleTimeEstimator(ProgramCatalog.DEFAULT, 20, 3L) {
+            @Override
+            public CycleTimeDistribution estimate(String programName) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Simulated failure");
+                }
+                return super.estimate(programName);
+            }
+        };
+
+        assertThrows(CompletionException.class, () -> estimator.estimateAsync("wool").join(),
+                "Erste Schätzung sollte fehlschlagen");
+        assertNull(estimator.getIfReady("wool"), "Fehlgeschlagene Schätzung sollte nicht verfügbar sein");
+        CycleTimeDistribution distribution = estimator.estimateAsync("wool").join();
+
+        assertEquals(2, attempts.get(), "Fehlgeschlagene Schätzung sollte wiederholt werden");
+        assertSame(distribution, estimator.getIfReady("wool"), "Wiederholte Schätzung sollte zwischengespeichert sein");
+    }
+
+    @Test // TC-005
+    void testNoisySensorStaysInRange() {
+        NoisyHumiditySensor sensor = new NoisyHumiditySensor(1.5, 3.0, new SplittableRandom(11L));
+
+        for (int i = 0; i < 1000; i++) {
+            double reading = sensor.read(i % 2 == 0 ? 0.0 : 100.0);
+            assertTrue(reading >= 0.0 && reading <= 100.0, "Messwert sollte zwischen 0 und 100 % liegen");
+        }
+        assertEquals(42.0, HumiditySensor.IDEAL.read(42.0), "Idealer Sensor sollte exakt messen");
+    }
+}
@@ -0,0 +1,139 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Testklasse für die Auswertung der Ereignisprotokolle
+ *
+ * Traceability:
+ * - TC-003: Türverriegelung
+ * - TC-008: Ereignis- und Fehlerprotokollierung
+ */
+public class DryerLogAnalyzerTest {
+
+    @TempDir
+    Path logDirectory;
+
+    private static String record(int second, String level, String message) {
+        return String.format("Juni 19, 2025 4:%02d:%02d PM clothdryer.DryerState logEvent%n%s: %s%n",
+                second / 60, second % 60, level, message);
+    }
+
+    private Path writeLog(String name, String... records) throws IOException {
+        Path file = logDirectory.resolve(name);
+        Files.writeString(file, String.join("", records));
+        return file;
+    }
+
+    private Path writeCycles() throws IOException {
+        return writeLog("dryerlog_20250619_160000.log",
+                record(0, "INFORMATION", "Door locked for program execution"),
+                record(0, "INFORMATION", "cotton program started"),
+                record(90, "INFORMATION", "Door unlocked"),
+                record(95, "WARNUNG", "Cannot open door: Temperature too high (60.0°C)"),
+                record(98, "WARNUNG", "Cannot open door: Temperature too high (59.0°C) [repeated 4 times, 16:01:36 - 16:01:38]"),
+                record(100, "INFORMATION", "Door unlocked"),
+                record(200, "INFORMATION", "Door locked for program execution"),
+                record(200, "INFORMATION", "wool program started"),
+                record(230, "INFORMATION", "Door unlocked"),
+                record(230, "INFORMATION", "Program stopped"),
+                record(300, "INFORMATION", "Door locked for program execution"),
+                record(300, "INFORMATION", "cotton program started"),
+                record(310, "SCHWERWIEGEND", "Overheating detected! Temperature: 100.5"),
+                record(311, "INFORMATION", "Door unlocked"),
+                record(400, "INFORMATION", "Door locked for program execution"),
+                record(400, "INFORMATION", "cotton program started"),
+                record(450, "INFORMATION", "Door unlocked"));
+    }
+
+    @Test // TC-008
+    void testReconstructsCycles() throws IOException {
+        writeCycles();
+        DryerLogAnalyzer.Result result = DryerLogAnalyzer.analyze(logDirectory);
+
+        assertEquals(17, result.getRecords(), "Alle Ereignisse sollten gelesen werden");
+        List<DryerLogAnalyzer.Cycle> cycles = result.getCycles();
+        assertEquals(4, cycles.size(), "Vier Zyklen sollten erkannt werden");
+        assertEquals(CycleHistoryStore.Outcome.COMPLETED, cycles.get(0).getOutcome(), "Erster Zyklus sollte abgeschlossen sein");
+        assertEquals(90_000, cycles.get(0).getDryingEndMs() - cycles.get(0).getStartMs(), "Trocknungsdauer bis zur Entriegelung");
+        assertEquals(CycleHistoryStore.Outcome.CANCELLED, cycles.get(1).getOutcome(), "Gestoppter Zyklus sollte abgebrochen sein");
+        assertEquals(CycleHistoryStore.Outcome.FAILED, cycles.get(2).getOutcome(), "Überhitzung sollte den Zyklus scheitern lassen");
+        assertEquals(CycleHistoryStore.Outcome.COMPLETED, cycles.get(3).getOutcome(), "Entriegelung nach Fehler gehört nicht zum nächsten Zyklus");
+        assertEquals(50_000, cycles.get(3).getDryingEndMs() - cycles.get(3).getStartMs(), "Trocknungsdauer des letzten Zyklus");
+
+        DryerLogAnalyzer.ProgramStatistics cotton = result.getPrograms().get("cotton");
+        assertEquals(3, cotton.getCycles(), "Drei Baumwoll-Zyklen");
+        assertEquals(70_000, cotton.getMeanDryingMs(), "Mittlere Trocknungsdauer");
+        assertEquals(50_000, cotton.getMinDryingMs(), "Kürzeste Trocknungsdauer");
+        assertEquals(3, cotton.getDoorLocks(), "Verriegelungen sollten dem Programm zugeordnet werden");
+        assertEquals(5, cotton.getBlockedDoorOpenings(), "Verweigertes Öffnen sollte samt Wiederholungen gezählt werden");
+        assertEquals(1, cotton.getOverheats(), "Überhitzung sollte gezählt werden");
+        assertEquals(-1, result.getPrograms().get("wool").getMeanDryingMs(), "Abgebrochene Zyklen haben keine Trocknungsdauer");
+    }
+
+    @Test // TC-003
+    void testSmallWindowsGiveSameResult() throws IOException {
+        Path file = writeCycles();
+        DryerLogAnalyzer.Result whole = DryerLogAnalyzer.analyze(List.of(file));
+        DryerLogAnalyzer.Result windowed = DryerLogAnalyzer.analyze(List.of(file), 100);
+
+        assertEquals(whole.getRecords(), windowed.getRecords(), "Fenstergrenzen sollten keine Ereignisse verlieren");
+        assertEquals(whole.getCycles().size(), windowed.getCycles().size(), "Fenstergrenzen sollten keine Zyklen verlieren");
+        assertEquals(whole.getPrograms().get("cotton").getMeanDryingMs(), windowed.getPrograms().get("cotton").getMeanDryingMs(),
+                "Fenstergrenzen sollten die Dauer nicht ändern");
+    }
+
+    @Test // TC-008
+    void testMergesFilesAndKeepsOpenCycles() throws IOException {
+        writeLog("dryerlog_20250619_170000.log",
+                record(0, "INFO", "synthetic program started"),
+                record(60, "INFO", "Door unlocked"),
+                record(70, "INFO", "synthetic program started"));
+        writeLog("dryerlog_20250619_180000.log",
+                record(0, "INFO", "synthetic program started"),
+                record(120, "INFO", "Door unlocked"));
+        DryerLogAnalyzer.Result result = DryerLogAnalyzer.analyze(logDirectory);
+
+        assertEquals(2, result.getFiles(), "Beide Dateien sollten gelesen werden");
+        DryerLogAnalyzer.ProgramStatistics synthetic = result.getPrograms().get("synthetic");
+        assertEquals(3, synthetic.getCycles(), "Zyklen beider Dateien sollten zusammengefasst werden");
+        assertEquals(2, synthetic.getCount(CycleHistoryStore.Outcome.COMPLETED), "Zwei Zyklen sollten abgeschlossen sein");
+        assertEquals(90_000, synthetic.getMeanDryingMs(), "Mittlere Dauer über beide Dateien");
+        assertNull(result.getCycles().get(1).getOutcome(), "Am Dateiende laufender Zyklus bleibt offen");
+    }
+
+    @Test // TC-003
+    void testDoorLockedWhileCoolingEndsDryingAtMarker() throws IOException {
+        writeLog("dryerlog_20250619_190000.log",
+                record(0, "INFO", "Door locked for program execution"),
+                record(0, "INFO", "cotton program started"),
+                record(80, "INFO", "Drying finished, cooling down"),
+                record(140, "INFO", "Door unlocked"),
+                record(200, "INFO", "Door locked for program execution"),
+                record(200, "INFO", "cotton program started"),
+                record(240, "INFO", "Drying finished, cooling down"),
+                record(240, "INFO", "Door unlocked"),
+                record(300, "INFO", "Door locked for program execution"),
+                record(300, "INFO", "cotton program started"),
+                record(330, "INFO", "Door unlocked"),
+                record(330, "INFO", "Program stopped"));
+        DryerLogAnalyzer.Result result = DryerLogAnalyzer.analyze(logDirectory);
+
+        List<DryerLogAnalyzer.Cycle> cycles = result.getCycles();
+        assertEquals(3, cycles.size(), "Drei Zyklen sollten erkannt werden");
+        assertEquals(80_000, cycles.get(0).getDryingEndMs() - cycles.get(0).getStartMs(),
+                "Trocknungsende sollte die Meldung sein, nicht die Entriegelung nach dem Abkühlen");
+        assertEquals(CycleHistoryStore.Outcome.COMPLETED, cycles.get(1).getOutcome(), "Kühl beendeter Zyklus sollte abgeschlossen sein");
+        assertEquals(40_000, cycles.get(1).getDryingEndMs() - cycles.get(1).getStartMs(), "Trocknungsdauer des zweiten Zyklus");
+        assertEquals(CycleHistoryStore.Outcome.CANCELLED, cycles.get(2).getOutcome(),
+                "Entriegelung beim Stoppen gehört nicht zum vorigen Abkühlen");
+    }
+}
@@ -2,6 +2,7 @@ package clothdryer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +28,7 @@ public class DryerSimulationTest {
     @BeforeEach
     void setUp() {
         dryerState = new DryerState();
+        dryerState.setFileLogging(false);
         safetyModule = new SafetyModule(dryerState);
         simulation = new DryerSimulation(dryerState, safetyModule);
     }
@@ -94,6 +96,14 @@ public class DryerSimulationTest {
         assertNotEquals(syntheticTime, woolTime, "Laufzeit für Synthetik und Wolle sollte unterschiedlich sein");
     }
 
+    @Test // TC-001
+    void testUnknownProgramIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> simulation.startProgram("bogus"),
+                "Unbekanntes Programm sollte abgelehnt werden");
+        assertEquals(DryerState.ProgramStatus.IDLE, dryerState.getStatus(), "Trockner sollte IDLE bleiben");
+        assertEquals(0, dryerState.getRemainingSeconds(), "Restzeit sollte unverändert bleiben");
+    }
+
     @Test // TC-009
     void testProgramCompletion() {
         dryerState.setProgramName("wool");
@@ -0,0 +1,82 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für die Energieerfassung
+ *
+ * Traceability:
+ * - TC-002: Start- und Stop-Logik
+ * - TC-009: Abkühlfunktion
+ */
+public class EnergyLedgerTest {
+
+    private static final double KWH_PER_WATT_SECOND = 1.0 / 3.6e6;
+
+    @Test // TC-002
+    void testHeatingTickUsesHeaterAndMotor() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.startProgram("cotton");
+        manager.tick(1000);
+
+        double expected = (EnergyMeter.HEATER_POWER_W + EnergyMeter.MOTOR_POWER_W) * KWH_PER_WATT_SECOND;
+        assertEquals(expected, manager.getEnergyMeter().getCycleKwh(), 1e-12, "Aufheizen sollte volle Leistung brauchen");
+        assertEquals(1000, manager.getEnergyMeter().getCycleHeaterOnMs(), "Heizzeit sollte gezählt werden");
+    }
+
+    @Test // TC-002
+    void testHoldingPowerAtTargetTemperature() {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        state.setTemperature(75.0);
+        EnergyLedger ledger = new EnergyLedger();
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state), new EnergyMeter(ledger));
+        simulation.startProgram("cotton");
+        simulation.updateState(1000);
+
+        double expected = (EnergyMeter.HOLDING_POWER_W + EnergyMeter.MOTOR_POWER_W) * KWH_PER_WATT_SECOND;
+        assertEquals(1000, EnergyMeter.HOLDING_POWER_W, "Haltleistung sollte 40% der Heizleistung sein");
+        assertEquals(expected, ledger.getTotalKwh(), 1e-12, "Bei Zieltemperatur sollte nur nachgeheizt werden");
+    }
+
+    @Test // TC-002, TC-009
+    void testFleetLedgerSumsCyclesPerProgram() {
+        DryerFleet fleet = new DryerFleet(4);
+        for (int i = 0; i < fleet.size(); i++) {
+            fleet.get(i).getState().setFileLogging(false);
+        }
+        fleet.startMixed("cotton", "wool");
+        while (fleet.countByStatus(DryerState.ProgramStatus.IDLE) < fleet.size()) {
+            fleet.tick(1000);
+        }
+
+        EnergyLedger ledger = fleet.getEnergyLedger();
+        assertEquals(2, ledger.getProgram("cotton").getCycles(), "Zwei Baumwollzyklen erwartet");
+        assertEquals(2, ledger.getProgram("wool").getCycles(), "Zwei Wollzyklen erwartet");
+        assertEquals(4, ledger.getCompletedCycles(), "Alle Zyklen sollten abgeschlossen sein");
+        double perDryer = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            perDryer += fleet.get(i).getEnergyMeter().getLastCycleKwh();
+        }
+        assertEquals(perDryer, ledger.getTotalKwh(), 1e-9, "Flottensumme sollte den Einzelzyklen entsprechen");
+        assertEquals(ledger.getTotalKwh() * EnergyLedger.DEFAULT_PRICE_PER_KWH, ledger.getTotalCost(), 1e-9,
+                "Kosten sollten aus dem Strompreis folgen");
+    }
+
+    @Test // TC-002
+    void testStopEndsCycle() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.startProgram("synthetic");
+        manager.tick(1000);
+        manager.stopProgram();
+        double afterStop = manager.getEnergyMeter().getLedger().getTotalKwh();
+        manager.tick(1000);
+
+        assertEquals(afterStop, manager.getEnergyMeter().getLedger().getTotalKwh(), "Nach dem Stopp sollte nichts mehr gezählt werden");
+        assertFalse(manager.getEnergyMeter().isCycleActive(), "Zyklus sollte beendet sein");
+    }
+}
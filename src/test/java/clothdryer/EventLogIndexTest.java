@@ -0,0 +1,142 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+
+/**
+ * Testklasse für den Index über die Ereignisprotokolle
+ *
+ * Traceability:
+ * - TC-008: Ereignis- und Fehlerprotokollierung
+ */
+public class EventLogIndexTest {
+
+    @TempDir
+    Path logDirectory;
+
+    private static String record(int second, String level, String message) {
+        return String.format("Juni 19, 2025 4:%02d:%02d PM clothdryer.DryerState logEvent%n%s: %s%n",
+                second / 60, second % 60, level, message);
+    }
+
+    private Path writeLog(int records) throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            log.append(record(i, i % 10 == 0 ? "WARNUNG" : "INFORMATION", "event " + i));
+        }
+        Path file = logDirectory.resolve("dryerlog_20250619_160000.log");
+        Files.writeString(file, log);
+        return file;
+    }
+
+    @Test // TC-008
+    void testParsesGermanLogRecord() throws IOException {
+        Files.writeString(logDirectory.resolve("dryerlog_20250619_163713.log"),
+                record(0, "WARNUNG", "Cannot open door: Door is locked"));
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        EventLogIndex.View view = index.view(EnumSet.allOf(DryerState.EventType.class), Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(1, view.size(), "Ein Ereignis sollte erkannt werden");
+        DryerState.DryerEvent event = view.get(0);
+        assertEquals(DryerState.EventType.WARNING, event.getType(), "WARNUNG sollte als Warnung erkannt werden");
+        assertEquals("Cannot open door: Door is locked", event.getMessage(), "Nachricht sollte vollständig sein");
+        assertEquals(LocalDateTime.of(2025, 6, 19, 16, 0, 0), event.getTimestamp(), "PM sollte berücksichtigt werden");
+    }
+
+    @Test // TC-008
+    void testFiltersByTypeAndTimeAcrossBlocks() throws IOException {
+        writeLog(1000);
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        long base = LocalDateTime.of(2025, 6, 19, 16, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+
+        assertEquals(1000, index.getEventCount(), "Alle Ereignisse sollten indexiert sein");
+        EventLogIndex.View warnings = index.view(EnumSet.of(DryerState.EventType.WARNING), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(100, warnings.size(), "Jedes zehnte Ereignis ist eine Warnung");
+        assertEquals("event 990", warnings.get(99).getMessage(), "Letzte Warnung sollte gefunden werden");
+
+        EventLogIndex.View range = index.view(EnumSet.of(DryerState.EventType.INFO), base + 300_000, base + 599_000);
+        assertEquals(270, range.size(), "Nur Info-Ereignisse im Zeitraum sollten enthalten sein");
+        assertEquals("event 301", range.get(0).getMessage(), "Erstes Ereignis im Zeitraum");
+        assertEquals("event 599", range.get(269).getMessage(), "Letztes Ereignis im Zeitraum");
+    }
+
+    @Test // TC-008
+    void testRefreshPicksUpAppendedEvents() throws IOException {
+        Path file = writeLog(300);
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        Files.writeString(file, record(300, "SCHWERWIEGEND", "Overheating"), StandardOpenOption.APPEND);
+        index.refresh();
+
+        assertEquals(301, index.getEventCount(), "Angehängtes Ereignis sollte indexiert werden");
+        EventLogIndex.View errors = index.view(EnumSet.of(DryerState.EventType.ERROR), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(1, errors.size(), "Fehler sollte gefunden werden");
+        assertEquals("Overheating", errors.get(0).getMessage(), "Fehlermeldung sollte übernommen werden");
+    }
+
+    @Test // TC-008
+    void testCancelledRefreshKeepsPreviousIndex() throws IOException {
+        Path file = writeLog(300);
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        EventLogIndex.View before = index.view(EnumSet.allOf(DryerState.EventType.class), Long.MIN_VALUE, Long.MAX_VALUE);
+        Files.writeString(file, record(300, "SCHWERWIEGEND", "Overheating"), StandardOpenOption.APPEND);
+
+        assertThrows(InterruptedIOException.class, () -> index.refresh(() -> true), "Abgebrochener Scan sollte enden");
+        assertEquals(300, index.getEventCount(), "Abgebrochener Scan sollte den Index nicht ändern");
+        index.refresh();
+        assertEquals(301, index.getEventCount(), "Nächster Scan sollte das Ereignis finden");
+        assertEquals(300, before.size(), "Bestehende Ansicht sollte unverändert bleiben");
+        assertEquals("event 299", before.get(299).getMessage(), "Bestehende Ansicht liest ihre Blockversion");
+    }
+
+    @Test // TC-008
+    void testGetIfLoadedReadsNoFile() throws IOException {
+        writeLog(1000);
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        EventLogIndex.View view = index.view(EnumSet.allOf(DryerState.EventType.class), Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertNull(view.getIfLoaded(600), "Nicht gelesener Block sollte nicht geliefert werden");
+        assertEquals("event 600", view.get(600).getMessage(), "Block sollte von der Platte gelesen werden");
+        assertNotNull(view.getIfLoaded(601), "Gelesener Block sollte aus dem Cache kommen");
+        assertEquals("event 601", view.getIfLoaded(601).getMessage(), "Ereignis aus dem Cache sollte stimmen");
+    }
+
+    @Test // TC-008
+    void testRefreshDropsRemovedAndRescansTruncatedFiles() throws IOException {
+        Path first = writeLog(300);
+        Path second = logDirectory.resolve("dryerlog_20250619_170000.log");
+        Files.writeString(second, record(0, "WARNUNG", "second run") + record(1, "INFORMATION", "more"));
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        assertEquals(302, index.getEventCount(), "Beide Dateien sollten indexiert sein");
+
+        Files.delete(first);
+        index.refresh();
+        assertEquals(2, index.getEventCount(), "Gelöschte Datei sollte aus dem Index verschwinden");
+        EventLogIndex.View all = index.view(EnumSet.allOf(DryerState.EventType.class), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals("second run", all.get(0).getMessage(), "Verbleibende Datei sollte lesbar bleiben");
+
+        Files.writeString(second, record(2, "SCHWERWIEGEND", "truncated"));
+        index.refresh();
+        all = index.view(EnumSet.allOf(DryerState.EventType.class), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(1, all.size(), "Gekürzte Datei sollte neu indexiert werden");
+        assertEquals("truncated", all.get(0).getMessage(), "Neuer Inhalt sollte gelesen werden");
+    }
+}
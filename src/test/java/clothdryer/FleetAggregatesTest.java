@@ -0,0 +1,108 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * Testklasse für die laufend aktualisierten Kennzahlen einer Flotte
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-007: Laufzeit- und Restzeitberechnung
+ */
+public class FleetAggregatesTest {
+
+    private static double nearestRank(double[] sorted, double percentile) {
+        int rank = Math.max(1, (int) Math.ceil(percentile / 100.0 * sorted.length));
+        return sorted[rank - 1];
+    }
+
+    private static void assertMatchesScan(DryerFleet fleet, String when) {
+        FleetAggregates aggregates = fleet.getAggregates();
+        double[] temperatures = new double[fleet.size()];
+        double[] remaining = new double[fleet.size()];
+        int running = 0;
+        double temperatureSum = 0;
+        double humiditySum = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            DryerState state = fleet.get(i).getState();
+            temperatures[i] = Math.round(state.getTemperature() / FleetAggregates.TEMPERATURE_RESOLUTION)
+                    * FleetAggregates.TEMPERATURE_RESOLUTION;
+            temperatureSum += state.getTemperature();
+            humiditySum += state.getHumidity();
+            if (state.getStatus() == DryerState.ProgramStatus.RUNNING) {
+                remaining[running++] = state.getRemainingSeconds();
+            }
+        }
+        for (DryerState.ProgramStatus status : DryerState.ProgramStatus.values()) {
+            int expected = 0;
+            for (int i = 0; i < fleet.size(); i++) {
+                if (fleet.get(i).getState().getStatus() == status) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, aggregates.count(status), "Anzahl " + status + " sollte stimmen " + when);
+        }
+        assertEquals(temperatureSum / fleet.size(), aggregates.getMeanTemperature(), 1e-3,
+                "Mittlere Temperatur sollte stimmen " + when);
+        assertEquals(humiditySum / fleet.size(), aggregates.getMeanHumidity(), 1e-3,
+                "Mittlere Feuchte sollte stimmen " + when);
+
+        Arrays.sort(temperatures);
+        double[] runningRemaining = Arrays.copyOf(remaining, running);
+        Arrays.sort(runningRemaining);
+        for (double percentile : new double[]{0, 50, 95, 99, 100}) {
+            assertEquals(nearestRank(temperatures, percentile), aggregates.getTemperaturePercentile(percentile), 1e-9,
+                    "Temperatur-Perzentil " + percentile + " sollte stimmen " + when);
+            int expected = running == 0 ? -1 : (int) nearestRank(runningRemaining, percentile);
+            assertEquals(expected, aggregates.getRemainingSecondsPercentile(percentile),
+                    "Restzeit-Perzentil " + percentile + " sollte stimmen " + when);
+        }
+    }
+
+    @Test // TC-007
+    void testAggregatesFollowTicksAndCommands() {
+        DryerFleet fleet = new DryerFleet(2000);
+        for (int i = 0; i < fleet.size(); i++) {
+            fleet.get(i).getState().setFileLogging(false);
+        }
+        assertMatchesScan(fleet, "vor dem Start");
+        assertEquals(-1, fleet.getAggregates().getRemainingSecondsPercentile(50), "Ohne laufende Trockner gibt es keine Restzeit");
+
+        fleet.startMixed("cotton", "synthetic", "wool", "cotton", "wool");
+        assertMatchesScan(fleet, "nach dem Start");
+        for (int t = 0; t < 400; t++) {
+            fleet.tick(t % 7 == 0 ? 3_000 : 10_000);
+            if (t == 20) {
+                for (int i = 0; i < fleet.size(); i += 13) {
+                    fleet.get(i).stopProgram();
+                }
+            }
+            if (t % 50 == 0) {
+                assertMatchesScan(fleet, "nach Tick " + t);
+            }
+        }
+        assertMatchesScan(fleet, "am Ende");
+    }
+
+    @Test // TC-001
+    void testHistogramFindsRanksAcrossGroups() {
+        FleetAggregates.Histogram histogram = new FleetAggregates.Histogram(1000);
+        assertEquals(-1, histogram.binAt(50), "Leeres Histogramm hat kein Perzentil");
+        histogram.add(3, 1);
+        histogram.add(500, 2);
+        histogram.add(999, 1);
+        assertEquals(3, histogram.binAt(0), "Minimum sollte gefunden werden");
+        assertEquals(3, histogram.binAt(25), "Erstes Viertel liegt im ersten Bin");
+        assertEquals(500, histogram.binAt(50), "Median liegt in einer späteren Gruppe");
+        assertEquals(999, histogram.binAt(100), "Maximum sollte im letzten Bin liegen");
+        histogram.add(500, -2);
+        assertEquals(3, histogram.binAt(50), "Entfernte Werte zählen nicht mehr");
+        assertEquals(999, histogram.binAt(75), "Oberes Viertel liegt im letzten Bin");
+        assertThrows(IllegalArgumentException.class, () -> new FleetAggregates(1).getTemperaturePercentile(101),
+                "Perzentile über 100 sind ungültig");
+    }
+}
@@ -0,0 +1,104 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Testklasse für die Filterkette der Feuchtemessung
+ *
+ * Traceability:
+ * - TC-004: Anzeige Restlaufzeit
+ * - TC-005: Feuchtesensorintegration
+ */
+public class HumidityFilterChainTest {
+
+    @Test // TC-005
+    void testMedianRemovesSingleOutlier() {
+        HumidityFilterChain.Median median = new HumidityFilterChain.Median(5);
+        median.reset(50.0);
+
+        assertEquals(50.0, median.apply(0.0), "Einzelner Ausreißer sollte unterdrückt werden");
+        assertEquals(50.0, median.apply(49.0), "Median sollte stabil bleiben");
+        assertEquals(49.0, median.apply(48.0), "Median sollte dem Verlauf folgen");
+        assertThrows(IllegalArgumentException.class, () -> new HumidityFilterChain.Median(4),
+                "Gerade Fenstergröße sollte abgelehnt werden");
+    }
+
+    @Test // TC-005
+    void testChainConvergesAfterReset() {
+        HumidityFilterChain chain = HumidityFilterChain.standard();
+        chain.reset(80.0);
+        assertEquals(80.0, chain.apply(80.0), 1e-9, "Nach dem Zurücksetzen sollte der Wert übernommen werden");
+
+        double value = 0;
+        for (int i = 0; i < 50; i++) {
+            value = chain.apply(20.0);
+        }
+        assertEquals(20.0, value, 0.01, "Filter sollte gegen einen konstanten Messwert konvergieren");
+
+        chain.reset(100.0);
+        assertEquals(100.0, chain.apply(100.0), 1e-9, "Zurücksetzen sollte die Historie verwerfen");
+    }
+
+    @Test // TC-005
+    void testQuantizedSensorReadsInSteps() {
+        NoisyHumiditySensor sensor = new NoisyHumiditySensor(0.0, 0.0, 0.5, new SplittableRandom(1L));
+
+        assertEquals(42.5, sensor.read(42.4), 1e-9, "Messwert sollte auf die Auflösung gerundet werden");
+        assertEquals(100.0, sensor.read(100.2), 1e-9, "Messwert sollte auf 100 % begrenzt werden");
+    }
+
+    @Test // TC-004
+    void testFilteredRemainingTimeIsSteadier() {
+        int rawChange = remainingTimeVariation(HumidityFilter.NONE);
+        int filteredChange = remainingTimeVariation(HumidityFilterChain.standard());
+
+        assertTrue(filteredChange < rawChange / 3,
+                "Gefilterte Restlaufzeit sollte weniger springen (" + filteredChange + " vs. " + rawChange + ")");
+    }
+
+    @Test // TC-005
+    void testNoisySensorDoesNotEndProgramEarly() {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        simulation.setHumiditySensor(new NoisyHumiditySensor(0.0, 1.0, 0.5, new SplittableRandom(3L)));
+        simulation.setHumidityFilter(HumidityFilterChain.standard());
+        simulation.startProgram("cotton");
+
+        while (state.getStatus() == DryerState.ProgramStatus.RUNNING) {
+            simulation.updateState(1000);
+        }
+        assertTrue(state.getHumidity() <= DryerSimulation.TARGET_HUMIDITY + 1.0,
+                "Programm sollte erst bei Erreichen der Zielfeuchte enden");
+    }
+
+    /**
+     * Runs a cotton program with a noisy sensor and sums up how much the remaining
+     * time changed from tick to tick, once the first estimate has settled.
+     */
+    private static int remainingTimeVariation(HumidityFilter filter) {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        simulation.setHumiditySensor(new NoisyHumiditySensor(0.0, 1.0, 0.5, new SplittableRandom(5L)));
+        simulation.setHumidityFilter(filter);
+        simulation.startProgram("cotton");
+
+        for (int i = 0; i < 20; i++) {
+            simulation.updateState(1000);
+        }
+        int variation = 0;
+        int previous = state.getRemainingSeconds();
+        while (state.getStatus() == DryerState.ProgramStatus.RUNNING) {
+            simulation.updateState(1000);
+            variation += Math.abs(state.getRemainingSeconds() - previous);
+            previous = state.getRemainingSeconds();
+        }
+        return variation;
+    }
+}
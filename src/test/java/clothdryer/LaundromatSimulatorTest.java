@@ -0,0 +1,49 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für die Warteschlangensimulation eines Waschsalons
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-009: Abkühlfunktion
+ */
+public class LaundromatSimulatorTest {
+
+    @Test // TC-001
+    void testMoreDryersShortenWaits() {
+        LaundromatSimulator.Result few = new LaundromatSimulator(4, 30.0).simulate(7, 1L);
+        LaundromatSimulator.Result many = new LaundromatSimulator(8, 30.0).simulate(7, 1L);
+
+        assertTrue(few.getCustomers() > 2500, "Eine Woche sollte tausende Kunden haben");
+        assertTrue(many.getWaitSeconds(90) < few.getWaitSeconds(90), "Mehr Trockner sollten Wartezeiten verkürzen");
+        assertTrue(many.getUtilisation() < few.getUtilisation(), "Mehr Trockner sollten weniger ausgelastet sein");
+        assertTrue(many.getUtilisation() > 0 && many.getUtilisation() <= 1, "Auslastung sollte zwischen 0 und 1 liegen");
+        assertTrue(many.getWaitSeconds(50) <= many.getWaitSeconds(95), "Perzentile sollten aufsteigend sein");
+    }
+
+    @Test // TC-001
+    void testSameSeedIsReproducible() {
+        LaundromatSimulator.Result first = new LaundromatSimulator(5, 20.0).simulate(3, 9L);
+        LaundromatSimulator.Result second = new LaundromatSimulator(5, 20.0).simulate(3, 9L);
+
+        assertEquals(first.getCustomers(), second.getCustomers(), "Gleicher Seed sollte gleiche Kunden liefern");
+        assertEquals(first.getWaitSeconds(99), second.getWaitSeconds(99), "Gleicher Seed sollte gleiche Wartezeiten liefern");
+    }
+
+    @Test // TC-009
+    void testCustomersWaitForDrumToCoolDown() {
+        double[] cottonOnly = {1.0, 0.0, 0.0};
+        LaundromatSimulator.Result immediate = new LaundromatSimulator(10, 5.0, cottonOnly, 60, 60, 0).simulate(2, 3L);
+
+        assertEquals(immediate.getCustomers(), immediate.getDoorWaits(),
+                "Wer sofort zurückkommt, sollte auf das Abkühlen warten");
+        assertTrue(immediate.getMeanDoorWaitSeconds() > 0, "Abkühlzeit sollte größer als null sein");
+        assertThrows(IllegalArgumentException.class, () -> new LaundromatSimulator(0, 5.0),
+                "Ein Salon ohne Trockner sollte abgelehnt werden");
+    }
+}
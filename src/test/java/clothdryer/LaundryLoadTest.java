@@ -0,0 +1,60 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für gemischte Wäscheladungen
+ *
+ * Traceability:
+ * - TC-005: Feuchtesensorintegration
+ * - TC-007: Neue Wäsche einlegen
+ */
+public class LaundryLoadTest {
+
+    @Test // TC-005
+    void testHumidityIsMassWeighted() {
+        LaundryLoad load = new LaundryLoad();
+        load.addGarment(LaundryLoad.Fabric.COTTON, 3.0);
+        load.addGarment(LaundryLoad.Fabric.WOOL, 1.0);
+        load.configure(DryerSimulation.MAX_TEMP_WOOL);
+
+        load.dry(100);
+
+        // Baumwolle: 0.8 * 45 / 75 = 0.48 %/s, Wolle: 0.3 %/s
+        assertEquals(52.0, load.getMoisture(0), 1e-4, "Baumwolle sollte langsamer als im eigenen Programm trocknen");
+        assertEquals(70.0, load.getMoisture(1), 1e-4, "Wolle sollte mit ihrer eigenen Rate trocknen");
+        assertEquals((3.0 * 52.0 + 1.0 * 70.0) / 4.0, load.getHumidity(), 1e-4, "Gesamtfeuchte sollte massegewichtet sein");
+    }
+
+    @Test // TC-005
+    void testDryGarmentsStopAtZero() {
+        LaundryLoad load = LaundryLoad.random(500, 1L);
+        load.configure(DryerSimulation.MAX_TEMP_COTTON);
+
+        load.dry(10_000);
+
+        assertEquals(0, load.getWetCount(), "Alle Teile sollten trocken sein");
+        assertEquals(0.0, load.getHumidity(), "Gesamtfeuchte sollte 0 sein");
+    }
+
+    @Test // TC-007
+    void testMixedLoadDriesInSimulation() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.tryOpenDoor();
+        assertTrue(manager.loadNewLaundry(LaundryLoad.random(300, 7L)), "Ladung sollte bei offener Tür möglich sein");
+        assertEquals(100.0, manager.getState().getHumidity(), 1e-9, "Neue Ladung sollte nass sein");
+        manager.closeDoor();
+        manager.startProgram("wool");
+
+        for (int i = 0; i < 60; i++) {
+            manager.tick(1000);
+        }
+
+        LaundryLoad load = manager.getSimulation().getLoad();
+        assertEquals(load.getHumidity(), manager.getState().getHumidity(), 1e-9, "Anzeige sollte der Ladung folgen");
+        assertTrue(load.getHumidity() < 100.0, "Ladung sollte trocknen");
+    }
+}
@@ -0,0 +1,28 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für die Startparameter der Anwendung
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ */
+public class MainTest {
+
+    @Test // TC-001
+    void testParsesFleetSize() {
+        assertEquals(0, Main.parseFleetSize(null), "Ohne Parameter sollte keine Flotte simuliert werden");
+        assertEquals(10_000, Main.parseFleetSize("10000"), "Flottengröße sollte gelesen werden");
+        assertEquals(64, Main.parseFleetSize(" 64 "), "Leerzeichen sollten ignoriert werden");
+    }
+
+    @Test // TC-001
+    void testRejectsInvalidFleetSize() {
+        assertThrows(IllegalArgumentException.class, () -> Main.parseFleetSize("viele"), "Keine Zahl sollte abgelehnt werden");
+        assertThrows(IllegalArgumentException.class, () -> Main.parseFleetSize("0"), "Leere Flotte sollte abgelehnt werden");
+        assertThrows(IllegalArgumentException.class, () -> Main.parseFleetSize("-5"), "Negative Größe sollte abgelehnt werden");
+    }
+}
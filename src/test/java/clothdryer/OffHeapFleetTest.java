@@ -0,0 +1,152 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Testklasse für die Flotte mit Zustand außerhalb des Heaps
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-002: Start- und Stop-Logik
+ * - TC-007: Laufzeit- und Restzeitberechnung
+ */
+public class OffHeapFleetTest {
+
+    private static final int LARGE_FLEET = 200_000;
+
+    @TempDir
+    Path directory;
+
+    private static void assertSameDryers(DryerFleet expected, OffHeapFleet actual, String when) {
+        for (int i = 0; i < expected.size(); i++) {
+            DryerState state = expected.get(i).getState();
+            String dryer = "bei Trockner " + i + " " + when;
+            assertEquals(state.getStatus(), actual.getStatus(i), "Status sollte übereinstimmen " + dryer);
+            assertEquals(state.getTemperature(), actual.getTemperature(i), "Temperatur sollte bitgenau übereinstimmen " + dryer);
+            assertEquals(state.getHumidity(), actual.getHumidity(i), "Feuchte sollte bitgenau übereinstimmen " + dryer);
+            assertEquals(state.getRemainingSeconds(), actual.getRemainingSeconds(i), "Restzeit sollte übereinstimmen " + dryer);
+            assertEquals(state.isDoorClosed(), actual.isDoorClosed(i), "Türzustand sollte übereinstimmen " + dryer);
+            assertEquals(state.isDoorLocked(), actual.isDoorLocked(i), "Türverriegelung sollte übereinstimmen " + dryer);
+            assertEquals(state.getProgramName(), actual.getProgramName(i), "Programm sollte übereinstimmen " + dryer);
+        }
+    }
+
+    @Test // TC-007
+    void testKernelMatchesDryerSimulation() {
+        int size = 300;
+        DryerFleet reference = new DryerFleet(size);
+        for (int i = 0; i < size; i++) {
+            reference.get(i).getState().setFileLogging(false);
+        }
+        OffHeapFleet fleet = new OffHeapFleet(size);
+        assertSameDryers(reference, fleet, "vor dem Start");
+
+        reference.startMixed("cotton", "synthetic", "wool");
+        fleet.startMixed("cotton", "synthetic", "wool");
+        for (int t = 0; t < 3000; t++) {
+            int step = t % 3 == 0 ? 1500 : 1000;
+            reference.tick(step);
+            fleet.tick(step);
+            if (t == 60) {
+                for (int i = 0; i < size; i += 7) {
+                    reference.get(i).stopProgram();
+                    fleet.stopProgram(i);
+                }
+            }
+            if (t == 400) {
+                // Stopped dryers have cooled down: reload and restart them
+                for (int i = 0; i < size; i += 7) {
+                    assertEquals(reference.get(i).tryOpenDoor(), fleet.tryOpenDoor(i), "Tür öffnen sollte gleich ausgehen");
+                    assertEquals(reference.get(i).loadNewLaundry(), fleet.loadNewLaundry(i), "Beladen sollte gleich ausgehen");
+                    reference.get(i).closeDoor();
+                    fleet.closeDoor(i);
+                    reference.get(i).startProgram("wool");
+                    fleet.startProgram(i, "wool");
+                }
+            }
+            if (t % 250 == 0) {
+                assertSameDryers(reference, fleet, "nach Tick " + t);
+            }
+        }
+        assertSameDryers(reference, fleet, "am Ende");
+        assertEquals(size, fleet.countByStatus(DryerState.ProgramStatus.IDLE), "Alle Programme sollten beendet sein");
+
+        EnergyLedger ledger = reference.getEnergyLedger();
+        assertEquals(ledger.getTotalKwh(), fleet.getTotalKwh(), "Energie sollte bitgenau übereinstimmen");
+        assertEquals(ledger.getHeaterOnMs(), fleet.getHeaterOnMs(), "Heizzeit sollte übereinstimmen");
+        assertEquals(ledger.getCompletedCycles(), fleet.getCompletedCycles(), "Beendete Zyklen sollten übereinstimmen");
+        assertEquals(reference.getTickCount(), fleet.getTickCount(), "Tickzähler sollte übereinstimmen");
+    }
+
+    @Test // TC-002
+    void testMappedFleetPersists() throws IOException {
+        Path file = directory.resolve("fleet.bin");
+        OffHeapFleet fleet = OffHeapFleet.map(file, 1000);
+        fleet.startMixed("cotton", "wool");
+        for (int t = 0; t < 120; t++) {
+            fleet.tick(1000);
+        }
+        fleet.force();
+
+        OffHeapFleet reopened = OffHeapFleet.map(file, 1000);
+        assertEquals(120, reopened.getTickCount(), "Tickzähler sollte in der Datei stehen");
+        assertEquals(120_000L, reopened.getSimulatedTimeMs(), "Simulierte Zeit sollte in der Datei stehen");
+        for (int i = 0; i < 1000; i += 37) {
+            assertEquals(fleet.getTemperature(i), reopened.getTemperature(i), "Temperatur sollte erhalten bleiben");
+            assertEquals(fleet.getRemainingSeconds(i), reopened.getRemainingSeconds(i), "Restzeit sollte erhalten bleiben");
+            assertEquals(fleet.getProgramName(i), reopened.getProgramName(i), "Programmname sollte erhalten bleiben");
+        }
+
+        reopened.tick(1000);
+        assertEquals(121, fleet.getTickCount(), "Beide Objekte sollten dieselbe Datei sehen");
+        assertThrows(IOException.class, () -> OffHeapFleet.map(file, 999), "Falsche Flottengröße sollte abgelehnt werden");
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test // TC-007
+    void testHeapFootprintDoesNotGrowWithFleet() {
+        OffHeapFleet small = new OffHeapFleet(1000);
+        small.startMixed("cotton", "synthetic", "wool");
+        small.tick(1000);
+        long heapBefore = usedHeapAfterGc();
+
+        OffHeapFleet large = new OffHeapFleet(LARGE_FLEET);
+        large.startMixed("cotton", "synthetic", "wool");
+        for (int t = 0; t < 10; t++) {
+            large.tick(1000);
+        }
+        long heapAfter = usedHeapAfterGc();
+
+        assertEquals(LARGE_FLEET, large.countByStatus(DryerState.ProgramStatus.RUNNING), "Alle Trockner sollten laufen");
+        assertEquals(1000, small.countByStatus(DryerState.ProgramStatus.RUNNING), "Kleine Flotte sollte laufen");
+        assertTrue(heapAfter - heapBefore < 4L * 1024 * 1024,
+                "Heap sollte mit " + LARGE_FLEET + " Trocknern nicht wachsen (Zuwachs: " + (heapAfter - heapBefore) + " Bytes)");
+    }
+
+    @Test // TC-001
+    void testRecordsAreAligned() {
+        assertEquals(0, OffHeapFleet.RECORD_BYTES % 8, "Datensätze sollten auf 8 Byte ausgerichtet sein");
+        assertEquals(0, OffHeapFleet.HEADER_BYTES % 8, "Der Kopf sollte auf 8 Byte ausgerichtet sein");
+        OffHeapFleet fleet = new OffHeapFleet(3);
+        assertEquals("None", fleet.getProgramName(0), "Neue Trockner haben kein Programm");
+        assertEquals(100.0, fleet.getHumidity(2), "Neue Trockner sind mit nasser Wäsche beladen");
+        assertTrue(fleet.isDoorClosed(1), "Neue Trockner haben eine geschlossene Tür");
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.getTemperature(3), "Index außerhalb der Flotte");
+        assertThrows(IllegalArgumentException.class, () -> fleet.startProgram(0, "bogus"), "Unbekanntes Programm sollte abgelehnt werden");
+        assertEquals(DryerState.ProgramStatus.IDLE, fleet.getStatus(0), "Trockner sollte IDLE bleiben");
+    }
+}
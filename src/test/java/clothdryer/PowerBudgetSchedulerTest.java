@@ -0,0 +1,110 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für die Begrenzung der gleichzeitigen Heizleistung einer Flotte
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-005: Heizungssteuerung
+ */
+public class PowerBudgetSchedulerTest {
+
+    private static DryerFleet newFleet(int size) {
+        DryerFleet fleet = new DryerFleet(size);
+        for (int i = 0; i < size; i++) {
+            fleet.get(i).getState().setFileLogging(false);
+        }
+        return fleet;
+    }
+
+    @Test // TC-005
+    void testBudgetIsNeverExceeded() {
+        DryerFleet fleet = newFleet(20);
+        PowerBudgetScheduler scheduler = fleet.setPowerBudget(5 * EnergyMeter.HEATER_POWER_W);
+        fleet.startAll("cotton");
+
+        for (int i = 0; i < 120; i++) {
+            fleet.tick(1000);
+            assertTrue(scheduler.getReservedWatts() <= scheduler.getBudgetWatts(), "Budget sollte nie überschritten werden");
+            int heating = 0;
+            for (int d = 0; d < fleet.size(); d++) {
+                if (scheduler.isGranted(d)) {
+                    heating++;
+                }
+            }
+            assertTrue(heating <= 5, "Höchstens fünf Heizungen sollten gleichzeitig laufen");
+        }
+        assertEquals(15, scheduler.getWaitingCount(), "Die übrigen Trockner sollten warten");
+    }
+
+    @Test // TC-005
+    void testHigherPriorityIsServedFirst() {
+        PowerBudgetScheduler scheduler = new PowerBudgetScheduler(4, 2 * EnergyMeter.HEATER_POWER_W);
+        scheduler.setPriority(3, 3);
+        scheduler.setPriority(2, 2);
+        for (int d = 0; d < 4; d++) {
+            scheduler.report(d, true, 600);
+        }
+        scheduler.allocate();
+
+        assertTrue(scheduler.isGranted(3) && scheduler.isGranted(2), "Höhere Priorität sollte zuerst heizen dürfen");
+        assertFalse(scheduler.isGranted(0) || scheduler.isGranted(1), "Niedrigere Priorität sollte warten");
+        assertEquals(2 * EnergyMeter.HEATER_POWER_W, scheduler.getReservedWatts(), "Reservierte Leistung sollte dem Budget entsprechen");
+    }
+
+    @Test // TC-005
+    void testShorterRemainingTimeIsPreferredAndKept() {
+        PowerBudgetScheduler scheduler = new PowerBudgetScheduler(3, EnergyMeter.HEATER_POWER_W);
+        scheduler.report(0, true, 1800);
+        scheduler.report(1, true, 120);
+        scheduler.report(2, true, 900);
+        scheduler.allocate();
+        assertTrue(scheduler.isGranted(1), "Der Trockner mit der kürzesten Restzeit sollte heizen");
+
+        scheduler.report(2, true, 60);
+        scheduler.allocate();
+        assertTrue(scheduler.isGranted(1), "Ein heizender Trockner sollte seinen Anteil behalten");
+
+        scheduler.report(1, false, 0);
+        scheduler.allocate();
+        assertTrue(scheduler.isGranted(2), "Freigewordene Leistung sollte weitergegeben werden");
+        assertFalse(scheduler.isGranted(0), "Es sollte nur eine Heizung laufen");
+    }
+
+    @Test // TC-001
+    void testLimitedFleetStillFinishes() {
+        DryerFleet limited = newFleet(10);
+        limited.setPowerBudget(3 * EnergyMeter.HEATER_POWER_W);
+        limited.startAll("synthetic");
+        DryerFleet unlimited = newFleet(10);
+        unlimited.startAll("synthetic");
+
+        int limitedTicks = ticksUntilDrying(limited);
+        int unlimitedTicks = ticksUntilDrying(unlimited);
+
+        assertTrue(limitedTicks < 20000, "Alle Trockner sollten trotz Budget fertig werden");
+        assertTrue(limitedTicks > unlimitedTicks, "Ein Budget sollte den Durchlauf verlängern");
+    }
+
+    @Test // TC-005
+    void testNegativeBudgetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PowerBudgetScheduler(1, -1), "Negatives Budget sollte abgelehnt werden");
+        PowerBudgetScheduler scheduler = new PowerBudgetScheduler(1, 0);
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setPriority(0, PowerBudgetScheduler.PRIORITY_LEVELS), "Ungültige Priorität sollte abgelehnt werden");
+    }
+
+    private int ticksUntilDrying(DryerFleet fleet) {
+        int ticks = 0;
+        while (fleet.countByStatus(DryerState.ProgramStatus.RUNNING) > 0 && ticks < 20000) {
+            fleet.tick(1000);
+            ticks++;
+        }
+        return ticks;
+    }
+}
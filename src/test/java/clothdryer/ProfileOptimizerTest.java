@@ -0,0 +1,66 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Testklasse für Programmprofile und den Profil-Optimierer
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-003: Überhitzungsschutz
+ */
+public class ProfileOptimizerTest {
+
+    @Test // TC-001
+    void testStartWithProfileUsesItsParameters() {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        simulation.startProgram(new ProgramProfile("custom", 50.0, 0.4, 1200));
+        simulation.updateState(1000);
+
+        assertEquals("custom", state.getProgramName(), "Programmname sollte übernommen werden");
+        assertEquals(99.6, state.getHumidity(), 1e-9, "Trocknungsrate des Profils sollte gelten");
+    }
+
+    @Test // TC-001
+    void testCatalogVersionChangesWithProfile() {
+        ProgramCatalog changed = ProgramCatalog.DEFAULT.withProfile(new ProgramProfile("cotton", 70.0, 0.8, 3000));
+
+        assertTrue(changed.getVersion() != ProgramCatalog.DEFAULT.getVersion(), "Neue Version erwartet");
+        assertEquals(70.0, changed.get("cotton").getTargetTemperature(), "Geändertes Profil erwartet");
+        assertEquals(DryerSimulation.MAX_TEMP_COTTON, ProgramCatalog.DEFAULT.get("cotton").getTargetTemperature(),
+                "Standardkatalog sollte unverändert bleiben");
+    }
+
+    @Test // TC-003
+    void testParetoFrontKeepsOnlyNonDominatedCandidates() {
+        ProgramProfile profile = new ProgramProfile("cotton", 75.0, 0.8, 3600);
+        ProfileOptimizer.Candidate fast = new ProfileOptimizer.Candidate(profile, true, 100, 1000, 0.10, 75.0);
+        ProfileOptimizer.Candidate cheap = new ProfileOptimizer.Candidate(profile, true, 200, 2000, 0.05, 75.0);
+        ProfileOptimizer.Candidate dominated = new ProfileOptimizer.Candidate(profile, true, 200, 2500, 0.08, 75.0);
+
+        List<ProfileOptimizer.Candidate> front = ProfileOptimizer.paretoFront(List.of(dominated, cheap, fast));
+
+        assertEquals(List.of(fast, cheap), front, "Nur nicht dominierte Kandidaten sollten bleiben");
+    }
+
+    @Test // TC-001, TC-003
+    void testOptimizeFindsFeasibleFront() {
+        ProfileOptimizer.Result result = new ProfileOptimizer(5, 3).optimize(LaundryLoad.Fabric.SYNTHETIC);
+
+        assertEquals(15, result.getEvaluated(), "Alle Gitterpunkte sollten simuliert werden");
+        assertFalse(result.getParetoFront().isEmpty(), "Mindestens ein zulässiges Profil erwartet");
+        for (ProfileOptimizer.Candidate candidate : result.getParetoFront()) {
+            assertTrue(candidate.getMaxTemperature() < SafetyModule.OVERHEAT_THRESHOLD, "Überhitzung unzulässig");
+            assertTrue(candidate.getMaxTemperature() <= DryerSimulation.MAX_TEMP_SYNTHETIC, "Stoffgrenze einhalten");
+        }
+        assertTrue(result.getFastest().getCycleMs() <= result.getMostEfficient().getCycleMs(), "Front nach Zeit sortiert");
+        assertTrue(result.getFastest().getEnergyKwh() >= result.getMostEfficient().getEnergyKwh(), "Energie fällt entlang der Front");
+    }
+}
@@ -0,0 +1,161 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Testklasse für die gelernte Restlaufzeitvorhersage
+ *
+ * Traceability:
+ * - TC-002: Start- und Stop-Logik
+ * - TC-004: Anzeige Restlaufzeit
+ */
+public class RemainingTimePredictorTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Runs one program until drying ends and returns the number of ticks it took.
+     */
+    private static int runUntilDry(ProgramManager manager, String programName) {
+        manager.startProgram(programName);
+        int ticks = 0;
+        while (manager.getState().getStatus() == DryerState.ProgramStatus.RUNNING) {
+            manager.tick(1000);
+            ticks++;
+        }
+        while (manager.getState().getStatus() != DryerState.ProgramStatus.IDLE) {
+            manager.tick(1000);
+        }
+        manager.tryOpenDoor();
+        manager.loadNewLaundry();
+        manager.closeDoor();
+        return ticks;
+    }
+
+    @Test // TC-004
+    void testPredictsRemainingTimeAfterOneCycle() throws InterruptedException {
+        RemainingTimePredictor predictor = new RemainingTimePredictor();
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.setRemainingTimePredictor(predictor);
+
+        int dryingTicks = runUntilDry(manager, "cotton");
+        assertEquals(1, predictor.getLearnedCycles("cotton"), "Abgeschlossener Zyklus sollte gelernt werden");
+
+        manager.startProgram("cotton");
+        for (int i = 0; i < 10; i++) {
+            manager.tick(1000);
+        }
+        int predicted = manager.getPredictedRemainingSeconds();
+        assertTrue(Math.abs(predicted - (dryingTicks - 10)) <= 2,
+                "Vorhersage sollte der tatsächlichen Restdauer entsprechen, war " + predicted);
+        assertTrue(predictor.getLearnedMeanError() <= predictor.getBuiltInMeanError(),
+                "Gelernte Vorhersage sollte nicht schlechter als die eingebaute Schätzung sein");
+
+        // The display reads the prediction while a tick holds the manager
+        int[] read = {-2};
+        synchronized (manager) {
+            Thread reader = new Thread(() -> read[0] = manager.getPredictedRemainingSeconds());
+            reader.start();
+            reader.join(5000);
+            assertFalse(reader.isAlive(), "Vorhersage sollte ohne Sperre des Managers lesbar sein");
+        }
+        assertEquals(predicted, read[0], "Gelesene Vorhersage sollte dem letzten Takt entsprechen");
+    }
+
+    /**
+     * Feeds a cycle that spends the given ticks at 50 % and 60 °C, one per second,
+     * and ends drying at the given time.
+     */
+    private static void learnCycle(RemainingTimePredictor.Tracker tracker, DryerState state, int ticks, long dryingEndMs) {
+        state.setStatus(DryerState.ProgramStatus.RUNNING);
+        for (int i = 0; i < ticks; i++) {
+            tracker.update(state, 50.0, i * 1000L);
+        }
+        state.setStatus(DryerState.ProgramStatus.COOLING);
+        tracker.update(state, 50.0, dryingEndMs);
+    }
+
+    @Test // TC-004
+    void testEveryCycleWeighsTheSame() {
+        RemainingTimePredictor predictor = new RemainingTimePredictor();
+        RemainingTimePredictor.Tracker tracker = predictor.tracker();
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        state.setProgramName("cotton");
+        state.setTemperature(60.0);
+
+        learnCycle(tracker, state, 10, 100_000); // 100 s ... 91 s remaining, 95.5 s on average
+        learnCycle(tracker, state, 1, 10_000);   // 10 s remaining
+
+        assertEquals(2, predictor.getLearnedCycles("cotton"), "Beide Zyklen sollten gelernt werden");
+        assertEquals(53, predictor.predict("cotton", 50.0, 60.0),
+                "Jeder Zyklus sollte einmal zählen, unabhängig von seiner Anzahl Takte");
+    }
+
+    @Test // TC-002
+    void testStoppedCycleIsNotLearned() {
+        RemainingTimePredictor predictor = new RemainingTimePredictor();
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.setRemainingTimePredictor(predictor);
+
+        manager.startProgram("wool");
+        for (int i = 0; i < 30; i++) {
+            manager.tick(1000);
+        }
+        manager.stopProgram();
+        manager.tick(1000);
+
+        assertEquals(0, predictor.getLearnedCycles("wool"), "Abgebrochener Zyklus sollte verworfen werden");
+        assertEquals(-1, manager.getPredictedRemainingSeconds(), "Ohne Lerndaten keine Vorhersage");
+    }
+
+    @Test // TC-004
+    void testSaveAndLoadKeepPredictions() throws IOException {
+        RemainingTimePredictor predictor = new RemainingTimePredictor();
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.setRemainingTimePredictor(predictor);
+        runUntilDry(manager, "synthetic");
+        Path file = tempDir.resolve("predictor.bin");
+
+        predictor.save(file);
+        RemainingTimePredictor loaded = RemainingTimePredictor.load(file);
+
+        assertEquals(1, loaded.getLearnedCycles("synthetic"), "Gelernte Zyklen sollten erhalten bleiben");
+        assertEquals(predictor.predict("synthetic", 50.0, 60.0), loaded.predict("synthetic", 50.0, 60.0),
+                "Vorhersage sollte nach dem Laden gleich sein");
+        assertEquals(0, RemainingTimePredictor.load(tempDir.resolve("missing.bin")).getLearnedCycles("synthetic"),
+                "Fehlende Datei sollte einen leeren Prädiktor ergeben");
+    }
+
+    @Test // TC-002, TC-004
+    void testLearnsFromReplayedSessions() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        try (SessionRecorder recorder = new SessionRecorder(buffer)) {
+            manager.setSessionRecorder(recorder);
+            runUntilDry(manager, "wool");
+            runUntilDry(manager, "wool");
+        }
+        RemainingTimePredictor predictor = new RemainingTimePredictor();
+
+        new SessionReplayer(predictor).replay(new ByteArrayInputStream(buffer.toByteArray()));
+
+        assertEquals(2, predictor.getLearnedCycles("wool"), "Beide wiedergegebenen Zyklen sollten gelernt werden");
+        assertTrue(predictor.getEvaluatedSamples() > 0, "Vorhersagen sollten bewertet werden");
+        assertTrue(predictor.getLearnedMeanError() < predictor.getBuiltInMeanError(),
+                "Gelernte Vorhersage sollte genauer als die eingebaute Schätzung sein");
+    }
+}
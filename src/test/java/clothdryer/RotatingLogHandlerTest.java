@@ -0,0 +1,172 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Testklasse für die Rotation der Protokolldateien
+ *
+ * Traceability:
+ * - TC-008: Ereignis- und Fehlerprotokollierung
+ */
+public class RotatingLogHandlerTest {
+
+    @TempDir
+    Path logDirectory;
+
+    private List<Path> files(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(logDirectory, glob)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test // TC-008
+    void testRotatesBySizeAndCompresses() throws IOException {
+        RotatingLogHandler handler = RotatingLogHandler.open(logDirectory, 2000, Duration.ofDays(1), 1, 100);
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "event " + i));
+        }
+        handler.close();
+
+        List<Path> archives = files("dryerlog_*.log.gz");
+        List<Path> active = files("dryerlog_*.log");
+        assertTrue(archives.size() >= 2, "Volle Dateien sollten rotiert und komprimiert werden");
+        assertEquals(1, active.size(), "Nur die aktuelle Datei sollte unkomprimiert bleiben");
+        StringBuilder all = new StringBuilder();
+        for (Path archive : archives) {
+            String content = gunzip(archive);
+            assertTrue(content.getBytes(StandardCharsets.UTF_8).length <= 2000, "Dateien sollten die Größengrenze einhalten");
+            all.append(content);
+        }
+        all.append(Files.readString(active.get(0)));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(all.indexOf("event " + i + System.lineSeparator()) >= 0, "Kein Ereignis sollte verloren gehen: " + i);
+        }
+    }
+
+    @Test // TC-008
+    void testRotatesByAgeAndKeepsNewestArchives() throws IOException {
+        RotatingLogHandler handler = RotatingLogHandler.open(logDirectory, 1 << 20, Duration.ofHours(1), 1, 2);
+        Instant start = Instant.parse("2025-06-19T16:00:00Z");
+        for (int hour = 0; hour < 5; hour++) {
+            LogRecord record = new LogRecord(Level.INFO, "hour " + hour);
+            record.setInstant(start.plus(Duration.ofHours(hour)));
+            handler.publish(record);
+        }
+        handler.close();
+
+        List<Path> archives = files("dryerlog_*.log.gz");
+        assertEquals(2, archives.size(), "Nur die neuesten Archive sollten behalten werden");
+        assertTrue(gunzip(archives.get(0)).contains("hour 2"), "Ältere Archive sollten gelöscht werden");
+        assertTrue(gunzip(archives.get(1)).contains("hour 3"), "Jede Stunde sollte eine eigene Datei bekommen");
+        assertTrue(Files.readString(files("dryerlog_*.log").get(0)).contains("hour 4"), "Aktuelle Datei sollte die letzte Stunde enthalten");
+    }
+
+    @Test // TC-008
+    void testPublishNeverBlocks() throws IOException, InterruptedException {
+        CountDownLatch stalled = new CountDownLatch(1);
+        RotatingLogHandler handler = RotatingLogHandler.open(logDirectory);
+        handler.setFormatter(new SimpleFormatter() {
+            @Override
+            public String format(LogRecord record) {
+                try {
+                    stalled.await(); // like a disk that does not respond
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.format(record);
+            }
+        });
+        int records = RotatingLogHandler.QUEUE_CAPACITY + 100;
+        for (int i = 0; i < records; i++) {
+            handler.publish(new LogRecord(Level.INFO, "event " + i));
+        }
+        assertTrue(handler.getDroppedCount() >= 99, "Überzählige Ereignisse sollten verworfen statt abgewartet werden");
+
+        stalled.countDown();
+        handler.close();
+        String log = Files.readString(files("dryerlog_*.log").get(0));
+        assertTrue(log.contains(handler.getDroppedCount() + " log records dropped"), "Verlorene Ereignisse sollten protokolliert werden");
+        long written = log.lines().filter(line -> line.contains(": event ")).count();
+        assertEquals(records, written + handler.getDroppedCount(), "Jedes Ereignis sollte geschrieben oder gezählt werden");
+    }
+
+    @Test // TC-008
+    void testCompressesFilesOfEarlierRuns() throws IOException {
+        FileTime old = FileTime.from(Instant.now().minus(Duration.ofDays(1)));
+        for (String name : new String[]{"dryerlog_20250619_100000.log", "dryerlog_20250619_110000.log",
+                "dryerlog_20250619_120000.log"}) {
+            Path leftover = Files.writeString(logDirectory.resolve(name), "run " + name);
+            Files.setLastModifiedTime(leftover, old);
+        }
+        Path running = Files.writeString(logDirectory.resolve("dryerlog_20250619_130000.log"), "other process");
+
+        RotatingLogHandler handler = RotatingLogHandler.open(logDirectory, 1 << 20, Duration.ofDays(1), 1, 2);
+        handler.publish(new LogRecord(Level.INFO, "new run"));
+        handler.close();
+
+        List<Path> archives = files("dryerlog_*.log.gz");
+        assertEquals(2, archives.size(), "Alte Läufe sollten komprimiert und auf die Grenze gekürzt werden");
+        assertTrue(gunzip(archives.get(0)).contains("110000"), "Das älteste Archiv sollte gelöscht werden");
+        List<Path> active = files("dryerlog_*.log");
+        assertEquals(2, active.size(), "Nur die eigene und die kürzlich beschriebene Datei sollten unkomprimiert bleiben");
+        assertTrue(active.contains(running), "Eine kürzlich beschriebene Datei sollte nicht angefasst werden");
+    }
+
+    @Test // TC-008
+    void testRecentFilesStayReadable() throws IOException {
+        RotatingLogHandler handler = RotatingLogHandler.open(logDirectory, 1000, Duration.ofDays(1), 3, 100);
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "event " + i));
+        }
+        handler.close();
+
+        List<Path> active = files("dryerlog_*.log");
+        assertEquals(3, active.size(), "Die neuesten Dateien sollten unkomprimiert bleiben");
+        assertTrue(files("dryerlog_*.log.gz").size() >= 1, "Ältere Dateien sollten komprimiert werden");
+        long readable = 0;
+        for (Path file : active) {
+            readable += Files.readString(file).lines().filter(line -> line.contains(": event ")).count();
+        }
+        EventLogIndex index = new EventLogIndex(logDirectory);
+        index.refresh();
+        assertEquals(readable, index.getEventCount(), "Der Index sollte alle unkomprimierten Dateien lesen");
+        DryerLogAnalyzer.Result result = DryerLogAnalyzer.analyze(logDirectory);
+        assertEquals(3, result.getFiles(), "Die Auswertung sollte alle unkomprimierten Dateien lesen");
+        assertEquals(readable, result.getRecords(), "Die Auswertung sollte jedes unkomprimierte Ereignis zählen");
+
+        Path lastOfPreviousRun = active.get(active.size() - 1);
+        RotatingLogHandler next = RotatingLogHandler.open(logDirectory, 1000, Duration.ofDays(1), 3, 100);
+        next.publish(new LogRecord(Level.INFO, "next run"));
+        next.close();
+        assertTrue(Files.exists(lastOfPreviousRun), "Der letzte Lauf sollte nach dem Neustart lesbar bleiben");
+    }
+}
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 /**
  * Testklasse für das SafetyModule
  *
@@ -22,6 +24,7 @@ public class SafetyModuleTest {
     @BeforeEach
     public void setUp() {
         dryerState = new DryerState();
+        dryerState.setFileLogging(false);
         safetyModule = new SafetyModule(dryerState);
     }
     
@@ -103,6 +106,41 @@ public class SafetyModuleTest {
         assertTrue(safetyModule.isOperationAllowed(), "Operation should be allowed when door is closed");
     }
     
+    @Test // TC-002
+    void testRepeatedWarningsAreAggregated() {
+        long[] now = {1_000_000L};
+        SafetyModule limited = new SafetyModule(dryerState, () -> now[0]);
+        dryerState.setDoorClosed(true);
+        dryerState.setDoorLocked(true);
+
+        // Action: User keeps pressing the door button for 25 seconds
+        for (int click = 0; click < 50; click++) {
+            assertFalse(limited.tryOpenDoor(), "Locked door must stay closed");
+            now[0] += 500;
+            limited.flushWarnings();
+        }
+        now[0] += WarningRateLimiter.DEFAULT_INTERVAL_MS;
+        limited.flushWarnings();
+
+        // Verification: First warning immediately, then one aggregated warning per interval
+        List<DryerState.DryerEvent> events = dryerState.getEventHistory();
+        assertEquals(4, events.size(), "50 clicks should produce one warning and three aggregated warnings");
+        assertEquals("Cannot open door: Door is locked", events.get(0).getMessage(), "First warning should be logged as is");
+        int total = 1;
+        for (DryerState.DryerEvent event : events.subList(1, events.size())) {
+            String message = event.getMessage();
+            assertTrue(message.startsWith("Cannot open door: Door is locked [repeated "),
+                    "Aggregated warning should name the repeated message: " + message);
+            total += Integer.parseInt(message.replaceAll(".*\\[repeated (\\d+) times.*", "$1"));
+        }
+        assertEquals(50, total, "No click should get lost in the aggregation");
+
+        // Verification: A single warning after a quiet interval is logged at once
+        now[0] += 60_000;
+        limited.tryOpenDoor();
+        assertEquals(5, dryerState.getEventHistory().size(), "Warning after a pause should be logged immediately");
+    }
+
     @Test // TC-002
     void testDoorStatusChangeUpdatesProgram() {
         // Setup: Door closed, status IDLE
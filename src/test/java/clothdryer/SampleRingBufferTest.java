@@ -0,0 +1,42 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für den Ringpuffer der Verlaufsanzeige
+ *
+ * Traceability:
+ * - TC-004: Anzeige Restlaufzeit
+ * - TC-005: Feuchtesensorintegration
+ */
+public class SampleRingBufferTest {
+
+    @Test // TC-005
+    void testKeepsNewestSamplesAfterWrapAround() {
+        SampleRingBuffer buffer = new SampleRingBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i * 1000L, 20.0 + i, 100.0 - i);
+        }
+
+        assertEquals(10, buffer.getWriteCount(), "Alle Schreibvorgänge sollten gezählt werden");
+        assertEquals(6, buffer.getOldestSequence(), "Nur die letzten 4 Werte sollten verfügbar sein");
+        assertEquals(6000L, buffer.getTimeMs(6), "Ältester Zeitstempel sollte erhalten sein");
+        assertEquals(29.0, buffer.getTemperature(9), "Neueste Temperatur sollte erhalten sein");
+        assertEquals(91.0, buffer.getHumidity(9), "Neueste Feuchtigkeit sollte erhalten sein");
+    }
+
+    @Test // TC-004
+    void testProgramManagerRecordsTrendOnTick() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        SampleRingBuffer trend = manager.getTrend();
+        manager.startProgram("cotton");
+        manager.tick(1000);
+        manager.tick(1000);
+
+        assertEquals(2, trend.getWriteCount(), "Jeder Tick sollte einen Messwert aufzeichnen");
+        assertEquals(2000L, trend.getTimeMs(1), "Zeitstempel sollte der simulierten Zeit entsprechen");
+        assertEquals(manager.getState().getTemperature(), trend.getTemperature(1), "Temperatur sollte übernommen werden");
+    }
+}
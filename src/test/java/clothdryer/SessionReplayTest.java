@@ -0,0 +1,108 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für Aufzeichnung und Wiedergabe von Trocknersitzungen
+ *
+ * Traceability:
+ * - TC-002: Start- und Stop-Logik
+ * - TC-007: Neue Wäsche einlegen
+ */
+public class SessionReplayTest {
+
+    private byte[] recordSession() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        try (SessionRecorder recorder = new SessionRecorder(buffer)) {
+            manager.setSessionRecorder(recorder);
+            manager.startProgram("cotton");
+            for (int i = 0; i < 200; i++) {
+                manager.tick(1000 + (i % 7) * 13);
+            }
+            manager.stopProgram();
+            for (int i = 0; i < 60; i++) {
+                manager.tick(1000);
+            }
+            manager.tryOpenDoor();
+            manager.loadNewLaundry();
+            manager.closeDoor();
+            manager.startProgram("wool");
+            for (int i = 0; i < 50; i++) {
+                manager.tick(2000);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    @Test // TC-002, TC-007
+    void testReplayReproducesTrajectory() throws IOException {
+        byte[] session = recordSession();
+
+        SessionReplayer.ReplayResult result = new SessionReplayer().replay(new ByteArrayInputStream(session));
+
+        assertEquals(310, result.getTicks(), "Alle aufgezeichneten Ticks sollten wiedergegeben werden");
+        assertEquals(6, result.getCommands(), "Alle aufgezeichneten Befehle sollten wiedergegeben werden");
+        assertEquals("wool", result.getFinalState().getProgramName(), "Letztes Programm sollte Wolle sein");
+    }
+
+    @Test // TC-002
+    void testReplayDetectsDivergence() throws IOException {
+        byte[] session = recordSession();
+        // Flip a bit in the temperature of the last recorded tick (22 bytes before the end)
+        session[session.length - 22] ^= 1;
+
+        assertThrows(IllegalStateException.class,
+                () -> new SessionReplayer().replay(new ByteArrayInputStream(session)),
+                "Abweichende Trajektorie sollte erkannt werden");
+    }
+
+    @Test // TC-002, TC-007
+    void testReplayStartsFromRecordedState() throws IOException {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.startProgram("cotton");
+        for (int i = 0; i < 100; i++) {
+            manager.tick(1000);
+        }
+        manager.stopProgram();
+        manager.tryOpenDoor();
+        manager.loadNewLaundry(LaundryLoad.random(50, 3L)); // mixed loads are only part of the initial state
+        manager.closeDoor();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (SessionRecorder recorder = new SessionRecorder(buffer)) {
+            manager.setSessionRecorder(recorder);
+            manager.startProgram("synthetic");
+            for (int i = 0; i < 200; i++) {
+                manager.tick(1000);
+            }
+        }
+
+        SessionReplayer.ReplayResult result = new SessionReplayer().replay(new ByteArrayInputStream(buffer.toByteArray()));
+
+        assertEquals(200, result.getTicks(), "Alle Ticks sollten wiedergegeben werden");
+        assertEquals(200_000, result.getSimulatedTimeMs(), "Nur die aufgezeichnete Zeit sollte zählen");
+    }
+
+    @Test // TC-002
+    void testRecordingRequiresReproducibleSetup() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.startProgram("cotton");
+        assertThrows(IllegalStateException.class,
+                () -> manager.setSessionRecorder(new SessionRecorder(OutputStream.nullOutputStream())),
+                "Aufzeichnung sollte nicht mitten im Zyklus beginnen");
+
+        manager.stopProgram();
+        manager.setSessionRecorder(new SessionRecorder(OutputStream.nullOutputStream()));
+        assertThrows(IllegalStateException.class, () -> manager.setPhysicalModel(new ExponentialDryingModel()),
+                "Modell sollte während der Aufzeichnung nicht wechseln");
+    }
+}
@@ -0,0 +1,175 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Testklasse für Sicherung und Wiederherstellung des Simulationszustands
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-007: Laufzeit- und Restzeitberechnung
+ */
+public class SimulationCheckpointTest {
+
+    @TempDir
+    Path directory;
+
+    private static void assertSameState(ProgramManager expected, ProgramManager actual, String when) {
+        DryerState a = expected.getState();
+        DryerState b = actual.getState();
+        assertEquals(a.getStatus(), b.getStatus(), "Status sollte übereinstimmen " + when);
+        assertEquals(a.getProgramName(), b.getProgramName(), "Programm sollte übereinstimmen " + when);
+        assertEquals(a.getRemainingSeconds(), b.getRemainingSeconds(), "Restzeit sollte übereinstimmen " + when);
+        assertEquals(a.getTemperature(), b.getTemperature(), "Temperatur sollte bitgenau übereinstimmen " + when);
+        assertEquals(a.getHumidity(), b.getHumidity(), "Feuchte sollte bitgenau übereinstimmen " + when);
+        assertEquals(a.isDoorLocked(), b.isDoorLocked(), "Türverriegelung sollte übereinstimmen " + when);
+        assertEquals(expected.getEnergyMeter().getCycleKwh(), actual.getEnergyMeter().getCycleKwh(),
+                "Zyklusenergie sollte übereinstimmen " + when);
+    }
+
+    @Test // TC-007
+    void testRestoredDryerContinuesIdentically() throws IOException {
+        ProgramManager original = new ProgramManager();
+        original.getState().setFileLogging(false);
+        original.setPhysicalModel(new ExponentialDryingModel());
+        original.tryOpenDoor();
+        original.loadNewLaundry(LaundryLoad.random(200, 11L));
+        original.closeDoor();
+        original.startProgram("synthetic");
+        for (int i = 0; i < 300; i++) {
+            original.tick(1000);
+        }
+        Path file = directory.resolve("dryer.ckpt");
+        SimulationCheckpoint.save(original, file);
+
+        ProgramManager restored = new ProgramManager();
+        restored.getState().setFileLogging(false);
+        restored.setPhysicalModel(new ExponentialDryingModel());
+        SimulationCheckpoint.restore(restored, file);
+        assertSameState(original, restored, "direkt nach der Wiederherstellung");
+
+        for (int i = 0; i < 3000; i++) {
+            original.tick(1000);
+            restored.tick(1000);
+            assertSameState(original, restored, "nach Tick " + i);
+        }
+        assertEquals(DryerState.ProgramStatus.IDLE, restored.getState().getStatus(), "Programm sollte beendet sein");
+        EnergyLedger a = original.getEnergyMeter().getLedger();
+        EnergyLedger b = restored.getEnergyMeter().getLedger();
+        assertEquals(a.getTotalKwh(), b.getTotalKwh(), "Gesamtenergie sollte übereinstimmen");
+        assertEquals(a.getCompletedCycles(), b.getCompletedCycles(), "Zyklen sollten nicht doppelt gezählt werden");
+        assertEquals(a.getProgram("synthetic").getCycles(), b.getProgram("synthetic").getCycles(),
+                "Programmzyklen sollten nicht doppelt gezählt werden");
+    }
+
+    @Test // TC-001
+    void testLargeFleetRestoresQuickly() throws IOException {
+        int size = 10_000;
+        DryerFleet fleet = new DryerFleet(size);
+        for (int i = 0; i < size; i++) {
+            fleet.get(i).getState().setFileLogging(false);
+        }
+        fleet.startMixed("cotton", "synthetic", "wool");
+        for (int i = 0; i < 30; i++) {
+            fleet.tick(10_000);
+        }
+        Path file = directory.resolve("fleet.ckpt");
+        SimulationCheckpoint.save(fleet, file);
+
+        SimulationCheckpoint.restoreFleet(file); // warm-up
+        long start = System.nanoTime();
+        DryerFleet restored = SimulationCheckpoint.restoreFleet(file);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < 1000, "10.000 Trockner sollten in unter einer Sekunde geladen sein: " + elapsedMs + " ms");
+
+        assertEquals(size, restored.size(), "Flottengröße sollte erhalten bleiben");
+        assertEquals(fleet.getTickCount(), restored.getTickCount(), "Tickzähler sollte erhalten bleiben");
+        for (int i = 0; i < size; i++) {
+            restored.get(i).getState().setFileLogging(false);
+        }
+        for (int t = 0; t < 500; t++) {
+            fleet.tick(10_000);
+            restored.tick(10_000);
+        }
+        for (int i = 0; i < size; i += 97) {
+            assertSameState(fleet.get(i), restored.get(i), "bei Trockner " + i);
+        }
+        assertEquals(fleet.getEnergyLedger().getTotalKwh(), restored.getEnergyLedger().getTotalKwh(),
+                "Energie der Flotte sollte übereinstimmen");
+        assertEquals(fleet.countByStatus(DryerState.ProgramStatus.IDLE), restored.countByStatus(DryerState.ProgramStatus.IDLE),
+                "Anzahl fertiger Trockner sollte übereinstimmen");
+    }
+
+    @Test // TC-001
+    void testRejectsWrongOrDamagedFiles() throws IOException {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        manager.startProgram("cotton");
+        manager.tick(1000);
+        Path file = directory.resolve("dryer.ckpt");
+        SimulationCheckpoint.save(manager, file);
+
+        assertThrows(IOException.class, () -> SimulationCheckpoint.restoreFleet(file),
+                "Ein Trockner-Checkpoint sollte nicht als Flotte geladen werden");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 20);
+        }
+        assertThrows(IOException.class, () -> SimulationCheckpoint.restore(new ProgramManager(), file),
+                "Ein abgeschnittener Checkpoint sollte abgelehnt werden");
+    }
+
+    @Test // TC-001
+    void testRejectsDamagedFleetSize() throws IOException {
+        DryerFleet fleet = new DryerFleet(3);
+        Path file = directory.resolve("fleet.ckpt");
+        SimulationCheckpoint.save(fleet, file);
+
+        for (int count : new int[]{Integer.MAX_VALUE, 0, -1}) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(0, count), 9); // after magic, version and kind
+            }
+            assertThrows(IOException.class, () -> SimulationCheckpoint.restoreFleet(file),
+                    "Eine unmögliche Flottengröße sollte abgelehnt werden: " + count);
+        }
+    }
+
+    @Test // TC-001
+    void testDamagedFileLeavesDryerUnchanged() throws IOException {
+        ProgramManager saved = new ProgramManager();
+        saved.getState().setFileLogging(false);
+        saved.startProgram("cotton");
+        for (int i = 0; i < 60; i++) {
+            saved.tick(1000);
+        }
+        Path file = directory.resolve("dryer.ckpt");
+        SimulationCheckpoint.save(saved, file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 20); // cuts into the energy meter at the end
+        }
+
+        ProgramManager target = new ProgramManager();
+        target.getState().setFileLogging(false);
+        target.startProgram("wool");
+        target.tick(1000);
+        double kwh = target.getEnergyMeter().getLedger().getTotalKwh();
+        double temperature = target.getState().getTemperature();
+
+        assertThrows(IOException.class, () -> SimulationCheckpoint.restore(target, file),
+                "Ein abgeschnittener Checkpoint sollte abgelehnt werden");
+        assertEquals("wool", target.getState().getProgramName(), "Programm sollte unverändert bleiben");
+        assertEquals(DryerState.ProgramStatus.RUNNING, target.getState().getStatus(), "Status sollte unverändert bleiben");
+        assertEquals(temperature, target.getState().getTemperature(), "Temperatur sollte unverändert bleiben");
+        assertEquals(kwh, target.getEnergyMeter().getLedger().getTotalKwh(), "Energiebuch sollte unverändert bleiben");
+    }
+}
@@ -0,0 +1,131 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Testklasse für den allokationsfreien Simulationstakt
+ *
+ * Traceability:
+ * - TC-002: Start- und Stop-Logik
+ * - TC-004: Anzeige Restlaufzeit
+ * - TC-009: Abkühlfunktion
+ */
+public class TickAllocationTest {
+
+    private static final int WARM_UP_TICKS = 20_000;
+    private static final int WINDOW_TICKS = 1_000;
+    private static final int WINDOWS = 7;
+
+    /**
+     * Measures the bytes allocated on this thread by several windows of ticks. The JIT
+     * compiling or deoptimizing the tick path may allocate a few bytes in a single
+     * window, so a window that allocates is measured once more; an allocation in the
+     * tick path, even one that happens only every few hundred ticks, shows up again.
+     *
+     * @return the most bytes allocated by a window, after its one repetition
+     */
+    private static long allocatedBytes(Runnable tick) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "Die JVM sollte Allokationen pro Thread messen können");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            tick.run();
+        }
+        long allocated = 0;
+        for (int window = 0; window < WINDOWS; window++) {
+            long bytes = allocatedBytes(threads, tick);
+            if (bytes > 0) {
+                bytes = allocatedBytes(threads, tick);
+            }
+            allocated = Math.max(allocated, bytes);
+        }
+        return allocated;
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads, Runnable tick) {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < WINDOW_TICKS; i++) {
+            tick.run();
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static ProgramManager newManager() {
+        ProgramManager manager = new ProgramManager();
+        manager.getState().setFileLogging(false);
+        return manager;
+    }
+
+    @Test // TC-004
+    void testRunningTickDoesNotAllocate() {
+        ProgramManager manager = newManager();
+        manager.getTrend();
+        manager.setRemainingTimePredictor(new RemainingTimePredictor());
+        manager.setSessionRecorder(new SessionRecorder(OutputStream.nullOutputStream()));
+        manager.startProgram("cotton");
+
+        // the warm-up and the windows record far more ticks than the tracker has slots
+        long allocated = allocatedBytes(() -> manager.tick(1));
+        assertTrue(WARM_UP_TICKS + WINDOWS * WINDOW_TICKS > RemainingTimePredictor.TRACKED_SAMPLES,
+                "Der Zyklus sollte länger sein als der Verlauf Plätze hat");
+        assertEquals(DryerState.ProgramStatus.RUNNING, manager.getState().getStatus(), "Programm sollte noch laufen");
+        assertEquals(0, allocated, "Ein Takt im laufenden Programm sollte nichts allokieren");
+    }
+
+    @Test // TC-009
+    void testCoolingTickDoesNotAllocate() {
+        ProgramManager manager = newManager();
+        DryerState state = manager.getState();
+        manager.startProgram("cotton");
+        state.setTemperature(90.0);
+        state.setRemainingSeconds(1);
+        state.setHumidity(0.1);
+        manager.tick(2000);
+        assertEquals(DryerState.ProgramStatus.COOLING, state.getStatus(), "Nach Programmende sollte abgekühlt werden");
+
+        long allocated = allocatedBytes(() -> {
+            if (state.getTemperature() < 60.0) {
+                state.setTemperature(90.0); // stay in the cooling phase
+            }
+            manager.tick(1);
+        });
+        assertEquals(DryerState.ProgramStatus.COOLING, state.getStatus(), "Trockner sollte noch abkühlen");
+        assertEquals(0, allocated, "Ein Takt beim Abkühlen sollte nichts allokieren");
+        assertTrue(state.isDoorLocked(), "Die heiße Tür sollte beim Abkühlen verriegelt bleiben");
+        assertEquals(0, unlocks(state), "Beim Abkühlen sollte nicht entriegelt werden");
+        assertFalse(manager.tryOpenDoor(), "Die heiße Tür sollte sich nicht öffnen lassen");
+
+        for (int i = 0; i < 100_000 && state.getStatus() == DryerState.ProgramStatus.COOLING; i++) {
+            manager.tick(1000);
+        }
+        assertEquals(DryerState.ProgramStatus.IDLE, state.getStatus(), "Abgekühlter Trockner sollte bereit sein");
+        assertFalse(state.isDoorLocked(), "Die abgekühlte Tür sollte entriegelt sein");
+        assertEquals(1, unlocks(state), "Die Entriegelung sollte nur einmal protokolliert werden");
+    }
+
+    private static long unlocks(DryerState state) {
+        return state.getEventHistory().stream()
+                .filter(event -> event.getMessage().equals("Door unlocked"))
+                .count();
+    }
+
+    @Test // TC-002
+    void testFleetTickDoesNotAllocate() {
+        DryerFleet fleet = new DryerFleet(64);
+        for (int i = 0; i < fleet.size(); i++) {
+            fleet.get(i).getState().setFileLogging(false);
+        }
+        fleet.setPowerBudget(40_000);
+        fleet.startMixed("cotton", "synthetic", "wool");
+
+        long allocated = allocatedBytes(() -> fleet.tick(1));
+        assertTrue(fleet.getAggregates().count(DryerState.ProgramStatus.RUNNING) > 0, "Programme sollten noch laufen");
+        assertEquals(0, allocated, "Ein Flottentakt mit Kennzahlen und Leistungsbudget sollte nichts allokieren");
+    }
+}
@@ -0,0 +1,73 @@
+package clothdryer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testklasse für die vorberechneten Programmverläufe
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-004: Anzeige Restlaufzeit
+ * - TC-009: Abkühlfunktion
+ */
+public class TrajectoryTableTest {
+
+    @Test // TC-001, TC-009
+    void testTableMatchesSteppedSimulation() {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        TrajectoryTable table = simulation.getTrajectory("synthetic", 0.0);
+
+        simulation.startProgram("synthetic");
+        long timeMs = 0;
+        while (state.getStatus() != DryerState.ProgramStatus.IDLE) {
+            simulation.updateState(1000);
+            timeMs += 1000;
+            assertEquals(state.getTemperature(), table.getTemperature(timeMs), 1e-4, "Temperatur bei " + timeMs + " ms");
+            assertEquals(state.getHumidity(), table.getHumidity(timeMs), 1e-4, "Restfeuchte bei " + timeMs + " ms");
+            assertEquals(state.getStatus(), table.getStatus(timeMs), "Status bei " + timeMs + " ms");
+        }
+        assertEquals(timeMs, table.getCycleEndMs(), "Zyklusende sollte übereinstimmen");
+    }
+
+    @Test // TC-004
+    void testInterpolatesBetweenSamples() {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        TrajectoryTable table = simulation.getTrajectory("cotton", 0.0);
+
+        double before = table.getHumidity(10_000);
+        double after = table.getHumidity(11_000);
+        assertEquals((before + after) / 2, table.getHumidity(10_500), 1e-4, "Mittelwert zwischen zwei Stützstellen erwartet");
+        assertEquals(DryerState.ProgramStatus.IDLE, table.getStatus(table.getCycleEndMs() + 1),
+                "Nach Zyklusende sollte der Trockner bereit sein");
+
+        DryerState target = new DryerState();
+        table.applyTo(20_000, target);
+        assertEquals(table.getHumidity(20_000), target.getHumidity(), 1e-9, "Zustand sollte übernommen werden");
+    }
+
+    @Test // TC-001
+    void testCacheIsInvalidatedWhenParametersChange() {
+        DryerState state = new DryerState();
+        state.setFileLogging(false);
+        DryerSimulation simulation = new DryerSimulation(state, new SafetyModule(state));
+        TrajectoryTable first = simulation.getTrajectory("wool", 20.1);
+
+        assertSame(first, simulation.getTrajectory("wool", 19.9), "Ähnliche Starttemperatur sollte den Cache nutzen");
+        assertNull(simulation.getTrajectory("unknown", 20.0), "Unbekanntes Programm hat keinen Verlauf");
+
+        simulation.setProgramCatalog(ProgramCatalog.DEFAULT.withProfile(new ProgramProfile("wool", 40.0, 0.2, 1800)));
+        TrajectoryTable changed = simulation.getTrajectory("wool", 20.0);
+
+        assertNotSame(first, changed, "Geänderte Parameter sollten neu berechnet werden");
+        assertEquals(40.0, changed.getTemperature(changed.getDryingEndMs() - 1000), 1e-4,
+                "Neue Zieltemperatur sollte gelten");
+    }
+}
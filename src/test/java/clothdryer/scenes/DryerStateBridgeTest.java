@@ -0,0 +1,92 @@
+package clothdryer.scenes;
+
+import clothdryer.DryerState;
+import clothdryer.ProgramManager;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für die Brücke zwischen Trocknerzustand und JavaFX-Properties
+ *
+ * Traceability:
+ * - TC-004: Anzeige Restlaufzeit
+ * - TC-006: Programmabbruch durch Benutzer
+ */
+public class DryerStateBridgeTest extends ApplicationTest {
+
+    private ProgramManager programManager;
+    private DryerStateBridge bridge;
+    private final AtomicBoolean appliedOffFxThread = new AtomicBoolean(false);
+
+    @Override
+    public void start(Stage stage) {
+        programManager = new ProgramManager();
+        programManager.getState().setFileLogging(false);
+        bridge = new DryerStateBridge(programManager);
+        bridge.revisionProperty().addListener((observable, oldValue, newValue) -> {
+            if (!Platform.isFxApplicationThread()) {
+                appliedOffFxThread.set(true);
+            }
+        });
+    }
+
+    @Test // TC-004
+    void testCoalescesUpdatesBetweenPulses() throws InterruptedException {
+        long revisionBefore = bridge.revisionProperty().get();
+        CountDownLatch fxThreadBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            fxThreadBlocked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(fxThreadBlocked.await(10, TimeUnit.SECONDS), "FX-Thread sollte blockiert werden");
+
+        for (int i = 0; i < 1000; i++) {
+            bridge.publish();
+        }
+        release.countDown();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertEquals(revisionBefore + 1, bridge.revisionProperty().get(),
+                "Alle Aktualisierungen bis zum nächsten Puls sollten zusammengefasst werden");
+        assertFalse(appliedOffFxThread.get(), "Properties sollten nur im FX-Thread geändert werden");
+    }
+
+    @Test // TC-004
+    void testPublishesStateChangesOnFxThread() {
+        programManager.startProgram("cotton"); // notifies from the test thread
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertEquals(DryerState.ProgramStatus.RUNNING, bridge.statusProperty().get(), "Status sollte übernommen werden");
+        assertEquals("cotton", bridge.programNameProperty().get(), "Programm sollte übernommen werden");
+        assertTrue(bridge.statusTextProperty().get().contains("Läuft"), "Statustext sollte übernommen werden");
+        assertFalse(appliedOffFxThread.get(), "Properties sollten nur im FX-Thread geändert werden");
+    }
+
+    @Test // TC-006
+    void testDisposeStopsUpdates() {
+        programManager.startProgram("cotton");
+        WaitForAsyncUtils.waitForFxEvents();
+        interact(() -> bridge.dispose());
+        long revision = bridge.revisionProperty().get();
+
+        programManager.stopProgram();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertEquals(revision, bridge.revisionProperty().get(), "Nach dem Abmelden sollte nichts mehr übernommen werden");
+        assertEquals(DryerState.ProgramStatus.RUNNING, bridge.statusProperty().get(), "Letzter Stand sollte erhalten bleiben");
+    }
+}
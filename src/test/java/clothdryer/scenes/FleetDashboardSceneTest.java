@@ -0,0 +1,102 @@
+package clothdryer.scenes;
+
+import clothdryer.DryerFleet;
+import clothdryer.ProgramManager;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für die FleetDashboardScene (Flottenübersicht)
+ *
+ * Traceability:
+ * - TC-004: Anzeige Restlaufzeit
+ */
+public class FleetDashboardSceneTest extends ApplicationTest {
+
+    private static final int FLEET_SIZE = 10_000;
+    private static final int FRAMES = 60;
+    private static final double FRAME_BUDGET_MS = 1000.0 / 60;
+
+    private Stage stage;
+    private DryerFleet fleet;
+    private SceneNavigator navigator;
+
+    @Override
+    public void start(Stage stage) {
+        this.stage = stage;
+        ProgramManager programManager = new ProgramManager();
+        programManager.getState().setFileLogging(false);
+        fleet = new DryerFleet(FLEET_SIZE);
+        for (int i = 0; i < fleet.size(); i++) {
+            fleet.get(i).getState().setFileLogging(false);
+        }
+        fleet.startMixed("cotton", "synthetic", "wool");
+
+        navigator = new SceneNavigator(stage, programManager);
+        navigator.setFleet(fleet);
+        navigator.showFleetDashboard();
+        stage.show();
+    }
+
+    private FleetDashboardScene dashboard() {
+        return navigator.getFleetDashboardScene();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ListView<Integer> listView() {
+        return lookup(".list-view").queryAs(ListView.class);
+    }
+
+    @Test // TC-004
+    void testShowsEveryDryer() {
+        ListView<Integer> listView = listView();
+        assertEquals(FLEET_SIZE, listView.getItems().size(), "Jeder Trockner sollte eine Zeile haben");
+        assertTrue(lookup(".list-cell").queryAllAs(ListCell.class).stream()
+                        .anyMatch(cell -> cell.getText() != null && cell.getText().startsWith("#00001")),
+                "Die erste Zeile sollte angezeigt werden");
+    }
+
+    @Test // TC-004
+    void testDiscardedCellsAreCollected() {
+        int initialCells = dashboard().getCellCount();
+        for (int i = 0; i < 50; i++) {
+            interact(() -> listView().refresh()); // rebuilds all cells
+        }
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        interact(() -> { });
+
+        assertTrue(dashboard().getCellCount() <= 3 * Math.max(initialCells, 1),
+                "Verworfene Zellen sollten freigegeben werden (" + dashboard().getCellCount() + " Zellen)");
+    }
+
+    @Test // TC-004
+    void testRefreshFitsIntoFrameAtTenThousandDryers() {
+        interact(() -> dashboard().onHide()); // measure the refreshes of this test only
+        for (int i = 0; i < 10; i++) { // warm up
+            fleet.tick(1000);
+            interact(() -> dashboard().refresh());
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            fleet.tick(1000);
+            long[] elapsed = new long[1];
+            interact(() -> {
+                long start = System.nanoTime();
+                dashboard().refresh();
+                elapsed[0] = System.nanoTime() - start;
+            });
+            totalNanos += elapsed[0];
+        }
+        double meanMs = totalNanos / 1e6 / FRAMES;
+        assertTrue(meanMs < FRAME_BUDGET_MS,
+                "Aktualisierung bei " + FLEET_SIZE + " Trocknern sollte in ein Bild bei 60 fps passen (" + meanMs + " ms)");
+        assertSame(stage.getScene(), dashboard().getScene(), "Die Flottenübersicht sollte angezeigt werden");
+    }
+}
@@ -26,6 +26,7 @@ class ProgramSelectionTest extends ApplicationTest {
         this.stage = stage;
 
         programManager = new ProgramManager();
+        programManager.getState().setFileLogging(false);
         Thread managerThread = new Thread(programManager);
         managerThread.setDaemon(true); // Ensure the thread doesn't block application exit
         managerThread.start();
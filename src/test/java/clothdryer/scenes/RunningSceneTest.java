@@ -22,6 +22,7 @@ public class RunningSceneTest extends ApplicationTest {
     public void start(Stage stage) {
         this.stage = stage;
         programManager = new ProgramManager();
+        programManager.getState().setFileLogging(false);
 
         Thread managerThread = new Thread(programManager);
         managerThread.setDaemon(true); // Ensure the thread doesn't block application exit
@@ -0,0 +1,118 @@
+package clothdryer.scenes;
+
+import clothdryer.ProgramManager;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für die Szenenverwaltung (Wiederverwendung und Lebenszyklus)
+ *
+ * Traceability:
+ * - TC-001: Programmauswahl
+ * - TC-006: Programmabbruch durch Benutzer
+ */
+public class SceneNavigatorTest extends ApplicationTest {
+
+    private static final int CYCLES = 3000;
+    private static final int BATCH_CYCLES = 300;
+    private static final long IDLE_MS = 300;
+    private static final long IDLE_CPU_TOLERANCE_NANOS = 20_000_000;
+
+    private Stage stage;
+    private ProgramManager programManager;
+    private SceneNavigator navigator;
+
+    @Override
+    public void start(Stage stage) {
+        this.stage = stage;
+        programManager = new ProgramManager();
+        programManager.getState().setFileLogging(false);
+        navigator = new SceneNavigator(stage, programManager);
+        navigator.showProgramSelection();
+        stage.show();
+    }
+
+    private void runCycles(int count) {
+        interact(() -> {
+            for (int i = 0; i < count; i++) {
+                navigator.showRunning("cotton");
+                programManager.stopProgram();
+                navigator.showProgramSelection();
+            }
+        });
+    }
+
+    /**
+     * Lets the FX thread finish the work queued by the last navigations, then measures
+     * how much CPU time it spends while nothing happens. Timelines or timers left
+     * running by hidden scenes would make this grow from batch to batch.
+     *
+     * @return the CPU time of the FX thread during {@link #IDLE_MS}, in nanoseconds
+     */
+    private long idleFxCpuNanos() throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        WaitForAsyncUtils.waitForFxEvents();
+        long[] cpu = new long[1];
+        interact(() -> {
+            cpu[0] = threads.getCurrentThreadCpuTime();
+        });
+        long before = cpu[0];
+        Thread.sleep(IDLE_MS);
+        interact(() -> {
+            cpu[0] = threads.getCurrentThreadCpuTime();
+        });
+        return cpu[0] - before;
+    }
+
+    private long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test // TC-001, TC-006
+    void testScenesAreReusedAndPausedWhileHidden() {
+        runCycles(1);
+        Scene selectionScene = navigator.getProgramSelectionScene().getScene();
+        Scene runningScene = navigator.getRunningScene().getScene();
+
+        runCycles(10);
+
+        assertSame(selectionScene, navigator.getProgramSelectionScene().getScene(), "Auswahlszene sollte wiederverwendet werden");
+        assertSame(runningScene, navigator.getRunningScene().getScene(), "Laufszene sollte wiederverwendet werden");
+        assertSame(selectionScene, stage.getScene(), "Auswahlszene sollte angezeigt werden");
+        assertTrue(navigator.getProgramSelectionScene().isUpdating(), "Sichtbare Szene sollte aktualisiert werden");
+        assertFalse(navigator.getRunningScene().isUpdating(), "Verborgene Szene sollte pausiert sein");
+    }
+
+    @Test // TC-001, TC-006
+    void testSoakKeepsHeapAndFxLoadConstant() throws InterruptedException {
+        runCycles(200);
+        long heapBefore = usedHeapAfterGc();
+        long idleCpuBefore = idleFxCpuNanos();
+
+        // In batches, so the pulses, timers and callbacks of each batch run before the next one
+        for (int batch = 1; batch <= CYCLES / BATCH_CYCLES; batch++) {
+            runCycles(BATCH_CYCLES);
+            long idleCpu = idleFxCpuNanos();
+            assertTrue(idleCpu <= 2 * idleCpuBefore + IDLE_CPU_TOLERANCE_NANOS,
+                    "FX-Thread sollte nach Stapel " + batch + " nicht mehr zu tun haben (" + idleCpu / 1_000_000
+                            + " ms statt " + idleCpuBefore / 1_000_000 + " ms)");
+        }
+        long heapAfter = usedHeapAfterGc();
+
+        assertFalse(navigator.getRunningScene().isUpdating(), "Verborgene Szene sollte pausiert sein");
+        assertTrue(heapAfter - heapBefore < 16L * 1024 * 1024,
+                "Heap sollte nach " + CYCLES + " Programmzyklen nicht wachsen (Zuwachs: " + (heapAfter - heapBefore) + " Bytes)");
+    }
+}